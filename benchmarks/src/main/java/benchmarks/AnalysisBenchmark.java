@@ -0,0 +1,102 @@
+package benchmarks;
+
+import analysis.model.AnalysisState;
+import analysis.model.VariablesState;
+import analysis.visitor.AnalysisVisitor;
+import analysis.visitor.VisitorTestUtils;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.stmt.Statement;
+import logger.AnalysisLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to analyze a generated method (AnalysisVisitor), and bytes allocated per statement of the method.
+ * Vary one parameter at a time (i.e. -p ifDepth=1,2,4,8) to find where the analysis time grows superlinearly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnalysisBenchmark {
+    @Param({"2", "6"})
+    public int ifDepth;
+
+    @Param({"4"})
+    public int locals;
+
+    @Param({"1"})
+    public int loops;
+
+    @Param({"10", "100"})
+    public int loopBound;
+
+    @Param({"4"})
+    public int arrayAccesses;
+
+    @Param({"4"})
+    public int calls;
+
+    private String code;
+    private MethodDeclaration method;
+    private int statements;
+
+    /**
+     * Allocation counters, reported next to the time of the benchmark
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Allocation {
+        public double bytesPerStatement;
+        private long bytes;
+        private long statements;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytesPerStatement = 0;
+            bytes = 0;
+            statements = 0;
+        }
+
+        private void add(long allocatedBytes, int analyzedStatements) {
+            bytes += allocatedBytes;
+            statements += analyzedStatements;
+            bytesPerStatement = (double) bytes / statements;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        AnalysisLogger.setLog(false);
+        code = MethodCorpusGenerator.generate(
+                new MethodCorpusGenerator.Shape(ifDepth, locals, loops, loopBound, arrayAccesses, calls)
+        );
+    }
+
+    /**
+     * Parse the method again before every invocation: the resolved symbols and the callee summaries are cached
+     * in the data of the CompilationUnit, and a CompilationUnit shared by the invocations would measure them warm
+     */
+    @Setup(Level.Invocation)
+    public void parse() {
+        CompilationUnit compilationUnit = VisitorTestUtils.compile(code);
+        method = compilationUnit.findFirst(MethodDeclaration.class,
+                m -> m.getNameAsString().equals(MethodCorpusGenerator.METHOD_NAME)).orElseThrow();
+        statements = method.findAll(Statement.class, s -> !s.isBlockStmt()).size();
+    }
+
+    @Benchmark
+    public AnalysisState analyze(Allocation allocation) {
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threadBean.getCurrentThreadAllocatedBytes();
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        method.accept(new AnalysisVisitor(MethodCorpusGenerator.METHOD_NAME), analysisState);
+        allocation.add(threadBean.getCurrentThreadAllocatedBytes() - before, statements);
+        return analysisState;
+    }
+}
@@ -0,0 +1,107 @@
+package benchmarks;
+
+import analysis.values.*;
+import analysis.values.visitor.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Double dispatch (acceptAbstractOp) against dispatch on the kind tags of the values (OperationVisitor#apply).
+ * Each invocation runs an operation on a batch of pairs of values, so the call sites see every type of value,
+ * as they do when analyzing real code.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+    private static final int BATCH = 1024;
+
+    /**
+     * Share of the pairs that are two integer ranges (the other pairs are integers with ANY VALUE,
+     * booleans, strings, nulls, objects and boxed values)
+     */
+    @Param({"100", "80", "50"})
+    public int intPercent;
+
+    private final PossibleValues[] as = new PossibleValues[BATCH];
+    private final PossibleValues[] bs = new PossibleValues[BATCH];
+
+    private static final OperationVisitor<?>[] TRAINING_VISITORS = {
+            new MergeVisitor(), new WidenVisitor(), new NarrowVisitor(), new AddVisitor(), new SubtractVisitor(),
+            new MultiplyVisitor(), new DivideVisitor(), new RestrictEqualsVisitor(), new RestrictNotEqualsVisitor(),
+            RestrictLessThanVisitor.INSTANCE, RestrictGreaterThanVisitor.INSTANCE
+    };
+
+    private final MergeVisitor mergeVisitor = new MergeVisitor();
+    private final AddVisitor addVisitor = new AddVisitor();
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        PossibleValues[][] others = {
+                {new IntegerRange(0, 10), AnyValue.VALUE},
+                {BooleanValue.TRUE, BooleanValue.ANY_VALUE},
+                {new StringValue("value"), new StringValue(0, 10, true)},
+                {NullValue.VALUE, new ExtendableObjectValue(true)},
+                {new BoxedPrimitive(new IntegerRange(0, 10), true), new IntegerRange(5, 20)},
+                {new CharValue('a', 'z'), new CharValue('A', 'Z')}
+        };
+        for (int i = 0; i < BATCH; i++) {
+            if (random.nextInt(100) < intPercent) {
+                int min = random.nextInt(200) - 100;
+                as[i] = new IntegerRange(min, min + random.nextInt(100));
+                bs[i] = new IntegerRange(random.nextInt(10));
+            } else {
+                PossibleValues[] pair = others[random.nextInt(others.length)];
+                as[i] = pair[0];
+                bs[i] = pair[1];
+            }
+        }
+
+        // The analysis runs every visitor in the same JVM, so train both kinds of dispatch with all of them
+        // (otherwise the shared dispatch methods only ever see the visitor of the benchmark)
+        for (int round = 0; round < 20_000; round++) {
+            for (OperationVisitor<?> visitor : TRAINING_VISITORS) {
+                int i = round % BATCH;
+                as[i].acceptAbstractOp(visitor, bs[i]);
+                visitor.apply(as[i], bs[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void mergeDoubleDispatch(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) bh.consume(as[i].acceptAbstractOp(mergeVisitor, bs[i]));
+    }
+
+    @Benchmark
+    public void mergeTagDispatch(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) bh.consume(mergeVisitor.apply(as[i], bs[i]));
+    }
+
+    @Benchmark
+    public void addDoubleDispatch(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) bh.consume(as[i].acceptAbstractOp(addVisitor, bs[i]));
+    }
+
+    @Benchmark
+    public void addTagDispatch(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) bh.consume(addVisitor.apply(as[i], bs[i]));
+    }
+
+    @Benchmark
+    public void restrictDoubleDispatch(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) bh.consume(as[i].acceptAbstractOp(RestrictLessThanVisitor.INSTANCE, bs[i]));
+    }
+
+    @Benchmark
+    public void restrictTagDispatch(Blackhole bh) {
+        for (int i = 0; i < BATCH; i++) bh.consume(RestrictLessThanVisitor.INSTANCE.apply(as[i], bs[i]));
+    }
+}
@@ -0,0 +1,95 @@
+package benchmarks;
+
+/**
+ * Generator of synthetic Java methods with a controlled shape, for the end-to-end analysis benchmarks.
+ * The generated class has a method test, and helper methods with @Min/@Max and @Size annotated parameters.
+ */
+public final class MethodCorpusGenerator {
+    public static final String METHOD_NAME = "test";
+
+    /**
+     * Shape of the generated method
+     * @param ifDepth        Nesting depth of the if statements (each level has an if and an else branch)
+     * @param locals         Number of int local variables
+     * @param loops          Number of for loops (one after the other)
+     * @param loopBound      Number of iterations of each loop
+     * @param arrayAccesses  Number of array reads and writes
+     * @param calls          Number of calls to methods with annotated parameters
+     */
+    public record Shape(int ifDepth, int locals, int loops, int loopBound, int arrayAccesses, int calls) {
+        public Shape {
+            if (locals < 1) throw new IllegalArgumentException("The method needs at least one local variable");
+        }
+    }
+
+    private MethodCorpusGenerator() {
+    }
+
+    /**
+     * @return Source code of a class with the generated method
+     */
+    public static String generate(Shape shape) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("public class Corpus {\n");
+        sb.append("    int clamp(@Min(value = 0) @Max(value = 100) int value) {\n");
+        sb.append("        return value / 2;\n");
+        sb.append("    }\n\n");
+        sb.append("    int first(@Size(min = 1, max = 10) int[] values) {\n");
+        sb.append("        return values[0];\n");
+        sb.append("    }\n\n");
+        sb.append("    int ").append(METHOD_NAME).append("(int p, @Min(value = 1) @Max(value = 10) int n) {\n");
+
+        String indent = "        ";
+        for (int i = 0; i < shape.locals(); i++) {
+            line(sb, indent, "int v" + i + " = " + i + ";");
+        }
+        line(sb, indent, "int[] data = new int[10];");
+
+        appendIf(sb, indent, shape, 0);
+
+        for (int i = 0; i < shape.loops(); i++) {
+            line(sb, indent, "for (int i" + i + " = 0; i" + i + " < " + shape.loopBound() + "; i" + i + "++) {");
+            line(sb, indent + "    ", local(shape, i) + " = " + local(shape, i) + " + n;");
+            line(sb, indent, "}");
+        }
+
+        for (int i = 0; i < shape.arrayAccesses(); i++) {
+            if (i % 2 == 0) {
+                line(sb, indent, "data[" + (i % 10) + "] = " + local(shape, i) + ";");
+            } else {
+                line(sb, indent, local(shape, i) + " = data[" + (i % 10) + "];");
+            }
+        }
+
+        for (int i = 0; i < shape.calls(); i++) {
+            if (i % 2 == 0) {
+                line(sb, indent, local(shape, i) + " = clamp(n * " + (i + 1) + ");");
+            } else {
+                line(sb, indent, local(shape, i) + " = first(data);");
+            }
+        }
+
+        line(sb, indent, "return " + local(shape, 0) + ";");
+        sb.append("    }\n");
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    private static void appendIf(StringBuilder sb, String indent, Shape shape, int depth) {
+        if (depth >= shape.ifDepth()) return;
+        line(sb, indent, "if (p > " + depth + ") {");
+        line(sb, indent + "    ", local(shape, depth) + " = " + local(shape, depth) + " + " + (depth + 1) + ";");
+        appendIf(sb, indent + "    ", shape, depth + 1);
+        line(sb, indent, "} else {");
+        line(sb, indent + "    ", local(shape, depth) + " = " + local(shape, depth) + " - " + (depth + 1) + ";");
+        line(sb, indent, "}");
+    }
+
+    private static String local(Shape shape, int i) {
+        return "v" + (i % shape.locals());
+    }
+
+    private static void line(StringBuilder sb, String indent, String line) {
+        sb.append(indent).append(line).append("\n");
+    }
+}
@@ -0,0 +1,143 @@
+package benchmarks;
+
+import analysis.values.*;
+import analysis.values.visitor.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the double-dispatch operations of the value lattice (analysis.values.visitor)
+ * for representative pairs of values. Run with -prof gc to also measure the allocation rate.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueOperationsBenchmark {
+    /**
+     * Pairs of values:
+     * <ul>
+     *     <li>int-int: two integer ranges (most common in arithmetic and conditions)</li>
+     *     <li>int-constant: a range and a single integer (i.e. x + 1, x < 10)</li>
+     *     <li>int-any: a range and an unknown value</li>
+     *     <li>boxed-int: a boxed integer and a range (unboxing)</li>
+     *     <li>bool-bool, char-char, string-string: values of other primitive types and strings</li>
+     *     <li>null-object: null and a nullable object</li>
+     *     <li>array-array: two arrays with different lengths</li>
+     * </ul>
+     */
+    @Param({"int-int", "int-constant", "int-any", "boxed-int", "bool-bool", "char-char", "string-string", "null-object", "array-array"})
+    public String pair;
+
+    private PossibleValues a;
+    private PossibleValues b;
+
+    private final MergeVisitor mergeVisitor = new MergeVisitor();
+    private final IntersectVisitor intersectVisitor = new IntersectVisitor();
+    private final AddVisitor addVisitor = new AddVisitor();
+    private final MultiplyVisitor multiplyVisitor = new MultiplyVisitor();
+    private final DivideVisitor divideVisitor = new DivideVisitor();
+    private final RestrictEqualsVisitor restrictEqualsVisitor = new RestrictEqualsVisitor();
+    private final RestrictNotEqualsVisitor restrictNotEqualsVisitor = new RestrictNotEqualsVisitor();
+
+    @Setup
+    public void setup() {
+        switch (pair) {
+            case "int-int" -> {
+                a = new IntegerRange(-100, 100);
+                b = new IntegerRange(5, 1000);
+            }
+            case "int-constant" -> {
+                a = new IntegerRange(0, Integer.MAX_VALUE);
+                b = new IntegerRange(1);
+            }
+            case "int-any" -> {
+                a = new IntegerRange(-10, 10);
+                b = new AnyValue();
+            }
+            case "boxed-int" -> {
+                a = new BoxedPrimitive(new IntegerRange(0, 10), true);
+                b = new IntegerRange(5, 20);
+            }
+            case "bool-bool" -> {
+                a = BooleanValue.TRUE;
+                b = BooleanValue.ANY_VALUE;
+            }
+            case "char-char" -> {
+                a = new CharValue('a', 'z');
+                b = new CharValue('A', 'Z');
+            }
+            case "string-string" -> {
+                a = new StringValue("value");
+                b = new StringValue(0, 10, true);
+            }
+            case "null-object" -> {
+                a = NullValue.VALUE;
+                b = new ExtendableObjectValue(true);
+            }
+            case "array-array" -> {
+                a = new ArrayValue(new IntegerRange(0, 10), false);
+                b = new ArrayValue(new IntegerRange(5, 100), true);
+            }
+            default -> throw new IllegalArgumentException("Unknown pair: " + pair);
+        }
+    }
+
+    @Benchmark
+    public Object merge() {
+        return a.acceptAbstractOp(mergeVisitor, b);
+    }
+
+    @Benchmark
+    public Object intersect() {
+        return a.acceptAbstractOp(intersectVisitor, b);
+    }
+
+    @Benchmark
+    public Object add() {
+        return a.acceptAbstractOp(addVisitor, b);
+    }
+
+    @Benchmark
+    public Object multiply() {
+        return a.acceptAbstractOp(multiplyVisitor, b);
+    }
+
+    @Benchmark
+    public Object divide() {
+        return a.acceptAbstractOp(divideVisitor, b);
+    }
+
+    @Benchmark
+    public Object restrictEquals() {
+        return a.acceptAbstractOp(restrictEqualsVisitor, b);
+    }
+
+    @Benchmark
+    public Object restrictNotEquals() {
+        return a.acceptAbstractOp(restrictNotEqualsVisitor, b);
+    }
+
+    @Benchmark
+    public Object restrictLessThan() {
+        return a.acceptAbstractOp(RestrictLessThanVisitor.INSTANCE, b);
+    }
+
+    @Benchmark
+    public Object restrictLessThanOrEqual() {
+        return a.acceptAbstractOp(RestrictLessThanOrEqualVisitor.INSTANCE, b);
+    }
+
+    @Benchmark
+    public Object restrictGreaterThan() {
+        return a.acceptAbstractOp(RestrictGreaterThanVisitor.INSTANCE, b);
+    }
+
+    @Benchmark
+    public Object restrictGreaterThanOrEqual() {
+        return a.acceptAbstractOp(RestrictGreaterThanOrEqualVisitor.INSTANCE, b);
+    }
+}
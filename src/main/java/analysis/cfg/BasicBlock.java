@@ -0,0 +1,239 @@
+package analysis.cfg;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.Statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Straight-line sequence of nodes in a control flow graph, ended by a jump, a branch, or an exit
+ * <ul>
+ *     <li>Nodes are expression statements, expressions of a for loop (initialization and update) or of the resources
+ *     of a try statement, for-each loops (setting the variable at the start of their body),
+ *     and catch clauses (setting the parameter at the start of the block entered by their exceptions)</li>
+ *     <li>A block with a condition continues to the true block or the false block</li>
+ *     <li>A block with targets continues to any of them: the entries of a switch statement (after the selector),
+ *     the loop or the exit of a for-each loop (after the iterable), or the body or the exit of a for-each loop</li>
+ *     <li>A block with an exit statement (return or throw) leaves the method</li>
+ *     <li>A block that rethrows leaves the finally block entered by an exception, to the handlers of the block</li>
+ *     <li>A block with no successor and no exit statement falls off the end of the method</li>
+ *     <li>Handlers are the blocks entered by the exceptions thrown in the block (catch clauses and finally blocks
+ *     of the enclosing try statements, innermost first)</li>
+ * </ul>
+ */
+public final class BasicBlock {
+    private final List<Node> nodes;
+    private final List<BasicBlock> predecessors;
+    private BasicBlock next;
+    private Expression condition;
+    private Node conditionNode;
+    private String conditionLabel;
+    private BasicBlock trueBlock;
+    private BasicBlock falseBlock;
+    private List<BasicBlock> targets;
+    private List<BasicBlock> handlers;
+    private CatchClause catchClause;
+    private boolean isHandler;
+    private boolean isRethrow;
+    private Statement exitStatement;
+    private int index;
+    private boolean isLoopHeader;
+
+    BasicBlock() {
+        this.nodes = new ArrayList<>();
+        this.predecessors = new ArrayList<>();
+        this.targets = List.of();
+        this.handlers = List.of();
+        this.index = -1;
+    }
+
+    void addNode(Node node) {
+        nodes.add(node);
+    }
+
+    void setNext(BasicBlock next) {
+        this.next = next;
+    }
+
+    void setBranch(Expression condition, Node conditionNode, String conditionLabel, BasicBlock trueBlock, BasicBlock falseBlock) {
+        this.condition = condition;
+        this.conditionNode = conditionNode;
+        this.conditionLabel = conditionLabel;
+        this.trueBlock = trueBlock;
+        this.falseBlock = falseBlock;
+    }
+
+    void setTargets(Node conditionNode, String conditionLabel, List<BasicBlock> targets) {
+        this.conditionNode = conditionNode;
+        this.conditionLabel = conditionLabel;
+        this.targets = List.copyOf(targets);
+    }
+
+    void setHandlers(List<BasicBlock> handlers) {
+        this.handlers = handlers;
+    }
+
+    /**
+     * Mark the block as entered by exceptions
+     * @param catchClause Catch clause of the block, or null for a finally block (entered by any exception)
+     */
+    void setHandler(CatchClause catchClause) {
+        this.catchClause = catchClause;
+        this.isHandler = true;
+    }
+
+    void setRethrow() {
+        this.isRethrow = true;
+    }
+
+    void setExitStatement(Statement exitStatement) {
+        this.exitStatement = exitStatement;
+    }
+
+    void setIndex(int index) {
+        this.index = index;
+    }
+
+    void setLoopHeader() {
+        this.isLoopHeader = true;
+    }
+
+    void addPredecessor(BasicBlock predecessor) {
+        predecessors.add(predecessor);
+    }
+
+    /**
+     * @return Expression statements and for loop expressions of the block, in execution order
+     */
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * @return Blocks that continue to this block (each at most once)
+     */
+    public List<BasicBlock> getPredecessors() {
+        return Collections.unmodifiableList(predecessors);
+    }
+
+    /**
+     * @return Blocks this block continues to, then its handlers (each at most once)
+     */
+    public List<BasicBlock> getSuccessors() {
+        List<BasicBlock> successors = new ArrayList<>();
+        if (condition != null) {
+            successors.add(trueBlock);
+            successors.add(falseBlock);
+        } else if (next != null) {
+            successors.add(next);
+        } else {
+            successors.addAll(targets);
+        }
+        successors.addAll(handlers);
+        return successors;
+    }
+
+    /**
+     * @return Block to jump to, or null if the block branches or exits
+     */
+    public BasicBlock getNext() {
+        return next;
+    }
+
+    /**
+     * @return Condition ending the block, or null if the block does not branch
+     */
+    public Expression getCondition() {
+        return condition;
+    }
+
+    /**
+     * @return Node the errors of the condition belong to (the if statement, or the condition of a loop),
+     * or statement evaluated before continuing to the targets (the switch statement, or the for-each loop)
+     */
+    public Node getConditionNode() {
+        return conditionNode;
+    }
+
+    /**
+     * @return Name of the statement with the condition or the targets (i.e. IF, WHILE, SWITCH)
+     */
+    public String getConditionLabel() {
+        return conditionLabel;
+    }
+
+    public BasicBlock getTrueBlock() {
+        return trueBlock;
+    }
+
+    public BasicBlock getFalseBlock() {
+        return falseBlock;
+    }
+
+    /**
+     * @return Blocks that the block may continue to, or an empty list if the block does not end with targets
+     */
+    public List<BasicBlock> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return Blocks entered by the exceptions thrown in the block, innermost first
+     */
+    public List<BasicBlock> getHandlers() {
+        return handlers;
+    }
+
+    /**
+     * @return Catch clause of the block entered by exceptions, or null (i.e. a finally block)
+     */
+    public CatchClause getCatchClause() {
+        return catchClause;
+    }
+
+    /**
+     * @return True if the block is entered by exceptions (a catch clause, or a finally block)
+     */
+    public boolean isHandler() {
+        return isHandler;
+    }
+
+    /**
+     * @return True if the block ends by throwing the exception that entered a finally block again
+     */
+    public boolean isRethrow() {
+        return isRethrow;
+    }
+
+    /**
+     * @return Return or throw statement ending the block, or null if the block does not exit the method
+     */
+    public Statement getExitStatement() {
+        return exitStatement;
+    }
+
+    /**
+     * @return True if the block falls off the end of the method
+     */
+    public boolean isEnd() {
+        return condition == null && next == null && targets.isEmpty() && exitStatement == null && !isRethrow;
+    }
+
+    /**
+     * @return Index of the block in reverse postorder (the entry block is 0)
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * @return True if the block is the target of a back edge (the head of a loop)
+     */
+    public boolean isLoopHeader() {
+        return isLoopHeader;
+    }
+}
@@ -0,0 +1,118 @@
+package analysis.cfg;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.stmt.BlockStmt;
+
+import java.util.*;
+
+/**
+ * Control flow graph of a method body, made of basic blocks
+ * <ul>
+ *     <li>Blocks are numbered in reverse postorder from the entry block, so every block comes before its successors
+ *     except along the back edge of a loop, and the blocks of a loop come before the blocks after it</li>
+ *     <li>Only blocks reachable from the entry block are kept</li>
+ *     <li>The graph of a method is built once and kept in the data of the method declaration</li>
+ * </ul>
+ */
+public final class ControlFlowGraph {
+    private static final DataKey<ControlFlowGraph> CFG_KEY = new DataKey<>() {
+    };
+
+    private final List<BasicBlock> blocks;
+
+    private ControlFlowGraph(List<BasicBlock> blocks) {
+        this.blocks = blocks;
+    }
+
+    /**
+     * @return Control flow graph of the body of the method (built on first use)
+     */
+    public static ControlFlowGraph forMethod(MethodDeclaration dec) {
+        BlockStmt body = dec.getBody().orElseThrow(() -> new IllegalArgumentException("Method has no body"));
+        synchronized (dec) {
+            if (dec.containsData(CFG_KEY)) return dec.getData(CFG_KEY);
+            ControlFlowGraph cfg = build(body);
+            dec.setData(CFG_KEY, cfg);
+            return cfg;
+        }
+    }
+
+    /**
+     * Build the control flow graph of a block (without caching it)
+     */
+    public static ControlFlowGraph build(BlockStmt body) {
+        BasicBlock entry = new ControlFlowGraphBuilder().build(body);
+        return new ControlFlowGraph(number(entry));
+    }
+
+    /**
+     * Number the blocks reachable from the entry block in reverse postorder, and mark the targets of back edges
+     * as loop headers (iterative depth-first search, so long methods do not overflow the stack)
+     * <ul>
+     *     <li>Successors are searched last first, so the body of a loop (true block) is numbered before its exit
+     *     (false block), and a loop reaches its fixpoint before the code after it is analyzed</li>
+     * </ul>
+     */
+    private static List<BasicBlock> number(BasicBlock entry) {
+        List<BasicBlock> postorder = new ArrayList<>();
+        Set<BasicBlock> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<BasicBlock> onStack = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<BasicBlock, Integer> nextSuccessor = new IdentityHashMap<>();
+        Deque<BasicBlock> stack = new ArrayDeque<>();
+        visited.add(entry);
+        onStack.add(entry);
+        stack.push(entry);
+        while (!stack.isEmpty()) {
+            BasicBlock block = stack.peek();
+            List<BasicBlock> successors = block.getSuccessors();
+            int i = nextSuccessor.getOrDefault(block, successors.size()) - 1;
+            if (i >= 0) {
+                nextSuccessor.put(block, i);
+                BasicBlock successor = successors.get(i);
+                if (onStack.contains(successor)) {
+                    successor.setLoopHeader();
+                } else if (visited.add(successor)) {
+                    onStack.add(successor);
+                    stack.push(successor);
+                }
+            } else {
+                stack.pop();
+                onStack.remove(block);
+                postorder.add(block);
+            }
+        }
+
+        Collections.reverse(postorder);
+        for (int i = 0; i < postorder.size(); i++) postorder.get(i).setIndex(i);
+        for (BasicBlock block : postorder) {
+            for (BasicBlock successor : block.getSuccessors()) successor.addPredecessor(block);
+        }
+        return Collections.unmodifiableList(postorder);
+    }
+
+    /**
+     * @return Block where the method starts
+     */
+    public BasicBlock getEntry() {
+        return blocks.get(0);
+    }
+
+    /**
+     * @return All blocks in reverse postorder
+     */
+    public List<BasicBlock> getBlocks() {
+        return blocks;
+    }
+
+    public BasicBlock getBlock(int index) {
+        return blocks.get(index);
+    }
+
+    /**
+     * @return Number of blocks
+     */
+    public int size() {
+        return blocks.size();
+    }
+}
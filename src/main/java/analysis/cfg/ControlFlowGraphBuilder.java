@@ -0,0 +1,365 @@
+package analysis.cfg;
+
+import analysis.exceptions.UnsupportedNodeException;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.SimpleName;
+import com.github.javaparser.ast.stmt.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lowers the statements of a method body into basic blocks
+ * <ul>
+ *     <li>Every branch and loop creates new blocks, so the successors of a block are always different blocks</li>
+ *     <li>Statements after a jump (break, continue, return, throw) go into a block without predecessors,
+ *     which is dropped when the graph is numbered</li>
+ *     <li>The blocks of a try statement are entered by exceptions: the blocks of the try block have the catch clauses
+ *     as handlers, then the finally block, then the handlers outside the statement</li>
+ *     <li>The finally block is lowered once after the try and catch blocks, once for the exceptions leaving them
+ *     (rethrown at the end), and once for each break or continue leaving them.
+ *     Returns leave the method without running it (as in AnalysisVisitor)</li>
+ *     <li>Statements that the analysis does not support throw an UnsupportedNodeException</li>
+ * </ul>
+ */
+final class ControlFlowGraphBuilder {
+    /**
+     * Blocks that break and continue jump to inside a loop, switch or labeled statement,
+     * or finally block that they run when leaving a try statement
+     * @param continueBlock Block to continue to, or null if the statement is not a loop
+     * @param isBreakTarget True if a break without label jumps to the break block (loops and switch statements)
+     * @param finallyBlock  Finally block of a try statement (which has no break block), or null
+     * @param handlers      Handlers outside the try statement
+     */
+    private record JumpTargets(String label, BasicBlock breakBlock, BasicBlock continueBlock, boolean isBreakTarget,
+                               BlockStmt finallyBlock, List<BasicBlock> handlers) {
+        private JumpTargets(String label, BasicBlock breakBlock, BasicBlock continueBlock, boolean isBreakTarget) {
+            this(label, breakBlock, continueBlock, isBreakTarget, null, null);
+        }
+    }
+
+    private final Deque<JumpTargets> jumpTargets;
+    private BasicBlock current; // Block that the next statement is added to, null after a jump
+    private List<BasicBlock> handlers; // Handlers of the blocks created for the next statement
+
+    ControlFlowGraphBuilder() {
+        this.jumpTargets = new ArrayDeque<>();
+        this.handlers = List.of();
+    }
+
+    /**
+     * @return Entry block of the body
+     */
+    BasicBlock build(BlockStmt body) {
+        BasicBlock entry = newBlock();
+        current = entry;
+        lower(body, null);
+        return entry;
+    }
+
+    /**
+     * @return New block entered by the exceptions of the current handlers
+     */
+    private BasicBlock newBlock() {
+        BasicBlock block = new BasicBlock();
+        block.setHandlers(handlers);
+        return block;
+    }
+
+    /**
+     * Add a statement to the current block, creating new blocks for its control flow
+     * @param label Label of the statement, or null
+     */
+    private void lower(Statement s, String label) {
+        if (current == null) current = newBlock();
+        if (s instanceof BlockStmt block) {
+            if (label != null) {
+                lowerLabeled(block, label);
+            } else {
+                for (Statement statement : block.getStatements()) lower(statement, null);
+            }
+        } else if (s instanceof ExpressionStmt) {
+            current.addNode(s);
+        } else if (s instanceof IfStmt ifStmt) {
+            if (label != null) {
+                lowerLabeled(ifStmt, label);
+            } else {
+                lowerIf(ifStmt);
+            }
+        } else if (s instanceof WhileStmt whileStmt) {
+            lowerLoop(label, "WHILE", whileStmt.getCondition(), whileStmt.getCondition(), whileStmt.getBody(), null);
+        } else if (s instanceof ForStmt forStmt) {
+            for (Expression e : forStmt.getInitialization()) current.addNode(e);
+            Expression compare = forStmt.getCompare().orElse(null);
+            lowerLoop(label, "FOR", compare, compare, forStmt.getBody(), forStmt.getUpdate());
+        } else if (s instanceof LabeledStmt labeledStmt) {
+            lower(labeledStmt.getStatement(), labeledStmt.getLabel().asString());
+        } else if (s instanceof BreakStmt breakStmt) {
+            JumpTargets targets = findTargets(breakStmt.getLabel().map(SimpleName::asString).orElse(null), false);
+            jumpOut(targets, targets.breakBlock());
+        } else if (s instanceof ContinueStmt continueStmt) {
+            JumpTargets targets = findTargets(continueStmt.getLabel().map(SimpleName::asString).orElse(null), true);
+            jumpOut(targets, targets.continueBlock());
+        } else if (s instanceof ReturnStmt || s instanceof ThrowStmt) {
+            current.setExitStatement(s);
+            current = null;
+        } else if (s instanceof SwitchStmt switchStmt) {
+            lowerSwitch(label, switchStmt);
+        } else if (s instanceof YieldStmt) {
+            throw new UnsupportedNodeException("YIELD statements are not supported");
+        } else if (s instanceof DoStmt doStmt) {
+            lowerDoWhile(label, doStmt);
+        } else if (s instanceof ForEachStmt forEachStmt) {
+            lowerForEach(label, forEachStmt);
+        } else if (s instanceof TryStmt tryStmt) {
+            if (label != null) {
+                lowerLabeled(tryStmt, label);
+            } else {
+                lowerTry(tryStmt);
+            }
+        }
+        // Any other statement does not change the variables (as in AnalysisVisitor)
+    }
+
+    private void lowerIf(IfStmt n) {
+        BasicBlock thenBlock = newBlock();
+        BasicBlock elseBlock = newBlock();
+        BasicBlock joinBlock = n.getElseStmt().isPresent() ? newBlock() : elseBlock;
+        current.setBranch(n.getCondition(), n, "IF", thenBlock, elseBlock);
+
+        current = thenBlock;
+        lower(n.getThenStmt(), null);
+        jump(joinBlock);
+        if (n.getElseStmt().isPresent()) {
+            current = elseBlock;
+            lower(n.getElseStmt().get(), null);
+            jump(joinBlock);
+        }
+        current = joinBlock;
+    }
+
+    /**
+     * Lower a loop into a header block (checking the condition), the body, an update block, and an exit block
+     * @param compare Condition of the loop, or null if the loop only exits by jumping
+     * @param update  Update expressions (i.e. for loop), or null
+     */
+    private void lowerLoop(String label, String loopName, Expression compare, Expression conditionNode, Statement body, Iterable<Expression> update) {
+        BasicBlock headerBlock = newBlock();
+        BasicBlock bodyBlock = newBlock();
+        BasicBlock updateBlock = update != null ? newBlock() : headerBlock;
+        BasicBlock exitBlock = newBlock();
+        jump(headerBlock);
+        if (compare != null) {
+            headerBlock.setBranch(compare, conditionNode, loopName, bodyBlock, exitBlock);
+        } else {
+            headerBlock.setNext(bodyBlock);
+        }
+
+        jumpTargets.push(new JumpTargets(label, exitBlock, updateBlock, true));
+        current = bodyBlock;
+        lower(body, null);
+        jumpTargets.pop();
+        jump(updateBlock);
+
+        if (update != null) {
+            for (Expression e : update) updateBlock.addNode(e);
+            updateBlock.setNext(headerBlock);
+        }
+        current = exitBlock;
+    }
+
+    /**
+     * Lower a do-while loop into the body (the loop header), a condition block, and an exit block
+     */
+    private void lowerDoWhile(String label, DoStmt n) {
+        BasicBlock bodyBlock = newBlock();
+        BasicBlock conditionBlock = newBlock();
+        BasicBlock exitBlock = newBlock();
+        jump(bodyBlock);
+        conditionBlock.setBranch(n.getCondition(), n.getCondition(), "DO-WHILE", bodyBlock, exitBlock);
+
+        jumpTargets.push(new JumpTargets(label, exitBlock, conditionBlock, true));
+        current = bodyBlock;
+        lower(n.getBody(), null);
+        jumpTargets.pop();
+        jump(conditionBlock);
+        current = exitBlock;
+    }
+
+    /**
+     * Lower a for-each loop into the block evaluating the iterable (which skips the loop if the iterable is empty),
+     * a header block, the body (starting with the for-each loop, which sets the variable), and an exit block
+     */
+    private void lowerForEach(String label, ForEachStmt n) {
+        BasicBlock headerBlock = newBlock();
+        BasicBlock bodyBlock = newBlock();
+        BasicBlock exitBlock = newBlock();
+        current.setTargets(n, "FOR-EACH ITERABLE", List.of(headerBlock, exitBlock));
+        headerBlock.setTargets(null, "FOR-EACH", List.of(bodyBlock, exitBlock));
+        bodyBlock.addNode(n);
+
+        jumpTargets.push(new JumpTargets(label, exitBlock, headerBlock, true));
+        current = bodyBlock;
+        lower(n.getBody(), null);
+        jumpTargets.pop();
+        jump(headerBlock);
+        current = exitBlock;
+    }
+
+    /**
+     * Lower a switch statement into the block evaluating the selector, which continues to any entry
+     * (and to the exit block if there is no default entry), the entries, and an exit block
+     * <ul>
+     *     <li>Entries of statements (case X:) fall through to the next entry</li>
+     *     <li>Entries with arrows (case X ->) jump to the exit block</li>
+     * </ul>
+     */
+    private void lowerSwitch(String label, SwitchStmt n) {
+        BasicBlock switchBlock = current;
+        BasicBlock exitBlock = newBlock();
+        List<BasicBlock> targets = new ArrayList<>();
+        boolean hasDefault = false;
+        current = null;
+
+        jumpTargets.push(new JumpTargets(label, exitBlock, null, true));
+        for (SwitchEntry entry : n.getEntries()) {
+            if (entry.getLabels().isEmpty()) hasDefault = true;
+            BasicBlock entryBlock = newBlock();
+            targets.add(entryBlock);
+            jump(entryBlock);
+            current = entryBlock;
+            for (Statement statement : entry.getStatements()) lower(statement, null);
+            if (entry.getType() != SwitchEntry.Type.STATEMENT_GROUP) jump(exitBlock);
+        }
+        jumpTargets.pop();
+        jump(exitBlock);
+
+        if (!hasDefault) targets.add(exitBlock);
+        switchBlock.setTargets(n, "SWITCH", targets);
+        current = exitBlock;
+    }
+
+    /**
+     * Lower a try statement into the try block, a block for each catch clause (entered by the exceptions of the try
+     * block), the finally block entered by exceptions, and the finally block after the try and catch blocks
+     */
+    private void lowerTry(TryStmt n) {
+        for (Expression resource : n.getResources()) current.addNode(resource);
+        BasicBlock beforeBlock = current;
+        List<BasicBlock> outerHandlers = handlers;
+        BlockStmt finallyBlock = n.getFinallyBlock().orElse(null);
+
+        // Finally block entered by the exceptions leaving the try and catch blocks, which throws them again
+        List<BasicBlock> catchHandlers = outerHandlers;
+        if (finallyBlock != null) {
+            BasicBlock finallyHandler = newBlock();
+            finallyHandler.setHandler(null);
+            current = finallyHandler;
+            lower(finallyBlock, null);
+            if (current != null) current.setRethrow();
+            catchHandlers = new ArrayList<>();
+            catchHandlers.add(finallyHandler);
+            catchHandlers.addAll(outerHandlers);
+        }
+
+        handlers = catchHandlers;
+        List<BasicBlock> tryHandlers = new ArrayList<>();
+        for (CatchClause catchClause : n.getCatchClauses()) {
+            BasicBlock catchBlock = newBlock();
+            catchBlock.setHandler(catchClause);
+            catchBlock.addNode(catchClause);
+            tryHandlers.add(catchBlock);
+        }
+        tryHandlers.addAll(catchHandlers);
+
+        handlers = outerHandlers;
+        BasicBlock exitBlock = newBlock();
+        if (finallyBlock != null) jumpTargets.push(new JumpTargets(null, null, null, false, finallyBlock, outerHandlers));
+
+        handlers = tryHandlers;
+        BasicBlock tryBlock = newBlock();
+        current = beforeBlock;
+        jump(tryBlock);
+        current = tryBlock;
+        lower(n.getTryBlock(), null);
+        jump(exitBlock);
+
+        handlers = catchHandlers;
+        for (int i = 0; i < n.getCatchClauses().size(); i++) {
+            current = tryHandlers.get(i);
+            lower(n.getCatchClauses().get(i).getBody(), null);
+            jump(exitBlock);
+        }
+
+        if (finallyBlock != null) jumpTargets.pop();
+        handlers = outerHandlers;
+        current = exitBlock;
+        if (finallyBlock != null) lower(finallyBlock, null);
+    }
+
+    /**
+     * Lower a labeled statement that is not a loop (it can only be left with a labeled break)
+     */
+    private void lowerLabeled(Statement s, String label) {
+        BasicBlock exitBlock = newBlock();
+        jumpTargets.push(new JumpTargets(label, exitBlock, null, false));
+        lower(s, null);
+        jumpTargets.pop();
+        jump(exitBlock);
+        current = exitBlock;
+    }
+
+    /**
+     * @param label      Label of the jump, or null for the innermost loop (or switch statement for a break)
+     * @param isContinue True if the jump is a continue (which can only target loops)
+     */
+    private JumpTargets findTargets(String label, boolean isContinue) {
+        for (JumpTargets targets : jumpTargets) {
+            boolean isTarget;
+            if (label != null) {
+                isTarget = Objects.equals(label, targets.label());
+            } else {
+                isTarget = isContinue ? targets.continueBlock() != null : targets.isBreakTarget();
+            }
+            if (isTarget) {
+                if (isContinue && targets.continueBlock() == null) break;
+                return targets;
+            }
+        }
+        throw new UnsupportedNodeException((isContinue ? "CONTINUE" : "BREAK") + " outside of a loop is not supported");
+    }
+
+    /**
+     * Jump out of the statements inside the statement of the targets, running the finally blocks of the try statements
+     * left on the way (each lowered again, with the jump targets and handlers outside its try statement)
+     */
+    private void jumpOut(JumpTargets targets, BasicBlock target) {
+        Deque<JumpTargets> innerTargets = new ArrayDeque<>();
+        List<BasicBlock> innerHandlers = handlers;
+        while (jumpTargets.peek() != targets) {
+            JumpTargets inner = jumpTargets.pop();
+            innerTargets.push(inner);
+            if (inner.finallyBlock() != null && current != null) {
+                handlers = inner.handlers();
+                BasicBlock finallyBlock = newBlock();
+                jump(finallyBlock);
+                current = finallyBlock;
+                lower(inner.finallyBlock(), null);
+            }
+        }
+        jump(target);
+        while (!innerTargets.isEmpty()) jumpTargets.push(innerTargets.pop());
+        handlers = innerHandlers;
+    }
+
+    /**
+     * End the current block with a jump to the target (unless it already ended with a jump)
+     */
+    private void jump(BasicBlock target) {
+        if (current != null) current.setNext(target);
+        current = null;
+    }
+}
@@ -2,18 +2,42 @@ package analysis.model;
 
 import com.github.javaparser.ast.Node;
 
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
  * Error found by the analysis
+ * <ul>
+ *     <li>The error only keeps its kind (exception name or message format), node, definiteness and arguments.
+ *     The message is rendered when it is first requested (i.e. when reporting), since printing a node prints its whole subtree.</li>
+ *     <li>Errors are equal if they have the same kind and arguments at the same node (by identity),
+ *     so recreating an error at a node (i.e. in every iteration of a loop) does not add a new error</li>
+ * </ul>
  */
 public class AnalysisError {
-    private final String message;
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final String kind;
+    private final Node node;
     private final boolean isDefinite;
+    private final Object[] args;
+    private String message;
 
-    public AnalysisError(String message, boolean isDefinite) {
-        this.message = message;
+    /**
+     * @param kind       Exception name or format of the message
+     * @param node       Node of the error, appended to the message (null for none)
+     * @param isDefinite True if the error always happens
+     * @param args       Arguments of the format (the kind is used as the message if there are none)
+     */
+    public AnalysisError(String kind, Node node, boolean isDefinite, Object... args) {
+        this.kind = kind;
+        this.node = node;
         this.isDefinite = isDefinite;
+        this.args = args == null ? NO_ARGS : args;
+    }
+
+    public AnalysisError(String message, boolean isDefinite) {
+        this(message, null, isDefinite, NO_ARGS);
     }
 
     @Deprecated
@@ -26,23 +50,36 @@ public class AnalysisError {
     }
 
     public AnalysisError(Class<? extends RuntimeException> exception, Node n, boolean isDefinite) {
-        this(exception.getSimpleName() + ": " + n.toString(), isDefinite);
+        this(exception.getSimpleName(), n, isDefinite, NO_ARGS);
     }
 
     public AnalysisError(String exception, Node n, boolean isDefinite) {
-        this(exception + ": " + n.toString(), isDefinite);
+        this(exception, n, isDefinite, NO_ARGS);
     }
 
     public String getMessage() {
+        if (message == null) {
+            String text = args.length == 0 ? kind : String.format(kind, args);
+            message = node == null ? text : text + ": " + node;
+        }
         return message;
     }
 
+    public String getKind() {
+        return kind;
+    }
+
+    public Node getNode() {
+        return node;
+    }
+
     public boolean isDefinite() {
         return isDefinite;
     }
 
     public AnalysisError atNode(Node node) {
-        return new AnalysisError(this.message + ": " + node, this.isDefinite);
+        if (this.node == null) return new AnalysisError(this.kind, node, this.isDefinite, this.args);
+        return new AnalysisError(this.getMessage(), node, this.isDefinite, NO_ARGS);
     }
 
     @Override
@@ -50,11 +87,19 @@ public class AnalysisError {
         if (this == o) return true;
         if (!(o instanceof AnalysisError that)) return false;
 
-        return Objects.equals(message, that.message);
+        return node == that.node && Objects.equals(kind, that.kind) && Arrays.equals(args, that.args);
     }
 
     @Override
     public int hashCode() {
-        return message != null ? message.hashCode() : 0;
+        int result = kind != null ? kind.hashCode() : 0;
+        result = 31 * result + System.identityHashCode(node);
+        result = 31 * result + Arrays.hashCode(args);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
     }
 }
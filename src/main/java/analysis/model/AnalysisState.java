@@ -1,20 +1,99 @@
 package analysis.model;
 
+import analysis.values.visitor.MergeVisitor;
 import com.github.javaparser.ast.Node;
 
 import java.util.*;
 
 /**
  * State of the analysis
+ * <ul>
+ *     <li>Inside a try block whose catch clauses may catch runtime exceptions, the states that may throw a runtime
+ *     exception (i.e. before each expression) are merged into the runtime throw state</li>
+ *     <li>Nested states (i.e. of branches, see nested) have their own runtime throw state, which is merged into the
+ *     enclosing one with add, so branches analyzed in parallel do not share it</li>
+ *     <li>Nested states share the outline of the diagram (see DiagramOutline), except branches analyzed in parallel
+ *     (see branch)</li>
+ * </ul>
  */
 public class AnalysisState {
     private VariablesState variablesState;
 
     private Map<Node, Set<AnalysisError>> errorMap;
 
+    private final VariablesState runtimeThrowState; // Merged states that may throw a runtime exception, null if not recorded
+
+    private final DiagramOutline outline;
+
     public AnalysisState(VariablesState variablesState) {
+        this(variablesState, false);
+    }
+
+    /**
+     * @param recordRuntimeThrows True to record the states that may throw a runtime exception (see getRuntimeThrowState)
+     */
+    public AnalysisState(VariablesState variablesState, boolean recordRuntimeThrows) {
+        this(variablesState, recordRuntimeThrows, DiagramOutline.NONE);
+    }
+
+    /**
+     * @param outline Outline to record the statements of the diagram into while they are analyzed
+     */
+    public AnalysisState(VariablesState variablesState, DiagramOutline outline) {
+        this(variablesState, false, outline);
+    }
+
+    private AnalysisState(VariablesState variablesState, boolean recordRuntimeThrows, DiagramOutline outline) {
         this.variablesState = variablesState;
         this.errorMap = new HashMap<>();
+        this.runtimeThrowState = recordRuntimeThrows ? VariablesState.createEmpty() : null;
+        this.outline = outline;
+    }
+
+    /**
+     * @return State of a statement nested in this one, recording runtime throws if this state records them
+     */
+    public AnalysisState nested(VariablesState variablesState) {
+        return new AnalysisState(variablesState, isRecordingRuntimeThrows(), outline);
+    }
+
+    /**
+     * @return State of a branch analyzed on another thread, like nested but with its own outline
+     * (added to this outline with getOutline().addAll)
+     */
+    public AnalysisState branch(VariablesState variablesState) {
+        return new AnalysisState(variablesState, isRecordingRuntimeThrows(), outline.branch());
+    }
+
+    public DiagramOutline getOutline() {
+        return outline;
+    }
+
+    public boolean isRecordingRuntimeThrows() {
+        return runtimeThrowState != null;
+    }
+
+    /**
+     * @return Merged states that may throw a runtime exception (empty if not recorded)
+     */
+    public VariablesState getRuntimeThrowState() {
+        return runtimeThrowState == null ? VariablesState.createEmpty() : runtimeThrowState;
+    }
+
+    /**
+     * Record a state that may throw a runtime exception (if runtime throws are recorded)
+     */
+    public void addRuntimeThrowState(MergeVisitor mergeVisitor, VariablesState state) {
+        if (runtimeThrowState == null || state.isDomainEmpty()) return;
+        runtimeThrowState.merge(mergeVisitor, state);
+    }
+
+    /**
+     * Add the errors and the runtime throw state of a nested state
+     */
+    public void add(MergeVisitor mergeVisitor, AnalysisState nested) {
+        addErrors(nested);
+        if (nested.runtimeThrowState != null) addRuntimeThrowState(mergeVisitor, nested.runtimeThrowState);
     }
 
     public VariablesState getVariablesState() {
@@ -0,0 +1,88 @@
+package analysis.model;
+
+import com.github.javaparser.ast.stmt.Statement;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Statements of a method in the order of its diagram, recorded while the method is analyzed
+ * <ul>
+ *     <li>Statements are recorded the first time the analysis reaches them (loop bodies in their first iteration),
+ *     and the diagram is drawn from the steps once the errors of the whole method are known</li>
+ *     <li>Statements that the analysis does not reach (i.e. after a return) are recorded as a whole (TREE)</li>
+ *     <li>Recording is suspended where the diagram does not draw the statements (i.e. in try and switch statements)
+ *     and for the iterations of a loop after the first one</li>
+ * </ul>
+ */
+public final class DiagramOutline {
+    /**
+     * Outline that records nothing (the diagram of the method is not drawn)
+     */
+    public static final DiagramOutline NONE = new DiagramOutline(null);
+
+    public enum Kind {
+        /** Statement without nested statements */
+        STATEMENT,
+        /** Start of a statement with nested statements (i.e. if condition, loop condition) */
+        OPEN,
+        /** Start of the else branch of an if statement */
+        ELSE,
+        /** End of a statement with nested statements */
+        CLOSE,
+        /** Statement with all its nested statements */
+        TREE
+    }
+
+    public record Step(Kind kind, Statement statement) {
+    }
+
+    private final List<Step> steps; // null if nothing is recorded
+    private int suspended;
+
+    public DiagramOutline() {
+        this(new ArrayList<>());
+    }
+
+    private DiagramOutline(List<Step> steps) {
+        this.steps = steps;
+    }
+
+    public boolean isRecording() {
+        return steps != null && suspended == 0;
+    }
+
+    public void add(Kind kind, Statement statement) {
+        if (isRecording()) steps.add(new Step(kind, statement));
+    }
+
+    /**
+     * Stop recording until resume is called (suspensions can be nested)
+     */
+    public void suspend() {
+        if (steps != null) suspended++;
+    }
+
+    public void resume() {
+        if (steps != null) suspended--;
+    }
+
+    /**
+     * @return Outline of a branch analyzed on another thread, recording if this one is recording (see addAll)
+     */
+    public DiagramOutline branch() {
+        return isRecording() ? new DiagramOutline() : NONE;
+    }
+
+    /**
+     * Add the steps of a branch after the steps of this outline
+     */
+    public void addAll(DiagramOutline branch) {
+        if (isRecording() && branch.steps != null) steps.addAll(branch.steps);
+    }
+
+    public List<Step> getSteps() {
+        return steps == null ? List.of() : Collections.unmodifiableList(steps);
+    }
+}
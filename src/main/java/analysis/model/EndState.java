@@ -1,24 +1,36 @@
 package analysis.model;
 
+import analysis.values.PossibleValues;
+
 import java.util.HashSet;
 import java.util.Set;
 
 /**
- * State for end of statement/block (tracking early returns/breaks/continues)
+ * State for end of statement/block (tracking early returns/breaks/continues/throws)
  */
 public class EndState {
     public Set<VariablesState> breakStates;
     public Set<VariablesState> continueStates;
+    public Set<PossibleValues> returnValues;
+    public Set<ThrowState> throwStates;
 
     public EndState() {
         this.breakStates = new HashSet<>();
         this.continueStates = new HashSet<>();
+        this.returnValues = new HashSet<>();
+        this.throwStates = new HashSet<>();
     }
 
     public void add(EndState other) {
         if (other == null) return;
         this.breakStates.addAll(other.breakStates);
         this.continueStates.addAll(other.continueStates);
+        this.returnValues.addAll(other.returnValues);
+        this.throwStates.addAll(other.throwStates);
+    }
+
+    public void addReturnValue(PossibleValues value) {
+        this.returnValues.add(value);
     }
 
     public void addBreakState(VariablesState state) {
@@ -29,6 +41,10 @@ public class EndState {
         this.continueStates.add(state);
     }
 
+    public void addThrowState(ThrowState state) {
+        this.throwStates.add(state);
+    }
+
     public Set<VariablesState> popBreakStates() {
         Set<VariablesState> states = this.breakStates;
         this.breakStates = new HashSet<>();
@@ -40,4 +56,10 @@ public class EndState {
         this.continueStates = new HashSet<>();
         return states;
     }
+
+    public Set<ThrowState> popThrowStates() {
+        Set<ThrowState> states = this.throwStates;
+        this.throwStates = new HashSet<>();
+        return states;
+    }
 }
@@ -1,5 +1,7 @@
 package analysis.model;
 
+import com.github.javaparser.resolution.types.ResolvedType;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -9,6 +11,7 @@ import java.util.List;
 public class ExpressionAnalysisState {
     private VariablesState variablesState;
     private List<AnalysisError> errors;
+    private List<ResolvedType> thrownTypes; // Exceptions that the called methods may throw, null if none
 
     public ExpressionAnalysisState(VariablesState variablesState) {
         this.variablesState = variablesState;
@@ -56,4 +59,21 @@ public class ExpressionAnalysisState {
     public void addErrors(List<AnalysisError> errors) {
         this.errors.addAll(errors);
     }
+
+    /**
+     * Add the exceptions that a called method may throw (in its throws signature or @throws tags in Javadocs)
+     */
+    public void addThrownTypes(Iterable<ResolvedType> types) {
+        for (ResolvedType type : types) {
+            if (thrownTypes == null) thrownTypes = new ArrayList<>();
+            thrownTypes.add(type);
+        }
+    }
+
+    /**
+     * @return Exceptions that the called methods may throw
+     */
+    public List<ResolvedType> getThrownTypes() {
+        return thrownTypes == null ? List.of() : thrownTypes;
+    }
 }
@@ -0,0 +1,59 @@
+package analysis.model;
+
+import analysis.values.PossibleValues;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.resolution.types.ResolvedType;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Summary of a method declaration for the analysis of its method calls
+ * <ul>
+ *     <li>returnValue: Possible values returned by the method for the arguments it was analyzed with</li>
+ *     <li>exceptions: Runtime exceptions in the throws signature or the @throws tags in Javadocs</li>
+ *     <li>thrownExceptions: All exceptions in the throws signature or the @throws tags in Javadocs
+ *     (that the catch clauses around the method call may catch)</li>
+ *     <li>parameters: Parameters of the method, with the annotations that the arguments must satisfy</li>
+ * </ul>
+ */
+public class MethodSummary {
+    private final PossibleValues returnValue;
+    private final Set<ResolvedType> exceptions;
+    private final Set<ResolvedType> thrownExceptions;
+    private final List<Parameter> parameters;
+
+    public MethodSummary(PossibleValues returnValue, Set<ResolvedType> exceptions, List<Parameter> parameters) {
+        this(returnValue, exceptions, exceptions, parameters);
+    }
+
+    public MethodSummary(PossibleValues returnValue, Set<ResolvedType> exceptions, Set<ResolvedType> thrownExceptions, List<Parameter> parameters) {
+        this.returnValue = returnValue;
+        this.exceptions = exceptions;
+        this.thrownExceptions = thrownExceptions;
+        this.parameters = parameters;
+    }
+
+    public PossibleValues getReturnValue() {
+        return returnValue;
+    }
+
+    public Set<ResolvedType> getExceptions() {
+        return exceptions;
+    }
+
+    public Set<ResolvedType> getThrownExceptions() {
+        return thrownExceptions;
+    }
+
+    public List<Parameter> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * @return Summary with the same exceptions and parameters, and a different return value
+     */
+    public MethodSummary withReturnValue(PossibleValues returnValue) {
+        return new MethodSummary(returnValue, exceptions, thrownExceptions, parameters);
+    }
+}
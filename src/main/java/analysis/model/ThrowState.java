@@ -0,0 +1,11 @@
+package analysis.model;
+
+import com.github.javaparser.resolution.types.ResolvedType;
+
+/**
+ * State where an exception may be thrown (by a throw statement or a method call), for the catch clauses of try statements
+ * @param type  Type of the exception, or null if unknown
+ * @param state State of the variables when the exception is thrown
+ */
+public record ThrowState(ResolvedType type, VariablesState state) {
+}
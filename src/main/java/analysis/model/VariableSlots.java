@@ -0,0 +1,93 @@
+package analysis.model;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.VariableDeclarator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numbering of the variables (parameters and local variables) of a method
+ * <ul>
+ *     <li>Each variable declaration node gets a dense slot index, used to index the values in VariablesState</li>
+ *     <li>Nodes are looked up by identity, so the AST is never hashed</li>
+ *     <li>Variables that were not numbered by the pre-pass get the next free slot when first set</li>
+ *     <li>Adding a slot replaces the map and array instead of modifying them, so slots can be read without locking
+ *     while branches are analyzed in parallel</li>
+ * </ul>
+ */
+public final class VariableSlots {
+    private volatile Map<Node, Integer> slotMap;
+    private volatile Node[] nodes;
+
+    public VariableSlots() {
+        this(new IdentityHashMap<>(), new Node[0]);
+    }
+
+    private VariableSlots(Map<Node, Integer> slotMap, Node[] nodes) {
+        this.slotMap = slotMap;
+        this.nodes = nodes;
+    }
+
+    /**
+     * Number all parameters and local variables declared in a method (or any other node), in declaration order
+     */
+    public static VariableSlots forNode(Node node) {
+        Map<Node, Integer> slotMap = new IdentityHashMap<>();
+        List<Node> nodes = new ArrayList<>();
+        node.walk(n -> {
+            if ((n instanceof Parameter || n instanceof VariableDeclarator) && !slotMap.containsKey(n)) {
+                slotMap.put(n, nodes.size());
+                nodes.add(n);
+            }
+        });
+        return new VariableSlots(slotMap, nodes.toArray(new Node[0]));
+    }
+
+    /**
+     * @return Slot of the variable, or -1 if the variable has no slot
+     */
+    public int getSlot(Node node) {
+        Integer slot = slotMap.get(node);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * @return Slot of the variable, creating a new slot if the variable has no slot
+     */
+    public int getOrCreateSlot(Node node) {
+        Integer slot = slotMap.get(node);
+        if (slot != null) return slot;
+        synchronized (this) {
+            slot = slotMap.get(node);
+            if (slot != null) return slot;
+            int newSlot = nodes.length;
+            Node[] newNodes = Arrays.copyOf(nodes, newSlot + 1);
+            newNodes[newSlot] = node;
+            Map<Node, Integer> newSlotMap = new IdentityHashMap<>(slotMap);
+            newSlotMap.put(node, newSlot);
+            // Publish the node before its slot, so a slot that can be found always has its node
+            nodes = newNodes;
+            slotMap = newSlotMap;
+            return newSlot;
+        }
+    }
+
+    /**
+     * @return Variable declaration node of the slot
+     */
+    public Node getNode(int slot) {
+        return nodes[slot];
+    }
+
+    /**
+     * @return Number of slots
+     */
+    public int size() {
+        return nodes.length;
+    }
+}
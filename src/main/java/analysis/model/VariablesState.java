@@ -5,12 +5,15 @@ import analysis.values.EmptyValue;
 import analysis.values.PossibleValues;
 import analysis.values.visitor.IntersectVisitor;
 import analysis.values.visitor.MergeVisitor;
+import analysis.values.visitor.NarrowVisitor;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.VariableDeclarator;
+import logger.AnalysisProfiler;
 
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
@@ -21,19 +24,37 @@ import java.util.function.Function;
  *     <li>If any variable domain becomes EMPTY, the entire domain becomes EMPTY</li>
  *     <ul><li>EMPTY means that the current path is not taken by any execution of the analysis.
  *     This is different from having an empty variable map.</li></ul>
+ *     <li>Values are stored in an array indexed by the variable's slot (see VariableSlots).
+ *     Copies share the array until one of them is updated (copy-on-write).</li>
  * </ul>
  */
 public class VariablesState {
-    private final Map<Node, PossibleValues> variableMap;
+    private VariableSlots slots;
+    private PossibleValues[] values; // Value of each slot, null if the variable is not set
+    private boolean ownsValues; // False if values may be shared with a copy
     private boolean isDomainEmpty;
 
     public VariablesState() {
-        this.variableMap = new HashMap<>();
-        this.isDomainEmpty = false;
+        this(new VariableSlots());
+    }
+
+    public VariablesState(VariableSlots slots) {
+        this(slots, new PossibleValues[slots.size()], false);
+        this.ownsValues = true;
     }
 
     public VariablesState(Map<Node, PossibleValues> variableMap, boolean isDomainEmpty) {
-        this.variableMap = new HashMap<>(variableMap);
+        this();
+        for (Map.Entry<Node, PossibleValues> entry : variableMap.entrySet()) {
+            putValue(slots.getOrCreateSlot(entry.getKey()), entry.getValue());
+        }
+        this.isDomainEmpty = isDomainEmpty;
+    }
+
+    private VariablesState(VariableSlots slots, PossibleValues[] values, boolean isDomainEmpty) {
+        this.slots = slots;
+        this.values = values;
+        this.ownsValues = false;
         this.isDomainEmpty = isDomainEmpty;
     }
 
@@ -43,6 +64,27 @@ public class VariablesState {
         return state;
     }
 
+    /**
+     * Switch to a new variable numbering (i.e. the numbering of the method being analyzed), keeping all values
+     */
+    public void useSlots(VariableSlots newSlots) {
+        if (newSlots == slots) return;
+        PossibleValues[] newValues = new PossibleValues[newSlots.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) continue;
+            int slot = newSlots.getOrCreateSlot(slots.getNode(i));
+            if (slot >= newValues.length) newValues = Arrays.copyOf(newValues, newSlots.size());
+            newValues[slot] = values[i];
+        }
+        this.slots = newSlots;
+        this.values = newValues;
+        this.ownsValues = true;
+    }
+
+    public VariableSlots getSlots() {
+        return slots;
+    }
+
     public void setVariable(VariableDeclarator declaratorNode, PossibleValues value) {
         setVariableHelper(declaratorNode, value);
     }
@@ -52,8 +94,21 @@ public class VariablesState {
     }
 
     private void setVariableHelper(Node node, PossibleValues value) {
+        setSlotValue(slots.getOrCreateSlot(node), value);
+    }
+
+    private void setSlotValue(int slot, PossibleValues value) {
         if (value.isEmpty()) isDomainEmpty = true;
-        variableMap.put(node, value);
+        putValue(slot, value);
+    }
+
+    private void putValue(int slot, PossibleValues value) {
+        if (getSlotValue(slot) == value) return;
+        if (!ownsValues || slot >= values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length, Math.max(slot + 1, slots.size())));
+            ownsValues = true;
+        }
+        values[slot] = value;
     }
 
     public PossibleValues getVariable(VariableDeclarator declaratorNode) {
@@ -65,9 +120,25 @@ public class VariablesState {
     }
 
     private PossibleValues getVariableHelper(Node node) {
-        if (this.isDomainEmpty()) return new EmptyValue();
-        if (!variableMap.containsKey(node)) return new AnyValue();
-        return variableMap.get(node);
+        if (this.isDomainEmpty()) return EmptyValue.VALUE;
+        PossibleValues value = getSlotValue(slots.getSlot(node));
+        if (value == null) return AnyValue.VALUE;
+        return value;
+    }
+
+    /**
+     * @return Value of the slot, or null if the variable is not set
+     */
+    private PossibleValues getSlotValue(int slot) {
+        return slot >= 0 && slot < values.length ? values[slot] : null;
+    }
+
+    /**
+     * @return Value of the other state for a slot of this state, or null if the variable is not set
+     */
+    private PossibleValues getOtherValue(VariablesState other, int slot) {
+        if (other.slots == slots) return other.getSlotValue(slot);
+        return other.getSlotValue(other.slots.getSlot(slots.getNode(slot)));
     }
 
     /**
@@ -134,17 +205,18 @@ public class VariablesState {
      * @param other Other state to merge
      */
     public void merge(MergeVisitor mergeVisitor, VariablesState other) {
+        AnalysisProfiler.count(AnalysisProfiler.Counter.STATE_MERGES);
         if (!this.isDomainEmpty() && !other.isDomainEmpty()) {
-            for (Map.Entry<Node, PossibleValues> entry : this.variableMap.entrySet()) {
-                if (other.variableMap.containsKey(entry.getKey())) {
-                    PossibleValues otherValues = other.variableMap.get(entry.getKey());
-                    PossibleValues mergedValues = entry.getValue().acceptAbstractOp(mergeVisitor, otherValues);
-                    this.setVariableHelper(entry.getKey(), mergedValues);
-                }
-            }
-            for (Map.Entry<Node, PossibleValues> entry : other.variableMap.entrySet()) {
-                if (!this.variableMap.containsKey(entry.getKey())) {
-                    this.setVariableHelper(entry.getKey(), entry.getValue());
+            boolean sameSlots = other.slots == slots;
+            for (int i = 0; i < other.values.length; i++) {
+                PossibleValues otherValue = other.values[i];
+                if (otherValue == null) continue;
+                int slot = sameSlots ? i : slots.getOrCreateSlot(other.slots.getNode(i));
+                PossibleValues value = getSlotValue(slot);
+                if (value == null) {
+                    setSlotValue(slot, otherValue);
+                } else if (value != otherValue) {
+                    setSlotValue(slot, mergeVisitor.apply(value, otherValue));
                 }
             }
         } else if (this.isDomainEmpty() && other.isDomainEmpty()) {
@@ -160,35 +232,64 @@ public class VariablesState {
      * @param other Other state to intersect
      */
     public void intersect(IntersectVisitor intersectVisitor, VariablesState other) {
+        AnalysisProfiler.count(AnalysisProfiler.Counter.STATE_INTERSECTS);
         if (this.isDomainEmpty() || other.isDomainEmpty()) {
             clear();
             this.setDomainEmpty();
         } else {
-            for (Map.Entry<Node, PossibleValues> entry : this.variableMap.entrySet()) {
-                if (other.variableMap.containsKey(entry.getKey())) {
-                    PossibleValues otherValues = other.variableMap.get(entry.getKey());
-                    PossibleValues intersectValues = entry.getValue().acceptAbstractOp(intersectVisitor, otherValues);
-                    this.setVariableHelper(entry.getKey(), intersectValues);
+            for (int i = 0; i < values.length; i++) {
+                PossibleValues otherValue;
+                if (values[i] != null && (otherValue = getOtherValue(other, i)) != null) {
+                    setSlotValue(i, intersectVisitor.apply(values[i], otherValue));
                 }
             }
         }
     }
 
+    /**
+     * Narrow this state with another state (after widening a loop)
+     * @param narrowVisitor Visitor to perform narrowing
+     * @param other Other state to narrow with
+     */
+    public void narrow(NarrowVisitor narrowVisitor, VariablesState other) {
+        AnalysisProfiler.count(AnalysisProfiler.Counter.STATE_NARROWS);
+        if (this.isDomainEmpty() || other.isDomainEmpty()) return;
+        for (int i = 0; i < values.length; i++) {
+            PossibleValues otherValue;
+            if (values[i] != null && (otherValue = getOtherValue(other, i)) != null) {
+                setSlotValue(i, narrowVisitor.apply(values[i], otherValue));
+            }
+        }
+    }
+
     /**
      * Clear the states
      */
     public void clear() {
-        this.variableMap.clear();
+        this.values = new PossibleValues[0];
+        this.ownsValues = true;
         this.isDomainEmpty = false;
     }
 
     /**
-     * Copy the state (shallow copies the map)
+     * Copy the state (shares the values until either state is updated)
      * @return Copy of the state
      */
     public VariablesState copy() {
         // TODO: when mutable objects are added, need to handle copying properties
-        return new VariablesState(this.variableMap, this.isDomainEmpty);
+        AnalysisProfiler.count(AnalysisProfiler.Counter.STATE_COPIES);
+        this.ownsValues = false;
+        return new VariablesState(this.slots, this.values, this.isDomainEmpty);
+    }
+
+    /**
+     * Take a read-only snapshot of the state (i.e. for the trace), which later updates of this state do not change.
+     * Values that are already shared are shared by the snapshot as well, since shared values are never updated in place,
+     * and unlike copy, the snapshot does not make this state copy its values on its next update.
+     * @return Snapshot of the state
+     */
+    public VariablesState snapshot() {
+        return new VariablesState(this.slots, ownsValues ? this.values.clone() : this.values, this.isDomainEmpty);
     }
 
     /**
@@ -196,8 +297,10 @@ public class VariablesState {
      * @param other State to copy the variable map from
      */
     public void copyValuesFrom(VariablesState other) {
-        clear();
-        this.variableMap.putAll(other.variableMap);
+        other.ownsValues = false;
+        this.slots = other.slots;
+        this.values = other.values;
+        this.ownsValues = false;
         this.isDomainEmpty = other.isDomainEmpty;
     }
 
@@ -208,11 +311,11 @@ public class VariablesState {
 
     public String toFormattedString() {
         if (this.isDomainEmpty()) return "empty domain";
-        if (this.variableMap.isEmpty()) return "no variables";
         StringBuilder sb = new StringBuilder();
         boolean first = true;
-        for (Map.Entry<Node, PossibleValues> entry : this.variableMap.entrySet()) {
-            Node var = entry.getKey();
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) continue;
+            Node var = slots.getNode(i);
             String name;
             if (var instanceof VariableDeclarator decVar) {
                 name = decVar.getNameAsString();
@@ -221,11 +324,12 @@ public class VariablesState {
             } else {
                 name = var.toString();
             }
-            String val = entry.getValue().toFormattedString();
+            String val = values[i].toFormattedString();
             if (!first) sb.append(", ");
             sb.append(name).append(" -> ").append(val);
             first = false;
         }
+        if (first) return "no variables";
         return sb.toString();
     }
 
@@ -235,12 +339,28 @@ public class VariablesState {
         if (!(o instanceof VariablesState that)) return false;
 
         if (isDomainEmpty != that.isDomainEmpty) return false;
-        return variableMap.equals(that.variableMap);
+        return this.valuesContainedIn(that) && that.valuesContainedIn(this);
+    }
+
+    /**
+     * @return True if every variable set in this state is set to an equal value in the other state
+     * (Operations return their operand when the value does not change (see ValueFactory), so states that did not
+     * change still share their values, and unchanged values are compared by identity)
+     */
+    private boolean valuesContainedIn(VariablesState other) {
+        if (values == other.values && slots == other.slots) return true;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null && !Objects.equals(values[i], getOtherValue(other, i))) return false;
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        int result = variableMap.hashCode();
+        int result = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) result += System.identityHashCode(slots.getNode(i)) ^ values[i].hashCode();
+        }
         result = 31 * result + (isDomainEmpty ? 1 : 0);
         return result;
     }
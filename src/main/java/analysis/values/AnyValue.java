@@ -5,6 +5,10 @@ import analysis.values.visitor.OperationVisitor;
 public class AnyValue extends PossibleValues {
     public static final AnyValue VALUE = new AnyValue();
 
+    public AnyValue() {
+        super(ValueKind.ANY);
+    }
+
     @Override
     public <T> T acceptAbstractOp(OperationVisitor<T> visitor, PossibleValues b) {
         return visitor.visitAbstract(this, b);
@@ -22,7 +22,7 @@ public class ArrayValue extends ObjectWithNotNullValue {
     }
 
     public ArrayValue(IntegerValue length, boolean canBeNull) {
-        super(canBeNull);
+        super(ValueKind.ARRAY, canBeNull);
         this.length = length == null ? DEFAULT_LENGTH : length;
     }
 
@@ -69,7 +69,7 @@ public class ArrayValue extends ObjectWithNotNullValue {
         if (length instanceof IntegerValue intVal) {
             return new ArrayValue(intVal, canBeNull);
         } else if (length.isEmpty()) {
-            return new EmptyValue();
+            return EmptyValue.VALUE;
         }
         return new ArrayValue(DEFAULT_LENGTH, canBeNull);
     }
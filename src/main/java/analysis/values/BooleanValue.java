@@ -11,11 +11,11 @@ public class BooleanValue extends PrimitiveValue {
     private final boolean canBeTrue;
 
     public BooleanValue(boolean b) {
-        this.canBeTrue = b;
-        this.canBeFalse = !b;
+        this(b, !b);
     }
 
     public BooleanValue(boolean t, boolean f) {
+        super(ValueKind.BOOLEAN);
         assert t || f;
         this.canBeTrue = t;
         this.canBeFalse = f;
@@ -13,16 +13,16 @@ public class BoxedPrimitive extends ObjectWithNotNullValue {
     }
 
     public BoxedPrimitive(PrimitiveValue v, boolean canBeNull) {
-        super(canBeNull);
+        super(ValueKind.BOXED, canBeNull);
         this.v = v;
     }
 
     public static PossibleValues create(PossibleValues inner, boolean canBeNull) {
-        if (inner.isEmpty()) return new EmptyValue();
+        if (inner.isEmpty()) return EmptyValue.VALUE;
         if (inner instanceof PrimitiveValue primitiveInner) {
             return new BoxedPrimitive(primitiveInner, canBeNull);
         }
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     public PrimitiveValue unbox() {
@@ -8,11 +8,11 @@ public class CharValue extends PrimitiveValue {
     private final char max;
 
     public CharValue(char c) {
-        this.min = c;
-        this.max = c;
+        this(c, c);
     }
 
     public CharValue(char min, char max) {
+        super(ValueKind.CHAR);
         this.min = min;
         this.max = max;
     }
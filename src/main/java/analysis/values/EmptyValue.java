@@ -8,6 +8,10 @@ import analysis.values.visitor.OperationVisitor;
 public final class EmptyValue extends PossibleValues {
     public static final EmptyValue VALUE = new EmptyValue();
 
+    public EmptyValue() {
+        super(ValueKind.EMPTY);
+    }
+
     @Override
     public <T> T acceptAbstractOp(OperationVisitor<T> visitor, PossibleValues b) {
         return visitor.visitAbstract(this, b);
@@ -14,18 +14,11 @@ public class ExtendableObjectValue extends ObjectWithNotNullValue {
         super(canBeNull);
     }
 
+    /**
+     * Copies are new values, so setting whether a copy can be null does not change the shared VALUE
+     */
     @Override
     public ObjectWithNotNullValue copy() {
-        return this;
-    }
-
-    @Override
-    public boolean equals(Object o) {
-        return this == o;
-    }
-
-    @Override
-    public int hashCode() {
-        return 31 * getClass().hashCode();
+        return new ExtendableObjectValue(canBeNull());
     }
 }
@@ -0,0 +1,355 @@
+package analysis.values;
+
+import analysis.values.visitor.OperationVisitor;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Represents integers in a sorted set of disjoint intervals (i.e. [-5,-1] | [1,5] for a value that is not 0)
+ * <ul>
+ *     <li>The intervals are packed into a single array as [min0, max0, min1, max1, ...], with a gap of at least one
+ *     value between two intervals</li>
+ *     <li>A set always has at least 2 intervals, values with a single interval are IntegerRange</li>
+ *     <li>The maximum number of intervals and the collapse strategy are set per analysis with a Limit (passed to the
+ *     MergeVisitor and RestrictNotEqualsVisitor, which are the only operations adding intervals). The default maximum
+ *     is 1, so every value is a range unless an analysis uses a larger maximum.</li>
+ *     <li>Other operations only collapse their results to the number of intervals of their largest operand
+ *     (joining the smallest gaps), so values stay within the limit of the analysis they come from</li>
+ * </ul>
+ */
+public final class IntegerIntervalSet extends IntegerValue {
+    public static final int DEFAULT_MAX_INTERVALS = 1;
+
+    private final int[] bounds;
+
+    /**
+     * How intervals are collapsed when there are more than the maximum
+     */
+    public enum Collapse {
+        /**
+         * Join the two neighbouring intervals with the smallest gap until there are few enough intervals
+         * (keeps the most values out of the set)
+         */
+        SMALLEST_GAP,
+        /**
+         * Replace all intervals by the range from the minimum to the maximum (cheapest, as precise as a range)
+         */
+        HULL;
+
+        /**
+         * @param name Name of the strategy (i.e. smallest-gap), in any case
+         * @throws IllegalArgumentException If no strategy has the name
+         */
+        public static Collapse fromName(String name) {
+            for (Collapse strategy : values()) {
+                if (strategy.name().replace('_', '-').equalsIgnoreCase(name)) return strategy;
+            }
+            throw new IllegalArgumentException("Unknown collapse strategy: " + name);
+        }
+    }
+
+    /**
+     * Maximum number of intervals of a value (1 to only use ranges), and how intervals are collapsed when there are more
+     */
+    public record Limit(int maxIntervals, Collapse collapse) {
+        public static final Limit DEFAULT = new Limit(DEFAULT_MAX_INTERVALS, Collapse.SMALLEST_GAP);
+
+        /**
+         * @throws IllegalArgumentException If maxIntervals is less than 1
+         */
+        public Limit {
+            if (maxIntervals < 1) throw new IllegalArgumentException("Maximum number of intervals must be at least 1");
+            Objects.requireNonNull(collapse);
+        }
+
+        public boolean isRangesOnly() {
+            return maxIntervals == 1;
+        }
+    }
+
+    /**
+     * Operation on a single interval of each operand
+     */
+    @FunctionalInterface
+    public interface IntervalOperation {
+        IntegerValue apply(int aMin, int aMax, int bMin, int bMax);
+    }
+
+    private IntegerIntervalSet(int[] bounds) {
+        this.bounds = bounds;
+    }
+
+    /**
+     * @param bounds Intervals as [min0, max0, min1, max1, ...] in any order, possibly overlapping
+     * @param length Number of bounds used in the array (twice the number of intervals), at least 2
+     * @param limit  Limit of the number of intervals
+     * @return Value with the union of the intervals (a range if they make a single interval). The array is modified.
+     */
+    public static IntegerValue of(int[] bounds, int length, Limit limit) {
+        return of(bounds, length, limit.maxIntervals(), limit.collapse());
+    }
+
+    private static IntegerValue of(int[] bounds, int length, int maxIntervals, Collapse collapse) {
+        // Insertion sort by minimum, there are only a few intervals
+        for (int i = 2; i < length; i += 2) {
+            int min = bounds[i];
+            int max = bounds[i + 1];
+            int j = i - 2;
+            while (j >= 0 && bounds[j] > min) {
+                bounds[j + 2] = bounds[j];
+                bounds[j + 3] = bounds[j + 1];
+                j -= 2;
+            }
+            bounds[j + 2] = min;
+            bounds[j + 3] = max;
+        }
+
+        // Join overlapping & adjacent intervals
+        int count = 2;
+        for (int i = 2; i < length; i += 2) {
+            int lastMax = bounds[count - 1];
+            if (lastMax == Integer.MAX_VALUE || bounds[i] <= lastMax + 1) {
+                bounds[count - 1] = Math.max(lastMax, bounds[i + 1]);
+            } else {
+                bounds[count] = bounds[i];
+                bounds[count + 1] = bounds[i + 1];
+                count += 2;
+            }
+        }
+
+        count = collapse(bounds, count, maxIntervals, collapse);
+        if (count == 2) return ValueFactory.integer(bounds[0], bounds[1]);
+        return new IntegerIntervalSet(Arrays.copyOf(bounds, count));
+    }
+
+    /**
+     * Collapse sorted disjoint intervals until there are at most maxIntervals
+     * @return Number of bounds used after collapsing
+     */
+    private static int collapse(int[] bounds, int length, int max, Collapse collapse) {
+        if (length <= 2 * max) return length;
+        if (collapse == Collapse.HULL) {
+            bounds[1] = bounds[length - 1];
+            return 2;
+        }
+        while (length > 2 * max) {
+            int smallest = 2;
+            for (int i = 4; i < length; i += 2) {
+                if ((long) bounds[i] - bounds[i - 1] < (long) bounds[smallest] - bounds[smallest - 1]) smallest = i;
+            }
+            bounds[smallest - 1] = bounds[smallest + 1];
+            System.arraycopy(bounds, smallest + 2, bounds, smallest, length - smallest - 2);
+            length -= 2;
+        }
+        return length;
+    }
+
+    /**
+     * @return Union of a & b (a or b if it already contains the other one), collapsed to the limit
+     */
+    public static IntegerValue union(IntegerValue a, IntegerValue b, Limit limit) {
+        int aCount = a.getIntervalCount();
+        int bCount = b.getIntervalCount();
+        int[] bounds = new int[2 * (aCount + bCount)];
+        int length = 0;
+        for (int i = 0; i < aCount; i++) {
+            bounds[length++] = a.getIntervalMin(i);
+            bounds[length++] = a.getIntervalMax(i);
+        }
+        for (int i = 0; i < bCount; i++) {
+            bounds[length++] = b.getIntervalMin(i);
+            bounds[length++] = b.getIntervalMax(i);
+        }
+        IntegerValue union = of(bounds, length, limit);
+        if (union.equals(a)) return a;
+        if (union.equals(b)) return b;
+        return union;
+    }
+
+    /**
+     * @return Union of the operation on every pair of intervals of a & b (the result of the operation if both are ranges)
+     */
+    public static IntegerValue combine(IntegerValue a, IntegerValue b, IntervalOperation operation) {
+        int aCount = a.getIntervalCount();
+        int bCount = b.getIntervalCount();
+        if (aCount == 1 && bCount == 1) return operation.apply(a.getMin(), a.getMax(), b.getMin(), b.getMax());
+        int[] bounds = new int[2 * aCount * bCount];
+        int length = 0;
+        for (int i = 0; i < aCount; i++) {
+            for (int j = 0; j < bCount; j++) {
+                IntegerValue result = operation.apply(a.getIntervalMin(i), a.getIntervalMax(i), b.getIntervalMin(j), b.getIntervalMax(j));
+                bounds[length++] = result.getMin();
+                bounds[length++] = result.getMax();
+            }
+        }
+        return of(bounds, length, Math.max(aCount, bCount), Collapse.SMALLEST_GAP);
+    }
+
+    /**
+     * @return Values of a that are also in b (a if all of them are), or EMPTY if none are
+     */
+    public static PossibleValues intersect(IntegerValue a, IntegerValue b) {
+        if (b.getIntervalCount() == 1) return intersect(a, b.getMin(), b.getMax());
+        int aCount = a.getIntervalCount();
+        int bCount = b.getIntervalCount();
+        int[] bounds = new int[2 * (aCount + bCount)];
+        int length = 0;
+        int i = 0;
+        int j = 0;
+        while (i < aCount && j < bCount) {
+            int min = Math.max(a.getIntervalMin(i), b.getIntervalMin(j));
+            int max = Math.min(a.getIntervalMax(i), b.getIntervalMax(j));
+            if (min <= max) {
+                bounds[length++] = min;
+                bounds[length++] = max;
+            }
+            if (a.getIntervalMax(i) < b.getIntervalMax(j)) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        if (length == 0) return EmptyValue.VALUE;
+        IntegerValue intersection = of(bounds, length, Math.max(aCount, bCount), Collapse.SMALLEST_GAP);
+        return intersection.equals(a) ? a : intersection;
+    }
+
+    /**
+     * @return Values of a between min and max (inclusive), a if all of them are, or EMPTY if none are
+     */
+    public static PossibleValues intersect(IntegerValue a, int min, int max) {
+        if (a.getMax() < min || a.getMin() > max) return EmptyValue.VALUE;
+        int count = a.getIntervalCount();
+        if (count == 1) return ValueFactory.integer(Math.max(a.getMin(), min), Math.min(a.getMax(), max), a);
+        if (a.getMin() >= min && a.getMax() <= max) return a;
+        int[] bounds = new int[2 * count];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int intervalMin = Math.max(a.getIntervalMin(i), min);
+            int intervalMax = Math.min(a.getIntervalMax(i), max);
+            if (intervalMin <= intervalMax) {
+                bounds[length++] = intervalMin;
+                bounds[length++] = intervalMax;
+            }
+        }
+        if (length == 0) return EmptyValue.VALUE;
+        return of(bounds, length, count, Collapse.SMALLEST_GAP);
+    }
+
+    /**
+     * @return Values of a except for the value (a if it does not contain it), or EMPTY if it is the only value,
+     * collapsed to the limit
+     */
+    public static PossibleValues remove(IntegerValue a, int value, Limit limit) {
+        if (!contains(a, value)) return a;
+        int count = a.getIntervalCount();
+        int[] bounds = new int[2 * (count + 1)];
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            int min = a.getIntervalMin(i);
+            int max = a.getIntervalMax(i);
+            if (value < min || value > max) {
+                bounds[length++] = min;
+                bounds[length++] = max;
+                continue;
+            }
+            if (value > min) {
+                bounds[length++] = min;
+                bounds[length++] = value - 1;
+            }
+            if (value < max) {
+                bounds[length++] = value + 1;
+                bounds[length++] = max;
+            }
+        }
+        if (length == 0) return EmptyValue.VALUE;
+        IntegerValue removed = of(bounds, length, Math.max(count, limit.maxIntervals()), limit.collapse());
+        return removed.equals(a) ? a : removed;
+    }
+
+    /**
+     * @return Whether the value is one of the values of a
+     */
+    public static boolean contains(IntegerValue a, int value) {
+        for (int i = 0; i < a.getIntervalCount(); i++) {
+            if (value < a.getIntervalMin(i)) return false;
+            if (value <= a.getIntervalMax(i)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int getMin() {
+        return bounds[0];
+    }
+
+    @Override
+    public int getMax() {
+        return bounds[bounds.length - 1];
+    }
+
+    @Override
+    public int getIntervalCount() {
+        return bounds.length / 2;
+    }
+
+    @Override
+    public int getIntervalMin(int i) {
+        return bounds[2 * i];
+    }
+
+    @Override
+    public int getIntervalMax(int i) {
+        return bounds[2 * i + 1];
+    }
+
+    @Override
+    public <T> T acceptAbstractOp(OperationVisitor<T> visitor, PossibleValues b) {
+        return visitor.visitAbstract(this, b);
+    }
+
+    @Override
+    public <T> T acceptOp(OperationVisitor<T> visitor, PossibleValues a) {
+        return visitor.visit(a, this);
+    }
+
+    @Override
+    public <T> T acceptOp(OperationVisitor<T> visitor, AnyValue a) {
+        return visitor.visit(a, this);
+    }
+
+    @Override
+    public <T> T acceptOp(OperationVisitor<T> visitor, IntegerValue a) {
+        return visitor.visit(a, this);
+    }
+
+    @Override
+    public <T> T acceptOp(OperationVisitor<T> visitor, CharValue a) {
+        return visitor.visit(a, this);
+    }
+
+    @Override
+    public String toFormattedString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < bounds.length; i += 2) {
+            if (i > 0) sb.append(" | ");
+            sb.append('[').append(bounds[i]);
+            if (bounds[i] != bounds[i + 1]) sb.append(',').append(bounds[i + 1]);
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IntegerIntervalSet that)) return false;
+        return Arrays.equals(bounds, that.bounds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bounds);
+    }
+}
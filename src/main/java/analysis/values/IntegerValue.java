@@ -3,9 +3,34 @@ package analysis.values;
 import analysis.values.visitor.OperationVisitor;
 
 public abstract class IntegerValue extends PrimitiveValue {
+    protected IntegerValue() {
+        super(ValueKind.INTEGER);
+    }
+
     public abstract int getMin();
     public abstract int getMax();
 
+    /**
+     * @return Number of disjoint intervals of the value (1 for a range)
+     */
+    public int getIntervalCount() {
+        return 1;
+    }
+
+    /**
+     * @return Minimum of the i-th interval (in increasing order)
+     */
+    public int getIntervalMin(int i) {
+        return getMin();
+    }
+
+    /**
+     * @return Maximum of the i-th interval (in increasing order)
+     */
+    public int getIntervalMax(int i) {
+        return getMax();
+    }
+
     @Override
     public <T> T acceptAbstractOp(OperationVisitor<T> visitor, PossibleValues b) {
         return visitor.visitAbstract(this, b);
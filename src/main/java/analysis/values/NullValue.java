@@ -9,6 +9,7 @@ public class NullValue extends ObjectValue {
     public static final NullValue VALUE = new NullValue();
 
     private NullValue() {
+        super(ValueKind.NULL);
     }
 
     @Override
@@ -58,7 +59,7 @@ public class NullValue extends ObjectValue {
 
     @Override
     public EmptyValue withNotNullable() {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
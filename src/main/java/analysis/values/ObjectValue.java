@@ -6,6 +6,9 @@ import analysis.values.visitor.OperationVisitor;
  * Values that are objects (pointers)
  */
 public abstract class ObjectValue extends PossibleValues {
+    protected ObjectValue(ValueKind kind) {
+        super(kind);
+    }
 
     @Override
     public <T> T acceptAbstractOp(OperationVisitor<T> visitor, PossibleValues b) {
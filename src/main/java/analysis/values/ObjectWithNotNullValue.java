@@ -9,10 +9,15 @@ public abstract class ObjectWithNotNullValue extends ObjectValue {
     private boolean canBeNull;
 
     public ObjectWithNotNullValue() {
-        this.canBeNull = true;
+        this(true);
     }
 
     public ObjectWithNotNullValue(boolean canBeNull) {
+        this(ValueKind.OBJECT, canBeNull);
+    }
+
+    protected ObjectWithNotNullValue(ValueKind kind, boolean canBeNull) {
+        super(kind);
         this.canBeNull = canBeNull;
     }
 
@@ -1,8 +1,8 @@
 package analysis.values;
 
 public class PairValue<T, U> {
-    private T a;
-    private U b;
+    private final T a;
+    private final U b;
 
     public PairValue(T a, U b) {
         this.a = a;
@@ -16,12 +16,4 @@ public class PairValue<T, U> {
     public U getB() {
         return b;
     }
-
-    public void setA(T a) {
-        this.a = a;
-    }
-
-    public void setB(U b) {
-        this.b = b;
-    }
 }
@@ -3,6 +3,19 @@ package analysis.values;
 import analysis.values.visitor.OperationVisitor;
 
 public abstract class PossibleValues implements ValueVisitable {
+    private final ValueKind kind;
+
+    protected PossibleValues(ValueKind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Kind tag of the value (see OperationVisitor#apply)
+     */
+    public final ValueKind getKind() {
+        return kind;
+    }
+
     public <T> T acceptAbstractOp(OperationVisitor<T> visitor, PossibleValues b) {
         return visitor.visitAbstract(this, b);
     }
@@ -6,6 +6,10 @@ import analysis.values.visitor.OperationVisitor;
  * Values that are primitives
  */
 public abstract class PrimitiveValue extends PossibleValues {
+    protected PrimitiveValue(ValueKind kind) {
+        super(kind);
+    }
+
     @Override
     public final boolean canBeNull() {
         return false;
@@ -9,9 +9,7 @@ public class StringValue extends ObjectWithNotNullValue {
     private final int max;
 
     public StringValue(String s) {
-        super(false);
-        this.min = s.length();
-        this.max = s.length();
+        this(s.length(), s.length(), false);
     }
 
     public StringValue(int min, int max) {
@@ -19,7 +17,7 @@ public class StringValue extends ObjectWithNotNullValue {
     }
 
     public StringValue(int min, int max, boolean canBeNull) {
-        super(canBeNull);
+        super(ValueKind.STRING, canBeNull);
         assert min <= max;
         assert min >= 0;
         this.min = min;
@@ -103,16 +101,16 @@ public class StringValue extends ObjectWithNotNullValue {
     }
 
     public PossibleValues getLengthApproximation() {
-        return new IntegerRange(min, max);
+        return ValueFactory.integer(min, max);
     }
 
     public PossibleValues getIsEmptyApproximation() {
         if (min == 0 && max == 0) {
-            return new BooleanValue(true, false);
+            return ValueFactory.bool(true, false);
         }
         if (0 >= min && 0 <= max) {
-            return new BooleanValue(true, true);
+            return ValueFactory.bool(true, true);
         }
-        return new BooleanValue(false, true);
+        return ValueFactory.bool(false, true);
     }
 }
@@ -0,0 +1,118 @@
+package analysis.values;
+
+/**
+ * Factory for interned values
+ * <ul>
+ *     <li>Booleans, ANY VALUE and EMPTY are singletons</li>
+ *     <li>Small integer constants are preallocated, and other ranges are kept in a small cache of recently created ranges</li>
+ *     <li>Operations pass their operands, which are returned if they already have the resulting bounds.
+ *     Unchanged values keep their identity, so states that did not change share their values (see VariablesState)</li>
+ * </ul>
+ * Values are immutable, so they can be shared between states and threads.
+ */
+public final class ValueFactory {
+    public static final int MIN_CACHED_CONSTANT = -128;
+    public static final int MAX_CACHED_CONSTANT = 1024;
+    private static final IntegerRange[] CONSTANTS = new IntegerRange[MAX_CACHED_CONSTANT - MIN_CACHED_CONSTANT + 1];
+    private static final int RECENT_SIZE = 1024; // Must be a power of 2
+    private static final IntegerRange[] RECENT = new IntegerRange[RECENT_SIZE];
+
+    static {
+        for (int i = 0; i < CONSTANTS.length; i++) {
+            CONSTANTS[i] = new IntegerRange(i + MIN_CACHED_CONSTANT);
+        }
+    }
+
+    private ValueFactory() {
+    }
+
+    public static AnyValue any() {
+        return AnyValue.VALUE;
+    }
+
+    public static EmptyValue empty() {
+        return EmptyValue.VALUE;
+    }
+
+    public static BooleanValue bool(boolean val) {
+        return val ? BooleanValue.TRUE : BooleanValue.FALSE;
+    }
+
+    /**
+     * @return Boolean that can be true and/or false (at least one of them)
+     */
+    public static BooleanValue bool(boolean canBeTrue, boolean canBeFalse) {
+        if (canBeTrue && canBeFalse) return BooleanValue.ANY_VALUE;
+        return canBeTrue ? BooleanValue.TRUE : BooleanValue.FALSE;
+    }
+
+    public static IntegerRange integer(int val) {
+        if (val >= MIN_CACHED_CONSTANT && val <= MAX_CACHED_CONSTANT) return CONSTANTS[val - MIN_CACHED_CONSTANT];
+        return integer(val, val);
+    }
+
+    /**
+     * @return Range between min and max (inclusive), reusing a cached range if there is one
+     */
+    public static IntegerRange integer(int min, int max) {
+        if (min == max && min >= MIN_CACHED_CONSTANT && max <= MAX_CACHED_CONSTANT) {
+            return CONSTANTS[min - MIN_CACHED_CONSTANT];
+        }
+        if (min == Integer.MIN_VALUE && max == Integer.MAX_VALUE) return IntegerRange.ANY_VALUE;
+
+        // Direct-mapped cache: a collision replaces the previous range. The slot is read once, and ranges only have
+        // final fields, so concurrent updates can only cause a miss.
+        int index = (31 * min + max) * 0x9E3779B9 >>> 22 & (RECENT_SIZE - 1);
+        IntegerRange recent = RECENT[index];
+        if (recent != null && recent.getMin() == min && recent.getMax() == max) return recent;
+        IntegerRange range = new IntegerRange(min, max);
+        RECENT[index] = range;
+        return range;
+    }
+
+    /**
+     * @return a or b if it is the range between min and max, otherwise an interned range
+     * (a set of intervals with the same bounds is not the range)
+     */
+    public static IntegerValue integer(int min, int max, IntegerValue a, IntegerValue b) {
+        if (isRange(a, min, max)) return a;
+        if (isRange(b, min, max)) return b;
+        return integer(min, max);
+    }
+
+    /**
+     * @return a if it is the range between min and max, otherwise an interned range
+     */
+    public static IntegerValue integer(int min, int max, IntegerValue a) {
+        if (isRange(a, min, max)) return a;
+        return integer(min, max);
+    }
+
+    private static boolean isRange(IntegerValue a, int min, int max) {
+        return a.getMin() == min && a.getMax() == max && a.getIntervalCount() == 1;
+    }
+
+    /**
+     * @return a or b if it is the range between min and max, otherwise a new range
+     */
+    public static CharValue character(int min, int max, CharValue a, CharValue b) {
+        if (a.getMin() == min && a.getMax() == max) return a;
+        if (b.getMin() == min && b.getMax() == max) return b;
+        if (min == Character.MIN_VALUE && max == Character.MAX_VALUE) return CharValue.ANY_VALUE;
+        return new CharValue((char) min, (char) max);
+    }
+
+    /**
+     * @return a or b if it has the same lengths and nullability, otherwise a new string
+     */
+    public static StringValue string(int min, int max, boolean canBeNull, StringValue a, StringValue b) {
+        if (isString(a, min, max, canBeNull)) return a;
+        if (isString(b, min, max, canBeNull)) return b;
+        if (isString(StringValue.ANY_VALUE, min, max, canBeNull)) return StringValue.ANY_VALUE;
+        return new StringValue(min, max, canBeNull);
+    }
+
+    private static boolean isString(StringValue s, int min, int max, boolean canBeNull) {
+        return s.minStringLength() == min && s.maxStringLength() == max && s.canBeNull() == canBeNull;
+    }
+}
@@ -0,0 +1,21 @@
+package analysis.values;
+
+/**
+ * Kind tag of a value, used to dispatch operations on common pairs of values without double dispatch
+ * (see OperationVisitor#apply)
+ */
+public enum ValueKind {
+    ANY,
+    EMPTY,
+    INTEGER,
+    CHAR,
+    BOOLEAN,
+    STRING,
+    NULL,
+    ARRAY,
+    BOXED,
+    /**
+     * Any other object
+     */
+    OBJECT
+}
@@ -4,6 +4,10 @@ import analysis.model.AnalysisError;
 import analysis.values.*;
 
 public abstract class AbstractOperationVisitor implements OperationVisitor<PairValue<PossibleValues, AnalysisError>> {
+    // Results without errors are shared (pairs are immutable)
+    protected static final PairValue<PossibleValues, AnalysisError> ANY_RESULT = new PairValue<>(AnyValue.VALUE, null);
+    protected static final PairValue<PossibleValues, AnalysisError> EMPTY_RESULT = new PairValue<>(EmptyValue.VALUE, null);
+
     @Override
     public PairValue<PossibleValues, AnalysisError> visitAbstract(ArrayValue a, PossibleValues b) {
         return b.acceptOp(this, a);
@@ -61,75 +65,75 @@ public abstract class AbstractOperationVisitor implements OperationVisitor<PairV
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(PossibleValues a, PossibleValues b) {
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(EmptyValue a, PossibleValues b) {
-        return new PairValue<>(a, null);
+        return EMPTY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(PossibleValues a, EmptyValue b) {
-        return new PairValue<>(b, null);
+        return EMPTY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(IntegerValue a, IntegerValue b) {
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(IntegerValue a, AnyValue b) {
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(AnyValue a, IntegerValue b) {
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(StringValue a, StringValue b) {
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(NullValue a, ObjectValue b) {
-        return new PairValue<>(new EmptyValue(), null);
+        return EMPTY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(ObjectValue a, NullValue b) {
-        return new PairValue<>(new EmptyValue(), null);
+        return EMPTY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(ArrayValue a, ArrayValue b) {
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(CharValue a, CharValue b) {
         // TODO implement
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(CharValue a, IntegerValue b) {
         // TODO implement
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(IntegerValue a, CharValue b) {
         // TODO implement
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(BooleanValue a, BooleanValue b) {
-        return new PairValue<>(new AnyValue(), null);
+        return ANY_RESULT;
     }
 
     @Override
@@ -140,12 +144,12 @@ public abstract class AbstractOperationVisitor implements OperationVisitor<PairV
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(NullValue a, PossibleValues b) {
-        return new PairValue<>(new EmptyValue(), new AnalysisError(NullPointerException.class, true));
+        return new PairValue<>(EmptyValue.VALUE, new AnalysisError(NullPointerException.class, true));
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(PossibleValues a, NullValue b) {
-        return new PairValue<>(new EmptyValue(), new AnalysisError(NullPointerException.class, true));
+        return new PairValue<>(EmptyValue.VALUE, new AnalysisError(NullPointerException.class, true));
     }
 
     @Override
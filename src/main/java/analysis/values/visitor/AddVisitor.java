@@ -9,10 +9,10 @@ import utils.MathUtil;
 public class AddVisitor extends OperationVisitorWithDefault {
     @Override
     public PossibleValues visit(IntegerValue a, IntegerValue b) {
-        return new IntegerRange(
-                MathUtil.addToLimit(a.getMin(), b.getMin()),
-                MathUtil.addToLimit(a.getMax(), b.getMax())
-        );
+        return IntegerIntervalSet.combine(a, b, (aMin, aMax, bMin, bMax) -> ValueFactory.integer(
+                MathUtil.addToLimit(aMin, bMin),
+                MathUtil.addToLimit(aMax, bMax)
+        ));
     }
 
     @Override
@@ -22,17 +22,17 @@ public class AddVisitor extends OperationVisitorWithDefault {
 
     @Override
     public PossibleValues visit(NullValue a, ObjectValue b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ObjectValue a, NullValue b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(CharValue a, CharValue b) {
-        return new IntegerRange(
+        return ValueFactory.integer(
                 MathUtil.addToLimit(a.getMin(), b.getMin()),
                 MathUtil.addToLimit(a.getMax(), b.getMax())
         );
@@ -40,7 +40,7 @@ public class AddVisitor extends OperationVisitorWithDefault {
 
     @Override
     public PossibleValues visit(CharValue a, IntegerValue b) {
-        return new IntegerRange(
+        return ValueFactory.integer(
                 MathUtil.addToLimit(a.getMin(), b.getMin()),
                 MathUtil.addToLimit(a.getMax(), b.getMax())
         );
@@ -10,14 +10,40 @@ import utils.MathUtil;
 public class DivideVisitor extends AbstractOperationVisitor {
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(IntegerValue a, IntegerValue b) {
-        int aMin = a.getMin();
-        int aMax = a.getMax();
-        int bMin = b.getMin();
-        int bMax = b.getMax();
+        int aCount = a.getIntervalCount();
+        int bCount = b.getIntervalCount();
+        if (aCount == 1 && bCount == 1) return divide(a.getMin(), a.getMax(), b.getMin(), b.getMax());
 
+        // Divide every pair of intervals, the error is definite only if it is definite for every pair
+        int[] bounds = new int[2 * aCount * bCount];
+        int length = 0;
+        boolean canThrow = false;
+        boolean alwaysThrows = true;
+        for (int i = 0; i < aCount; i++) {
+            for (int j = 0; j < bCount; j++) {
+                PairValue<PossibleValues, AnalysisError> quotient =
+                        divide(a.getIntervalMin(i), a.getIntervalMax(i), b.getIntervalMin(j), b.getIntervalMax(j));
+                AnalysisError error = quotient.getB();
+                canThrow |= error != null;
+                alwaysThrows &= error != null && error.isDefinite();
+                if (quotient.getA() instanceof IntegerValue value) {
+                    bounds[length++] = value.getMin();
+                    bounds[length++] = value.getMax();
+                }
+            }
+        }
+        AnalysisError error = canThrow ? new AnalysisError(ArithmeticException.class, alwaysThrows) : null;
+        return new PairValue<>(length == 0 ? EmptyValue.VALUE : IntegerIntervalSet.of(bounds, length,
+                new IntegerIntervalSet.Limit(Math.max(aCount, bCount), IntegerIntervalSet.Collapse.SMALLEST_GAP)), error);
+    }
+
+    /**
+     * Divide a single interval by another one
+     */
+    private static PairValue<PossibleValues, AnalysisError> divide(int aMin, int aMax, int bMin, int bMax) {
         // 0 is the denominator
         if (bMin == 0 && bMax == 0) {
-            return new PairValue<>(new EmptyValue(),
+            return new PairValue<>(EmptyValue.VALUE,
                     new AnalysisError(ArithmeticException.class, true));
         }
 
@@ -42,12 +68,12 @@ public class DivideVisitor extends AbstractOperationVisitor {
         int newMin = Math.min(Math.min(quotient1, quotient2), Math.min(quotient3, quotient4));
         int newMax = Math.max(Math.max(quotient1, quotient2), Math.max(quotient3, quotient4));
 
-        return new PairValue<>(new IntegerRange(newMin, newMax), error);
+        return new PairValue<>(ValueFactory.integer(newMin, newMax), error);
     }
 
     @Override
     public PairValue<PossibleValues, AnalysisError> visit(IntegerValue a, AnyValue b) {
-        return new PairValue<>(new AnyValue(), new AnalysisError(ArithmeticException.class, false));
+        return new PairValue<>(AnyValue.VALUE, new AnalysisError(ArithmeticException.class, false));
     }
 
     @Override
@@ -6,24 +6,19 @@ import analysis.values.*;
 public class IntersectVisitor extends OperationVisitorWithDefault {
     @Override
     public PossibleValues visit(IntegerValue a, IntegerValue b) {
-        if (a.getMin() > b.getMax()) return new EmptyValue();
-        if (a.getMax() < b.getMin()) return new EmptyValue();
-        return new IntegerRange(
-                Math.max(a.getMin(), b.getMin()),
-                Math.min(a.getMax(), b.getMax())
-        );
+        return IntegerIntervalSet.intersect(a, b);
     }
 
     // TODO: implement
     @Override
     public PossibleValues visit(NullValue a, ObjectValue b) {
-        if (!b.canBeNull()) return new EmptyValue();
+        if (!b.canBeNull()) return EmptyValue.VALUE;
         return a;
     }
 
     @Override
     public PossibleValues visit(ObjectValue a, NullValue b) {
-        if (!a.canBeNull()) return new EmptyValue();
+        if (!a.canBeNull()) return EmptyValue.VALUE;
         return b;
     }
 
@@ -41,7 +36,7 @@ public class IntersectVisitor extends OperationVisitorWithDefault {
     @Override
     public PossibleValues visit(BooleanValue a, BooleanValue b) {
         if (a.canBeTrue() != b.canBeTrue() && a.canBeFalse() != b.canBeFalse()) return EmptyValue.VALUE;
-        return new BooleanValue(a.canBeTrue() && b.canBeTrue(), a.canBeFalse() && b.canBeFalse());
+        return ValueFactory.bool(a.canBeTrue() && b.canBeTrue(), a.canBeFalse() && b.canBeFalse());
     }
 
     @Override
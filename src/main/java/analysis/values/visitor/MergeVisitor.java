@@ -6,28 +6,51 @@ import analysis.values.*;
  * Visitor for getting possible values after merging operation of a & b
  */
 public class MergeVisitor extends OperationVisitorWithDefault {
+    private final IntegerIntervalSet.Limit intervalLimit;
+
+    public MergeVisitor() {
+        this(IntegerIntervalSet.Limit.DEFAULT);
+    }
+
+    /**
+     * @param intervalLimit Maximum number of intervals of the merged integer values
+     */
+    public MergeVisitor(IntegerIntervalSet.Limit intervalLimit) {
+        this.intervalLimit = intervalLimit;
+    }
+
+    public IntegerIntervalSet.Limit getIntervalLimit() {
+        return intervalLimit;
+    }
+
     @Override
     public IntegerValue visit(IntegerValue a, IntegerValue b) {
-        return new IntegerRange(
+        if (!intervalLimit.isRangesOnly() || a.getIntervalCount() > 1 || b.getIntervalCount() > 1) {
+            return IntegerIntervalSet.union(a, b, intervalLimit);
+        }
+        return ValueFactory.integer(
                 Math.min(a.getMin(), b.getMin()),
-                Math.max(a.getMax(), b.getMax())
+                Math.max(a.getMax(), b.getMax()),
+                a, b
         );
     }
 
     @Override
     public PossibleValues visit(CharValue a, CharValue b) {
-        return new CharValue(
-                (char) Math.min(a.getMin(), b.getMin()),
-                (char) Math.max(a.getMax(), b.getMax())
+        return ValueFactory.character(
+                Math.min(a.getMin(), b.getMin()),
+                Math.max(a.getMax(), b.getMax()),
+                a, b
         );
     }
 
     @Override
     public PossibleValues visit(StringValue a, StringValue b) {
-        return new StringValue(
+        return ValueFactory.string(
                 Math.min(a.minStringLength(), b.minStringLength()),
                 Math.max(a.maxStringLength(), b.maxStringLength()),
-                canBeNull(a, b)
+                canBeNull(a, b),
+                a, b
         );
     }
 
@@ -53,7 +76,7 @@ public class MergeVisitor extends OperationVisitorWithDefault {
 
     @Override
     public PossibleValues visit(BooleanValue a, BooleanValue b) {
-        return new BooleanValue(a.canBeTrue() || b.canBeTrue(), a.canBeFalse() || b.canBeFalse());
+        return ValueFactory.bool(a.canBeTrue() || b.canBeTrue(), a.canBeFalse() || b.canBeFalse());
     }
 
     @Override
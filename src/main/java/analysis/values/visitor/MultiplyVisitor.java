@@ -9,11 +9,10 @@ import utils.MathUtil;
 public class MultiplyVisitor extends OperationVisitorWithDefault {
     @Override
     public PossibleValues visit(IntegerValue a, IntegerValue b) {
-        int aMin = a.getMin();
-        int aMax = a.getMax();
-        int bMin = b.getMin();
-        int bMax = b.getMax();
+        return IntegerIntervalSet.combine(a, b, MultiplyVisitor::multiply);
+    }
 
+    private static IntegerValue multiply(int aMin, int aMax, int bMin, int bMax) {
         int product1 = MathUtil.multiplyToLimit(aMin, bMin);
         int product2 = MathUtil.multiplyToLimit(aMin, bMax);
         int product3 = MathUtil.multiplyToLimit(aMax, bMin);
@@ -22,7 +21,7 @@ public class MultiplyVisitor extends OperationVisitorWithDefault {
         int newMin = Math.min(Math.min(product1, product2), Math.min(product3, product4));
         int newMax = Math.max(Math.max(product1, product2), Math.max(product3, product4));
 
-        return new IntegerRange(newMin, newMax);
+        return ValueFactory.integer(newMin, newMax);
     }
 
     @Override
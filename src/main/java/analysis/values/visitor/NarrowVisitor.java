@@ -0,0 +1,86 @@
+package analysis.values.visitor;
+
+import analysis.values.*;
+
+/**
+ * Visitor for narrowing a (widened values) with b (values after another loop iteration)
+ * <ul>
+ *     <li>Bounds of a that were widened to the limit of the type's domain are replaced by the bounds of b</li>
+ *     <li>Other bounds of a are kept</li>
+ * </ul>
+ * Anything that is not a range keeps the value of a.
+ */
+public class NarrowVisitor extends RestrictionVisitor {
+    @Override
+    public PossibleValues visit(IntegerValue a, IntegerValue b) {
+        int min = a.getMin() == Integer.MIN_VALUE ? b.getMin() : a.getMin();
+        int max = a.getMax() == Integer.MAX_VALUE ? b.getMax() : a.getMax();
+        if (min > max) return a;
+        if (a.getIntervalCount() > 1) {
+            PossibleValues narrowed = IntegerIntervalSet.intersect(a, min, max);
+            return narrowed.isEmpty() ? a : narrowed;
+        }
+        return ValueFactory.integer(min, max, a, b);
+    }
+
+    @Override
+    public PossibleValues visit(CharValue a, CharValue b) {
+        int min = a.getMin() == Character.MIN_VALUE ? b.getMin() : a.getMin();
+        int max = a.getMax() == Character.MAX_VALUE ? b.getMax() : a.getMax();
+        if (min > max) return a;
+        return ValueFactory.character(min, max, a, b);
+    }
+
+    @Override
+    public PossibleValues visit(StringValue a, StringValue b) {
+        int min = a.minStringLength() == 0 ? b.minStringLength() : a.minStringLength();
+        int max = a.maxStringLength() == Integer.MAX_VALUE ? b.maxStringLength() : a.maxStringLength();
+        if (min > max) return a;
+        return ValueFactory.string(min, max, a.canBeNull(), a, b);
+    }
+
+    @Override
+    public PossibleValues visit(ArrayValue a, ArrayValue b) {
+        IntegerValue aLength = a.getLength();
+        IntegerValue bLength = b.getLength();
+        int min = aLength.getMin() == ArrayValue.MIN_LENGTH_NUM ? bLength.getMin() : aLength.getMin();
+        int max = aLength.getMax() == ArrayValue.MAX_LENGTH_NUM ? bLength.getMax() : aLength.getMax();
+        if (min > max) return a;
+        return new ArrayValue(ValueFactory.integer(min, max, aLength, bLength), a.canBeNull());
+    }
+
+    @Override
+    public PossibleValues visit(PossibleValues a, EmptyValue b) {
+        return a;
+    }
+
+    @Override
+    public PossibleValues visit(NullValue a, ObjectValue b) {
+        return a;
+    }
+
+    @Override
+    public PossibleValues visit(ObjectValue a, NullValue b) {
+        return a;
+    }
+
+    @Override
+    public PossibleValues visit(BoxedPrimitive a, BoxedPrimitive b) {
+        return BoxedPrimitive.create(a.unbox().acceptAbstractOp(this, b.unbox()), a.canBeNull());
+    }
+
+    @Override
+    public PossibleValues visit(BoxedPrimitive a, PrimitiveValue b) {
+        return BoxedPrimitive.create(a.unbox().acceptAbstractOp(this, b), a.canBeNull());
+    }
+
+    @Override
+    public PossibleValues visit(NullValue a, PossibleValues b) {
+        return a;
+    }
+
+    @Override
+    public PossibleValues visit(PossibleValues a, NullValue b) {
+        return a;
+    }
+}
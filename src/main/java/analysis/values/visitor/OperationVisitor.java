@@ -4,10 +4,49 @@ import analysis.values.*;
 
 /**
  * Visitor for value operation
+ * <ul>
+ *     <li>Operations are run with apply(a, b), which switches on the kind tags of common pairs of values
+ *     (i.e. two integer ranges) and calls the visit method directly</li>
+ *     <li>Other pairs use double dispatch: a.acceptAbstractOp calls visitAbstract, which calls b.acceptOp,
+ *     which calls the visit method for the types of a & b</li>
+ * </ul>
  *
  * @param <T>
  */
 public interface OperationVisitor<T> {
+    /**
+     * Run the operation on a & b (same result as a.acceptAbstractOp(this, b))
+     * (Kept small so that it is inlined into the caller, where the call of the visit method for two ranges
+     * only sees the caller's visitor and can be inlined too)
+     */
+    default T apply(PossibleValues a, PossibleValues b) {
+        if (a.getKind() == ValueKind.INTEGER && b.getKind() == ValueKind.INTEGER) {
+            return visit((IntegerValue) a, (IntegerValue) b);
+        }
+        return applyOther(a, b);
+    }
+
+    private T applyOther(PossibleValues a, PossibleValues b) {
+        ValueKind kindB = b.getKind();
+        return switch (a.getKind()) {
+            case INTEGER -> switch (kindB) {
+                case ANY -> visit((IntegerValue) a, (AnyValue) b);
+                case CHAR -> visit((IntegerValue) a, (CharValue) b);
+                default -> a.acceptAbstractOp(this, b);
+            };
+            case ANY -> kindB == ValueKind.INTEGER ? visit((AnyValue) a, (IntegerValue) b) : a.acceptAbstractOp(this, b);
+            case EMPTY -> visit((EmptyValue) a, b);
+            case BOOLEAN -> kindB == ValueKind.BOOLEAN ? visit((BooleanValue) a, (BooleanValue) b) : a.acceptAbstractOp(this, b);
+            case CHAR -> switch (kindB) {
+                case CHAR -> visit((CharValue) a, (CharValue) b);
+                case INTEGER -> visit((CharValue) a, (IntegerValue) b);
+                default -> a.acceptAbstractOp(this, b);
+            };
+            case STRING -> kindB == ValueKind.STRING ? visit((StringValue) a, (StringValue) b) : a.acceptAbstractOp(this, b);
+            default -> a.acceptAbstractOp(this, b);
+        };
+    }
+
     T visitAbstract(PossibleValues a, PossibleValues b);
 
     T visitAbstract(AnyValue a, PossibleValues b);
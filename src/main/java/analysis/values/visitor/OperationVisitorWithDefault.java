@@ -60,7 +60,7 @@ public abstract class OperationVisitorWithDefault implements OperationVisitor<Po
 
     @Override
     public PossibleValues visit(PossibleValues a, PossibleValues b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
@@ -75,57 +75,57 @@ public abstract class OperationVisitorWithDefault implements OperationVisitor<Po
 
     @Override
     public PossibleValues visit(IntegerValue a, IntegerValue b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(IntegerValue a, AnyValue b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(AnyValue a, IntegerValue b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(StringValue a, StringValue b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(NullValue a, ObjectValue b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ObjectValue a, NullValue b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(CharValue a, CharValue b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(CharValue a, IntegerValue b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(IntegerValue a, CharValue b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(BooleanValue a, BooleanValue b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ArrayValue a, ArrayValue b) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
@@ -145,11 +145,11 @@ public abstract class OperationVisitorWithDefault implements OperationVisitor<Po
 
     @Override
     public PossibleValues visit(NullValue a, PossibleValues b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(PossibleValues a, NullValue b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 }
@@ -7,9 +7,7 @@ import java.util.Objects;
 public class RestrictEqualsVisitor extends RestrictionVisitor {
     @Override
     public PossibleValues visit(IntegerValue a, IntegerValue b) {
-        if (a.getMin() > b.getMax()) return new EmptyValue();
-        if (a.getMax() < b.getMin()) return new EmptyValue();
-        return new IntegerRange(Integer.max(a.getMin(), b.getMin()), Integer.min(a.getMax(), b.getMax()));
+        return IntegerIntervalSet.intersect(a, b);
     }
 
     @Override
@@ -18,37 +16,38 @@ public class RestrictEqualsVisitor extends RestrictionVisitor {
         if (a.canBeTrue() && a.canBeFalse()) return b;
         if (a.canBeTrue() && b.canBeTrue()) return a;
         if (a.canBeFalse() && b.canBeFalse()) return a;
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(StringValue a, StringValue b) {
-        if (a.minStringLength() > b.maxStringLength()) return new EmptyValue();
-        if (a.maxStringLength() < b.minStringLength()) return new EmptyValue();
-        return new StringValue(
+        if (a.minStringLength() > b.maxStringLength()) return EmptyValue.VALUE;
+        if (a.maxStringLength() < b.minStringLength()) return EmptyValue.VALUE;
+        return ValueFactory.string(
                 Integer.max(a.minStringLength(), b.minStringLength()),
                 Integer.min(a.maxStringLength(), b.maxStringLength()),
-                a.canBeNull() && b.canBeNull()
+                a.canBeNull() && b.canBeNull(),
+                a, b
         );
     }
 
     @Override
     public PossibleValues visit(CharValue a, CharValue b) {
-        if (a.getMin() > b.getMax()) return new EmptyValue();
-        if (a.getMax() < b.getMin()) return new EmptyValue();
-        return new CharValue((char) Integer.max(a.getMin(), b.getMin()), (char) Integer.min(a.getMax(), b.getMax()));
+        if (a.getMin() > b.getMax()) return EmptyValue.VALUE;
+        if (a.getMax() < b.getMin()) return EmptyValue.VALUE;
+        return ValueFactory.character(Integer.max(a.getMin(), b.getMin()), Integer.min(a.getMax(), b.getMax()), a, b);
     }
 
     @Override
     public PossibleValues visit(NullValue a, ObjectValue b) {
         if (b.canBeNull()) return a;
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ObjectValue a, NullValue b) {
         if (a.canBeNull()) return b;
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
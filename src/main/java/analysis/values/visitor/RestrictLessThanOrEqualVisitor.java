@@ -1,7 +1,6 @@
 package analysis.values.visitor;
 
-import analysis.values.EmptyValue;
-import analysis.values.IntegerRange;
+import analysis.values.IntegerIntervalSet;
 import analysis.values.IntegerValue;
 import analysis.values.PossibleValues;
 
@@ -10,7 +9,6 @@ public class RestrictLessThanOrEqualVisitor extends RestrictionVisitor {
 
     @Override
     public PossibleValues visit(IntegerValue a, IntegerValue b) {
-        if (a.getMin() > b.getMax()) return new EmptyValue();
-        return new IntegerRange(a.getMin(), Math.min(a.getMax(), b.getMax()));
+        return IntegerIntervalSet.intersect(a, Integer.MIN_VALUE, b.getMax());
     }
 }
@@ -1,7 +1,7 @@
 package analysis.values.visitor;
 
 import analysis.values.EmptyValue;
-import analysis.values.IntegerRange;
+import analysis.values.IntegerIntervalSet;
 import analysis.values.IntegerValue;
 import analysis.values.PossibleValues;
 
@@ -10,8 +10,7 @@ public class RestrictLessThanVisitor extends RestrictionVisitor {
 
     @Override
     public PossibleValues visit(IntegerValue a, IntegerValue b) {
-        if (a.getMin() >= b.getMax()) return new EmptyValue();
-        if (b.getMax() == Integer.MIN_VALUE) return new EmptyValue();
-        return new IntegerRange(a.getMin(), Math.min(a.getMax(), b.getMax() - 1));
+        if (b.getMax() == Integer.MIN_VALUE) return EmptyValue.VALUE;
+        return IntegerIntervalSet.intersect(a, Integer.MIN_VALUE, b.getMax() - 1);
     }
 }
@@ -3,14 +3,24 @@ package analysis.values.visitor;
 import analysis.values.*;
 
 public class RestrictNotEqualsVisitor extends RestrictionVisitor {
+    private final IntegerIntervalSet.Limit intervalLimit;
+
+    public RestrictNotEqualsVisitor() {
+        this(IntegerIntervalSet.Limit.DEFAULT);
+    }
+
+    /**
+     * @param intervalLimit Maximum number of intervals of the restricted integer values
+     */
+    public RestrictNotEqualsVisitor(IntegerIntervalSet.Limit intervalLimit) {
+        this.intervalLimit = intervalLimit;
+    }
+
     @Override
     public PossibleValues visit(IntegerValue a, IntegerValue b) {
         if (b.getMin() != b.getMax()) return a;
-        if (b.getMin() == a.getMin() && b.getMin() == a.getMax()) return new EmptyValue();
-        if (b.getMin() == a.getMin() && a.getMin() != Integer.MAX_VALUE) return new IntegerRange(a.getMin() + 1, a.getMax());
-        if (b.getMin() == a.getMax() && a.getMax() != Integer.MIN_VALUE) return new IntegerRange(a.getMin(), a.getMax() - 1);
-        // TODO: If we add a opposite of range (i.e. everything except for X), could do more handling here
-        return a;
+        // Splits a range in two if there can be more than one interval (see IntegerIntervalSet)
+        return IntegerIntervalSet.remove(a, b.getMin(), intervalLimit);
     }
 
 
@@ -25,7 +35,7 @@ public class RestrictNotEqualsVisitor extends RestrictionVisitor {
     @Override
     public PossibleValues visit(CharValue a, CharValue b) {
         if (b.getMin() != b.getMax()) return a;
-        if (b.getMin() == a.getMin() && b.getMin() == a.getMax()) return new EmptyValue();
+        if (b.getMin() == a.getMin() && b.getMin() == a.getMax()) return EmptyValue.VALUE;
         if (b.getMin() == a.getMin() && a.getMin() != Character.MAX_VALUE) return new CharValue((char) (a.getMin() + 1), (char) a.getMax());
         if (b.getMin() == a.getMax() && a.getMax() != Character.MIN_VALUE) return new CharValue((char) a.getMin(), (char) (a.getMax() - 1));
         return a;
@@ -33,13 +43,13 @@ public class RestrictNotEqualsVisitor extends RestrictionVisitor {
 
     @Override
     public PossibleValues visit(NullValue a, ObjectValue b) {
-        if (NullValue.VALUE == b) return new EmptyValue();
+        if (NullValue.VALUE == b) return EmptyValue.VALUE;
         return a;
     }
 
     @Override
     public PossibleValues visit(ObjectValue a, NullValue b) {
-        if (a == NullValue.VALUE) return new EmptyValue();
+        if (a == NullValue.VALUE) return EmptyValue.VALUE;
         return a.withNotNullable();
     }
 
@@ -51,13 +61,13 @@ public class RestrictNotEqualsVisitor extends RestrictionVisitor {
 
     @Override
     public PossibleValues visit(NullValue a, PossibleValues b) {
-        if (NullValue.VALUE == b) return new EmptyValue();
+        if (NullValue.VALUE == b) return EmptyValue.VALUE;
         return a;
     }
 
     @Override
     public PossibleValues visit(PossibleValues a, NullValue b) {
-        if (NullValue.VALUE == a) return new EmptyValue();
+        if (NullValue.VALUE == a) return EmptyValue.VALUE;
         if (a.canBeNull() && a instanceof ObjectValue objectValue) {
             return objectValue.withNotNullable();
         }
@@ -68,7 +68,7 @@ public abstract class RestrictionVisitor implements OperationVisitor<PossibleVal
 
     @Override
     public PossibleValues visit(AnyValue a, IntegerValue b) {
-        return visit(new IntegerRange(Integer.MIN_VALUE, Integer.MAX_VALUE), b);
+        return visit(IntegerRange.ANY_VALUE, b);
     }
 
     @Override
@@ -93,12 +93,12 @@ public abstract class RestrictionVisitor implements OperationVisitor<PossibleVal
 
     @Override
     public PossibleValues visit(NullValue a, ObjectValue b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ObjectValue a, NullValue b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
@@ -143,11 +143,11 @@ public abstract class RestrictionVisitor implements OperationVisitor<PossibleVal
 
     @Override
     public PossibleValues visit(NullValue a, PossibleValues b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(PossibleValues a, NullValue b) {
-        return new EmptyValue();
+        return EmptyValue.VALUE;
     }
 }
@@ -9,15 +9,15 @@ import utils.MathUtil;
 public class SubtractVisitor extends OperationVisitorWithDefault {
     @Override
     public PossibleValues visit(IntegerValue a, IntegerValue b) {
-        return new IntegerRange(
-                MathUtil.subtractToLimit(a.getMin(), b.getMax()),
-                MathUtil.subtractToLimit(a.getMax(), b.getMin())
-        );
+        return IntegerIntervalSet.combine(a, b, (aMin, aMax, bMin, bMax) -> ValueFactory.integer(
+                MathUtil.subtractToLimit(aMin, bMax),
+                MathUtil.subtractToLimit(aMax, bMin)
+        ));
     }
 
     @Override
     public PossibleValues visit(CharValue a, CharValue b) {
-        return new IntegerRange(
+        return ValueFactory.integer(
                 MathUtil.subtractToLimit(a.getMin(), b.getMax()),
                 MathUtil.subtractToLimit(a.getMax(), b.getMin())
         );
@@ -25,7 +25,7 @@ public class SubtractVisitor extends OperationVisitorWithDefault {
 
     @Override
     public PossibleValues visit(CharValue a, IntegerValue b) {
-        return new IntegerRange(
+        return ValueFactory.integer(
                 MathUtil.subtractToLimit(a.getMin(), b.getMax()),
                 MathUtil.subtractToLimit(a.getMax(), b.getMin())
         );
@@ -33,7 +33,7 @@ public class SubtractVisitor extends OperationVisitorWithDefault {
 
     @Override
     public PossibleValues visit(IntegerValue a, CharValue b) {
-        return new IntegerRange(
+        return ValueFactory.integer(
                 MathUtil.subtractToLimit(a.getMin(), b.getMax()),
                 MathUtil.subtractToLimit(a.getMax(), b.getMin())
         );
@@ -0,0 +1,92 @@
+package analysis.values.visitor;
+
+import analysis.values.*;
+
+import java.util.Arrays;
+
+/**
+ * Visitor for widening a (values so far) with b (values after another loop iteration)
+ * <ul>
+ *     <li>Bounds of b that stay within a are kept</li>
+ *     <li>Bounds of integers and characters that grow past a jump to the nearest threshold past them
+ *     (i.e. the constants of the loop condition), or to the limit of the type's domain if there is none</li>
+ *     <li>Other bounds that grow past a jump to the limit of the type's domain</li>
+ * </ul>
+ * Sets of intervals are widened to a range, so loops stabilise after a few runs.
+ * Anything that is not a range is merged as usual.
+ */
+public class WidenVisitor extends MergeVisitor {
+    private final int[] thresholds;
+
+    public WidenVisitor() {
+        this(new int[0]);
+    }
+
+    /**
+     * @param thresholds Values that widened integer and character bounds stop at
+     */
+    public WidenVisitor(int[] thresholds) {
+        this.thresholds = thresholds.clone();
+        Arrays.sort(this.thresholds);
+    }
+
+    @Override
+    public IntegerValue visit(IntegerValue a, IntegerValue b) {
+        return ValueFactory.integer(
+                b.getMin() < a.getMin() ? widenMin(b.getMin(), Integer.MIN_VALUE) : a.getMin(),
+                b.getMax() > a.getMax() ? widenMax(b.getMax(), Integer.MAX_VALUE) : a.getMax(),
+                a
+        );
+    }
+
+    @Override
+    public PossibleValues visit(CharValue a, CharValue b) {
+        return ValueFactory.character(
+                b.getMin() < a.getMin() ? widenMin(b.getMin(), Character.MIN_VALUE) : a.getMin(),
+                b.getMax() > a.getMax() ? widenMax(b.getMax(), Character.MAX_VALUE) : a.getMax(),
+                a, b
+        );
+    }
+
+    @Override
+    public PossibleValues visit(StringValue a, StringValue b) {
+        return ValueFactory.string(
+                b.minStringLength() < a.minStringLength() ? 0 : a.minStringLength(),
+                b.maxStringLength() > a.maxStringLength() ? Integer.MAX_VALUE : a.maxStringLength(),
+                a.canBeNull() || b.canBeNull(),
+                a, b
+        );
+    }
+
+    @Override
+    public PossibleValues visit(ArrayValue a, ArrayValue b) {
+        IntegerValue aLength = a.getLength();
+        IntegerValue bLength = b.getLength();
+        IntegerValue length = ValueFactory.integer(
+                bLength.getMin() < aLength.getMin() ? ArrayValue.MIN_LENGTH_NUM : aLength.getMin(),
+                bLength.getMax() > aLength.getMax() ? ArrayValue.MAX_LENGTH_NUM : aLength.getMax(),
+                aLength
+        );
+        return new ArrayValue(length, a.canBeNull() || b.canBeNull());
+    }
+
+    /**
+     * @return Largest threshold at or below the lower bound (within the limit), or the limit
+     */
+    private int widenMin(int min, int limit) {
+        for (int i = thresholds.length - 1; i >= 0; i--) {
+            if (thresholds[i] <= min) return Math.max(thresholds[i], limit);
+        }
+        return limit;
+    }
+
+    /**
+     * @return Smallest threshold at or above the upper bound (within the limit), or the limit
+     */
+    private int widenMax(int max, int limit) {
+        for (int threshold : thresholds) {
+            if (threshold >= max) return Math.min(threshold, limit);
+        }
+        return limit;
+    }
+}
@@ -1,9 +1,11 @@
 package analysis.visitor;
 
+import analysis.cfg.ControlFlowGraph;
 import analysis.exceptions.UnsupportedNodeException;
 import analysis.model.*;
-import analysis.values.PossibleValues;
+import analysis.values.*;
 import analysis.values.visitor.*;
+import com.github.javaparser.Range;
 import com.github.javaparser.ast.*;
 import com.github.javaparser.ast.body.*;
 import com.github.javaparser.ast.comments.BlockComment;
@@ -15,35 +17,75 @@ import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.type.*;
 import com.github.javaparser.ast.visitor.GenericVisitor;
 import com.github.javaparser.javadoc.Javadoc;
-import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.types.ResolvedType;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import logger.AnalysisLogger;
+import logger.AnalysisProfiler;
+import logger.EventSuspension;
 import utils.AnnotationUtil;
 import utils.JavadocUtil;
+import utils.MethodIndex;
+import utils.ResolverUtil;
+import utils.TypeUtil;
 import utils.ValueUtil;
+import utils.VariableUtil;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
 
 public class AnalysisVisitor implements GenericVisitor<EndState, AnalysisState> {
+    /**
+     * Number of loop iterations to run exactly before widening.
+     * Widened bounds stop at the thresholds of the loop condition and are narrowed afterwards, so loop counters keep
+     * their bounds (i.e. i in [0,10] after for (i = 0; i < 10; i++)). Values that grow with every iteration
+     * (i.e. a sum over the loop) lose their upper bound; higher delays only keep them for loops that end within the delay.
+     */
+    public static final int DEFAULT_WIDENING_DELAY = 3;
+    /**
+     * Max number of loop iterations to run for narrowing after widening
+     */
+    static final int NARROWING_PASSES = 2;
+    /**
+     * Fork-join pool of parallel branches, separate from the pools of the callers (i.e. the batch analysis threads)
+     * so branches use every processor whatever the pool of the analysis
+     */
+    private static final ForkJoinPool BRANCH_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     private final String targetMethod;
     private final ExpressionVisitor expressionVisitor;
     private final ConditionVisitor conditionVisitor;
     private final MergeVisitor mergeVisitor;
     private final IntersectVisitor intersectVisitor;
+    private final WidenVisitor widenVisitor;
+    private final NarrowVisitor narrowVisitor;
+    private int wideningDelay;
+    private int parallelBranchLines;
+    private boolean useControlFlowGraph;
 
     public AnalysisVisitor(String targetMethod) {
         this(targetMethod, new ExpressionVisitor());
     }
 
+    /**
+     * @param intervalLimit Maximum number of intervals of integer values (see IntegerIntervalSet)
+     */
+    public AnalysisVisitor(String targetMethod, IntegerIntervalSet.Limit intervalLimit) {
+        this(targetMethod, new ExpressionVisitor(intervalLimit));
+    }
+
+    /**
+     * @param expressionVisitor Visitor of the expressions (its interval limit is used for the whole analysis)
+     */
     public AnalysisVisitor(String targetMethod, ExpressionVisitor expressionVisitor) {
         this.targetMethod = targetMethod;
-        this.mergeVisitor = new MergeVisitor();
+        this.mergeVisitor = new MergeVisitor(expressionVisitor.getIntervalLimit());
         this.intersectVisitor = new IntersectVisitor();
+        this.widenVisitor = new WidenVisitor();
+        this.narrowVisitor = new NarrowVisitor();
+        this.wideningDelay = DEFAULT_WIDENING_DELAY;
         this.expressionVisitor = expressionVisitor;
+        this.expressionVisitor.setAnalysisVisitor(this);
         this.conditionVisitor = new ConditionVisitor(
                 this.expressionVisitor,
                 this.mergeVisitor,
@@ -51,94 +93,330 @@ public class AnalysisVisitor implements GenericVisitor<EndState, AnalysisState>
         );
     }
 
+    /**
+     * Set the number of loop iterations to run exactly before widening the loop state
+     */
+    public void setWideningDelay(int wideningDelay) {
+        this.wideningDelay = Math.max(wideningDelay, 0);
+    }
+
+    public int getWideningDelay() {
+        return wideningDelay;
+    }
+
+    /**
+     * Analyze the branches of if statements in parallel (in a fork-join pool of branches) when both branches span
+     * at least the given number of lines
+     * @param parallelBranchLines Minimum number of lines of both branches, or 0 to always analyze branches sequentially
+     */
+    public void setParallelBranchLines(int parallelBranchLines) {
+        this.parallelBranchLines = Math.max(parallelBranchLines, 0);
+    }
+
+    public int getParallelBranchLines() {
+        return parallelBranchLines;
+    }
+
+    /**
+     * Analyze method bodies as a fixpoint over their control flow graph (see WorklistAnalyzer)
+     * instead of walking their statements (branches are then always analyzed sequentially)
+     */
+    public void setUseControlFlowGraph(boolean useControlFlowGraph) {
+        this.useControlFlowGraph = useControlFlowGraph;
+    }
+
+    public boolean isUseControlFlowGraph() {
+        return useControlFlowGraph;
+    }
+
+    /**
+     * @return Visitor with the same options for analyzing a called method (for its summary)
+     */
+    AnalysisVisitor createSummaryVisitor(String targetMethod) {
+        AnalysisVisitor visitor = new AnalysisVisitor(targetMethod, expressionVisitor.getIntervalLimit());
+        visitor.setWideningDelay(wideningDelay);
+        visitor.setParallelBranchLines(parallelBranchLines);
+        visitor.setUseControlFlowGraph(useControlFlowGraph);
+        return visitor;
+    }
+
     @Override
     public EndState visit(CompilationUnit n, AnalysisState arg) {
-        List<MethodDeclaration> declarations = n.findAll(
-                MethodDeclaration.class,
-                methodDeclaration -> Objects.equals(methodDeclaration.getNameAsString(), targetMethod)
-        );
-        if (declarations.isEmpty()) throw new RuntimeException("Method not found");
-        MethodDeclaration dec = declarations.get(0);
-        dec.accept(this, arg);
+        MethodIndex.findMethod(n, targetMethod).accept(this, arg);
         return null;
     }
 
     @Override
     public EndState visit(MethodDeclaration n, AnalysisState arg) {
+        return analyzeMethod(n, null, arg);
+    }
+
+    /**
+     * Analyze a method with its parameters set to the given values (i.e. the arguments of a method call)
+     * @param parameterValues Values of the parameters, or null to use the values of the parameter types and annotations
+     * @return EndState of the method body (containing the returned values)
+     */
+    public EndState analyzeMethod(MethodDeclaration n, List<PossibleValues> parameterValues, AnalysisState arg) {
         VariablesState varState = arg.getVariablesState();
+        varState.useSlots(VariableSlots.forNode(n));
         Optional<BlockStmt> body = n.getBody();
-        for (Parameter p : n.getParameters()) {
-            PossibleValues val = ValueUtil.getValueForType(p.getType().resolve(), p.getAnnotations(), expressionVisitor);
-            if (val.isEmpty()) {
-                arg.addError(n, new AnalysisError("Annotations make domain empty: " + p, true));
+        NodeList<Parameter> parameters = n.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            Parameter p = parameters.get(i);
+            PossibleValues val;
+            if (parameterValues != null) {
+                val = parameterValues.get(i);
+            } else {
+                val = ValueUtil.getValueForType(ResolverUtil.resolve(p.getType()), p.getAnnotations(), expressionVisitor);
+                if (val.isEmpty()) {
+                    arg.addError(n, new AnalysisError("Annotations make domain empty", p, true));
+                }
             }
             varState.setVariable(p, val);
         }
-        AnalysisLogger.log(n.getName(), varState);
-        if (arg.getErrorMap().containsKey(n)) AnalysisLogger.logErrors(n, arg.getErrorMap().get(n));
+        AnalysisLogger.state(n.getName(), varState);
+        if (arg.getErrorMap().containsKey(n)) AnalysisLogger.errors(n, arg.getErrorMap().get(n));
+        ControlFlowGraph cfg = useControlFlowGraph && body.isPresent() ? getControlFlowGraph(n) : null;
+        if (cfg != null) {
+            // Blocks of the graph are not analyzed in the order of the diagram, so the body is drawn as a whole
+            arg.getOutline().add(DiagramOutline.Kind.TREE, body.get());
+            arg.getOutline().suspend();
+            EndState endState = new WorklistAnalyzer(this, expressionVisitor, conditionVisitor, mergeVisitor, narrowVisitor,
+                    wideningDelay, cfg).analyze(arg);
+            arg.getOutline().resume();
+            return endState;
+        }
         return body.map(blockStmt -> blockStmt.accept(this, arg)).orElse(null);
     }
 
+    /**
+     * @return Control flow graph of the method, or null if it has statements that the graph does not support
+     * (the method is then analyzed by walking its statements)
+     */
+    private static ControlFlowGraph getControlFlowGraph(MethodDeclaration n) {
+        try {
+            return ControlFlowGraph.forMethod(n);
+        } catch (UnsupportedNodeException e) {
+            AnalysisLogger.message(n, "CONTROL FLOW GRAPH NOT SUPPORTED: %s", e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public EndState visit(BlockStmt n, AnalysisState arg) {
         EndState endState = new EndState();
-        for (Statement s : n.getStatements()) {
-            if (arg.getVariablesState().isDomainEmpty()) return endState;
+        NodeList<Statement> statements = n.getStatements();
+        for (int i = 0; i < statements.size(); i++) {
+            Statement s = statements.get(i);
+            if (arg.getVariablesState().isDomainEmpty()) {
+                // Unreachable statements are still drawn
+                for (int j = i; j < statements.size(); j++) arg.getOutline().add(DiagramOutline.Kind.TREE, statements.get(j));
+                return endState;
+            }
+            long start = AnalysisProfiler.start();
             endState.add(s.accept(this, arg));
+            AnalysisProfiler.endStatement(s, start);
         }
         return endState;
     }
 
     @Override
     public EndState visit(ExpressionStmt n, AnalysisState arg) {
+        arg.getOutline().add(DiagramOutline.Kind.STATEMENT, n);
         VariablesState varState = arg.getVariablesState();
+        VariablesState beforeState = copyIfCallsMethod(n.getExpression(), varState);
+        arg.addRuntimeThrowState(mergeVisitor, varState);
         ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(varState);
         n.getExpression().accept(expressionVisitor, exprAnalysisState);
         arg.addErrors(n, exprAnalysisState.getErrors());
-        AnalysisLogger.log(n, varState, exprAnalysisState.getErrors());
-        return null;
+        AnalysisLogger.state(n, varState, exprAnalysisState.getErrors());
+        if (beforeState == null || exprAnalysisState.getThrownTypes().isEmpty()) return null;
+        EndState endState = new EndState();
+        addThrowStates(endState, beforeState, exprAnalysisState);
+        return endState;
+    }
+
+    /**
+     * @return Copy of the state before an expression that calls a method (which may throw an exception),
+     * or null if the expression does not call a method
+     */
+    static VariablesState copyIfCallsMethod(Expression e, VariablesState state) {
+        return e.findFirst(MethodCallExpr.class).isPresent() ? state.copy() : null;
+    }
+
+    /**
+     * Add a throw state for each exception that the methods called by an expression may throw
+     * @param beforeState State before the expression (see copyIfCallsMethod), or null
+     */
+    private static void addThrowStates(EndState endState, VariablesState beforeState, ExpressionAnalysisState exprAnalysisState) {
+        if (beforeState == null || beforeState.isDomainEmpty()) return;
+        for (ResolvedType type : exprAnalysisState.getThrownTypes()) {
+            endState.addThrowState(new ThrowState(type, beforeState));
+        }
+    }
+
+    /**
+     * @return True if both branches of the if statement are reachable, have separate states,
+     * and are large enough to be analyzed in parallel
+     */
+    private boolean isParallelBranches(IfStmt n, VariablesState trueVarState, VariablesState falseVarState) {
+        if (parallelBranchLines == 0 || n.getElseStmt().isEmpty()) return false;
+        if (trueVarState == falseVarState || trueVarState.isDomainEmpty() || falseVarState.isDomainEmpty()) return false;
+        return getLineCount(n.getThenStmt()) >= parallelBranchLines && getLineCount(n.getElseStmt().get()) >= parallelBranchLines;
+    }
+
+    private static int getLineCount(Node n) {
+        return n.getRange().map(Range::getLineCount).orElse(0);
+    }
+
+    /**
+     * Analysis of a branch in the fork-join pool of branches. Exceptions are kept and rethrown as they are by the joining thread.
+     * Events of the branch are suspended if they are suspended in the forking thread.
+     */
+    private final class BranchTask extends RecursiveTask<EndState> {
+        private final Statement statement;
+        private final AnalysisState state;
+        private final boolean isSuspended;
+        private RuntimeException exception;
+
+        private BranchTask(Statement statement, AnalysisState state) {
+            this.statement = statement;
+            this.state = state;
+            this.isSuspended = EventSuspension.isSuspended();
+        }
+
+        @Override
+        protected EndState compute() {
+            if (isSuspended) EventSuspension.suspend();
+            try {
+                return statement.accept(AnalysisVisitor.this, state);
+            } catch (RuntimeException e) {
+                exception = e;
+                return null;
+            } finally {
+                if (isSuspended) EventSuspension.resume();
+            }
+        }
+
+        /**
+         * Start the branch in the pool of branches: forked within the pool, submitted to it from any other thread
+         */
+        private void start() {
+            if (ForkJoinTask.getPool() == BRANCH_POOL) fork();
+            else BRANCH_POOL.execute(this);
+        }
+
+        /**
+         * @return EndState of the branch (after joining the task)
+         */
+        private EndState getEndState() {
+            if (exception != null) throw exception;
+            return getRawResult();
+        }
     }
 
+    /**
+     * Handle a switch statement
+     * <ul>
+     *     <li>Case labels do not restrict the selector, so every entry starts from the state after the selector</li>
+     *     <li>Entries of statements (case X:) also start from the state falling through from the previous entry</li>
+     *     <li>The switch exits after the last entry, after entries with arrows (case X ->), at breaks,
+     *     and without running any entry if it has no default entry</li>
+     * </ul>
+     */
     @Override
     public EndState visit(SwitchStmt n, AnalysisState arg) {
-        throw new UnsupportedNodeException("SWITCH statements are not supported");
+        // Switch statements are not drawn
+        arg.getOutline().suspend();
+        EndState endState = new EndState();
+        VariablesState varState = arg.getVariablesState();
+        arg.addRuntimeThrowState(mergeVisitor, varState);
+        ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(varState);
+        n.getSelector().accept(expressionVisitor, exprAnalysisState);
+        AnalysisLogger.branch(n, "SWITCH", varState);
+        AnalysisLogger.errors(n, exprAnalysisState.getErrors());
+        arg.addErrors(n, exprAnalysisState.getErrors());
+
+        VariablesState exitState = VariablesState.createEmpty();
+        VariablesState fallState = VariablesState.createEmpty(); // State falling through from the previous entry
+        boolean hasDefault = false;
+        for (SwitchEntry entry : n.getEntries()) {
+            if (entry.getLabels().isEmpty()) hasDefault = true;
+            boolean fallsThrough = entry.getType() == SwitchEntry.Type.STATEMENT_GROUP;
+            VariablesState entryState = varState.copy();
+            if (fallsThrough) entryState.merge(mergeVisitor, fallState);
+            AnalysisLogger.branch(entry, "SWITCH CASE", entryState);
+            AnalysisState entryAnalysisState = arg.nested(entryState);
+            endState.add(entry.accept(this, entryAnalysisState));
+            arg.add(mergeVisitor, entryAnalysisState);
+            if (fallsThrough) {
+                fallState = entryState;
+            } else {
+                exitState.merge(mergeVisitor, entryState);
+            }
+        }
+        exitState.merge(mergeVisitor, fallState);
+        if (!hasDefault) exitState.merge(mergeVisitor, varState);
+
+        // Merge break states with exit state
+        for (VariablesState breakState : endState.popBreakStates()) {
+            exitState.merge(mergeVisitor, breakState);
+        }
+        varState.copyValuesFrom(exitState);
+        AnalysisLogger.merge(n, "SWITCH MERGED", varState);
+        arg.getOutline().resume();
+        return endState;
     }
 
     @Override
     public EndState visit(SwitchEntry n, AnalysisState arg) {
-        throw new UnsupportedNodeException("SWITCH statements are not supported");
+        EndState endState = new EndState();
+        for (Statement s : n.getStatements()) {
+            if (arg.getVariablesState().isDomainEmpty()) return endState;
+            long start = AnalysisProfiler.start();
+            endState.add(s.accept(this, arg));
+            AnalysisProfiler.endStatement(s, start);
+        }
+        return endState;
     }
 
     @Override
     public EndState visit(BreakStmt n, AnalysisState arg) {
+        arg.getOutline().add(DiagramOutline.Kind.STATEMENT, n);
         EndState endState = new EndState();
         endState.addBreakState(arg.getVariablesState().copy());
-        AnalysisLogger.logFormat(n, "BREAK: %s", arg.getVariablesState());
+        AnalysisLogger.branch(n, "BREAK", arg.getVariablesState());
         arg.getVariablesState().setDomainEmpty();
         return endState;
     }
 
     @Override
     public EndState visit(ReturnStmt n, AnalysisState arg) {
+        arg.getOutline().add(DiagramOutline.Kind.STATEMENT, n);
         EndState endState = new EndState();
         VariablesState varState = arg.getVariablesState();
         if (n.getExpression().isPresent()) {
+            VariablesState beforeState = copyIfCallsMethod(n.getExpression().get(), varState);
+            arg.addRuntimeThrowState(mergeVisitor, varState);
             ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(varState);
             PossibleValues value = n.getExpression().get().accept(expressionVisitor, exprAnalysisState);
-            AnalysisLogger.log(n, exprAnalysisState.getVariablesState(), exprAnalysisState.getErrors());
+            AnalysisLogger.state(n, exprAnalysisState.getVariablesState(), exprAnalysisState.getErrors());
             arg.addErrors(n, exprAnalysisState.getErrors());
+            addThrowStates(endState, beforeState, exprAnalysisState);
 
             if (!varState.isDomainEmpty()) {
+                endState.addReturnValue(value);
+
                 // Check annotation against return
                 MethodDeclaration dec = n.findAncestor(MethodDeclaration.class).orElse(null);
                 if (dec != null) {
                     List<AnalysisError> errors = AnnotationUtil.checkReturnValueWithAnnotation(
                             value,
                             dec.getAnnotations(),
-                            n.getExpression().get().toString()
+                            n.getExpression().get()
                     );
                     arg.addErrors(n, errors);
-                    AnalysisLogger.logErrors(n, errors);
+                    AnalysisLogger.errors(n, errors);
                 }
             }
         }
@@ -150,25 +428,54 @@ public class AnalysisVisitor implements GenericVisitor<EndState, AnalysisState>
     public EndState visit(IfStmt n, AnalysisState arg) {
         EndState endState = new EndState();
         VariablesState varState = arg.getVariablesState();
+        VariablesState beforeState = copyIfCallsMethod(n.getCondition(), varState);
+        arg.addRuntimeThrowState(mergeVisitor, varState);
         ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(varState);
+        long start = AnalysisProfiler.start();
         ConditionStates conditionStates = n.getCondition().accept(conditionVisitor, exprAnalysisState);
+        AnalysisProfiler.endCondition(n.getCondition(), start);
+        addThrowStates(endState, beforeState, exprAnalysisState);
         VariablesState trueVarState = conditionStates.getTrueState();
         VariablesState falseVarState = conditionStates.getFalseState();
-        AnalysisLogger.logFormat(n, "IF: ", varState);
-        AnalysisLogger.logErrors(n, exprAnalysisState.getErrors());
+        AnalysisLogger.branch(n, "IF", varState);
+        AnalysisLogger.errors(n, exprAnalysisState.getErrors());
         arg.addErrors(n, exprAnalysisState.getErrors());
 
-        // IF case
-        AnalysisLogger.log(n, "IF TRUE: " + trueVarState.toFormattedString());
-        AnalysisState trueAnalysisState = new AnalysisState(trueVarState);
-        endState.add(n.getThenStmt().accept(this, trueAnalysisState));
-
-        // ELSE case
-        AnalysisLogger.log(n, "IF FALSE: " + falseVarState.toFormattedString());
-        AnalysisState falseAnalysisState = new AnalysisState(falseVarState);
-        if (n.getElseStmt().isPresent()) {
-            endState.add(n.getElseStmt().get().accept(this, falseAnalysisState));
+        DiagramOutline outline = arg.getOutline();
+        outline.add(DiagramOutline.Kind.OPEN, n);
+        AnalysisState trueAnalysisState = arg.nested(trueVarState);
+        AnalysisState falseAnalysisState;
+        if (isParallelBranches(n, trueVarState, falseVarState)) {
+            // Both branches only change their own states until the merge
+            falseAnalysisState = arg.branch(falseVarState);
+            AnalysisLogger.branch(n, "IF TRUE", trueVarState);
+            AnalysisLogger.branch(n, "IF FALSE", falseVarState);
+            BranchTask elseTask = new BranchTask(n.getElseStmt().get(), falseAnalysisState);
+            elseTask.start();
+            EndState thenEndState;
+            try {
+                thenEndState = n.getThenStmt().accept(this, trueAnalysisState);
+            } finally {
+                elseTask.quietlyJoin();
+            }
+            endState.add(thenEndState);
+            endState.add(elseTask.getEndState());
+            outline.add(DiagramOutline.Kind.ELSE, n);
+            outline.addAll(falseAnalysisState.getOutline());
+        } else {
+            falseAnalysisState = arg.nested(falseVarState);
+            // IF case
+            AnalysisLogger.branch(n, "IF TRUE", trueVarState);
+            endState.add(n.getThenStmt().accept(this, trueAnalysisState));
+
+            // ELSE case
+            outline.add(DiagramOutline.Kind.ELSE, n);
+            AnalysisLogger.branch(n, "IF FALSE", falseVarState);
+            if (n.getElseStmt().isPresent()) {
+                endState.add(n.getElseStmt().get().accept(this, falseAnalysisState));
+            }
         }
+        outline.add(DiagramOutline.Kind.CLOSE, n);
 
         // Merge together
         VariablesState mergedState = new VariablesState();
@@ -176,130 +483,195 @@ public class AnalysisVisitor implements GenericVisitor<EndState, AnalysisState>
         if (!trueVarState.isDomainEmpty()) mergedState.copyValuesFrom(trueVarState);
         if (!falseVarState.isDomainEmpty()) mergedState.merge(mergeVisitor, falseVarState);
         varState.copyValuesFrom(mergedState);
-        arg.addErrors(trueAnalysisState);
-        arg.addErrors(falseAnalysisState);
-        AnalysisLogger.logEndFormat(n, "IF MERGED: %s", varState);
+        arg.add(mergeVisitor, trueAnalysisState);
+        arg.add(mergeVisitor, falseAnalysisState);
+        AnalysisLogger.merge(n, "IF MERGED", varState);
         return endState;
     }
 
     @Override
     public EndState visit(WhileStmt n, AnalysisState arg) {
-        return handleLoop(n, "WHILE", arg, n.getCondition(), n.getBody(), null);
+        arg.getOutline().add(DiagramOutline.Kind.OPEN, n);
+        EndState endState = handleLoop(n, "WHILE", arg, n.getCondition(), n.getBody(), null);
+        arg.getOutline().add(DiagramOutline.Kind.CLOSE, n);
+        return endState;
     }
 
     @Override
     public EndState visit(ContinueStmt n, AnalysisState arg) {
+        arg.getOutline().add(DiagramOutline.Kind.STATEMENT, n);
         EndState endState = new EndState();
         endState.addContinueState(arg.getVariablesState().copy());
-        AnalysisLogger.logFormat(n, "CONTINUE: %s", arg.getVariablesState());
+        AnalysisLogger.branch(n, "CONTINUE", arg.getVariablesState());
         arg.getVariablesState().setDomainEmpty();
         return endState;
 
     }
 
+    /**
+     * Handle a do-while loop: the first run of the body does not check the condition,
+     * and the runs after it are a while loop
+     */
     @Override
     public EndState visit(DoStmt n, AnalysisState arg) {
-        throw new UnsupportedNodeException("DO-WHILE loops are not supported");
+        VariablesState varState = arg.getVariablesState();
+        AnalysisLogger.branch(n, "DO-WHILE FIRST RUN", varState);
+        DiagramOutline outline = arg.getOutline();
+        outline.add(DiagramOutline.Kind.OPEN, n);
+        EndState endState = new EndState();
+        endState.add(n.getBody().accept(this, arg));
+
+        // Merge continue states to current state
+        for (VariablesState continueState : endState.popContinueStates()) {
+            varState.merge(mergeVisitor, continueState);
+        }
+        Set<VariablesState> breakStates = endState.popBreakStates();
+        // The body is drawn from its first run
+        outline.suspend();
+        endState.add(handleLoop(n, "DO-WHILE", arg, n.getCondition(), n.getBody(), null));
+        outline.resume();
+        outline.add(DiagramOutline.Kind.CLOSE, n);
+
+        // Merge break states of the first run with exit state
+        for (VariablesState breakState : breakStates) {
+            varState.merge(mergeVisitor, breakState);
+        }
+        return endState;
     }
 
+    /**
+     * Handle a for-each loop
+     * <ul>
+     *     <li>The iterable is checked once for null before the loop</li>
+     *     <li>Every iteration may be the last one, and sets the variable to any value of its type (and annotations)</li>
+     * </ul>
+     */
     @Override
     public EndState visit(ForEachStmt n, AnalysisState arg) {
-        throw new UnsupportedNodeException("FOR-EACH loops are not supported");
+        VariablesState varState = arg.getVariablesState();
+        arg.addRuntimeThrowState(mergeVisitor, varState);
+        ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(varState);
+        boolean isEntered = checkIterable(n, exprAnalysisState);
+        arg.addErrors(n.getIterable(), exprAnalysisState.getErrors());
+        AnalysisLogger.branch(n, "FOR-EACH ITERABLE", varState);
+        DiagramOutline outline = arg.getOutline();
+        outline.add(DiagramOutline.Kind.OPEN, n);
+        EndState endState;
+        if (isEntered) {
+            endState = handleLoop(n, "FOR-EACH", arg, null, n.getBody(), null);
+        } else {
+            AnalysisLogger.message(n, "FOR-EACH ARRAY IS EMPTY");
+            outline.add(DiagramOutline.Kind.TREE, n.getBody());
+            endState = new EndState();
+        }
+        outline.add(DiagramOutline.Kind.CLOSE, n);
+        return endState;
+    }
+
+    /**
+     * Evaluate the iterable of a for-each loop, which is not null after the loop starts
+     * @return False if the iterable is an empty array (the loop is never entered)
+     */
+    boolean checkIterable(ForEachStmt n, ExpressionAnalysisState exprAnalysisState) {
+        Expression iterable = n.getIterable();
+        PossibleValues iterableValue = iterable.accept(expressionVisitor, exprAnalysisState);
+        if (!iterableValue.isEmpty() && iterableValue.canBeNull()) {
+            exprAnalysisState.addError(new AnalysisError(NullPointerException.class, iterable, iterableValue == NullValue.VALUE));
+            if (iterableValue instanceof ObjectValue objValue) {
+                VariableUtil.setVariableFromExpression(iterable, objValue.withNotNullable(), exprAnalysisState.getVariablesState());
+            }
+        }
+        return !(iterableValue instanceof ArrayValue arrayValue && arrayValue.getLength().getMax() == 0);
+    }
+
+    /**
+     * @return Value of the variable of a for-each loop in any iteration
+     */
+    PossibleValues getForEachValue(ForEachStmt n) {
+        ResolvedType type = ResolverUtil.resolveOrNull(n.getVariableDeclarator().getType());
+        if (type == null) return AnyValue.VALUE;
+        return ValueUtil.getValueForType(type, n.getVariable().getAnnotations(), expressionVisitor);
     }
 
     @Override
     public EndState visit(ForStmt n, AnalysisState arg) {
         VariablesState varState = arg.getVariablesState();
         for (Expression e : n.getInitialization()) {
+            arg.addRuntimeThrowState(mergeVisitor, varState);
             ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(varState);
             e.accept(expressionVisitor, exprAnalysisState);
             arg.addErrors(e, exprAnalysisState.getErrors());
         }
-        AnalysisLogger.log(n, "FOR INITIALIZE: " + varState.toFormattedString());
+        AnalysisLogger.branch(n, "FOR INITIALIZE", varState);
 
-        return handleLoop(n, "FOR", arg, n.getCompare().orElse(null), n.getBody(), n.getUpdate());
+        arg.getOutline().add(DiagramOutline.Kind.OPEN, n);
+        EndState endState = handleLoop(n, "FOR", arg, n.getCompare().orElse(null), n.getBody(), n.getUpdate());
+        arg.getOutline().add(DiagramOutline.Kind.CLOSE, n);
+        return endState;
     }
 
     /**
      * Handle a loop statement
+     * <ul>
+     *     <li>The loop is run iteration by iteration until its state stops changing,
+     *     for up to wideningDelay iterations</li>
+     *     <li>If the loop has not stabilised by then, the merged state of all iterations is widened
+     *     (up to the thresholds of the condition, see getWidenVisitor) until it stops growing,
+     *     then narrowed by running the loop again</li>
+     *     <li>The body is drawn from the first iteration (or as a whole if the first iteration does not enter it)</li>
+     * </ul>
      * @param loopNode Node containing the loop
      * @param loopName Name of the loop
      * @param state    AnalysisState at the loop
-     * @param compare  Condition to continue loop
+     * @param compare  Condition to continue loop (null for for-each loops, which may exit at any iteration)
      * @param body     Body inside the loop
      * @param update   Updater (i.e. for loop)
      */
     private EndState handleLoop(Node loopNode, String loopName, AnalysisState state, Expression compare, Statement body, NodeList<Expression> update) {
+        long start = AnalysisProfiler.start();
         EndState endState = new EndState();
         VariablesState varState = state.getVariablesState();
         VariablesState mergeState = varState.copy(); // State tracking the values in all iterations
         VariablesState currentState = varState.copy(); // State tracking the values in each iteration
-        VariablesState exitState = new VariablesState(); // State tracking the values when the loop exits
-        exitState.setDomainEmpty();
-
-        // Visitors for this loop
-        AnalysisVisitor loopAnalysisVisitor = this;
-        ExpressionVisitor loopExprVisitor = this.expressionVisitor;
-
-        int i = 0;
-        boolean isApprox = false;
-        do {
+        VariablesState exitState = VariablesState.createEmpty(); // State tracking the values when the loop exits
+
+        DiagramOutline outline = state.getOutline();
+        boolean isBodyDrawn = false;
+        outline.suspend();
+        boolean isStable = false;
+        int iterations = 0;
+        for (int i = 0; i < wideningDelay; i++) {
+            iterations++;
             VariablesState previousState = currentState.copy();
-            if (i > 1000 && !isApprox) {
-                // If # of loop runs is too long, start to approximate changes
-                isApprox = true;
-                AnalysisLogger.logFormat(loopNode, "%s [%s] TOO MANY ITERATIONS", loopName, i);
-                loopExprVisitor = new ExpressionVisitor(mergeVisitor, new AddApproximateVisitor(), new DivideVisitor(),
-                        new MultiplyVisitor(), new SubtractApproximateVisitor());
-                loopAnalysisVisitor = new AnalysisVisitor(targetMethod, loopExprVisitor);
-            }
-            if (i > 1000) {
-                currentState.merge(mergeVisitor, mergeState);
+            if (i == 0) outline.resume();
+            boolean isEntered = runLoopIteration(loopNode, loopName, i, compare, body, update, currentState, exitState, endState, state);
+            if (i == 0) {
+                isBodyDrawn = isEntered;
+                outline.suspend();
             }
-
-            // Check condition
-            if (compare != null) {
-                ExpressionAnalysisState compareAnalysisState = new ExpressionAnalysisState(currentState);
-                ConditionStates condStates = compare.accept(conditionVisitor, compareAnalysisState);
-                state.addErrors(compare, compareAnalysisState.getErrors());
-                if (!condStates.getFalseState().isDomainEmpty()) {
-                    exitState.merge(mergeVisitor, condStates.getFalseState());
-                    AnalysisLogger.logFormat(loopNode, "%s [%s] EXIT STATE: %s", loopName, i, exitState);
-                }
-                if (condStates.getTrueState().isDomainEmpty()) break;
-                currentState.copyValuesFrom(condStates.getTrueState());
-                AnalysisLogger.logFormat(loopNode, "%s [%s] CONDITION: %s", loopName, i, currentState);
-            }
-
-            AnalysisLogger.logFormat(loopNode, "%s [%s] ITERATION START STATE: %s", loopName, i, currentState);
-            AnalysisState analysisState = new AnalysisState(currentState);
-            EndState bodyEndState = body.accept(loopAnalysisVisitor, analysisState);
-            state.addErrors(analysisState);
-
-            // Merge continue states to current state
-            Set<VariablesState> continueStates = bodyEndState.popContinueStates();
-            for (VariablesState continueState : continueStates) {
-                currentState.merge(mergeVisitor, continueState);
-            }
-            endState.add(bodyEndState);
-
-            // Update in FOR loops
-            if (update != null) {
-                for (Expression e : update) {
-                    ExpressionAnalysisState updateAnalysisState = new ExpressionAnalysisState(currentState);
-                    e.accept(loopExprVisitor, updateAnalysisState);
-                    state.addErrors(e, updateAnalysisState.getErrors());
-                }
+            if (!isEntered) {
+                isStable = true;
+                break;
             }
-            AnalysisLogger.logEndFormat(loopNode, "%s [%s] ITERATION STATE: %s", loopName, i, currentState);
-
             mergeState.merge(mergeVisitor, currentState);
             if (Objects.equals(previousState, currentState)) {
-                AnalysisLogger.logEndFormat(loopNode, "%s [%s] UNCHANGED: %s", loopName, i, currentState);
+                AnalysisLogger.loopIteration(loopNode, loopName, i, "UNCHANGED", true, currentState);
+                isStable = true;
                 break;
             }
-            i++;
-        } while (true);
+        }
+
+        if (!isStable) {
+            // If # of loop runs is too long, find the fixpoint of all iterations with widening
+            AnalysisLogger.loopIteration(loopNode, loopName, wideningDelay, "TOO MANY ITERATIONS", false, null);
+            LoopIteration iteration = widenLoop(loopNode, loopName, state, compare, body, update, mergeState);
+            iterations = iteration.index() + 1;
+            exitState.merge(mergeVisitor, iteration.exitState());
+            endState.add(iteration.endState());
+            state.add(mergeVisitor, iteration.errorState());
+        }
+        outline.resume();
+        if (!isBodyDrawn) outline.add(DiagramOutline.Kind.TREE, body);
 
         // Merge break states with exit state
         Set<VariablesState> breakStates = endState.popBreakStates();
@@ -307,58 +679,369 @@ public class AnalysisVisitor implements GenericVisitor<EndState, AnalysisState>
             exitState.merge(mergeVisitor, breakState);
         }
 
-        AnalysisLogger.logEndFormat(loopNode, "%s EXIT STATE: %s", loopName, exitState);
-        if (exitState.isDomainEmpty()) AnalysisLogger.logEndFormat(loopNode, "%s LOOP IS INFINITE", loopName);
+        AnalysisLogger.merge(loopNode, loopName + " EXIT STATE", exitState);
+        if (exitState.isDomainEmpty()) AnalysisLogger.message(loopNode, "%s LOOP IS INFINITE", loopName);
         varState.copyValuesFrom(exitState);
+        AnalysisProfiler.endLoop(loopNode, loopName, iterations, start);
 
         return endState;
     }
 
+    /**
+     * Run the loop from the merged state of all iterations so far until it reaches a fixpoint
+     * @param state        AnalysisState at the loop
+     * @param initialState Merged state of the loop entry and all iterations run so far
+     * @return Last iteration of the loop, run from the fixpoint state
+     */
+    private LoopIteration widenLoop(Node loopNode, String loopName, AnalysisState state, Expression compare, Statement body, NodeList<Expression> update,
+                                    VariablesState initialState) {
+        VariablesState headState = initialState.copy(); // State at the start of any iteration
+        WidenVisitor loopWidenVisitor = getWidenVisitor(compare, initialState);
+        int i = wideningDelay;
+        LoopIteration iteration;
+
+        // Widen the start state until running an iteration no longer grows it
+        while (true) {
+            iteration = runLoopPass(loopNode, loopName, i++, state, compare, body, update, headState);
+            VariablesState nextState = headState.mergeCopy(mergeVisitor, iteration.state());
+            if (Objects.equals(nextState, headState)) break;
+            headState.merge(loopWidenVisitor, nextState);
+            AnalysisLogger.loopIteration(loopNode, loopName, i, "WIDENED STATE", true, headState);
+        }
+
+        // Narrow the widened bounds using the values that the loop actually produces
+        for (int pass = 0; pass < NARROWING_PASSES; pass++) {
+            VariablesState nextState = initialState.mergeCopy(mergeVisitor, iteration.state());
+            VariablesState narrowedState = headState.copy();
+            narrowedState.narrow(narrowVisitor, nextState);
+            if (Objects.equals(narrowedState, headState)) break;
+            headState = narrowedState;
+            AnalysisLogger.loopIteration(loopNode, loopName, i, "NARROWED STATE", true, headState);
+            iteration = runLoopPass(loopNode, loopName, i++, state, compare, body, update, headState);
+        }
+        return iteration;
+    }
+
+    /**
+     * Get the visitor widening the states of a loop. Widened bounds stop at the thresholds of the condition:
+     * the bounds of the operands of its comparisons, and the values next to them, in the state at the loop entry
+     * (i.e. 9, 10 and 11 for i < 10, so the counter is widened to [0,10] instead of having no upper bound).
+     * Operands that may have side effects (i.e. method calls) are not evaluated.
+     * @param condition Condition of the loop (null if none)
+     * @param state     State at the loop entry
+     */
+    WidenVisitor getWidenVisitor(Expression condition, VariablesState state) {
+        if (condition == null) return widenVisitor;
+        Set<Integer> thresholds = new HashSet<>();
+        for (BinaryExpr comparison : condition.findAll(BinaryExpr.class, AnalysisVisitor::isComparison)) {
+            addThresholds(comparison.getLeft(), state, thresholds);
+            addThresholds(comparison.getRight(), state, thresholds);
+        }
+        if (thresholds.isEmpty()) return widenVisitor;
+        return new WidenVisitor(thresholds.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private void addThresholds(Expression operand, VariablesState state, Set<Integer> thresholds) {
+        if (hasSideEffects(operand)) return;
+        PossibleValues value = operand.accept(expressionVisitor, new ExpressionAnalysisState(state.copy()));
+        long[] bounds;
+        if (value instanceof IntegerValue integer) {
+            bounds = new long[]{integer.getMin(), integer.getMax()};
+        } else if (value instanceof CharValue character) {
+            bounds = new long[]{character.getMin(), character.getMax()};
+        } else {
+            return;
+        }
+        for (long bound : bounds) {
+            for (long threshold = bound - 1; threshold <= bound + 1; threshold++) {
+                if (threshold >= Integer.MIN_VALUE && threshold <= Integer.MAX_VALUE) thresholds.add((int) threshold);
+            }
+        }
+    }
+
+    private static boolean isComparison(BinaryExpr n) {
+        return switch (n.getOperator()) {
+            case LESS, LESS_EQUALS, GREATER, GREATER_EQUALS, EQUALS, NOT_EQUALS -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean hasSideEffects(Expression n) {
+        return n.findFirst(Expression.class, e -> e.isMethodCallExpr() || e.isAssignExpr() || e.isObjectCreationExpr()
+                || e.isArrayCreationExpr() || e instanceof UnaryExpr unary && switch (unary.getOperator()) {
+                    case PREFIX_INCREMENT, PREFIX_DECREMENT, POSTFIX_INCREMENT, POSTFIX_DECREMENT -> true;
+                    default -> false;
+                }).isPresent();
+    }
+
+    /**
+     * Run a single iteration of the loop from a start state without changing the start state
+     * @param state AnalysisState at the loop (the errors of the iteration are not added to it)
+     */
+    private LoopIteration runLoopPass(Node loopNode, String loopName, int i, AnalysisState state, Expression compare, Statement body,
+                                      NodeList<Expression> update, VariablesState startState) {
+        VariablesState iterationState = startState.copy();
+        VariablesState exitState = VariablesState.createEmpty();
+        EndState endState = new EndState();
+        AnalysisState errorState = state.nested(iterationState);
+        if (!runLoopIteration(loopNode, loopName, i, compare, body, update, iterationState, exitState, endState, errorState)) {
+            iterationState = VariablesState.createEmpty();
+        }
+        return new LoopIteration(i, iterationState, exitState, endState, errorState);
+    }
+
+    /**
+     * Run a single iteration of the loop: condition, body, and update
+     * @param currentState State at the start of the iteration, updated to the state at the end of the iteration
+     * @param exitState    State to merge the exit state of the condition into
+     * @param endState     EndState to add the breaks of the body to
+     * @param errorState   AnalysisState to add the errors to
+     * @return False if the condition is never true, true otherwise
+     */
+    private boolean runLoopIteration(Node loopNode, String loopName, int i, Expression compare, Statement body, NodeList<Expression> update,
+                                     VariablesState currentState, VariablesState exitState, EndState endState, AnalysisState errorState) {
+        // Check condition
+        if (loopNode instanceof ForEachStmt forEach) {
+            exitState.merge(mergeVisitor, currentState);
+            AnalysisLogger.loopIteration(loopNode, loopName, i, "EXIT STATE", false, exitState);
+            if (currentState.isDomainEmpty()) return false;
+            currentState.setVariable(forEach.getVariableDeclarator(), getForEachValue(forEach));
+            AnalysisLogger.loopIteration(loopNode, loopName, i, "CONDITION", false, currentState);
+        } else if (compare != null) {
+            errorState.addRuntimeThrowState(mergeVisitor, currentState);
+            ExpressionAnalysisState compareAnalysisState = new ExpressionAnalysisState(currentState);
+            long start = AnalysisProfiler.start();
+            ConditionStates condStates = compare.accept(conditionVisitor, compareAnalysisState);
+            AnalysisProfiler.endCondition(compare, start);
+            errorState.addErrors(compare, compareAnalysisState.getErrors());
+            if (!condStates.getFalseState().isDomainEmpty()) {
+                exitState.merge(mergeVisitor, condStates.getFalseState());
+                AnalysisLogger.loopIteration(loopNode, loopName, i, "EXIT STATE", false, exitState);
+            }
+            if (condStates.getTrueState().isDomainEmpty()) return false;
+            currentState.copyValuesFrom(condStates.getTrueState());
+            AnalysisLogger.loopIteration(loopNode, loopName, i, "CONDITION", false, currentState);
+        }
+
+        AnalysisLogger.loopIteration(loopNode, loopName, i, "ITERATION START STATE", false, currentState);
+        AnalysisState analysisState = errorState.nested(currentState);
+        EndState bodyEndState = body.accept(this, analysisState);
+        errorState.add(mergeVisitor, analysisState);
+
+        // Merge continue states to current state
+        Set<VariablesState> continueStates = bodyEndState.popContinueStates();
+        for (VariablesState continueState : continueStates) {
+            currentState.merge(mergeVisitor, continueState);
+        }
+        endState.add(bodyEndState);
+
+        // Update in FOR loops
+        if (update != null) {
+            for (Expression e : update) {
+                errorState.addRuntimeThrowState(mergeVisitor, currentState);
+                ExpressionAnalysisState updateAnalysisState = new ExpressionAnalysisState(currentState);
+                e.accept(expressionVisitor, updateAnalysisState);
+                errorState.addErrors(e, updateAnalysisState.getErrors());
+            }
+        }
+        AnalysisLogger.loopIteration(loopNode, loopName, i, "ITERATION STATE", true, currentState);
+        return true;
+    }
+
+    /**
+     * Result of running one iteration of a loop
+     * @param index      Index of the iteration (including the iterations before widening)
+     * @param state      State at the end of the iteration (EMPTY if the body is never entered)
+     * @param exitState  State when the condition is false
+     * @param endState   Breaks from the body
+     * @param errorState Errors found in the iteration
+     */
+    private record LoopIteration(int index, VariablesState state, VariablesState exitState, EndState endState, AnalysisState errorState) {
+    }
+
     @Override
     public EndState visit(ThrowStmt n, AnalysisState arg) {
+        arg.getOutline().add(DiagramOutline.Kind.STATEMENT, n);
         EndState endState = new EndState();
         VariablesState varState = arg.getVariablesState();
+        arg.addRuntimeThrowState(mergeVisitor, varState);
         ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(varState);
         n.getExpression().accept(expressionVisitor, exprAnalysisState);
-        AnalysisLogger.log(n, exprAnalysisState.getVariablesState(), exprAnalysisState.getErrors());
+        AnalysisLogger.state(n, exprAnalysisState.getVariablesState(), exprAnalysisState.getErrors());
 
         if (varState.isDomainEmpty()) return null;
-        ResolvedReferenceTypeDeclaration runtimeExceptionType = new ReflectionTypeSolver().solveType("java.lang.RuntimeException");
-
         // TODO: add exception to EndState and move computation to visit MethodDeclaration
-        ResolvedType throwType = n.getExpression().calculateResolvedType();
-        if (throwType.isReferenceType() && runtimeExceptionType.isAssignableBy(throwType)) {
+        ResolvedType throwType = ResolverUtil.calculateResolvedType(n.getExpression());
+        if (TypeUtil.isRuntimeException(throwType)) {
             // Check if the thrown RuntimeException is in the throws signature or the @throws annotation in Javadocs
             boolean inSignature = false;
             boolean inJavadocs = false;
             MethodDeclaration dec = n.findAncestor(MethodDeclaration.class).orElse(null);
             if (dec != null) {
-                inSignature = dec.getThrownExceptions().stream().map(Type::resolve).anyMatch(x -> runtimeExceptionType.isAssignableBy(x) && x.isAssignableBy(throwType));
+                inSignature = dec.getThrownExceptions().stream().map(ResolverUtil::resolve).anyMatch(x -> TypeUtil.isRuntimeException(x) && TypeUtil.isAssignableBy(x, throwType));
 
                 Javadoc javadoc = dec.getJavadoc().orElse(null);
                 if (javadoc != null) {
                     Set<ResolvedType> throwsTags = JavadocUtil.getThrows(dec);
-                    inJavadocs = throwsTags.stream().anyMatch(x -> x.isAssignableBy(throwType));
+                    inJavadocs = throwsTags.stream().anyMatch(x -> TypeUtil.isAssignableBy(x, throwType));
                 }
             }
 
-            AnalysisLogger.log(n, "RUNTIME THROW " + throwType.asReferenceType().getQualifiedName() + ((!inSignature && !inJavadocs) ? " (Not in signature/Javadoc)" : ""));
-            arg.addError(n, new AnalysisError("Runtime Exception not in signature/Javadoc: " + throwType, true));
+            AnalysisLogger.message(n, "RUNTIME THROW %s%s", throwType, (!inSignature && !inJavadocs) ? " (Not in signature/Javadoc)" : "");
+            arg.addError(n, new AnalysisError("Runtime Exception not in signature/Javadoc: %s", null, true, throwType));
         } else {
-            AnalysisLogger.log(n, "THROW " + throwType.asReferenceType().getQualifiedName());
+            AnalysisLogger.message(n, "THROW %s", throwType);
         }
+        endState.addThrowState(new ThrowState(throwType, varState.copy()));
         varState.setDomainEmpty();
         return endState;
     }
 
+    /**
+     * Handle a try statement
+     * <ul>
+     *     <li>A catch clause is entered from the throw statements and method calls (with exceptions in their signature
+     *     or Javadoc) of the try block that throw an exception it may catch</li>
+     *     <li>Runtime exceptions may also be thrown by any expression (i.e. division by zero), so catch clauses that may
+     *     catch them are also entered from the states before each expression in the try block (see AnalysisState),
+     *     and from the states at the start and the end of the try block</li>
+     *     <li>The finally block is run after the try and catch blocks, and from the breaks, continues and uncaught
+     *     exceptions leaving the statement (whose states are not updated by it)</li>
+     *     <li>Exceptions that are not always caught are thrown out of the statement</li>
+     * </ul>
+     */
     @Override
     public EndState visit(TryStmt n, AnalysisState arg) {
-        throw new UnsupportedNodeException("TRY-CATCH is not supported");
+        // Try statements are not drawn
+        arg.getOutline().suspend();
+        EndState endState = new EndState();
+        VariablesState varState = arg.getVariablesState();
+        for (Expression resource : n.getResources()) {
+            arg.addRuntimeThrowState(mergeVisitor, varState);
+            ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(varState);
+            resource.accept(expressionVisitor, exprAnalysisState);
+            arg.addErrors(resource, exprAnalysisState.getErrors());
+        }
+        AnalysisLogger.branch(n, "TRY", varState);
+
+        // TRY block
+        boolean isRuntimeCaught = n.getCatchClauses().stream().anyMatch(c -> isRuntimeCaught(getCatchTypes(c)));
+        AnalysisState tryAnalysisState = new AnalysisState(varState.copy(), isRuntimeCaught || arg.isRecordingRuntimeThrows());
+        endState.add(n.getTryBlock().accept(this, tryAnalysisState));
+        arg.add(mergeVisitor, tryAnalysisState);
+        VariablesState exitState = tryAnalysisState.getVariablesState();
+        VariablesState runtimeThrowState = tryAnalysisState.getRuntimeThrowState();
+        Set<ThrowState> uncaughtStates = endState.popThrowStates();
+
+        // CATCH blocks
+        for (CatchClause catchClause : n.getCatchClauses()) {
+            List<ResolvedType> catchTypes = getCatchTypes(catchClause);
+            VariablesState catchState = VariablesState.createEmpty();
+            if (isRuntimeCaught(catchTypes)) {
+                catchState.merge(mergeVisitor, varState);
+                catchState.merge(mergeVisitor, runtimeThrowState);
+                catchState.merge(mergeVisitor, exitState);
+            }
+            Iterator<ThrowState> iterator = uncaughtStates.iterator();
+            while (iterator.hasNext()) {
+                ThrowState throwState = iterator.next();
+                if (isAlwaysCaught(throwState.type(), catchTypes)) {
+                    catchState.merge(mergeVisitor, throwState.state());
+                    iterator.remove();
+                } else if (isMaybeCaught(throwState.type(), catchTypes)) {
+                    catchState.merge(mergeVisitor, throwState.state());
+                }
+            }
+            if (catchState.isDomainEmpty()) {
+                AnalysisLogger.message(catchClause, "CATCH IS NEVER ENTERED");
+                continue;
+            }
+
+            catchState.setVariable(catchClause.getParameter(), getCaughtValue(catchTypes));
+            AnalysisLogger.branch(catchClause, "CATCH", catchState);
+            AnalysisState catchAnalysisState = arg.nested(catchState);
+            endState.add(catchClause.accept(this, catchAnalysisState));
+            arg.add(mergeVisitor, catchAnalysisState);
+            exitState.merge(mergeVisitor, catchState);
+        }
+
+        // FINALLY block
+        if (n.getFinallyBlock().isPresent()) {
+            BlockStmt finallyBlock = n.getFinallyBlock().get();
+            VariablesState jumpState = VariablesState.createEmpty();
+            for (VariablesState breakState : endState.breakStates) jumpState.merge(mergeVisitor, breakState);
+            for (VariablesState continueState : endState.continueStates) jumpState.merge(mergeVisitor, continueState);
+            for (ThrowState throwState : uncaughtStates) jumpState.merge(mergeVisitor, throwState.state());
+            if (!jumpState.isDomainEmpty()) {
+                AnalysisLogger.branch(finallyBlock, "FINALLY (JUMP)", jumpState);
+                AnalysisState jumpAnalysisState = arg.nested(jumpState);
+                endState.add(finallyBlock.accept(this, jumpAnalysisState));
+                arg.add(mergeVisitor, jumpAnalysisState);
+            }
+            AnalysisLogger.branch(finallyBlock, "FINALLY", exitState);
+            AnalysisState finallyAnalysisState = arg.nested(exitState);
+            endState.add(finallyBlock.accept(this, finallyAnalysisState));
+            arg.add(mergeVisitor, finallyAnalysisState);
+        }
+
+        for (ThrowState throwState : uncaughtStates) endState.addThrowState(throwState);
+        varState.copyValuesFrom(exitState);
+        AnalysisLogger.merge(n, "TRY MERGED", varState);
+        arg.getOutline().resume();
+        return endState;
     }
 
     @Override
     public EndState visit(CatchClause n, AnalysisState arg) {
-        throw new UnsupportedNodeException("TRY-CATCH is not supported");
+        return n.getBody().accept(this, arg);
+    }
+
+    /**
+     * @return Types caught by the catch clause (null for types that cannot be resolved)
+     */
+    static List<ResolvedType> getCatchTypes(CatchClause n) {
+        Type type = n.getParameter().getType();
+        List<ResolvedType> catchTypes = new ArrayList<>();
+        if (type instanceof UnionType unionType) {
+            for (ReferenceType element : unionType.getElements()) catchTypes.add(ResolverUtil.resolveOrNull(element));
+        } else {
+            catchTypes.add(ResolverUtil.resolveOrNull(type));
+        }
+        return catchTypes;
+    }
+
+    /**
+     * @return True if runtime exceptions (which may be thrown by any statement) may be caught by one of the catch types
+     */
+    static boolean isRuntimeCaught(List<ResolvedType> catchTypes) {
+        return catchTypes.contains(null) || catchTypes.stream().anyMatch(TypeUtil::canBeRuntimeException);
+    }
+
+    /**
+     * @return True if any exception of the thrown type is caught by one of the catch types
+     */
+    static boolean isAlwaysCaught(ResolvedType thrownType, List<ResolvedType> catchTypes) {
+        if (thrownType == null) return false;
+        return catchTypes.stream().anyMatch(catchType -> catchType != null && TypeUtil.isAssignableBy(catchType, thrownType));
+    }
+
+    /**
+     * @return True if some exceptions of the thrown type may be caught by one of the catch types
+     * (i.e. the catch type is a subclass of the thrown type, or either type is unknown)
+     */
+    static boolean isMaybeCaught(ResolvedType thrownType, List<ResolvedType> catchTypes) {
+        if (thrownType == null) return true;
+        return catchTypes.stream().anyMatch(catchType -> catchType == null || TypeUtil.isAssignableBy(thrownType, catchType));
+    }
+
+    /**
+     * @return Value of the caught exception (never null)
+     */
+    static PossibleValues getCaughtValue(List<ResolvedType> catchTypes) {
+        if (catchTypes.size() != 1 || catchTypes.get(0) == null) return AnyValue.VALUE;
+        PossibleValues value = ValueUtil.getValueForType(catchTypes.get(0));
+        if (value instanceof ObjectValue objValue) return objValue.withNotNullable();
+        return value;
     }
 
 
@@ -33,15 +33,15 @@ import java.util.Objects;
  *       even if there's assignment inside the condition
  */
 public class ConditionVisitor implements GenericVisitor<ConditionStates, ExpressionAnalysisState> {
-    private ExpressionVisitor expressionVisitor;
-    private MergeVisitor mergeVisitor;
-    private IntersectVisitor intersectVisitor;
-    private RestrictEqualsVisitor restrictEQVisitor;
-    private RestrictNotEqualsVisitor restrictNEQVisitor;
-    private RestrictGreaterThanVisitor restrictGTVisitor;
-    private RestrictGreaterThanOrEqualVisitor restrictGTEVisitor;
-    private RestrictLessThanVisitor restrictLTVisitor;
-    private RestrictLessThanOrEqualVisitor restrictLTEVisitor;
+    private final ExpressionVisitor expressionVisitor;
+    private final MergeVisitor mergeVisitor;
+    private final IntersectVisitor intersectVisitor;
+    private final RestrictEqualsVisitor restrictEQVisitor;
+    private final RestrictNotEqualsVisitor restrictNEQVisitor;
+    private final RestrictGreaterThanVisitor restrictGTVisitor;
+    private final RestrictGreaterThanOrEqualVisitor restrictGTEVisitor;
+    private final RestrictLessThanVisitor restrictLTVisitor;
+    private final RestrictLessThanOrEqualVisitor restrictLTEVisitor;
 
     public ConditionVisitor(ExpressionVisitor expressionVisitor,
                             MergeVisitor mergeVisitor, IntersectVisitor intersectVisitor) {
@@ -49,7 +49,7 @@ public class ConditionVisitor implements GenericVisitor<ConditionStates, Express
         this.mergeVisitor = mergeVisitor;
         this.intersectVisitor = intersectVisitor;
         this.restrictEQVisitor = new RestrictEqualsVisitor();
-        this.restrictNEQVisitor = new RestrictNotEqualsVisitor();
+        this.restrictNEQVisitor = new RestrictNotEqualsVisitor(mergeVisitor.getIntervalLimit());
         this.restrictGTVisitor = new RestrictGreaterThanVisitor();
         this.restrictGTEVisitor = new RestrictGreaterThanOrEqualVisitor();
         this.restrictLTVisitor = new RestrictLessThanVisitor();
@@ -188,10 +188,10 @@ public class ConditionVisitor implements GenericVisitor<ConditionStates, Express
         VariablesState trueState = state.copy();
         VariablesState falseState = state.copy();
 
-        PossibleValues leftTrueRestrictedValues = leftValues.acceptAbstractOp(conditionVisitor, rightValues);
-        PossibleValues rightTrueRestrictedValues = rightValues.acceptAbstractOp(flippedConditionVisitor, leftValues);
-        PossibleValues leftFalseRestrictedValues = leftValues.acceptAbstractOp(oppositeConditionVisitor, rightValues);
-        PossibleValues rightFalseRestrictedValues = rightValues.acceptAbstractOp(oppositeFlippedConditionVisitor, leftValues);
+        PossibleValues leftTrueRestrictedValues = conditionVisitor.apply(leftValues, rightValues);
+        PossibleValues rightTrueRestrictedValues = flippedConditionVisitor.apply(rightValues, leftValues);
+        PossibleValues leftFalseRestrictedValues = oppositeConditionVisitor.apply(leftValues, rightValues);
+        PossibleValues rightFalseRestrictedValues = oppositeFlippedConditionVisitor.apply(rightValues, leftValues);
         if (leftTrueRestrictedValues.isEmpty() || rightTrueRestrictedValues.isEmpty()) trueState.setDomainEmpty();
         if (leftFalseRestrictedValues.isEmpty() || rightFalseRestrictedValues.isEmpty()) falseState.setDomainEmpty();
         VariableUtil.setVariableFromExpression(leftExpr, leftTrueRestrictedValues, trueState, leftFalseRestrictedValues, falseState);
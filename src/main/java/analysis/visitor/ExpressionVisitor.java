@@ -3,6 +3,7 @@ package analysis.visitor;
 import analysis.model.AnalysisError;
 import analysis.model.ConditionStates;
 import analysis.model.ExpressionAnalysisState;
+import analysis.model.MethodSummary;
 import analysis.model.VariablesState;
 import analysis.values.*;
 import analysis.values.visitor.*;
@@ -17,15 +18,13 @@ import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.type.*;
 import com.github.javaparser.ast.visitor.GenericVisitor;
 import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
-import com.github.javaparser.resolution.declarations.ResolvedParameterDeclaration;
-import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
 import com.github.javaparser.resolution.types.ResolvedType;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserFieldDeclaration;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserMethodDeclaration;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserParameterDeclaration;
 import com.github.javaparser.symbolsolver.javaparsermodel.declarations.JavaParserVariableDeclaration;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import logger.AnalysisProfiler;
 import utils.*;
 
 import java.util.*;
@@ -37,13 +36,21 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
     private final DivideVisitor divideVisitor;
     private final SubtractVisitor subtractVisitor;
     private final MultiplyVisitor multiplyVisitor;
-    private RestrictGreaterThanVisitor restrictGTVisitor;
-    private RestrictGreaterThanOrEqualVisitor restrictGTEVisitor;
-    private RestrictLessThanVisitor restrictLTVisitor;
-    private RestrictLessThanOrEqualVisitor restrictLTEVisitor;
+    private final RestrictGreaterThanVisitor restrictGTVisitor;
+    private final RestrictGreaterThanOrEqualVisitor restrictGTEVisitor;
+    private final RestrictLessThanVisitor restrictLTVisitor;
+    private final RestrictLessThanOrEqualVisitor restrictLTEVisitor;
+    private AnalysisVisitor analysisVisitor; // Visitor of the analyzed method (options of the method summaries), null if none
 
     public ExpressionVisitor() {
-        this(new MergeVisitor(), new AddVisitor(), new DivideVisitor(), new MultiplyVisitor(), new SubtractVisitor());
+        this(IntegerIntervalSet.Limit.DEFAULT);
+    }
+
+    /**
+     * @param intervalLimit Maximum number of intervals of integer values (see IntegerIntervalSet)
+     */
+    public ExpressionVisitor(IntegerIntervalSet.Limit intervalLimit) {
+        this(new MergeVisitor(intervalLimit), new AddVisitor(), new DivideVisitor(), new MultiplyVisitor(), new SubtractVisitor());
     }
 
     public ExpressionVisitor(
@@ -65,12 +72,27 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
         this.conditionVisitor = new ConditionVisitor(this, mergeVisitor, new IntersectVisitor());
     }
 
+    public IntegerIntervalSet.Limit getIntervalLimit() {
+        return mergeVisitor.getIntervalLimit();
+    }
+
+    void setAnalysisVisitor(AnalysisVisitor analysisVisitor) {
+        this.analysisVisitor = analysisVisitor;
+    }
+
+    /**
+     * @return Visitor for analyzing a called method for its summary, with the options of the analyzed method
+     */
+    AnalysisVisitor createSummaryVisitor(String targetMethod) {
+        return analysisVisitor == null ? new AnalysisVisitor(targetMethod, getIntervalLimit()) : analysisVisitor.createSummaryVisitor(targetMethod);
+    }
+
     @Override
     public PossibleValues visit(VariableDeclarationExpr n, ExpressionAnalysisState arg) {
         for (VariableDeclarator declarator : n.getVariables()) {
             declarator.accept(this, arg);
         }
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
@@ -83,7 +105,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
             state.setVariable(n, value);
             return value;
         }
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
@@ -123,25 +145,25 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
             length = ArrayValue.DEFAULT_LENGTH;
         }
 
-        PossibleValues validIndex = indexValue.acceptAbstractOp(restrictGTEVisitor, new IntegerRange(0));
-        validIndex = validIndex.acceptAbstractOp(restrictLTVisitor, length);
-        PossibleValues validLength = length.acceptAbstractOp(restrictGTVisitor, validIndex);
+        PossibleValues validIndex = restrictGTEVisitor.apply(indexValue, ValueFactory.integer(0));
+        validIndex = restrictLTVisitor.apply(validIndex, length);
+        PossibleValues validLength = restrictGTVisitor.apply(length, validIndex);
 
-        PossibleValues lessThanZeroIndex = indexValue.acceptAbstractOp(restrictLTVisitor, new IntegerRange(0));
-        PossibleValues greaterThanLengthIndex = indexValue.acceptAbstractOp(restrictGTEVisitor, length);
+        PossibleValues lessThanZeroIndex = restrictLTVisitor.apply(indexValue, ValueFactory.integer(0));
+        PossibleValues greaterThanLengthIndex = restrictGTEVisitor.apply(indexValue, length);
         if (!lessThanZeroIndex.isEmpty() || !greaterThanLengthIndex.isEmpty()) {
             arg.addError(new AnalysisError(ArrayIndexOutOfBoundsException.class, n, validIndex.isEmpty()));
         }
 
         if (n.getName().isNameExpr()) {
             // Update array length
-            VariableUtil.updateArrayLength(n.getName().asNameExpr().resolve(), validLength, arg.getVariablesState());
+            VariableUtil.updateArrayLength(ResolverUtil.resolve(n.getName().asNameExpr()), validLength, arg.getVariablesState());
         }
         // Update index variable
         VariableUtil.setVariableFromExpression(n.getIndex(), validIndex, arg.getVariablesState());
 
         // Return proper value
-        ResolvedType type = n.getName().calculateResolvedType();
+        ResolvedType type = ResolverUtil.calculateResolvedType(n.getName());
         if (type.isArray()) {
             ResolvedType componentType = type.asArrayType().getComponentType();
             return ValueUtil.getValueForType(componentType);
@@ -156,7 +178,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
             Expression e = arrayCreationLevel.getDimension().get();
             PossibleValues dimensionValue = e.accept(this, arg);
             if (dimensionValue instanceof IntegerValue intDimensionValue) {
-                PossibleValues validSize = intDimensionValue.acceptAbstractOp(restrictGTEVisitor, new IntegerRange(0));
+                PossibleValues validSize = restrictGTEVisitor.apply(intDimensionValue, ValueFactory.integer(0));
                 if (!Objects.equals(validSize, intDimensionValue)) {
                     arg.addError(new AnalysisError(NegativeArraySizeException.class, n, validSize.isEmpty()));
                 }
@@ -223,7 +245,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
             }
             boolean isDefinite = handleNullErrors(expr, leftExpr, rightExpr, leftValue, rightValue, arg);
             if (isDefinite) return EmptyValue.VALUE;
-            return leftValue.acceptAbstractOp(addVisitor, rightValue);
+            return addVisitor.apply(leftValue, rightValue);
         }
         return AnyValue.VALUE;
     }
@@ -241,7 +263,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
     ) {
         boolean isDefinite = handleNullErrors(expr, leftExpr, rightExpr, leftValue, rightValue, arg);
         if (!isDefinite) {
-            PairValue<PossibleValues, AnalysisError> quotient = leftValue.acceptAbstractOp(divideVisitor, rightValue);
+            PairValue<PossibleValues, AnalysisError> quotient = divideVisitor.apply(leftValue, rightValue);
             AnalysisError error = quotient.getB();
             if (error != null) {
                 arg.addError(error.atNode(expr));
@@ -263,7 +285,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
             ExpressionAnalysisState arg
     ) {
         boolean isDefinite = handleNullErrors(expr, leftExpr, rightExpr, leftValue, rightValue, arg);
-        return isDefinite ? EmptyValue.VALUE : leftValue.acceptAbstractOp(subtractVisitor, rightValue);
+        return isDefinite ? EmptyValue.VALUE : subtractVisitor.apply(leftValue, rightValue);
     }
 
     /**
@@ -278,7 +300,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
             ExpressionAnalysisState arg
     ) {
         boolean isDefinite = handleNullErrors(expr, leftExpr, rightExpr, leftValue, rightValue, arg);
-        return isDefinite ? EmptyValue.VALUE : leftValue.acceptAbstractOp(multiplyVisitor, rightValue);
+        return isDefinite ? EmptyValue.VALUE : multiplyVisitor.apply(leftValue, rightValue);
     }
 
     /**
@@ -308,8 +330,8 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
     @Override
     public PossibleValues visit(CastExpr n, ExpressionAnalysisState arg) {
-        ResolvedType castType = n.getType().resolve();
-        ResolvedType exprType = n.getExpression().calculateResolvedType();
+        ResolvedType castType = ResolverUtil.resolve(n.getType());
+        ResolvedType exprType = ResolverUtil.calculateResolvedType(n.getExpression());
 
         boolean castIntToChar = Objects.equals(castType.describe(), "char")
                 && Objects.equals(exprType.describe(), "int");
@@ -318,14 +340,14 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
         if (!castType.isAssignableBy(exprType) && !castIntToChar) {
             arg.addError(new AnalysisError(ClassCastException.class, n, true));
-            return new EmptyValue();
+            return EmptyValue.VALUE;
         }
 
         PossibleValues exprVal = n.getExpression().accept(this, arg);
 
         // do not perform cast if expression is empty
         if (exprVal.isEmpty()) {
-            return new EmptyValue();
+            return EmptyValue.VALUE;
         }
 
         // int to char
@@ -337,7 +359,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
         // char to int
         if (castCharToInt) {
             CharValue val = (CharValue) exprVal;
-            return new IntegerRange(val.getMin(), val.getMax());
+            return ValueFactory.integer(val.getMin(), val.getMax());
         }
 
         // object to object, other
@@ -346,7 +368,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
     @Override
     public PossibleValues visit(ClassExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
@@ -367,7 +389,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
         arg.addErrors(trueState);
         arg.addErrors(falseState);
         if (!trueVarState.isDomainEmpty() && !falseVarState.isDomainEmpty()) {
-            return trueValue.acceptAbstractOp(mergeVisitor, falseValue);
+            return mergeVisitor.apply(trueValue, falseValue);
         } else if (!trueVarState.isDomainEmpty()) {
             return trueValue;
         } else if (!falseVarState.isDomainEmpty()) {
@@ -401,7 +423,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
                 }
             }
             if (scopeValue.isEmpty()) {
-                return new EmptyValue();
+                return EmptyValue.VALUE;
             }
         }
         if (isStatic && n.getScope().isNameExpr() && Objects.equals(n.getScope().asNameExpr().getNameAsString(), "System")) {
@@ -420,15 +442,15 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
     @Override
     public PossibleValues visit(InstanceOfExpr n, ExpressionAnalysisState arg) {
-        ResolvedType rightType = n.getType().resolve();
-        ResolvedType leftType = n.getExpression().calculateResolvedType();
+        ResolvedType rightType = ResolverUtil.resolve(n.getType());
+        ResolvedType leftType = ResolverUtil.calculateResolvedType(n.getExpression());
         if (rightType.isAssignableBy(leftType)) {
-            return new BooleanValue(true, false);
+            return ValueFactory.bool(true, false);
         }
         if (leftType.isAssignableBy(rightType)) {
-            return new BooleanValue(true, true);
+            return ValueFactory.bool(true, true);
         }
-        return new BooleanValue(false, true);
+        return ValueFactory.bool(false, true);
     }
 
     @Override
@@ -438,12 +460,12 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
     @Override
     public PossibleValues visit(IntegerLiteralExpr n, ExpressionAnalysisState arg) {
-        return new IntegerRange(n.asNumber().intValue(), n.asNumber().intValue());
+        return ValueFactory.integer(n.asNumber().intValue(), n.asNumber().intValue());
     }
 
     @Override
     public PossibleValues visit(LongLiteralExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
@@ -453,12 +475,12 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
     @Override
     public PossibleValues visit(DoubleLiteralExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(BooleanLiteralExpr n, ExpressionAnalysisState arg) {
-        return new BooleanValue(n.getValue());
+        return ValueFactory.bool(n.getValue());
     }
 
     @Override
@@ -473,6 +495,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
      */
     @Override
     public PossibleValues visit(MethodCallExpr n, ExpressionAnalysisState arg) {
+        AnalysisProfiler.count(AnalysisProfiler.Counter.METHOD_CALLS);
         Optional<Expression> scope = n.getScope();
         String methodName = n.getName().asString();
         ResolvedMethodDeclaration dec = ResolverUtil.resolveOrNull(n);
@@ -485,7 +508,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
             if (!object.isThisExpr() && !isStatic) {
                 if (scopeValue.isEmpty()) {
-                    return new EmptyValue();
+                    return EmptyValue.VALUE;
                 }
                 if (scopeValue.canBeNull()) {
                     arg.addError(new AnalysisError(NullPointerException.class, n, scopeValue == NullValue.VALUE));
@@ -507,44 +530,35 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
         // handle method args
         NodeList<Expression> methodArgs = n.getArguments();
-        for (int i = 0; i < methodArgs.size(); i++) {
-            Expression methodArg = methodArgs.get(i);
-            PossibleValues expValue = methodArg.accept(this, arg);
-
-            ResolvedParameterDeclaration paramDec = dec.getParam(i);
-            if (paramDec instanceof JavaParserParameterDeclaration javaParamDec) {
-                List<AnnotationExpr> annotations = javaParamDec.getWrappedNode().getAnnotations().stream().toList();
-                List<AnalysisError> errors = AnnotationUtil.checkArgumentWithAnnotation(expValue, annotations, javaParamDec.getName(), n.toString());
-                if (errors.size() != 0) {
-                    arg.addErrors(errors);
-                }
-            }
+        List<PossibleValues> argValues = new ArrayList<>();
+        for (Expression methodArg : methodArgs) {
+            argValues.add(methodArg.accept(this, arg));
         }
 
-        // handle possible runtime exceptions
         if (dec instanceof JavaParserMethodDeclaration methodDec) {
-            ResolvedReferenceTypeDeclaration runtimeExceptionType = new ReflectionTypeSolver().solveType("java.lang.RuntimeException");
             MethodDeclaration methodDeclaration = methodDec.getWrappedNode();
+            MethodSummary summary = MethodSummaryCache.getSummary(methodDeclaration, dec.getReturnType(), argValues, this);
 
-            // exceptions in signature
-            List<ResolvedType> exceptionsInSignature = methodDeclaration.getThrownExceptions()
-                    .stream()
-                    .map(Type::resolve)
-                    .filter(e -> runtimeExceptionType.isAssignableBy(e))
-                    .toList();
-
-            Set<ResolvedType> exceptions = new HashSet<>();
-            exceptions.addAll(exceptionsInSignature);
-
-            // exceptions in javadoc
-            exceptions.addAll(JavadocUtil.getRuntimeThrows(methodDeclaration));
+            // check args against parameter annotations
+            List<Parameter> params = summary.getParameters();
+            for (int i = 0; i < argValues.size() && i < params.size(); i++) {
+                Parameter param = params.get(i);
+                List<AnalysisError> errors = AnnotationUtil.checkArgumentWithAnnotation(argValues.get(i), param.getAnnotations(), param.getNameAsString(), n);
+                if (errors.size() != 0) {
+                    arg.addErrors(errors);
+                }
+            }
 
-            for (ResolvedType rt: exceptions) {
+            // handle possible runtime exceptions
+            for (ResolvedType rt: summary.getExceptions()) {
                 arg.addError(new AnalysisError(rt.describe(), n, false));
             }
-            return ValueUtil.getValueForType(dec.getReturnType(), methodDeclaration.getAnnotations(), this);
+            arg.addThrownTypes(summary.getThrownExceptions());
+            return summary.getReturnValue();
         }
 
+        if (dec.getNumberOfSpecifiedExceptions() > 0) arg.addThrownTypes(dec.getSpecifiedExceptions());
+
         return ValueUtil.getValueForType(dec.getReturnType());
     }
 
@@ -567,7 +581,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
     @Override
     public PossibleValues visit(ObjectCreationExpr n, ExpressionAnalysisState arg) {
-        switch (n.getType().resolve().asReferenceType().getQualifiedName()) {
+        switch (ResolverUtil.resolve(n.getType()).asReferenceType().getQualifiedName()) {
             case "java.lang.Integer":
             case "java.lang.Boolean":
             case "java.lang.Character":
@@ -580,12 +594,12 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
 
     @Override
     public PossibleValues visit(ThisExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(SuperExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
@@ -612,19 +626,19 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
             PossibleValues postValue;
             switch (operator) {
                 case PREFIX_INCREMENT, POSTFIX_INCREMENT -> {
-                    postValue = intValue.acceptAbstractOp(addVisitor, new IntegerRange(1));
+                    postValue = addVisitor.apply(intValue, ValueFactory.integer(1));
                     postValue = asBoxed ? BoxedPrimitive.create(postValue, false) : postValue;
                     preValue = asBoxed ? BoxedPrimitive.create(preValue, false) : preValue;
                     VariableUtil.setVariableFromExpression(expr, postValue, arg.getVariablesState());
                 }
                 case PREFIX_DECREMENT, POSTFIX_DECREMENT -> {
-                    postValue = intValue.acceptAbstractOp(subtractVisitor, new IntegerRange(1));
+                    postValue = subtractVisitor.apply(intValue, ValueFactory.integer(1));
                     postValue = asBoxed ? BoxedPrimitive.create(postValue, false) : postValue;
                     preValue = asBoxed ? BoxedPrimitive.create(preValue, false) : preValue;
                     VariableUtil.setVariableFromExpression(expr, postValue, arg.getVariablesState());
                 }
                 case MINUS -> {
-                    postValue = new IntegerRange(
+                    postValue = ValueFactory.integer(
                             MathUtil.flipSignToLimit(intValue.getMax()),
                             MathUtil.flipSignToLimit(intValue.getMin())
                     );
@@ -637,7 +651,7 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
                     postValue = IntegerRange.ANY_VALUE;
                 }
                 default -> {
-                    postValue = preValue.isEmpty() ? new EmptyValue() : new AnyValue();
+                    postValue = preValue.isEmpty() ? EmptyValue.VALUE : AnyValue.VALUE;
                 }
             }
             return switch (operator) {
@@ -662,381 +676,381 @@ public class ExpressionVisitor implements GenericVisitor<PossibleValues, Express
         } else if (Objects.equals(preValue, NullValue.VALUE)) {
             arg.addError(new AnalysisError(NullPointerException.class, expr, true));
             arg.getVariablesState().setDomainEmpty();
-            return new EmptyValue();
+            return EmptyValue.VALUE;
         }
-        return preValue.isEmpty() ? new EmptyValue() : new AnyValue();
+        return preValue.isEmpty() ? EmptyValue.VALUE : AnyValue.VALUE;
     }
 
     // region ----Not required----
     // Move any we're not using here
     @Override
     public PossibleValues visit(CompilationUnit n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(MethodDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(BlockStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ExpressionStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(SwitchStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(SwitchEntry n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(BreakStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ReturnStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(IfStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(WhileStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ContinueStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(DoStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ForEachStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ForStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ThrowStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(TryStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(CatchClause n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(Name n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(SimpleName n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(LabeledStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(EmptyStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(NodeList n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(PackageDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(TypeParameter n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(LineComment n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(BlockComment n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ClassOrInterfaceDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(RecordDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(CompactConstructorDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(EnumDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(EnumConstantDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(AnnotationDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(AnnotationMemberDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(FieldDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ConstructorDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(Parameter n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(InitializerDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(JavadocComment n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ClassOrInterfaceType n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(PrimitiveType n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ArrayType n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ArrayCreationLevel n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(IntersectionType n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(MarkerAnnotationExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(SingleMemberAnnotationExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(NormalAnnotationExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(MemberValuePair n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ExplicitConstructorInvocationStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(LocalClassDeclarationStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(LocalRecordDeclarationStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(AssertStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(UnionType n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(VoidType n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(WildcardType n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(UnknownType n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(SynchronizedStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(LambdaExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(MethodReferenceExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(TypeExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ImportDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ModuleDeclaration n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ModuleRequiresDirective n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ModuleExportsDirective n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ModuleProvidesDirective n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ModuleUsesDirective n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ModuleOpensDirective n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(UnparsableStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(ReceiverParameter n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(VarType n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(Modifier n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(SwitchExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(YieldStmt n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(TextBlockLiteralExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
 
     @Override
     public PossibleValues visit(PatternExpr n, ExpressionAnalysisState arg) {
-        return new AnyValue();
+        return AnyValue.VALUE;
     }
     // endregion ----Not required----
 }
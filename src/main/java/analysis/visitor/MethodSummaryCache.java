@@ -0,0 +1,245 @@
+package analysis.visitor;
+
+import analysis.exceptions.UnsupportedNodeException;
+import analysis.model.AnalysisState;
+import analysis.model.EndState;
+import analysis.model.MethodSummary;
+import analysis.model.VariablesState;
+import analysis.values.*;
+import analysis.values.visitor.MergeVisitor;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.resolution.types.ResolvedType;
+import logger.AnalysisProfiler;
+import logger.EventSuspension;
+import utils.AnnotationUtil;
+import utils.JavadocUtil;
+import utils.ResolverUtil;
+import utils.TypeUtil;
+import utils.ValueUtil;
+
+import java.util.*;
+
+/**
+ * Cache of the summaries of the method declarations in a CompilationUnit (stored in the CompilationUnit)
+ * <ul>
+ *     <li>The exceptions and parameters of a declaration are computed once</li>
+ *     <li>Methods that can be overridden (see isFixedTarget) use the value of the return type, since the call may run
+ *     the body of an overriding method</li>
+ *     <li>The return value is computed by analyzing the method body with the abstract values of the arguments,
+ *     and cached by the argument values. If the returned values may not satisfy the return annotations,
+ *     the value of the return type is used instead. After MAX_ARGUMENT_SUMMARIES different arguments,
+ *     the method is analyzed once more with the values of its parameter types, which is used for all other arguments.</li>
+ *     <li>Recursive calls (to a method that is being analyzed for its summary by the same thread) use the value of the return type</li>
+ *     <li>The cache can be used by several threads (i.e. branches analyzed in parallel). Summaries are analyzed
+ *     without holding a lock, so two threads may analyze the same summary, and the first one stored is kept.</li>
+ * </ul>
+ */
+public class MethodSummaryCache {
+    public static final int MAX_ARGUMENT_SUMMARIES = 16;
+    private static final DataKey<MethodSummaryCache> CACHE_KEY = new DataKey<>() {
+    };
+
+    private static final ThreadLocal<Set<MethodDeclaration>> IN_PROGRESS =
+            ThreadLocal.withInitial(() -> Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private final Map<MethodDeclaration, DeclarationSummaries> summaries = new IdentityHashMap<>(); // Locked on itself
+
+    /**
+     * Summaries of a single method declaration (argument summaries are locked on this object)
+     */
+    private static final class DeclarationSummaries {
+        private final MethodSummary typeSummary; // Summary with the value of the return type
+        private final List<PossibleValues> typeParameterValues; // Values of the parameter types
+        private final Map<List<PossibleValues>, MethodSummary> argumentSummaries = new HashMap<>();
+        private MethodSummary anyArgumentSummary;
+
+        private DeclarationSummaries(MethodSummary typeSummary, List<PossibleValues> typeParameterValues) {
+            this.typeSummary = typeSummary;
+            this.typeParameterValues = typeParameterValues;
+        }
+    }
+
+    /**
+     * Get the summary of a method for a method call
+     * @param dec            Declaration of the called method
+     * @param returnType     Resolved return type of the method
+     * @param argumentValues Values of the arguments of the method call
+     */
+    public static MethodSummary getSummary(MethodDeclaration dec, ResolvedType returnType, List<PossibleValues> argumentValues, ExpressionVisitor exprVisitor) {
+        Optional<CompilationUnit> compilationUnit = dec.findCompilationUnit();
+        MethodSummaryCache cache;
+        if (compilationUnit.isPresent()) {
+            CompilationUnit cu = compilationUnit.get();
+            synchronized (cu) {
+                if (!cu.containsData(CACHE_KEY)) cu.setData(CACHE_KEY, new MethodSummaryCache());
+                cache = cu.getData(CACHE_KEY);
+            }
+        } else {
+            cache = new MethodSummaryCache();
+        }
+        return cache.getSummaryHelper(dec, returnType, argumentValues, exprVisitor);
+    }
+
+    private MethodSummary getSummaryHelper(MethodDeclaration dec, ResolvedType returnType, List<PossibleValues> argumentValues, ExpressionVisitor exprVisitor) {
+        DeclarationSummaries declarationSummaries;
+        synchronized (summaries) {
+            declarationSummaries = summaries.get(dec);
+        }
+        if (declarationSummaries == null) {
+            DeclarationSummaries created = createDeclarationSummaries(dec, returnType, exprVisitor);
+            synchronized (summaries) {
+                declarationSummaries = summaries.computeIfAbsent(dec, d -> created);
+            }
+        }
+        if (IN_PROGRESS.get().contains(dec) || dec.getType().isVoidType() || dec.getBody().isEmpty() || !isFixedTarget(dec)) {
+            return declarationSummaries.typeSummary;
+        }
+
+        List<PossibleValues> parameterValues = getParameterValues(declarationSummaries.typeParameterValues, argumentValues);
+        boolean isFull;
+        synchronized (declarationSummaries) {
+            MethodSummary summary = declarationSummaries.argumentSummaries.get(parameterValues);
+            if (summary != null) return summary;
+            isFull = declarationSummaries.argumentSummaries.size() >= MAX_ARGUMENT_SUMMARIES;
+            if (isFull && declarationSummaries.anyArgumentSummary != null) return declarationSummaries.anyArgumentSummary;
+        }
+        if (isFull) {
+            MethodSummary summary = analyzeSummary(dec, declarationSummaries, declarationSummaries.typeParameterValues, exprVisitor);
+            synchronized (declarationSummaries) {
+                if (declarationSummaries.anyArgumentSummary == null) declarationSummaries.anyArgumentSummary = summary;
+                return declarationSummaries.anyArgumentSummary;
+            }
+        }
+        MethodSummary summary = analyzeSummary(dec, declarationSummaries, parameterValues, exprVisitor);
+        synchronized (declarationSummaries) {
+            return declarationSummaries.argumentSummaries.computeIfAbsent(parameterValues, p -> summary);
+        }
+    }
+
+    /**
+     * @return True if a call to the method always runs its body, i.e. it cannot be overridden
+     * (static, private or final method, or method of a final class, record or enum without constant bodies)
+     */
+    private static boolean isFixedTarget(MethodDeclaration dec) {
+        if (dec.isStatic() || dec.isPrivate() || dec.isFinal()) return true;
+        Optional<Node> parent = dec.getParentNode();
+        if (parent.isEmpty()) return false;
+        if (parent.get() instanceof ClassOrInterfaceDeclaration classDec) return !classDec.isInterface() && classDec.isFinal();
+        if (parent.get() instanceof RecordDeclaration) return true;
+        if (parent.get() instanceof EnumDeclaration enumDec) {
+            return enumDec.getEntries().stream().allMatch(entry -> entry.getClassBody().isEmpty());
+        }
+        return false;
+    }
+
+    /**
+     * Compute the parts of the summary that do not depend on the arguments
+     */
+    private static DeclarationSummaries createDeclarationSummaries(MethodDeclaration dec, ResolvedType returnType, ExpressionVisitor exprVisitor) {
+        // exceptions in signature & javadoc
+        Set<ResolvedType> thrownExceptions = new HashSet<>();
+        dec.getThrownExceptions().stream()
+                .map(ResolverUtil::resolve)
+                .forEach(thrownExceptions::add);
+        thrownExceptions.addAll(JavadocUtil.getThrows(dec));
+        Set<ResolvedType> exceptions = new HashSet<>();
+        thrownExceptions.stream()
+                .filter(TypeUtil::isRuntimeException)
+                .forEach(exceptions::add);
+
+        PossibleValues returnValue = ValueUtil.getValueForType(returnType, dec.getAnnotations(), exprVisitor);
+        List<PossibleValues> typeParameterValues = new ArrayList<>();
+        for (Parameter p : dec.getParameters()) {
+            ResolvedType type = ResolverUtil.resolveOrNull(p.getType());
+            typeParameterValues.add(type == null ? AnyValue.VALUE : ValueUtil.getValueForType(type, p.getAnnotations(), exprVisitor));
+        }
+        MethodSummary typeSummary = new MethodSummary(returnValue, exceptions, thrownExceptions, List.copyOf(dec.getParameters()));
+        return new DeclarationSummaries(typeSummary, typeParameterValues);
+    }
+
+    /**
+     * Analyze the method body with the given parameter values to find the possible return values
+     * (with the options of the calling method, and without recording the events of the called method)
+     */
+    private MethodSummary analyzeSummary(MethodDeclaration dec, DeclarationSummaries declarationSummaries, List<PossibleValues> parameterValues,
+                                         ExpressionVisitor exprVisitor) {
+        MethodSummary typeSummary = declarationSummaries.typeSummary;
+        Set<MethodDeclaration> inProgress = IN_PROGRESS.get();
+        inProgress.add(dec);
+        AnalysisProfiler.count(AnalysisProfiler.Counter.METHOD_SUMMARIES);
+        EventSuspension.suspend();
+        try {
+            AnalysisState analysisState = new AnalysisState(new VariablesState());
+            EndState endState = exprVisitor.createSummaryVisitor(dec.getNameAsString()).analyzeMethod(dec, parameterValues, analysisState);
+            if (endState == null || endState.returnValues.isEmpty()) return typeSummary;
+
+            MergeVisitor mergeVisitor = new MergeVisitor(exprVisitor.getIntervalLimit());
+            PossibleValues returnValue = null;
+            for (PossibleValues value : endState.returnValues) {
+                returnValue = returnValue == null ? value : mergeVisitor.apply(returnValue, value);
+            }
+            returnValue = toDeclaredKind(typeSummary.getReturnValue(), returnValue);
+            if (returnValue == null) return typeSummary;
+            // Use the return annotations if the returned values may not satisfy them
+            if (!AnnotationUtil.checkReturnValueWithAnnotation(returnValue, dec.getAnnotations(), dec.getName()).isEmpty()) {
+                return typeSummary;
+            }
+            return typeSummary.withReturnValue(returnValue);
+        } catch (UnsupportedNodeException | UnsolvedSymbolException | UnsupportedOperationException e) {
+            // Method cannot be analyzed (unsupported statements, or symbols that cannot be resolved,
+            // which the symbol solver reports with UnsupportedOperationException for unsupported constructs)
+            return typeSummary;
+        } finally {
+            EventSuspension.resume();
+            inProgress.remove(dec);
+        }
+    }
+
+    /**
+     * @return Values of the parameters for the argument values
+     * (the value of the parameter type if the argument does not match the parameter type, i.e. varargs)
+     */
+    private static List<PossibleValues> getParameterValues(List<PossibleValues> typeParameterValues, List<PossibleValues> argumentValues) {
+        List<PossibleValues> parameterValues = new ArrayList<>(typeParameterValues.size());
+        for (int i = 0; i < typeParameterValues.size(); i++) {
+            PossibleValues typeValue = typeParameterValues.get(i);
+            PossibleValues value = null;
+            if (argumentValues.size() == typeParameterValues.size()) value = toDeclaredKind(typeValue, argumentValues.get(i));
+            parameterValues.add(value == null ? typeValue : value);
+        }
+        return parameterValues;
+    }
+
+    /**
+     * @return Value converted to the kind of the declared value (boxing/unboxing), or null if the kinds do not match
+     */
+    private static PossibleValues toDeclaredKind(PossibleValues declared, PossibleValues value) {
+        if (value.isEmpty()) return null;
+        if (declared instanceof BoxedPrimitive boxedDeclared) {
+            if (value instanceof NullValue) return value;
+            if (value instanceof BoxedPrimitive boxedValue) {
+                return toDeclaredKind(boxedDeclared.unbox(), boxedValue.unbox()) == null ? null : value;
+            }
+            PossibleValues primitive = toDeclaredKind(boxedDeclared.unbox(), value);
+            return primitive == null ? null : BoxedPrimitive.create(primitive, false);
+        }
+        if (declared instanceof PrimitiveValue && value instanceof BoxedPrimitive boxedValue) {
+            return toDeclaredKind(declared, boxedValue.unbox());
+        }
+        if (declared instanceof IntegerValue) return value instanceof IntegerValue ? value : null;
+        if (declared instanceof CharValue) return value instanceof CharValue ? value : null;
+        if (declared instanceof BooleanValue) return value instanceof BooleanValue ? value : null;
+        if (declared instanceof StringValue) return value instanceof StringValue || value instanceof NullValue ? value : null;
+        if (declared instanceof ArrayValue) return value instanceof ArrayValue || value instanceof NullValue ? value : null;
+        if (declared instanceof ExtendableObjectValue) return value instanceof ObjectValue ? value : null;
+        return null;
+    }
+}
@@ -0,0 +1,344 @@
+package analysis.visitor;
+
+import analysis.cfg.BasicBlock;
+import analysis.cfg.ControlFlowGraph;
+import analysis.model.*;
+import analysis.values.visitor.MergeVisitor;
+import analysis.values.visitor.NarrowVisitor;
+import analysis.values.visitor.WidenVisitor;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.stmt.*;
+import com.github.javaparser.resolution.types.ResolvedType;
+import logger.AnalysisLogger;
+import logger.AnalysisProfiler;
+import utils.ResolverUtil;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Analysis of a method body as a fixpoint over its control flow graph (see ControlFlowGraph)
+ * <ul>
+ *     <li>States are only stored at the entry of each block, as the merge of the states leaving its predecessors</li>
+ *     <li>Blocks are taken from the worklist in reverse postorder, so a block is analyzed again only when the state
+ *     leaving one of its predecessors changes</li>
+ *     <li>Loop headers are widened once they have been visited more than wideningDelay times (up to the thresholds
+ *     of their condition, as in AnalysisVisitor), then the fixpoint is narrowed by visiting the blocks again</li>
+ *     <li>Errors, return values and log entries come from a last pass over each block from its fixpoint state,
+ *     so loop errors are those of the loop invariant instead of those of each iteration</li>
+ *     <li>Expressions and conditions use the same ExpressionVisitor and ConditionVisitor as AnalysisVisitor,
+ *     and the last pass runs statements through AnalysisVisitor</li>
+ *     <li>Exceptions enter the handlers of a block as in AnalysisVisitor: catch clauses that may catch runtime exceptions
+ *     from the state before each node and at the end of the block, and any handler that may catch the exceptions
+ *     of throw statements and called methods from the state before them (up to the first handler that always
+ *     catches them)</li>
+ * </ul>
+ */
+final class WorklistAnalyzer {
+    private final AnalysisVisitor analysisVisitor;
+    private final ExpressionVisitor expressionVisitor;
+    private final ConditionVisitor conditionVisitor;
+    private final MergeVisitor mergeVisitor;
+    private final NarrowVisitor narrowVisitor;
+    private final int wideningDelay;
+
+    private final ControlFlowGraph cfg;
+    private final VariablesState[] entryStates; // State at the entry of each block, null if not reached
+    private final VariablesState[][] incomingStates; // State leaving each predecessor of each block, null if none
+    private final int[] headerVisits;
+    private final WidenVisitor[] widenVisitors; // Widen visitor of each loop header, null until it is widened
+    private final int[] narrowings;
+    private final BitSet worklist;
+    private VariablesState startState;
+
+    WorklistAnalyzer(AnalysisVisitor analysisVisitor, ExpressionVisitor expressionVisitor, ConditionVisitor conditionVisitor,
+                     MergeVisitor mergeVisitor, NarrowVisitor narrowVisitor, int wideningDelay,
+                     ControlFlowGraph cfg) {
+        this.analysisVisitor = analysisVisitor;
+        this.expressionVisitor = expressionVisitor;
+        this.conditionVisitor = conditionVisitor;
+        this.mergeVisitor = mergeVisitor;
+        this.narrowVisitor = narrowVisitor;
+        this.wideningDelay = wideningDelay;
+        this.cfg = cfg;
+        this.entryStates = new VariablesState[cfg.size()];
+        this.incomingStates = new VariablesState[cfg.size()][];
+        for (BasicBlock block : cfg.getBlocks()) {
+            incomingStates[block.getIndex()] = new VariablesState[block.getPredecessors().size()];
+        }
+        this.headerVisits = new int[cfg.size()];
+        this.widenVisitors = new WidenVisitor[cfg.size()];
+        this.narrowings = new int[cfg.size()];
+        this.worklist = new BitSet(cfg.size());
+    }
+
+    /**
+     * Analyze the method body from the state of the analysis state (i.e. with the parameters set)
+     * @return EndState of the method body (containing the returned values)
+     */
+    EndState analyze(AnalysisState arg) {
+        VariablesState varState = arg.getVariablesState();
+        startState = varState.copy();
+        if (!startState.isDomainEmpty()) worklist.set(0);
+        solve(false);
+
+        for (int i = 0; i < entryStates.length; i++) {
+            if (entryStates[i] != null) worklist.set(i);
+        }
+        solve(true);
+
+        EndState endState = new EndState();
+        VariablesState endVarState = VariablesState.createEmpty();
+        for (BasicBlock block : cfg.getBlocks()) {
+            VariablesState entryState = entryStates[block.getIndex()];
+            if (entryState == null) continue;
+            AnalysisState blockState = new AnalysisState(entryState.copy());
+            transfer(block, blockState.getVariablesState(), blockState, endState, (successor, state) -> {
+                if (successor == null && !state.isDomainEmpty()) endVarState.merge(mergeVisitor, state);
+            });
+            arg.addErrors(blockState);
+        }
+        varState.copyValuesFrom(endVarState);
+        return endState;
+    }
+
+    /**
+     * Visit the blocks of the worklist until no entry state changes
+     * @param narrowing False to widen loop headers after wideningDelay visits, true to narrow them
+     */
+    private void solve(boolean narrowing) {
+        for (int i = worklist.nextSetBit(0); i >= 0; i = worklist.nextSetBit(0)) {
+            worklist.clear(i);
+            BasicBlock block = cfg.getBlock(i);
+            VariablesState oldState = entryStates[i];
+            VariablesState newState = mergeIncoming(i);
+            if (oldState != null && newState != null && block.isLoopHeader()) {
+                if (narrowing) {
+                    if (narrowings[i]++ >= AnalysisVisitor.NARROWING_PASSES) continue;
+                    VariablesState narrowedState = oldState.copy();
+                    narrowedState.narrow(narrowVisitor, newState);
+                    newState = narrowedState;
+                } else if (++headerVisits[i] > wideningDelay) {
+                    if (widenVisitors[i] == null) {
+                        widenVisitors[i] = analysisVisitor.getWidenVisitor(block.getCondition(), oldState);
+                    }
+                    VariablesState widenedState = oldState.copy();
+                    widenedState.merge(widenVisitors[i], oldState.mergeCopy(mergeVisitor, newState));
+                    newState = widenedState;
+                }
+            }
+            if (oldState == null ? newState == null : oldState.equals(newState)) continue;
+            entryStates[i] = newState;
+            propagate(block, newState);
+        }
+    }
+
+    /**
+     * @return Merge of the states entering the block, or null if the block is not reached
+     */
+    private VariablesState mergeIncoming(int index) {
+        VariablesState merged = index == 0 && !startState.isDomainEmpty() ? startState.copy() : null;
+        for (VariablesState state : incomingStates[index]) {
+            if (state == null) continue;
+            if (merged == null) {
+                merged = state.copy();
+            } else {
+                merged.merge(mergeVisitor, state);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Run the block from its entry state and add the successors whose incoming state changed to the worklist
+     * @param entryState Entry state of the block, or null if the block is no longer reached
+     */
+    private void propagate(BasicBlock block, VariablesState entryState) {
+        List<BasicBlock> successors = block.getSuccessors();
+        VariablesState[] outStates = new VariablesState[successors.size()];
+        if (entryState != null) {
+            transfer(block, entryState.copy(), null, null, (successor, state) -> {
+                if (successor == null || state.isDomainEmpty()) return;
+                int i = successors.indexOf(successor);
+                if (outStates[i] == null) {
+                    outStates[i] = state.copy();
+                } else {
+                    outStates[i].merge(mergeVisitor, state); // Handlers are entered from several states of the block
+                }
+            });
+        }
+        for (int i = 0; i < successors.size(); i++) {
+            BasicBlock successor = successors.get(i);
+            VariablesState[] incoming = incomingStates[successor.getIndex()];
+            int predecessor = successor.getPredecessors().indexOf(block);
+            if (!Objects.equals(incoming[predecessor], outStates[i])) {
+                incoming[predecessor] = outStates[i];
+                worklist.set(successor.getIndex());
+            }
+        }
+    }
+
+    /**
+     * Run the nodes and the end of a block
+     * @param state      State at the entry of the block, updated while running the block
+     * @param report     AnalysisState to add the errors to (and to run statements through AnalysisVisitor),
+     *                   or null to only compute the states
+     * @param endState   EndState to add the returned values to (with report)
+     * @param successors Receives each successor (null when falling off the end of the method) and its state,
+     *                   and each handler and the state of an exception entering it (without report)
+     */
+    private void transfer(BasicBlock block, VariablesState state, AnalysisState report, EndState endState,
+                          BiConsumer<BasicBlock, VariablesState> successors) {
+        boolean throwsToHandlers = report == null && !block.getHandlers().isEmpty();
+        for (Node node : block.getNodes()) {
+            if (state.isDomainEmpty()) return;
+            if (throwsToHandlers) throwRuntimeException(block, state, successors);
+            if (node instanceof ExpressionStmt s) {
+                long start = AnalysisProfiler.start();
+                if (report != null) {
+                    s.accept(analysisVisitor, report);
+                } else {
+                    VariablesState beforeState = throwsToHandlers ? AnalysisVisitor.copyIfCallsMethod(s.getExpression(), state) : null;
+                    ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(state);
+                    s.getExpression().accept(expressionVisitor, exprAnalysisState);
+                    throwCalledExceptions(block, beforeState, exprAnalysisState, successors);
+                }
+                AnalysisProfiler.endStatement(s, start);
+            } else if (node instanceof ForEachStmt forEach) {
+                state.setVariable(forEach.getVariableDeclarator(), analysisVisitor.getForEachValue(forEach));
+            } else if (node instanceof CatchClause catchClause) {
+                state.setVariable(catchClause.getParameter(), AnalysisVisitor.getCaughtValue(AnalysisVisitor.getCatchTypes(catchClause)));
+                if (report != null) AnalysisLogger.branch(catchClause, "CATCH", state);
+            } else {
+                ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(state);
+                ((Expression) node).accept(expressionVisitor, exprAnalysisState);
+                if (report != null) report.addErrors(node, exprAnalysisState.getErrors());
+            }
+        }
+        if (state.isDomainEmpty()) return;
+        if (throwsToHandlers) throwRuntimeException(block, state, successors);
+
+        if (block.getExitStatement() != null) {
+            if (report != null) {
+                endState.add(block.getExitStatement().accept(analysisVisitor, report));
+            } else if (throwsToHandlers) {
+                throwExit(block, state, successors);
+            }
+        } else if (block.getCondition() != null) {
+            VariablesState beforeState = throwsToHandlers ? AnalysisVisitor.copyIfCallsMethod(block.getCondition(), state) : null;
+            ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(state);
+            long start = AnalysisProfiler.start();
+            ConditionStates conditionStates = block.getCondition().accept(conditionVisitor, exprAnalysisState);
+            AnalysisProfiler.endCondition(block.getCondition(), start);
+            if (report != null) {
+                AnalysisLogger.branch(block.getConditionNode(), block.getConditionLabel(), state);
+                AnalysisLogger.errors(block.getConditionNode(), exprAnalysisState.getErrors());
+                report.addErrors(block.getConditionNode(), exprAnalysisState.getErrors());
+            }
+            throwCalledExceptions(block, beforeState, exprAnalysisState, successors);
+            successors.accept(block.getTrueBlock(), conditionStates.getTrueState());
+            successors.accept(block.getFalseBlock(), conditionStates.getFalseState());
+        } else if (!block.getTargets().isEmpty()) {
+            transferTargets(block, state, report, successors);
+        } else if (block.isRethrow()) {
+            if (throwsToHandlers) throwException(block, null, state, successors);
+        } else {
+            successors.accept(block.getNext(), state);
+        }
+    }
+
+    /**
+     * Continue to the targets of a block: all the entries of a switch statement after its selector, the loop or the exit
+     * of a for-each loop after its iterable (the exit only if the iterable is an empty array),
+     * or the body and the exit of a for-each loop
+     */
+    private void transferTargets(BasicBlock block, VariablesState state, AnalysisState report,
+                                 BiConsumer<BasicBlock, VariablesState> successors) {
+        List<BasicBlock> targets = block.getTargets();
+        if (block.getConditionNode() instanceof SwitchStmt switchStmt) {
+            boolean throwsToHandlers = report == null && !block.getHandlers().isEmpty();
+            VariablesState beforeState = throwsToHandlers ? AnalysisVisitor.copyIfCallsMethod(switchStmt.getSelector(), state) : null;
+            ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(state);
+            switchStmt.getSelector().accept(expressionVisitor, exprAnalysisState);
+            if (report != null) {
+                AnalysisLogger.branch(switchStmt, "SWITCH", state);
+                AnalysisLogger.errors(switchStmt, exprAnalysisState.getErrors());
+                report.addErrors(switchStmt, exprAnalysisState.getErrors());
+            }
+            throwCalledExceptions(block, beforeState, exprAnalysisState, successors);
+        } else if (block.getConditionNode() instanceof ForEachStmt forEach) {
+            ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(state);
+            boolean isEntered = analysisVisitor.checkIterable(forEach, exprAnalysisState);
+            if (report != null) {
+                AnalysisLogger.branch(forEach, "FOR-EACH ITERABLE", state);
+                report.addErrors(forEach.getIterable(), exprAnalysisState.getErrors());
+                if (!isEntered) AnalysisLogger.message(forEach, "FOR-EACH ARRAY IS EMPTY");
+            }
+            successors.accept(targets.get(isEntered ? 0 : 1), state);
+            return;
+        }
+        for (BasicBlock target : targets) successors.accept(target, state);
+    }
+
+    /**
+     * Throw a runtime exception (which may be thrown by any node) to the catch clauses that may catch it
+     */
+    private static void throwRuntimeException(BasicBlock block, VariablesState state,
+                                              BiConsumer<BasicBlock, VariablesState> successors) {
+        for (BasicBlock handler : block.getHandlers()) {
+            CatchClause catchClause = handler.getCatchClause();
+            if (catchClause != null && AnalysisVisitor.isRuntimeCaught(AnalysisVisitor.getCatchTypes(catchClause))) {
+                successors.accept(handler, state);
+            }
+        }
+    }
+
+    /**
+     * Throw the exceptions that the methods called by an expression may throw
+     * @param beforeState State before the expression (see AnalysisVisitor#copyIfCallsMethod), or null
+     */
+    private static void throwCalledExceptions(BasicBlock block, VariablesState beforeState, ExpressionAnalysisState exprAnalysisState,
+                                              BiConsumer<BasicBlock, VariablesState> successors) {
+        if (beforeState == null || beforeState.isDomainEmpty()) return;
+        for (ResolvedType type : exprAnalysisState.getThrownTypes()) throwException(block, type, beforeState, successors);
+    }
+
+    /**
+     * Throw the exception of the throw statement ending a block, or the exceptions of the methods called by its return
+     */
+    private void throwExit(BasicBlock block, VariablesState state, BiConsumer<BasicBlock, VariablesState> successors) {
+        if (block.getExitStatement() instanceof ThrowStmt throwStmt) {
+            throwStmt.getExpression().accept(expressionVisitor, new ExpressionAnalysisState(state));
+            if (!state.isDomainEmpty()) {
+                throwException(block, ResolverUtil.calculateResolvedTypeOrNull(throwStmt.getExpression()), state, successors);
+            }
+        } else if (block.getExitStatement() instanceof ReturnStmt returnStmt && returnStmt.getExpression().isPresent()) {
+            Expression e = returnStmt.getExpression().get();
+            VariablesState beforeState = AnalysisVisitor.copyIfCallsMethod(e, state);
+            ExpressionAnalysisState exprAnalysisState = new ExpressionAnalysisState(state);
+            e.accept(expressionVisitor, exprAnalysisState);
+            throwCalledExceptions(block, beforeState, exprAnalysisState, successors);
+        }
+    }
+
+    /**
+     * Throw an exception to the handlers that may catch it, up to the first handler that always catches it
+     * (a finally block catches any exception)
+     * @param type Type of the exception, or null if it is unknown
+     */
+    private static void throwException(BasicBlock block, ResolvedType type, VariablesState state,
+                                       BiConsumer<BasicBlock, VariablesState> successors) {
+        for (BasicBlock handler : block.getHandlers()) {
+            CatchClause catchClause = handler.getCatchClause();
+            List<ResolvedType> catchTypes = catchClause == null ? null : AnalysisVisitor.getCatchTypes(catchClause);
+            if (catchTypes == null || AnalysisVisitor.isAlwaysCaught(type, catchTypes)) {
+                successors.accept(handler, state);
+                return;
+            }
+            if (AnalysisVisitor.isMaybeCaught(type, catchTypes)) successors.accept(handler, state);
+        }
+    }
+}
@@ -2,107 +2,142 @@ package logger;
 
 import analysis.model.AnalysisError;
 import analysis.model.VariablesState;
-import com.github.javaparser.Range;
 import com.github.javaparser.ast.Node;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Logger for viewing the state of the analysis
+ * <ul>
+ *     <li>Events are typed (state, branch, loop iteration, merge, error, message), and only keep a reference to
+ *     the node and a snapshot of the state (see VariablesState.snapshot, which does not make the analyzed state
+ *     copy its values). They are rendered to text or JSON lines when they are read.</li>
+ *     <li>Tracing records the events in a bounded ring buffer (see startTrace)</li>
+ *     <li>Debug mode (setLog) prints each event to the command line as it is recorded</li>
+ *     <li>When both are disabled, every method returns after checking a single flag</li>
+ *     <li>No events are recorded while the thread's events are suspended (see EventSuspension)</li>
+ * </ul>
  */
 public final class AnalysisLogger {
-    private static boolean doLog = false;
+    public static final int DEFAULT_TRACE_CAPACITY = 10_000;
 
+    private static volatile boolean enabled = false;
+    private static volatile boolean doLog = false;
+    private static volatile TraceBuffer trace = null;
+
+    /**
+     * Enable or disable printing events to the command line (debug mode)
+     */
     public static void setLog(boolean doLog) {
         AnalysisLogger.doLog = doLog;
+        updateEnabled();
     }
 
     /**
-     * Log the state of the arg at a node
+     * Start recording events in a new ring buffer
+     * @param capacity Maximum number of events kept in the buffer
+     * @return Buffer the events are recorded in
      */
-    public static void log(Node n, VariablesState arg) {
-        if (!doLog) return;
-        log(n, arg, null);
+    public static TraceBuffer startTrace(int capacity) {
+        TraceBuffer buffer = new TraceBuffer(capacity);
+        trace = buffer;
+        updateEnabled();
+        return buffer;
     }
 
     /**
-     * Log the state of the arg and errors at a node
+     * Stop recording events
+     * @return Buffer with the recorded events (null if not tracing)
      */
-    public static void log(Node n, VariablesState arg, Collection<AnalysisError> errors) {
-        if (!doLog) return;
-        log(n, arg.toFormattedString());
-        logErrors(n, errors);
+    public static TraceBuffer stopTrace() {
+        TraceBuffer buffer = trace;
+        trace = null;
+        updateEnabled();
+        return buffer;
     }
 
     /**
-     * Log a message at a node
+     * @return Buffer the events are recorded in (null if not tracing)
      */
-    public static void logFormat(Node n, String format, Object... args) {
-        if (!doLog) return;
-        log(n, String.format(format, args));
+    public static TraceBuffer getTrace() {
+        return trace;
+    }
+
+    private static void updateEnabled() {
+        enabled = doLog || trace != null;
     }
 
     /**
-     * Log a message at a node
+     * Log the state at a node
      */
-    public static void log(Node n, String message) {
-        if (!doLog) return;
-        String lineCount = "?";
-        if (n.getRange().isPresent()) {
-            Range range = n.getRange().get();
-            lineCount = range.begin.line + "";
-        }
-        String line = getFirstLine(n.toString());
-        line = line.substring(0, Math.min(20, line.length()));
-        System.out.printf("[%2s] %-20s | %s\n", lineCount, line, message);
+    public static void state(Node n, VariablesState state) {
+        if (!enabled) return;
+        record(TraceEvent.Kind.STATE, n, false, null, -1, state, null);
     }
 
     /**
-     * Log the end of the control statement
+     * Log the state and errors at a node
      */
-    public static void logEndFormat(Node n, String format, Object... arg) {
-        if (!doLog) return;
-        logEnd(n, String.format(format, arg));
+    public static void state(Node n, VariablesState state, Collection<AnalysisError> errors) {
+        if (!enabled) return;
+        record(TraceEvent.Kind.STATE, n, false, null, -1, state, errors);
     }
 
+    /**
+     * Log the state at the start of a branch (i.e. IF TRUE)
+     */
+    public static void branch(Node n, String branch, VariablesState state) {
+        if (!enabled) return;
+        record(TraceEvent.Kind.BRANCH, n, false, branch, -1, state, null);
+    }
 
     /**
-     * Log the end of the control statement
+     * Log the state during an iteration of a loop
+     * @param phase Phase of the iteration (i.e. CONDITION, ITERATION STATE)
+     * @param atEnd True if the event is at the end of the loop
+     * @param state State of the iteration (null if none)
      */
-    public static void logEnd(Node n, String message) {
-        if (!doLog) return;
-        String lineCount = "?";
-        if (n.getRange().isPresent()) {
-            Range range = n.getRange().get();
-            lineCount = range.end.line + "";
-        }
-        String line = "}";
-        System.out.printf("[%2s] %-20s | %s\n", lineCount, line, message);
+    public static void loopIteration(Node loopNode, String loopName, int iteration, String phase, boolean atEnd, VariablesState state) {
+        if (!enabled) return;
+        record(TraceEvent.Kind.LOOP_ITERATION, loopNode, atEnd, loopName, iteration, state, null, phase);
     }
 
     /**
-     * Get first line of the string
+     * Log the merged state at the end of a statement (i.e. IF MERGED)
      */
-    private static String getFirstLine(String str) {
-        String[] split = str.split("\n");
-        if (split.length < 1) return "";
-        return split[0];
+    public static void merge(Node n, String label, VariablesState state) {
+        if (!enabled) return;
+        record(TraceEvent.Kind.MERGE, n, true, label, -1, state, null);
     }
 
     /**
      * Log errors at node
      */
-    public static void logErrors(Node n, Collection<AnalysisError> errors) {
-        if (errors != null && !errors.isEmpty()) {
-            StringBuilder sb = new StringBuilder();
-            sb.append("Errors: ");
-            boolean first = true;
-            for (AnalysisError error : errors) {
-                if (!first) sb.append(", ");
-                sb.append("'").append(error.getMessage()).append("'");
-                first = false;
-            }
-            log(n, sb.toString());
-        }
+    public static void errors(Node n, Collection<AnalysisError> errors) {
+        if (!enabled || errors == null || errors.isEmpty()) return;
+        record(TraceEvent.Kind.ERROR, n, false, null, -1, null, errors);
+    }
+
+    /**
+     * Log a message at a node. The message is only formatted when the event is rendered.
+     */
+    public static void message(Node n, String format, Object... args) {
+        if (!enabled) return;
+        record(TraceEvent.Kind.MESSAGE, n, false, format, -1, null, null, args);
+    }
+
+    private static void record(TraceEvent.Kind kind, Node n, boolean atEnd, String label, int iteration,
+                               VariablesState state, Collection<AnalysisError> errors, Object... args) {
+        if (EventSuspension.isSuspended()) return;
+        TraceEvent event = new TraceEvent(
+                kind, n, atEnd, label, iteration,
+                state == null ? null : state.snapshot(),
+                errors == null ? List.of() : List.copyOf(errors),
+                args
+        );
+        TraceBuffer buffer = trace;
+        if (buffer != null) buffer.add(event);
+        if (doLog) System.out.print(event.toText());
     }
 }
@@ -0,0 +1,281 @@
+package logger;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import jdk.jfr.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static logger.JsonUtil.escape;
+
+/**
+ * Profiler for finding where the analysis spends its time
+ * <ul>
+ *     <li>Counters of operations (i.e. copies and merges of VariablesState, symbol resolutions)</li>
+ *     <li>Time per statement kind (including the time of the statements inside it)</li>
+ *     <li>Calls, iterations and time per loop, and evaluations and time per condition</li>
+ * </ul>
+ * Profiling is disabled by default. When enabled, the results can be exported as JSON,
+ * and JFR events are emitted for each statement, loop and condition (if JFR is recording).
+ * Counters are thread-safe, so files analyzed in parallel are profiled together.
+ * Loops and conditions are keyed by their position (file, line and column), so the results do not keep the ASTs alive,
+ * and are named by their file, line and method (rendered once, when the loop or condition is first recorded).
+ * Timings are not recorded while the thread's events are suspended (see EventSuspension).
+ */
+public final class AnalysisProfiler {
+    private static volatile boolean doProfile = false;
+
+    public enum Counter {
+        STATE_COPIES("stateCopies"),
+        STATE_MERGES("stateMerges"),
+        STATE_INTERSECTS("stateIntersects"),
+        STATE_NARROWS("stateNarrows"),
+        RESOLUTIONS("resolutions"),
+        RESOLUTION_CACHE_HITS("resolutionCacheHits"),
+        METHOD_CALLS("methodCalls"),
+        METHOD_SUMMARIES("methodSummaries");
+
+        private final String jsonName;
+
+        Counter(String jsonName) {
+            this.jsonName = jsonName;
+        }
+    }
+
+    private static final LongAdder[] COUNTERS = new LongAdder[Counter.values().length];
+    private static final Map<String, Timing> STATEMENTS = new ConcurrentHashMap<>();
+    private static final Map<Position, Timing> LOOPS = new ConcurrentHashMap<>();
+    private static final Map<Position, Timing> CONDITIONS = new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 0; i < COUNTERS.length; i++) COUNTERS[i] = new LongAdder();
+    }
+
+    /**
+     * Name, number of calls, iterations (only for loops) and total time of a statement kind, loop or condition
+     */
+    private static final class Timing {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder iterations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        private Timing(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Position of a node in a file (the file is the path of the CompilationUnit, or the name of its first type if it
+     * has no path)
+     */
+    private record Position(String file, int line, int column) {
+        private static Position of(Node n) {
+            String file = n.findCompilationUnit()
+                    .map(cu -> cu.getStorage().map(storage -> storage.getPath().toString())
+                            .orElseGet(() -> cu.getTypes().getFirst().map(type -> type.getNameAsString()).orElse("?")))
+                    .orElse("?");
+            return new Position(file, getLine(n), n.getBegin().map(p -> p.column).orElse(0));
+        }
+
+        /**
+         * @return Name of a node at this position (i.e. WHILE (Main.java:4 in test))
+         */
+        private String getName(String nodeName, Node n) {
+            String method = n.findAncestor(CallableDeclaration.class).map(CallableDeclaration::getNameAsString).orElse("?");
+            return nodeName + " (" + file + ":" + line + " in " + method + ")";
+        }
+    }
+
+    @Name("analysis.Statement")
+    @Label("Statement Analysis")
+    @Category("Analysis")
+    static class StatementEvent extends Event {
+        @Label("Kind")
+        String kind;
+        @Label("Line")
+        int line;
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+
+    @Name("analysis.Loop")
+    @Label("Loop Analysis")
+    @Category("Analysis")
+    static class LoopEvent extends Event {
+        @Label("Loop")
+        String loop;
+        @Label("Line")
+        int line;
+        @Label("Iterations")
+        int iterations;
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+
+    @Name("analysis.Condition")
+    @Label("Condition Analysis")
+    @Category("Analysis")
+    static class ConditionEvent extends Event {
+        @Label("Condition")
+        String condition;
+        @Label("Line")
+        int line;
+        @Label("Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long time;
+    }
+
+    public static void setProfile(boolean doProfile) {
+        AnalysisProfiler.doProfile = doProfile;
+    }
+
+    public static boolean isProfiling() {
+        return doProfile;
+    }
+
+    /**
+     * Clear all results
+     */
+    public static void reset() {
+        for (LongAdder counter : COUNTERS) counter.reset();
+        STATEMENTS.clear();
+        LOOPS.clear();
+        CONDITIONS.clear();
+    }
+
+    /**
+     * Increment a counter
+     */
+    public static void count(Counter counter) {
+        if (!doProfile) return;
+        COUNTERS[counter.ordinal()].increment();
+    }
+
+    public static long getCount(Counter counter) {
+        return COUNTERS[counter.ordinal()].sum();
+    }
+
+    /**
+     * @return Start time to pass to the end methods (0 if profiling is disabled)
+     */
+    public static long start() {
+        return doProfile ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the time of a statement
+     */
+    public static void endStatement(Node n, long start) {
+        if (!doProfile || start == 0 || EventSuspension.isSuspended()) return;
+        long time = System.nanoTime() - start;
+        String kind = n.getClass().getSimpleName();
+        record(STATEMENTS.computeIfAbsent(kind, Timing::new), 0, time);
+
+        StatementEvent event = new StatementEvent();
+        if (event.isEnabled()) {
+            event.kind = kind;
+            event.line = getLine(n);
+            event.time = time;
+            event.commit();
+        }
+    }
+
+    /**
+     * Record the iterations and time of a loop
+     */
+    public static void endLoop(Node loopNode, String loopName, int iterations, long start) {
+        if (!doProfile || start == 0 || EventSuspension.isSuspended()) return;
+        long time = System.nanoTime() - start;
+        Position position = Position.of(loopNode);
+        record(LOOPS.computeIfAbsent(position, p -> new Timing(p.getName(loopName, loopNode))), iterations, time);
+
+        LoopEvent event = new LoopEvent();
+        if (event.isEnabled()) {
+            event.loop = loopName;
+            event.line = getLine(loopNode);
+            event.iterations = iterations;
+            event.time = time;
+            event.commit();
+        }
+    }
+
+    /**
+     * Record the time of evaluating a condition (i.e. of an if or a loop)
+     */
+    public static void endCondition(Node condition, long start) {
+        if (!doProfile || start == 0 || EventSuspension.isSuspended()) return;
+        long time = System.nanoTime() - start;
+        Position position = Position.of(condition);
+        record(CONDITIONS.computeIfAbsent(position, p -> new Timing(p.getName(condition.toString(), condition))), 0, time);
+
+        ConditionEvent event = new ConditionEvent();
+        if (event.isEnabled()) {
+            event.condition = condition.toString();
+            event.line = getLine(condition);
+            event.time = time;
+            event.commit();
+        }
+    }
+
+    private static void record(Timing timing, int iterations, long time) {
+        timing.count.increment();
+        timing.iterations.add(iterations);
+        timing.nanos.add(time);
+    }
+
+    private static int getLine(Node n) {
+        return n.getBegin().map(p -> p.line).orElse(0);
+    }
+
+    /**
+     * @return Results as JSON. Statements, loops and conditions are sorted by decreasing time.
+     */
+    public static String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"counters\": {");
+        Counter[] counters = Counter.values();
+        for (int i = 0; i < counters.length; i++) {
+            if (i > 0) sb.append(",");
+            sb.append("\n    \"").append(counters[i].jsonName).append("\": ").append(getCount(counters[i]));
+        }
+        sb.append("\n  },\n");
+        appendTimings(sb, "statements", STATEMENTS.values(), false);
+        sb.append(",\n");
+        appendTimings(sb, "loops", LOOPS.values(), true);
+        sb.append(",\n");
+        appendTimings(sb, "conditions", CONDITIONS.values(), false);
+        sb.append("\n}\n");
+        return sb.toString();
+    }
+
+    /**
+     * Write the results as JSON to a file
+     */
+    public static void writeJson(Path path) throws IOException {
+        Files.writeString(path, toJson());
+    }
+
+    private static void appendTimings(StringBuilder sb, String name, Collection<Timing> timings, boolean withIterations) {
+        List<Timing> entries = new ArrayList<>(timings);
+        entries.sort(Comparator.comparingLong((Timing t) -> t.nanos.sum()).reversed());
+        sb.append("  \"").append(name).append("\": [");
+        for (int i = 0; i < entries.size(); i++) {
+            Timing timing = entries.get(i);
+            if (i > 0) sb.append(",");
+            sb.append("\n    {\"name\": \"").append(escape(timing.name)).append("\"");
+            sb.append(", \"count\": ").append(timing.count.sum());
+            if (withIterations) sb.append(", \"iterations\": ").append(timing.iterations.sum());
+            sb.append(", \"timeNanos\": ").append(timing.nanos.sum()).append("}");
+        }
+        if (!entries.isEmpty()) sb.append("\n  ");
+        sb.append("]");
+    }
+}
@@ -0,0 +1,26 @@
+package logger;
+
+/**
+ * Suspension of the trace events and profiler timings of the current thread
+ * (i.e. while a called method is analyzed for its summary, so its statements do not appear in the caller's results).
+ * Suspensions can be nested; events are recorded again once each suspend is matched by a resume.
+ * Counters of the profiler are not suspended.
+ */
+public final class EventSuspension {
+    private static final ThreadLocal<int[]> DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private EventSuspension() {
+    }
+
+    public static void suspend() {
+        DEPTH.get()[0]++;
+    }
+
+    public static void resume() {
+        DEPTH.get()[0]--;
+    }
+
+    public static boolean isSuspended() {
+        return DEPTH.get()[0] > 0;
+    }
+}
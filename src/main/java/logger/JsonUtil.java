@@ -0,0 +1,30 @@
+package logger;
+
+/**
+ * Util for writing the JSON of the trace and the profiler
+ */
+final class JsonUtil {
+    private JsonUtil() {
+    }
+
+    /**
+     * Escape a string to write it between quotes in JSON
+     */
+    static String escape(String s) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
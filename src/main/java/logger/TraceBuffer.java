@@ -0,0 +1,67 @@
+package logger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded ring buffer of trace events. When the buffer is full, the oldest events are dropped.
+ */
+public final class TraceBuffer {
+    private final TraceEvent[] events;
+    private long count = 0;
+
+    public TraceBuffer(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.events = new TraceEvent[capacity];
+    }
+
+    public synchronized void add(TraceEvent event) {
+        events[(int) (count % events.length)] = event;
+        count++;
+    }
+
+    /**
+     * @return Events in the buffer, from the oldest to the newest
+     */
+    public synchronized List<TraceEvent> getEvents() {
+        int size = (int) Math.min(count, events.length);
+        List<TraceEvent> result = new ArrayList<>(size);
+        for (long i = count - size; i < count; i++) {
+            result.add(events[(int) (i % events.length)]);
+        }
+        return result;
+    }
+
+    /**
+     * @return Number of events that were dropped because the buffer was full
+     */
+    public synchronized long getDropped() {
+        return Math.max(0, count - events.length);
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    /**
+     * @return Events rendered as text, one line per event (the format of the debug mode)
+     */
+    public String renderText() {
+        StringBuilder sb = new StringBuilder();
+        for (TraceEvent event : getEvents()) {
+            sb.append(event.toText());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return Events rendered as JSON lines
+     */
+    public String renderJsonLines() {
+        StringBuilder sb = new StringBuilder();
+        for (TraceEvent event : getEvents()) {
+            sb.append(event.toJson()).append("\n");
+        }
+        return sb.toString();
+    }
+}
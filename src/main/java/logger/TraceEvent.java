@@ -0,0 +1,138 @@
+package logger;
+
+import analysis.model.AnalysisError;
+import analysis.model.VariablesState;
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.resolution.types.ResolvedType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static logger.JsonUtil.escape;
+
+/**
+ * Event of the analysis trace. Events only keep a reference to the node and a snapshot of the state when it was
+ * recorded (see VariablesState.snapshot), and the state is only rendered to text or JSON when the trace is read.
+ * @param kind      Kind of event
+ * @param node      Node of the event
+ * @param atEnd     True if the event is at the end of the node (i.e. the merged state after an if statement)
+ * @param label     Label of the event (i.e. IF TRUE, the loop name, or the format of a message)
+ * @param iteration Iteration of the loop (-1 if not in a loop)
+ * @param state     Snapshot of the state when the event was recorded (null if none)
+ * @param errors    Errors at the node (empty if none)
+ * @param args      Arguments of the format of a message (or the phase of a loop iteration)
+ */
+public record TraceEvent(Kind kind, Node node, boolean atEnd, String label, int iteration,
+                         VariablesState state, List<AnalysisError> errors, Object[] args) {
+    public enum Kind {
+        /**
+         * State after a statement
+         */
+        STATE,
+        /**
+         * State at the start of a branch (i.e. IF TRUE, FOR INITIALIZE)
+         */
+        BRANCH,
+        /**
+         * State during an iteration of a loop (label: loop name, args: [phase])
+         */
+        LOOP_ITERATION,
+        /**
+         * State after merging states (i.e. IF MERGED, EXIT STATE of a loop)
+         */
+        MERGE,
+        /**
+         * Errors at a node
+         */
+        ERROR,
+        /**
+         * Other message (label: format)
+         */
+        MESSAGE
+    }
+
+    /**
+     * @return Line of the node (the last line for events at the end of the node), or -1 if unknown
+     */
+    public int line() {
+        if (node.getRange().isEmpty()) return -1;
+        Range range = node.getRange().get();
+        return atEnd ? range.end.line : range.begin.line;
+    }
+
+    /**
+     * @return Message of the event (without the line and the node)
+     */
+    public String message() {
+        return switch (kind) {
+            case STATE -> state.toFormattedString();
+            case BRANCH, MERGE -> label + ": " + state.toFormattedString();
+            case LOOP_ITERATION -> {
+                String prefix = String.format("%s [%s] %s", label, iteration, args[0]);
+                yield state == null ? prefix : prefix + ": " + state.toFormattedString();
+            }
+            case ERROR -> "Errors: " + errors.stream().map(e -> "'" + e.getMessage() + "'").collect(Collectors.joining(", "));
+            case MESSAGE -> String.format(label, Arrays.stream(args).map(TraceEvent::renderArg).toArray());
+        };
+    }
+
+    /**
+     * @return Event as lines of text ([line] node | message). Errors of a state are on a separate line.
+     */
+    public String toText() {
+        String lineCount = line() == -1 ? "?" : line() + "";
+        String nodeText = atEnd ? "}" : getFirstLine(node.toString());
+        nodeText = nodeText.substring(0, Math.min(20, nodeText.length()));
+        String text = String.format("[%2s] %-20s | %s\n", lineCount, nodeText, message());
+        if (kind == Kind.STATE && !errors.isEmpty()) {
+            text += new TraceEvent(Kind.ERROR, node, false, null, -1, null, errors, null).toText();
+        }
+        return text;
+    }
+
+    /**
+     * @return Event as a single line of JSON
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"kind\": \"").append(kind).append("\"");
+        sb.append(", \"line\": ").append(line());
+        sb.append(", \"atEnd\": ").append(atEnd);
+        sb.append(", \"node\": \"").append(escape(getFirstLine(node.toString()))).append("\"");
+        if (label != null && kind != Kind.MESSAGE) sb.append(", \"label\": \"").append(escape(label)).append("\"");
+        if (iteration != -1) sb.append(", \"iteration\": ").append(iteration);
+        if (state != null) sb.append(", \"state\": \"").append(escape(state.toFormattedString())).append("\"");
+        if (kind == Kind.LOOP_ITERATION || kind == Kind.MESSAGE) {
+            sb.append(", \"message\": \"").append(escape(message())).append("\"");
+        }
+        if (!errors.isEmpty()) {
+            sb.append(", \"errors\": [");
+            for (int i = 0; i < errors.size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append("{\"message\": \"").append(escape(errors.get(i).getMessage())).append("\"");
+                sb.append(", \"definite\": ").append(errors.get(i).isDefinite()).append("}");
+            }
+            sb.append("]");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Render an argument of a message (types are rendered by their description, i.e. java.lang.RuntimeException)
+     */
+    private static Object renderArg(Object arg) {
+        return arg instanceof ResolvedType type ? type.describe() : arg;
+    }
+
+    /**
+     * Get first line of the string
+     */
+    private static String getFirstLine(String str) {
+        String[] split = str.split("\n");
+        if (split.length < 1) return "";
+        return split[0];
+    }
+}
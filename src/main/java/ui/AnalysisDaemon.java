@@ -0,0 +1,212 @@
+package ui;
+
+import analysis.model.AnalysisError;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import utils.MethodIndex;
+import visualization.Diagram;
+import visualization.DiagramFormat;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Long-running analysis process that keeps parsed files and analysis results in memory between requests
+ * <ul>
+ *     <li>A file is only parsed again if its content changed</li>
+ *     <li>A method is only analyzed again if its fingerprint changed (see MethodFingerprint)</li>
+ *     <li>The report of an unchanged method that moved in the file is moved to its new lines</li>
+ * </ul>
+ * Requests are read one per line, and each response ends with a line containing only END:
+ * <ul>
+ *     <li>analyze [Java file path] [Method name] [Output file path (optional)]</li>
+ *     <li>forget [Java file path]: drop the results of a file</li>
+ *     <li>quit</li>
+ * </ul>
+ */
+public class AnalysisDaemon {
+    public static final String END_OF_RESPONSE = "END";
+
+    private final JavaParser parser = new JavaParser(
+            new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()))
+    );
+    private final Map<Path, FileEntry> files = new HashMap<>();
+    private final AnalysisOptions options;
+    private int analyzedMethods = 0;
+
+    public AnalysisDaemon() {
+        this(AnalysisOptions.DEFAULT);
+    }
+
+    /**
+     * @param options Options of the analysis of every method
+     */
+    AnalysisDaemon(AnalysisOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Parsed file and the results of its analyzed methods
+     */
+    private static final class FileEntry {
+        private final String contentHash;
+        private final CompilationUnit compilationUnit;
+        private final Map<String, MethodResult> results;
+
+        private FileEntry(String contentHash, CompilationUnit compilationUnit, Map<String, MethodResult> results) {
+            this.contentHash = contentHash;
+            this.compilationUnit = compilationUnit;
+            this.results = results;
+        }
+    }
+
+    /**
+     * Result of analyzing a method. The error map can be reused for the diagram of an unchanged method in a new
+     * version of the file, since nodes are compared by structure.
+     * @param diagram Diagram drawn by the analysis (reused while the method is unchanged), or null if it was not drawn
+     */
+    private record MethodResult(String fingerprint, Map<Node, Set<AnalysisError>> errorMap, MethodReport report,
+                                Diagram diagram) {
+    }
+
+    /**
+     * Read requests from the input until quit or the end of the input
+     */
+    public void run(BufferedReader in, PrintStream out) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!handle(line, out)) return;
+        }
+    }
+
+    /**
+     * Handle a single request
+     * @return False if the daemon should stop
+     */
+    public boolean handle(String request, PrintStream out) {
+        List<String> args = List.of(request.trim().split("\\s+"));
+        try {
+            switch (args.get(0)) {
+                case "analyze" -> {
+                    if (args.size() < 3) throw new IOException("Requires: analyze [Java file path] [Method name] [Output file path (optional)]");
+                    List<MethodReport> reports = analyze(Paths.get(args.get(1)), args.get(2), args.size() >= 4 ? args.get(3) : null);
+                    if (reports.isEmpty()) out.println("Method not found: " + args.get(2));
+                    for (MethodReport report : reports) {
+                        out.print(report.toFormattedString());
+                    }
+                }
+                case "forget" -> {
+                    if (args.size() < 2) throw new IOException("Requires: forget [Java file path]");
+                    files.remove(Paths.get(args.get(1)).toAbsolutePath().normalize());
+                }
+                case "quit" -> {
+                    return false;
+                }
+                case "" -> {
+                }
+                default -> throw new IOException("Unknown request: " + args.get(0));
+            }
+        } catch (Exception e) {
+            out.println("Error: " + e.getMessage());
+        }
+        out.println(END_OF_RESPONSE);
+        out.flush();
+        return true;
+    }
+
+    /**
+     * Analyze the methods of a file with the given name, reusing the results of unchanged methods
+     * @param output Path of the diagram, in the format of its extension (null for no diagram)
+     * @return Reports of the methods with the given name
+     */
+    public List<MethodReport> analyze(Path file, String methodName, String output) throws IOException {
+        Path key = file.toAbsolutePath().normalize();
+        String content = Files.readString(key);
+        String contentHash = MethodFingerprint.hash(List.of(content));
+        FileEntry entry = files.get(key);
+        if (entry == null || !entry.contentHash.equals(contentHash)) {
+            entry = parse(file, content, contentHash, entry);
+            files.put(key, entry);
+        }
+
+        List<MethodReport> reports = new ArrayList<>();
+        MethodResult diagramResult = null; // Result of the first method with the name, drawn with its own errors only
+        MethodDeclaration diagramMethod = null;
+        String outline = null;
+        for (MethodDeclaration method : MethodIndex.forCompilationUnit(entry.compilationUnit).getMethods(methodName)) {
+            if (method.getBody().isEmpty()) continue;
+            if (outline == null) outline = MethodFingerprint.getOutline(entry.compilationUnit);
+            String methodKey = MethodFingerprint.getMethodKey(method);
+            String fingerprint = MethodFingerprint.getFingerprint(method, outline);
+            MethodResult result = entry.results.get(methodKey);
+            if (result == null || !result.fingerprint.equals(fingerprint)) {
+                result = analyzeMethod(file, method, fingerprint, output != null && diagramMethod == null);
+            } else if (result.report.getLine() != method.getBegin().map(p -> p.line).orElse(0)) {
+                result = new MethodResult(fingerprint, result.errorMap, result.report.moveTo(file, method), result.diagram);
+            }
+            entry.results.put(methodKey, result);
+            reports.add(result.report);
+            if (diagramMethod == null) {
+                diagramMethod = method;
+                diagramResult = result;
+            }
+        }
+
+        if (output != null && diagramMethod != null) {
+            Diagram diagram = diagramResult.diagram != null ? diagramResult.diagram
+                    : MethodAnalysis.createDiagram(diagramMethod, diagramResult.errorMap);
+            diagram.createDiagram(output, DiagramFormat.fromFileName(output));
+        }
+        return reports;
+    }
+
+    /**
+     * @return Number of methods analyzed since the daemon started (methods whose results were reused are not counted)
+     */
+    public int getAnalyzedMethods() {
+        return analyzedMethods;
+    }
+
+    /**
+     * Parse a new version of a file, keeping the results of the methods that still exist
+     */
+    private FileEntry parse(Path file, String content, String contentHash, FileEntry previous) throws IOException {
+        ParseResult<CompilationUnit> result = parser.parse(content);
+        if (!result.isSuccessful() || result.getResult().isEmpty()) {
+            throw new IOException("Java file could not be parsed: " + file + " (" + result.getProblems().size() + " Problems)");
+        }
+        CompilationUnit compilationUnit = result.getResult().get();
+        MethodIndex.forCompilationUnit(compilationUnit);
+        Map<String, MethodResult> results = new HashMap<>();
+        if (previous != null) {
+            for (MethodDeclaration method : compilationUnit.findAll(MethodDeclaration.class)) {
+                String methodKey = MethodFingerprint.getMethodKey(method);
+                if (previous.results.containsKey(methodKey)) results.put(methodKey, previous.results.get(methodKey));
+            }
+        }
+        return new FileEntry(contentHash, compilationUnit, results);
+    }
+
+    /**
+     * @param createDiagram True to also draw the diagram of the method during its analysis
+     */
+    private MethodResult analyzeMethod(Path file, MethodDeclaration method, String fingerprint, boolean createDiagram) {
+        analyzedMethods++;
+        try {
+            MethodAnalysis analysis = MethodAnalysis.analyze(method, createDiagram, options);
+            Map<Node, Set<AnalysisError>> errorMap = analysis.errorMap();
+            return new MethodResult(fingerprint, errorMap, MethodReport.create(file, method, errorMap), analysis.diagram());
+        } catch (Exception e) {
+            return new MethodResult(fingerprint, Map.of(), MethodReport.createFailed(file, method, e), null);
+        }
+    }
+}
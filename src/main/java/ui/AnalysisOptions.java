@@ -0,0 +1,41 @@
+package ui;
+
+import analysis.values.IntegerIntervalSet;
+import analysis.visitor.AnalysisVisitor;
+
+/**
+ * Options of the analysis of a method, set from the command line
+ * @param useControlFlowGraph True to analyze method bodies over their control flow graph (--cfg)
+ * @param parallelBranchLines Minimum number of lines of both branches of an if statement to analyze them in parallel,
+ *                            or 0 to analyze them sequentially (--parallel-branches)
+ * @param wideningDelay       Number of loop iterations to run exactly before widening (--widening-delay)
+ * @param intervalLimit       Maximum number of intervals of integer values and their collapse strategy
+ *                            (--intervals, --collapse)
+ */
+record AnalysisOptions(boolean useControlFlowGraph, int parallelBranchLines, int wideningDelay,
+                       IntegerIntervalSet.Limit intervalLimit) {
+    static final AnalysisOptions DEFAULT = new AnalysisOptions(false, 0, AnalysisVisitor.DEFAULT_WIDENING_DELAY,
+            IntegerIntervalSet.Limit.DEFAULT);
+
+    /**
+     * @return Visitor analyzing the method with the options
+     */
+    AnalysisVisitor createVisitor(String targetMethod) {
+        AnalysisVisitor visitor = new AnalysisVisitor(targetMethod, intervalLimit);
+        visitor.setUseControlFlowGraph(useControlFlowGraph);
+        visitor.setParallelBranchLines(parallelBranchLines);
+        visitor.setWideningDelay(wideningDelay);
+        return visitor;
+    }
+
+    /**
+     * @return Options that change the results of a method, to add to its fingerprint (empty for the default options,
+     * so existing cache keys are kept). Branches analyzed in parallel have the same results.
+     */
+    String getFingerprint() {
+        String fingerprint = useControlFlowGraph ? " cfg" : "";
+        if (wideningDelay != AnalysisVisitor.DEFAULT_WIDENING_DELAY) fingerprint += " widening " + wideningDelay;
+        if (!intervalLimit.isRangesOnly()) fingerprint += " intervals " + intervalLimit.maxIntervals() + " " + intervalLimit.collapse();
+        return fingerprint;
+    }
+}
@@ -0,0 +1,219 @@
+package ui;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import visualization.DiagramFormat;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/**
+ * Analyze every method in a source tree in a single run
+ * <ul>
+ *     <li>Each Java file is parsed once, and the parser and symbol solver are shared by all files on the same thread</li>
+ *     <li>Files are analyzed in parallel on a work-stealing pool. All methods of a file are analyzed by the same task,
+ *     since the AST and the symbol solver caches are not thread-safe.</li>
+ *     <li>One report (and optionally one diagram) is written per method,
+ *     under the same relative directory as the file in the output directory</li>
+ *     <li>With a result cache, methods whose fingerprint did not change since a previous run are not analyzed,
+ *     and their report and diagram are read from the cache</li>
+ * </ul>
+ */
+public class BatchAnalyzer {
+    private final Path outputDir;
+    private final PathMatcher methodMatcher;
+    private final boolean createDiagrams;
+    private final int threads;
+    private final ThreadLocal<JavaParser> parser;
+    private ResultCache cache;
+    private DiagramFormat diagramFormat = DiagramFormat.PNG;
+    private AnalysisOptions analysisOptions = AnalysisOptions.DEFAULT;
+
+    /**
+     * @param outputDir      Directory to write the reports to
+     * @param methodGlob     Glob for the methods to analyze, matched against the method name or Type.method (null for all)
+     * @param createDiagrams True to also write a diagram for each method (see setDiagramFormat)
+     */
+    public BatchAnalyzer(Path outputDir, String methodGlob, boolean createDiagrams) {
+        this(outputDir, methodGlob, createDiagrams, 1);
+    }
+
+    /**
+     * @param threads Number of files to analyze in parallel
+     * @see BatchAnalyzer#BatchAnalyzer(Path, String, boolean)
+     */
+    public BatchAnalyzer(Path outputDir, String methodGlob, boolean createDiagrams, int threads) {
+        this.outputDir = outputDir;
+        this.methodMatcher = methodGlob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + methodGlob);
+        this.createDiagrams = createDiagrams;
+        this.threads = Math.max(threads, 1);
+        this.parser = ThreadLocal.withInitial(() -> new JavaParser(
+                new ParserConfiguration().setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()))
+        ));
+    }
+
+    /**
+     * @param cache Cache of the results of previous runs (null for no cache)
+     */
+    public void setCache(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    public ResultCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @param analysisOptions Options of the analysis of every method
+     */
+    void setAnalysisOptions(AnalysisOptions analysisOptions) {
+        this.analysisOptions = analysisOptions;
+    }
+
+    /**
+     * @param diagramFormat Format of the diagrams (PNG by default)
+     */
+    public void setDiagramFormat(DiagramFormat diagramFormat) {
+        this.diagramFormat = diagramFormat;
+    }
+
+    /**
+     * Analyze all methods of all Java files in a directory (or a single Java file)
+     * @return Reports of all analyzed methods, in file order
+     */
+    public List<MethodReport> analyze(Path root) throws IOException {
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(root)) {
+            files = paths.filter(p -> Files.isRegularFile(p) && p.toString().endsWith(".java")).sorted().toList();
+        }
+        List<MethodReport> reports = new ArrayList<>();
+        if (threads == 1) {
+            for (Path file : files) {
+                reports.addAll(analyzeFile(root, file));
+            }
+            return reports;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            List<ForkJoinTask<List<MethodReport>>> tasks = new ArrayList<>();
+            for (Path file : files) {
+                tasks.add(pool.submit(() -> analyzeFile(root, file)));
+            }
+            for (ForkJoinTask<List<MethodReport>> task : tasks) {
+                reports.addAll(task.join());
+            }
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IOException ioException) throw ioException;
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+        return reports;
+    }
+
+    /**
+     * Parse a Java file with the parser of the current thread and analyze its methods
+     */
+    private List<MethodReport> analyzeFile(Path root, Path file) throws IOException {
+        ParseResult<CompilationUnit> result = parser.get().parse(file);
+        if (!result.isSuccessful() || result.getResult().isEmpty()) {
+            System.err.println("Java file could not be parsed: " + file + " (" + result.getProblems().size() + " Problems)");
+            return List.of();
+        }
+        Path relativePath = Files.isDirectory(root) ? root.relativize(file) : file.getFileName();
+        List<MethodReport> reports = new ArrayList<>();
+        String outline = null;
+        for (MethodDeclaration method : findMethods(result.getResult().get())) {
+            MethodReport report;
+            if (cache == null) {
+                report = analyzeMethod(relativePath, method);
+            } else {
+                if (outline == null) outline = MethodFingerprint.getOutline(result.getResult().get());
+                String fingerprint = MethodFingerprint.getFingerprint(method, outline);
+                if (createDiagrams) fingerprint += " diagram " + diagramFormat;
+                fingerprint += analysisOptions.getFingerprint();
+                report = analyzeMethodCached(relativePath, method, fingerprint);
+            }
+            writeReport(report);
+            reports.add(report);
+        }
+        return reports;
+    }
+
+    /**
+     * Read the result of a method from the cache, or analyze it and add its result to the cache
+     */
+    private MethodReport analyzeMethodCached(Path relativePath, MethodDeclaration method, String fingerprint) throws IOException {
+        ResultCache.CachedResult cached = cache.load(fingerprint, relativePath, method);
+        if (cached != null && (!createDiagrams || cached.diagram() != null || cached.report().isFailed())) {
+            if (createDiagrams && cached.diagram() != null) {
+                Path diagramPath = getReportPath(cached.report(), "." + diagramFormat.getExtension());
+                Files.createDirectories(diagramPath.getParent());
+                Files.write(diagramPath, cached.diagram());
+            }
+            return cached.report();
+        }
+
+        MethodReport report = analyzeMethod(relativePath, method);
+        Path diagramPath = getReportPath(report, "." + diagramFormat.getExtension());
+        byte[] diagram = createDiagrams && !report.isFailed() && Files.exists(diagramPath) ? Files.readAllBytes(diagramPath) : null;
+        cache.store(fingerprint, report, diagram);
+        return report;
+    }
+
+    /**
+     * @return Methods with a body that match the method glob
+     */
+    private List<MethodDeclaration> findMethods(CompilationUnit compilationUnit) {
+        return compilationUnit.findAll(MethodDeclaration.class, method -> {
+            if (method.getBody().isEmpty()) return false;
+            if (methodMatcher == null) return true;
+            return methodMatcher.matches(Paths.get(method.getNameAsString()))
+                    || methodMatcher.matches(Paths.get(MethodReport.getQualifiedName(method)));
+        });
+    }
+
+    /**
+     * Analyze a single method (and create its diagram)
+     */
+    private MethodReport analyzeMethod(Path relativePath, MethodDeclaration method) {
+        try {
+            MethodAnalysis analysis = MethodAnalysis.analyze(method, createDiagrams, analysisOptions);
+            MethodReport report = MethodReport.create(relativePath, method, analysis.errorMap());
+            if (createDiagrams) {
+                Path diagramPath = getReportPath(report, "." + diagramFormat.getExtension());
+                Files.createDirectories(diagramPath.getParent());
+                analysis.diagram().createDiagram(diagramPath.toString(), diagramFormat);
+            }
+            return report;
+        } catch (Exception e) {
+            return MethodReport.createFailed(relativePath, method, e);
+        }
+    }
+
+    private void writeReport(MethodReport report) throws IOException {
+        Path reportPath = getReportPath(report, ".txt");
+        Files.createDirectories(reportPath.getParent());
+        Files.writeString(reportPath, report.toFormattedString());
+    }
+
+    /**
+     * @return Path of the report: output directory / file path without .java / method name and line + extension
+     */
+    private Path getReportPath(MethodReport report, String extension) {
+        String filePath = report.getFile().toString();
+        Path fileDir = outputDir.resolve(filePath.substring(0, filePath.length() - ".java".length()));
+        return fileDir.resolve(report.getReportName() + extension);
+    }
+}
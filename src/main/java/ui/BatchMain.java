@@ -0,0 +1,121 @@
+package ui;
+
+import analysis.values.IntegerIntervalSet;
+import analysis.visitor.AnalysisVisitor;
+import logger.AnalysisLogger;
+import logger.AnalysisProfiler;
+import visualization.Diagram;
+import visualization.DiagramFormat;
+import visualization.DiagramRenderCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Batch mode: analyze every method in a source tree in one run
+ */
+public class BatchMain {
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) throw new IOException("Requires: [Source directory] [Output directory] --methods [Glob] --threads [N] --diagrams --diagram-format [Format] --render-cache [Directory] --cache [Directory] --profile [JSON file] --intervals [N] --collapse [Strategy] --cfg --parallel-branches [N] --widening-delay [N] -d");
+        Path root = Paths.get(args[0]);
+        Path outputDir = Paths.get(args[1]);
+        String methodGlob = null;
+        boolean createDiagrams = false;
+        Path profileOutput = null;
+        Path cacheDir = null;
+        DiagramFormat diagramFormat = DiagramFormat.PNG;
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean useControlFlowGraph = false;
+        int parallelBranchLines = 0;
+        int wideningDelay = AnalysisVisitor.DEFAULT_WIDENING_DELAY;
+        int maxIntervals = IntegerIntervalSet.DEFAULT_MAX_INTERVALS;
+        IntegerIntervalSet.Collapse collapse = IntegerIntervalSet.Limit.DEFAULT.collapse();
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--methods" -> {
+                    if (i + 1 >= args.length) throw new IOException("--methods requires a glob");
+                    methodGlob = args[++i];
+                }
+                case "--threads" -> {
+                    if (i + 1 >= args.length) throw new IOException("--threads requires a number");
+                    try {
+                        threads = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Invalid number of threads: " + args[i]);
+                    }
+                }
+                case "--diagrams" -> createDiagrams = true;
+                case "--diagram-format" -> {
+                    if (i + 1 >= args.length) throw new IOException("--diagram-format requires a format");
+                    try {
+                        diagramFormat = DiagramFormat.fromName(args[++i]);
+                    } catch (IllegalArgumentException e) {
+                        throw new IOException(e.getMessage());
+                    }
+                }
+                case "--render-cache" -> {
+                    if (i + 1 >= args.length) throw new IOException("--render-cache requires a directory");
+                    Diagram.setRenderCache(new DiagramRenderCache(Paths.get(args[++i])));
+                }
+                case "--cache" -> {
+                    if (i + 1 >= args.length) throw new IOException("--cache requires a directory");
+                    cacheDir = Paths.get(args[++i]);
+                }
+                case "--profile" -> {
+                    if (i + 1 >= args.length) throw new IOException("--profile requires a file path");
+                    profileOutput = Paths.get(args[++i]);
+                    AnalysisProfiler.setProfile(true);
+                }
+                case "--intervals" -> {
+                    if (i + 1 >= args.length) throw new IOException("--intervals requires a number");
+                    maxIntervals = Main.getMaxIntervals(args[++i]);
+                }
+                case "--collapse" -> {
+                    if (i + 1 >= args.length) throw new IOException("--collapse requires a strategy");
+                    collapse = Main.getCollapse(args[++i]);
+                }
+                case "--cfg" -> useControlFlowGraph = true;
+                case "--parallel-branches" -> {
+                    if (i + 1 >= args.length) throw new IOException("--parallel-branches requires a number");
+                    parallelBranchLines = Main.getParallelBranchLines(args[++i]);
+                }
+                case "--widening-delay" -> {
+                    if (i + 1 >= args.length) throw new IOException("--widening-delay requires a number");
+                    wideningDelay = Main.getWideningDelay(args[++i]);
+                }
+                case "-d" -> AnalysisLogger.setLog(true);
+                default -> throw new IOException("Unknown argument: " + args[i]);
+            }
+        }
+        if (!Files.exists(root)) throw new IOException("Invalid Source Path: " + root);
+
+        BatchAnalyzer analyzer = new BatchAnalyzer(outputDir, methodGlob, createDiagrams, threads);
+        analyzer.setDiagramFormat(diagramFormat);
+        analyzer.setAnalysisOptions(new AnalysisOptions(useControlFlowGraph, parallelBranchLines, wideningDelay,
+                new IntegerIntervalSet.Limit(maxIntervals, collapse)));
+        if (cacheDir != null) analyzer.setCache(new ResultCache(cacheDir));
+        System.out.println("Starting analysis...");
+        List<MethodReport> reports = analyzer.analyze(root);
+        int errors = 0;
+        int failed = 0;
+        for (MethodReport report : reports) {
+            if (report.isFailed()) {
+                failed++;
+                System.err.printf("%s %s: analysis error%n", report.getFile(), report.getMethodName());
+            } else {
+                errors += report.getErrorCount();
+            }
+        }
+        System.out.printf("Finished analysis: %d methods, %d errors, %d methods not analyzed%n", reports.size(), errors, failed);
+        if (analyzer.getCache() != null) {
+            System.out.printf("Result cache: %d methods reused, %d methods analyzed%n", analyzer.getCache().getHits(), analyzer.getCache().getMisses());
+        }
+        if (profileOutput != null) {
+            AnalysisProfiler.writeJson(profileOutput);
+            System.out.println("Profile written to " + profileOutput);
+        }
+    }
+}
@@ -1,19 +1,23 @@
 package ui;
 
-import analysis.model.AnalysisState;
-import analysis.model.VariablesState;
+import analysis.values.IntegerIntervalSet;
 import analysis.visitor.AnalysisVisitor;
 import com.github.javaparser.ParseProblemException;
 import com.github.javaparser.Problem;
 import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.symbolsolver.JavaSymbolSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import logger.AnalysisLogger;
-import visualization.model.VisualizationState;
-import visualization.visitor.VisualizationVisitor;
+import logger.AnalysisProfiler;
+import utils.MethodIndex;
+import visualization.DiagramFormat;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -22,8 +26,79 @@ import java.util.List;
 import java.util.Set;
 
 public class Main {
+    private static final String PROFILE_OUTPUT = "profile.json";
+    private static final String TRACE_OUTPUT = "trace.jsonl";
+
+    /**
+     * @return Options of the analysis from --cfg, --parallel-branches [N], --widening-delay [N],
+     * --intervals [N] and --collapse [Strategy] (see IntegerIntervalSet)
+     */
+    static AnalysisOptions getAnalysisOptions(String[] args) throws IOException {
+        List<String> argList = Arrays.asList(args);
+        int parallelBranches = argList.indexOf("--parallel-branches");
+        int parallelBranchLines = 0;
+        if (parallelBranches >= 0) {
+            parallelBranchLines = getParallelBranchLines(parallelBranches + 1 < args.length ? args[parallelBranches + 1] : null);
+        }
+        int widening = argList.indexOf("--widening-delay");
+        int wideningDelay = AnalysisVisitor.DEFAULT_WIDENING_DELAY;
+        if (widening >= 0) wideningDelay = getWideningDelay(widening + 1 < args.length ? args[widening + 1] : null);
+        int intervals = argList.indexOf("--intervals");
+        int maxIntervals = IntegerIntervalSet.DEFAULT_MAX_INTERVALS;
+        if (intervals >= 0) maxIntervals = getMaxIntervals(intervals + 1 < args.length ? args[intervals + 1] : null);
+        int collapseIndex = argList.indexOf("--collapse");
+        IntegerIntervalSet.Collapse collapse = IntegerIntervalSet.Limit.DEFAULT.collapse();
+        if (collapseIndex >= 0) collapse = getCollapse(collapseIndex + 1 < args.length ? args[collapseIndex + 1] : null);
+        return new AnalysisOptions(argList.contains("--cfg"), parallelBranchLines, wideningDelay,
+                new IntegerIntervalSet.Limit(maxIntervals, collapse));
+    }
+
+    static int getWideningDelay(String value) throws IOException {
+        try {
+            int iterations = Integer.parseInt(value);
+            if (iterations < 0) throw new NumberFormatException();
+            return iterations;
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number of iterations: " + value);
+        }
+    }
+
+    static int getParallelBranchLines(String value) throws IOException {
+        try {
+            int lines = Integer.parseInt(value);
+            if (lines < 0) throw new NumberFormatException();
+            return lines;
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number of lines: " + value);
+        }
+    }
+
+    static int getMaxIntervals(String value) throws IOException {
+        try {
+            int intervals = Integer.parseInt(value);
+            if (intervals < 1) throw new NumberFormatException();
+            return intervals;
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number of intervals: " + value);
+        }
+    }
+
+    static IntegerIntervalSet.Collapse getCollapse(String value) throws IOException {
+        try {
+            return IntegerIntervalSet.Collapse.fromName(value);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
     public static void main(String[] args) throws IOException {
-        if (args.length < 2) throw new IOException("Requires: [Java file path] [Method name] [Output file path (optional)] -d");
+        AnalysisOptions options = getAnalysisOptions(args);
+        if (args.length >= 1 && args[0].equals("--daemon")) {
+            if (Set.of(args).contains("-d")) AnalysisLogger.setLog(true);
+            new AnalysisDaemon(options).run(new BufferedReader(new InputStreamReader(System.in)), System.out);
+            return;
+        }
+        if (args.length < 2) throw new IOException("Requires: [Java file path] [Method name] [Output file path (optional)] -d -p -t --cfg --parallel-branches [N] --widening-delay [N] --intervals [N] --collapse [Strategy], or --daemon -d --cfg --parallel-branches [N] --widening-delay [N] --intervals [N] --collapse [Strategy]");
         String filePath = args[0];
         String method = args[1];
         String output = "output.png";
@@ -31,6 +106,8 @@ public class Main {
             if (!args[2].startsWith("-")) output = args[2];
             Set<String> otherArgs = Set.of(Arrays.copyOfRange(args, 2, args.length));
             if (otherArgs.contains("-d")) AnalysisLogger.setLog(true);
+            if (otherArgs.contains("-p")) AnalysisProfiler.setProfile(true);
+            if (otherArgs.contains("-t")) AnalysisLogger.startTrace(AnalysisLogger.DEFAULT_TRACE_CAPACITY);
         }
         StaticJavaParser.getParserConfiguration().setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()));
         CompilationUnit compilationUnit;
@@ -41,12 +118,22 @@ public class Main {
             System.out.println("Finished compiling");
             try {
                 System.out.println("Starting analysis...");
-                AnalysisState analysisState = new AnalysisState(new VariablesState());
-                compilationUnit.accept(new AnalysisVisitor(method), analysisState);
+                List<MethodDeclaration> declarations = MethodIndex.forCompilationUnit(compilationUnit).getMethods(method);
+                if (declarations.size() > 1) {
+                    System.out.println(declarations.size() + " methods match " + method + ", analyzing "
+                            + declarations.get(0).getDeclarationAsString(false, false, true) + " (give a signature, i.e. name(int), to choose one)");
+                }
+                MethodAnalysis analysis = MethodAnalysis.analyze(MethodIndex.findMethod(compilationUnit, method), true, options);
                 System.out.println("Finished analysis");
-                VisualizationState visualizationState = new VisualizationState(analysisState.getErrorMap());
-                compilationUnit.accept(new VisualizationVisitor(method), visualizationState);
-                visualizationState.diagram.createDiagramPNG(output);
+                if (AnalysisProfiler.isProfiling()) {
+                    AnalysisProfiler.writeJson(Paths.get(PROFILE_OUTPUT));
+                    System.out.println("Profile written to " + PROFILE_OUTPUT);
+                }
+                if (AnalysisLogger.getTrace() != null) {
+                    Files.writeString(Paths.get(TRACE_OUTPUT), AnalysisLogger.stopTrace().renderJsonLines());
+                    System.out.println("Trace written to " + TRACE_OUTPUT);
+                }
+                analysis.diagram().createDiagram(output, DiagramFormat.fromFileName(output));
             } catch (Exception e) {
                 System.err.println("Analysis error: " + e.getMessage());
             }
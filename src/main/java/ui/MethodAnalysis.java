@@ -0,0 +1,59 @@
+package ui;
+
+import analysis.model.AnalysisError;
+import analysis.model.AnalysisState;
+import analysis.model.DiagramOutline;
+import analysis.model.VariablesState;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import visualization.Diagram;
+import visualization.model.VisualizationState;
+import visualization.visitor.VisualizationVisitor;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Errors and diagram of a single method
+ * <ul>
+ *     <li>The method is found once by the caller (see MethodIndex), and both the analysis and the diagram start from its declaration,
+ *     instead of each searching the whole compilation unit for the method</li>
+ *     <li>The analysis records the outline of the diagram while it walks the method (see DiagramOutline), and the
+ *     diagram is drawn from the outline with the error map of the analysis, without walking the method again.
+ *     The nodes are only drawn after the analysis, since later loop iterations still add errors to them.</li>
+ * </ul>
+ * @param diagram Diagram of the method, or null if it was not created
+ */
+record MethodAnalysis(Map<Node, Set<AnalysisError>> errorMap, Diagram diagram) {
+    /**
+     * Analyze a method with the default options (and create its diagram)
+     */
+    static MethodAnalysis analyze(MethodDeclaration method, boolean createDiagram) {
+        return analyze(method, createDiagram, AnalysisOptions.DEFAULT);
+    }
+
+    /**
+     * Analyze a method (and create its diagram)
+     */
+    static MethodAnalysis analyze(MethodDeclaration method, boolean createDiagram, AnalysisOptions options) {
+        DiagramOutline outline = createDiagram ? new DiagramOutline() : DiagramOutline.NONE;
+        AnalysisState analysisState = new AnalysisState(new VariablesState(), outline);
+        method.accept(options.createVisitor(method.getNameAsString()), analysisState);
+        Diagram diagram = null;
+        if (createDiagram) {
+            VisualizationState visualizationState = new VisualizationState(analysisState.getErrorMap());
+            new VisualizationVisitor(method.getNameAsString()).createDiagram(method, outline, visualizationState);
+            diagram = visualizationState.diagram;
+        }
+        return new MethodAnalysis(analysisState.getErrorMap(), diagram);
+    }
+
+    /**
+     * Create the diagram of a method from the errors of an earlier analysis (walking the method)
+     */
+    static Diagram createDiagram(MethodDeclaration method, Map<Node, Set<AnalysisError>> errorMap) {
+        VisualizationState visualizationState = new VisualizationState(errorMap);
+        new VisualizationVisitor(method.getNameAsString()).createDiagram(method, visualizationState);
+        return visualizationState.diagram;
+    }
+}
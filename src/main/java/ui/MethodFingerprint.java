@@ -0,0 +1,97 @@
+package ui;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import utils.MethodIndex;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Fingerprints of methods, to find methods whose analysis results can be reused
+ * <ul>
+ *     <li>The fingerprint is a hash of the method, the methods it calls in the same file (transitively, since their
+ *     bodies are analyzed for their summaries), and the outline of the file (imports, type declarations, fields and
+ *     method signatures with their annotations)</li>
+ *     <li>Positions are not part of the fingerprint, so a method that only moved in the file keeps its fingerprint</li>
+ * </ul>
+ */
+final class MethodFingerprint {
+    private MethodFingerprint() {
+    }
+
+    /**
+     * @return Key of a method that stays the same between versions of a file (i.e. Main.Inner.method(int, String))
+     */
+    static String getMethodKey(MethodDeclaration method) {
+        return MethodReport.getQualifiedName(method) + method.getSignature().asString().substring(method.getNameAsString().length());
+    }
+
+    /**
+     * @return Parts of a file that can affect the analysis of any of its methods
+     */
+    static String getOutline(CompilationUnit compilationUnit) {
+        StringBuilder sb = new StringBuilder();
+        compilationUnit.getPackageDeclaration().ifPresent(sb::append);
+        compilationUnit.getImports().forEach(sb::append);
+        for (TypeDeclaration<?> type : compilationUnit.findAll(TypeDeclaration.class)) {
+            sb.append(type.getFullyQualifiedName().orElse(type.getNameAsString()));
+            if (type instanceof ClassOrInterfaceDeclaration classDec) {
+                sb.append(classDec.getExtendedTypes()).append(classDec.getImplementedTypes());
+            }
+            sb.append('\n');
+        }
+        compilationUnit.findAll(FieldDeclaration.class).forEach(sb::append);
+        for (CallableDeclaration<?> callable : compilationUnit.findAll(CallableDeclaration.class)) {
+            sb.append(callable.getAnnotations()).append(callable.getDeclarationAsString(true, true, true)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param outline Outline of the file of the method (see getOutline)
+     * @return Hash of the method, the methods with the same name as the method calls in it (transitively),
+     * and the outline of the file
+     */
+    static String getFingerprint(MethodDeclaration method, String outline) {
+        MethodIndex index = method.findCompilationUnit().map(MethodIndex::forCompilationUnit).orElse(null);
+        Set<MethodDeclaration> dependencies = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<MethodDeclaration> worklist = new ArrayDeque<>();
+        dependencies.add(method);
+        worklist.add(method);
+        while (!worklist.isEmpty()) {
+            for (MethodCallExpr call : worklist.poll().findAll(MethodCallExpr.class)) {
+                if (index == null) continue;
+                for (MethodDeclaration callee : index.getMethods(call.getNameAsString())) {
+                    if (dependencies.add(callee)) worklist.add(callee);
+                }
+            }
+        }
+
+        List<String> parts = new ArrayList<>();
+        parts.add(outline);
+        parts.add(method.toString());
+        dependencies.stream().filter(m -> m != method).map(Node::toString).sorted().forEach(parts::add);
+        return hash(parts);
+    }
+
+    /**
+     * @return SHA-256 of the parts (in hexadecimal)
+     */
+    static String hash(List<String> parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
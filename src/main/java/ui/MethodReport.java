@@ -0,0 +1,194 @@
+package ui;
+
+import analysis.model.AnalysisError;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Result of analyzing a single method in batch mode
+ */
+public class MethodReport {
+    private final Path file;
+    private final String methodName;
+    private final String signature;
+    private final int line;
+    private final List<ErrorLine> errorLines;
+    private final String failure;
+
+    /**
+     * Error of the report, at a line of the file
+     */
+    private record ErrorLine(int line, boolean isDefinite, String message) {
+        private ErrorLine moveBy(int lines) {
+            return new ErrorLine(line + lines, isDefinite, message);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%d] %-9s %s", line, isDefinite ? "DEFINITE" : "POTENTIAL", message);
+        }
+    }
+
+    private MethodReport(Path file, MethodDeclaration method, List<ErrorLine> errorLines, String failure) {
+        this.file = file;
+        this.methodName = getQualifiedName(method);
+        this.signature = method.getDeclarationAsString(false, false, true);
+        this.line = getLine(method);
+        this.errorLines = errorLines;
+        this.failure = failure;
+    }
+
+    /**
+     * Create a report for a method from the errors found by the analysis
+     */
+    public static MethodReport create(Path file, MethodDeclaration method, Map<Node, Set<AnalysisError>> errorMap) {
+        List<Map.Entry<Node, Set<AnalysisError>>> entries = new ArrayList<>(errorMap.entrySet());
+        entries.sort(Comparator.comparingInt(e -> getLine(e.getKey())));
+        List<ErrorLine> errorLines = new ArrayList<>();
+        for (Map.Entry<Node, Set<AnalysisError>> entry : entries) {
+            List<AnalysisError> errors = new ArrayList<>(entry.getValue());
+            errors.sort(Comparator.comparing(AnalysisError::getMessage));
+            for (AnalysisError error : errors) {
+                errorLines.add(new ErrorLine(getLine(entry.getKey()), error.isDefinite(), error.getMessage()));
+            }
+        }
+        return new MethodReport(file, method, errorLines, null);
+    }
+
+    /**
+     * Create a report for a method that could not be analyzed
+     */
+    public static MethodReport createFailed(Path file, MethodDeclaration method, Exception e) {
+        return new MethodReport(file, method, List.of(), e.getClass().getSimpleName() + ": " + e.getMessage());
+    }
+
+    /**
+     * Create the report of an unchanged method that was moved (i.e. lines were added above it),
+     * by moving the errors of this report by the same number of lines
+     * @param method Declaration of the method in the new version of the file
+     */
+    public MethodReport moveTo(Path file, MethodDeclaration method) {
+        int lines = getLine(method) - line;
+        List<ErrorLine> movedLines = errorLines.stream().map(e -> e.moveBy(lines)).toList();
+        return new MethodReport(file, method, movedLines, failure);
+    }
+
+    /**
+     * Write the errors & failure of the report, with lines relative to the method (see ResultCache)
+     */
+    void write(DataOutputStream out) throws IOException {
+        out.writeBoolean(isFailed());
+        if (isFailed()) writeString(out, failure);
+        out.writeInt(errorLines.size());
+        for (ErrorLine errorLine : errorLines) {
+            out.writeInt(errorLine.line - line);
+            out.writeBoolean(errorLine.isDefinite);
+            writeString(out, errorLine.message);
+        }
+    }
+
+    /**
+     * Read a report written by write, for a method with the same fingerprint
+     * @param method Declaration of the method in the current version of the file
+     */
+    static MethodReport read(DataInputStream in, Path file, MethodDeclaration method) throws IOException {
+        String failure = in.readBoolean() ? readString(in) : null;
+        int methodLine = getLine(method);
+        int count = in.readInt();
+        List<ErrorLine> errorLines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            errorLines.add(new ErrorLine(methodLine + in.readInt(), in.readBoolean(), readString(in)));
+        }
+        return new MethodReport(file, method, errorLines, failure);
+    }
+
+    /**
+     * Write a string as its length and UTF-8 bytes (writeUTF is limited to 64KB)
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) throw new IOException("Invalid string length: " + length);
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length != length) throw new EOFException();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return Name of the method with the names of the types it is declared in (i.e. Main.Inner.method)
+     */
+    public static String getQualifiedName(MethodDeclaration method) {
+        StringBuilder sb = new StringBuilder(method.getNameAsString());
+        Optional<Node> parent = method.getParentNode();
+        while (parent.isPresent()) {
+            if (parent.get() instanceof TypeDeclaration<?> type) sb.insert(0, type.getNameAsString() + ".");
+            parent = parent.get().getParentNode();
+        }
+        return sb.toString();
+    }
+
+    private static int getLine(Node n) {
+        return n.getBegin().map(p -> p.line).orElse(0);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public int getErrorCount() {
+        return errorLines.size();
+    }
+
+    public boolean isFailed() {
+        return failure != null;
+    }
+
+    /**
+     * @return File name for the report of this method (without extension)
+     */
+    public String getReportName() {
+        return methodName + "_L" + line;
+    }
+
+    public String toFormattedString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("File: ").append(file).append("\n");
+        sb.append("Method: ").append(signature).append(" (line ").append(line).append(")\n");
+        if (isFailed()) {
+            sb.append("Analysis error: ").append(failure).append("\n");
+            return sb.toString();
+        }
+        sb.append("Errors: ").append(errorLines.size()).append("\n");
+        for (ErrorLine errorLine : errorLines) {
+            sb.append(errorLine).append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toFormattedString();
+    }
+}
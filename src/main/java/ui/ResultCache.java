@@ -0,0 +1,157 @@
+package ui;
+
+import com.github.javaparser.ast.body.MethodDeclaration;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Results of analyzed methods kept on disk between batch runs
+ * <ul>
+ *     <li>Each entry is a file named by the hash of the method fingerprint (see MethodFingerprint) and the hash of
+ *     the analyzer's jar (or class files), so entries of changed methods or of other builds are never read</li>
+ *     <li>An entry holds the errors of the report (with lines relative to the method, so moved methods can reuse it)
+ *     and the PNG diagram of the method if it was created</li>
+ *     <li>Entries are written to a temporary file and moved into place, so files analyzed in parallel
+ *     and interrupted runs never leave a partial entry</li>
+ *     <li>Entries that cannot be read are treated as missing, and entries that cannot be written are skipped</li>
+ * </ul>
+ */
+public class ResultCache {
+    private static final int MAGIC = 0x52434131;
+    private static final int FORMAT_VERSION = 2;
+    private static final String TOOL_VERSION = getToolVersion();
+
+    private final Path directory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Result read from the cache
+     * @param diagram PNG diagram of the method, or null if it was not created
+     */
+    public record CachedResult(MethodReport report, byte[] diagram) {
+    }
+
+    /**
+     * @param directory Directory of the entries (created on the first write)
+     */
+    public ResultCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param fingerprint Fingerprint of the method
+     * @param file        Path of the file in the report
+     * @param method      Declaration of the method in the current version of the file
+     * @return Cached result of the method, or null if there is none
+     */
+    public CachedResult load(String fingerprint, Path file, MethodDeclaration method) {
+        Path path = getPath(fingerprint);
+        if (!Files.isRegularFile(path)) {
+            misses.increment();
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) throw new IOException("Invalid cache entry");
+            MethodReport report = MethodReport.read(in, file, method);
+            int diagramLength = in.readInt();
+            byte[] diagram = diagramLength < 0 ? null : in.readNBytes(diagramLength);
+            if (diagram != null && diagram.length != diagramLength) throw new EOFException();
+            hits.increment();
+            return new CachedResult(report, diagram);
+        } catch (IOException e) {
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Write the result of a method (replacing any previous entry). The method was a miss when it was loaded,
+     * so a failed write only means it is analyzed again in the next run.
+     * @param diagram PNG diagram of the method, or null
+     * @return False if the entry could not be written
+     */
+    public boolean store(String fingerprint, MethodReport report, byte[] diagram) {
+        Path temp = null;
+        try {
+            Files.createDirectories(directory);
+            Path path = getPath(fingerprint);
+            temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                report.write(out);
+                out.writeInt(diagram == null ? -1 : diagram.length);
+                if (diagram != null) out.write(diagram);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            try {
+                if (temp != null) Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // The temporary file is left behind, it is never read as an entry
+            }
+        }
+    }
+
+    /**
+     * @return SHA-256 of the jar of the analyzer, or of its class files when running from a directory
+     * (a random value if neither can be read, so no entry is reused)
+     */
+    static String getToolVersion() {
+        try {
+            Path location = Paths.get(ResultCache.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            if (Files.isDirectory(location)) {
+                List<Path> classFiles;
+                try (Stream<Path> files = Files.walk(location)) {
+                    classFiles = files.filter(f -> f.toString().endsWith(".class")).sorted().toList();
+                }
+                for (Path classFile : classFiles) {
+                    digest.update(location.relativize(classFile).toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(classFile));
+                }
+            } else {
+                try (InputStream in = Files.newInputStream(location)) {
+                    byte[] buffer = new byte[8192];
+                    for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) digest.update(buffer, 0, read);
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (Exception e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+
+    /**
+     * @return Number of results read from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of results that were not in the cache
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private Path getPath(String fingerprint) {
+        return directory.resolve(MethodFingerprint.hash(List.of(fingerprint, TOOL_VERSION)) + ".bin");
+    }
+}
@@ -6,6 +6,7 @@ import analysis.model.VariablesState;
 import analysis.values.*;
 import analysis.values.visitor.*;
 import analysis.visitor.ExpressionVisitor;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.Expression;
@@ -41,66 +42,67 @@ public final class AnnotationUtil {
     public static List<AnalysisError> checkReturnValueWithAnnotation(
             PossibleValues value,
             List<AnnotationExpr> annotations,
-            String nodeName
+            Node node
     ) {
-        return checkWithAnnotations(value, annotations, "%s return is %s %s: " + nodeName);
+        return checkWithAnnotations(value, annotations, "%s return is %s %s", node);
     }
 
     public static List<AnalysisError> checkArgumentWithAnnotation(
             PossibleValues value,
             List<AnnotationExpr> annotations,
             String argName,
-            String nodeName
+            Node node
     ) {
-        return checkWithAnnotations(value, annotations, "Argument %s " + argName + " is %s %s: " + nodeName);
+        return checkWithAnnotations(value, annotations, "Argument %s " + argName + " is %s %s", node);
     }
 
     private static List<AnalysisError> checkWithAnnotations(
             PossibleValues value,
             List<AnnotationExpr> annotations,
-            String format
+            String format,
+            Node node
     ) {
         if (value.isEmpty()) return Collections.emptyList();
         List<AnalysisError> errors = new ArrayList<>();
         Map<AnnotationType, Set<AnnotationExpr>> annotationMap = getAnnotationMap(annotations);
         ExpressionVisitor exprVisitor = null;
         if (annotationMap.containsKey(AnnotationType.NotNull) && value.canBeNull()) {
-            errors.add(createError(format, "@NotNull", "null", value == NullValue.VALUE));
+            errors.add(createError(format, "@NotNull", "null", value == NullValue.VALUE, node));
         }
         if (annotationMap.containsKey(AnnotationType.Positive)) {
             PairValue<Boolean, Boolean> check = checkPositiveAnnotation(value);
-            if (!check.getA()) errors.add(createError(format, "@Positive", "zero or negative", check.getB()));
+            if (!check.getA()) errors.add(createError(format, "@Positive", "zero or negative", check.getB(), node));
         }
         if (annotationMap.containsKey(AnnotationType.PositiveOrZero)) {
             PairValue<Boolean, Boolean> check; check = checkPositiveOrZeroAnnotation(value);
-            if (!check.getA()) errors.add(createError(format, "@PositiveOrZero", "negative", check.getB()));
+            if (!check.getA()) errors.add(createError(format, "@PositiveOrZero", "negative", check.getB(), node));
         }
         if (annotationMap.containsKey(AnnotationType.Negative)) {
             PairValue<Boolean, Boolean> check = checkNegativeAnnotation(value);
-            if (!check.getA()) errors.add(createError(format, "@Negative", "zero or positive", check.getB()));
+            if (!check.getA()) errors.add(createError(format, "@Negative", "zero or positive", check.getB(), node));
         }
         if (annotationMap.containsKey(AnnotationType.NegativeOrZero)) {
             PairValue<Boolean, Boolean> check = checkNegativeOrZeroAnnotation(value);
-            if (!check.getA()) errors.add(createError(format, "@NegativeOrZero", "positive", check.getB()));
+            if (!check.getA()) errors.add(createError(format, "@NegativeOrZero", "positive", check.getB(), node));
         }
         if (annotationMap.containsKey(AnnotationType.Min)) {
             exprVisitor = new ExpressionVisitor();
             PairValue<Boolean, Boolean> check = checkMinAnnotation(value, annotationMap.get(AnnotationType.Min), exprVisitor);
-            if (!check.getA()) errors.add(createError(format, "@Min", "below min", check.getB()));
+            if (!check.getA()) errors.add(createError(format, "@Min", "below min", check.getB(), node));
         }
         if (annotationMap.containsKey(AnnotationType.Max)) {
             if (exprVisitor == null) exprVisitor = new ExpressionVisitor();
             PairValue<Boolean, Boolean> check = checkMaxAnnotation(value, annotationMap.get(AnnotationType.Max), exprVisitor);
-            if (!check.getA()) errors.add(createError(format, "@Max", "above max", check.getB()));
+            if (!check.getA()) errors.add(createError(format, "@Max", "above max", check.getB(), node));
         }
         if (annotationMap.containsKey(AnnotationType.Size)) {
             if (exprVisitor == null) exprVisitor = new ExpressionVisitor();
             PairValue<Boolean, Boolean> check = checkSizeAnnotation(value, annotationMap.get(AnnotationType.Size), exprVisitor);
-            if (!check.getA()) errors.add(createError(format, "@Size", "below or above size", check.getB()));
+            if (!check.getA()) errors.add(createError(format, "@Size", "below or above size", check.getB(), node));
         }
         if (annotationMap.containsKey(AnnotationType.NotEmpty)) {
             PairValue<Boolean, Boolean> check = checkNotEmpty(value);
-            if (!check.getA()) errors.add(createError(format, "@NotEmpty", "empty", check.getB()));
+            if (!check.getA()) errors.add(createError(format, "@NotEmpty", "empty", check.getB(), node));
         }
         return errors;
     }
@@ -343,7 +345,7 @@ public final class AnnotationUtil {
         if (originalValue.isEmpty()) return originalValue;
         for (Expression valueExpr : valueExprs) {
             PossibleValues val = valueExpr.accept(exprVisitor, new ExpressionAnalysisState(new VariablesState()));
-            originalValue = originalValue.acceptAbstractOp(restrictionVisitor, val);
+            originalValue = restrictionVisitor.apply(originalValue, val);
             if (originalValue.isEmpty()) return originalValue;
         }
         return originalValue;
@@ -385,7 +387,7 @@ public final class AnnotationUtil {
     /**
      * Create an AnalysisError for the annotation error
      */
-    private static AnalysisError createError(String format, String annotation, String badCondition, boolean isDefinite) {
-        return new AnalysisError(String.format(format, annotation, (isDefinite ? "always" : "sometimes"), badCondition), isDefinite);
+    private static AnalysisError createError(String format, String annotation, String badCondition, boolean isDefinite, Node node) {
+        return new AnalysisError(format, node, isDefinite, annotation, (isDefinite ? "always" : "sometimes"), badCondition);
     }
 }
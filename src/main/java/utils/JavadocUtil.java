@@ -1,21 +1,19 @@
 package utils;
 
 import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.javadoc.Javadoc;
 import com.github.javaparser.javadoc.JavadocBlockTag;
 import com.github.javaparser.resolution.SymbolResolver;
-import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.types.ResolvedType;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 public final class JavadocUtil {
-    public static final String RUNTIME_EXCEPTION_QN = "java.lang.RuntimeException";
-
     /**
      * Get exceptions that are in @throws in Javadoc
      * @param dec MethodDeclaration with Javadocs
@@ -24,7 +22,7 @@ public final class JavadocUtil {
     public static Set<ResolvedType> getThrows(MethodDeclaration dec) {
         Javadoc javadoc = dec.getJavadoc().orElse(null);
         if (javadoc == null) return Collections.emptySet();
-        SymbolResolver symbolResolver = StaticJavaParser.getParserConfiguration().getSymbolResolver().orElseThrow();
+        SymbolResolver symbolResolver = getSymbolResolver(dec);
         return javadoc.getBlockTags().stream()
                 .filter(x -> x.getType() == JavadocBlockTag.Type.THROWS && x.getName().isPresent())
                 .map(x -> {
@@ -40,13 +38,24 @@ public final class JavadocUtil {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Get the symbol resolver the declaration was parsed with
+     * (falls back to the StaticJavaParser configuration if it has none)
+     */
+    private static SymbolResolver getSymbolResolver(Node node) {
+        Optional<CompilationUnit> compilationUnit = node.findCompilationUnit();
+        if (compilationUnit.isPresent() && compilationUnit.get().containsData(Node.SYMBOL_RESOLVER_KEY)) {
+            return compilationUnit.get().getData(Node.SYMBOL_RESOLVER_KEY);
+        }
+        return StaticJavaParser.getParserConfiguration().getSymbolResolver().orElseThrow();
+    }
+
     /**
      * Get runtime exceptions that are in @throws in Javadoc
      */
     public static List<ResolvedType> getRuntimeThrows(MethodDeclaration dec) {
-        ResolvedReferenceTypeDeclaration runtimeExceptionType = new ReflectionTypeSolver().solveType(RUNTIME_EXCEPTION_QN);
         return JavadocUtil.getThrows(dec).stream()
-                .filter(t -> runtimeExceptionType.isAssignableBy(t))
+                .filter(TypeUtil::isRuntimeException)
                 .toList();
     }
 }
@@ -0,0 +1,84 @@
+package utils;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+
+import java.util.*;
+
+/**
+ * Index of the method declarations of a CompilationUnit, to find a method without searching the whole tree
+ * <ul>
+ *     <li>Methods can be found by name (i.e. test), signature (i.e. test(int, String)), or either one qualified
+ *     with their enclosing classes (i.e. Main.test or Outer.Inner.test(int)). Whitespace is ignored.</li>
+ *     <li>Overloads are kept in source order, so the first method with a name is the one that comes first in the file</li>
+ *     <li>The index of a CompilationUnit is built once and kept in the data of the CompilationUnit,
+ *     so methods added or removed afterwards are not indexed</li>
+ * </ul>
+ */
+public final class MethodIndex {
+    private static final DataKey<MethodIndex> INDEX_KEY = new DataKey<>() {
+    };
+
+    private final Map<String, List<MethodDeclaration>> methods = new HashMap<>();
+
+    private MethodIndex(CompilationUnit compilationUnit) {
+        for (MethodDeclaration method : compilationUnit.findAll(MethodDeclaration.class)) {
+            String name = method.getNameAsString();
+            String signature = normalize(method.getSignature().asString());
+            add(name, method);
+            add(signature, method);
+            StringBuilder prefix = new StringBuilder();
+            Optional<Node> parent = method.getParentNode();
+            while (parent.isPresent()) {
+                if (parent.get() instanceof TypeDeclaration<?> type) {
+                    prefix.insert(0, type.getNameAsString() + ".");
+                    add(prefix + name, method);
+                    add(prefix + signature, method);
+                }
+                parent = parent.get().getParentNode();
+            }
+        }
+    }
+
+    /**
+     * @return Index of the methods of the CompilationUnit (built on first use)
+     */
+    public static MethodIndex forCompilationUnit(CompilationUnit compilationUnit) {
+        synchronized (compilationUnit) {
+            if (compilationUnit.containsData(INDEX_KEY)) return compilationUnit.getData(INDEX_KEY);
+            MethodIndex index = new MethodIndex(compilationUnit);
+            compilationUnit.setData(INDEX_KEY, index);
+            return index;
+        }
+    }
+
+    /**
+     * @return First method of the CompilationUnit matching the target (see getMethods)
+     * @throws RuntimeException If no method matches the target
+     */
+    public static MethodDeclaration findMethod(CompilationUnit compilationUnit, String target) {
+        List<MethodDeclaration> matches = forCompilationUnit(compilationUnit).getMethods(target);
+        if (matches.isEmpty()) throw new RuntimeException("Method not found");
+        return matches.get(0);
+    }
+
+    /**
+     * @param target Name or signature of the method, optionally qualified with its enclosing classes
+     * @return Methods matching the target in source order (overloads of a name), or an empty list if none match
+     */
+    public List<MethodDeclaration> getMethods(String target) {
+        return methods.getOrDefault(normalize(target), List.of());
+    }
+
+    private void add(String key, MethodDeclaration method) {
+        List<MethodDeclaration> list = methods.computeIfAbsent(key, k -> new ArrayList<>(1));
+        if (list.isEmpty() || list.get(list.size() - 1) != method) list.add(method);
+    }
+
+    private static String normalize(String target) {
+        return target.replaceAll("\\s", "");
+    }
+}
@@ -1,13 +1,80 @@
 package utils;
 
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.expr.Expression;
 import com.github.javaparser.resolution.Resolvable;
 import com.github.javaparser.resolution.types.ResolvedType;
+import logger.AnalysisProfiler;
 
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Util for resolving symbols and types
+ * <ul>
+ *     <li>Results are memoized per node (by identity) in a cache stored in the node's CompilationUnit,
+ *     so revisiting a node (i.e. in a loop) does not resolve it again</li>
+ *     <li>Failed resolutions are also memoized, and rethrow the same exception</li>
+ *     <li>Nodes that are not in a CompilationUnit are resolved without the cache</li>
+ *     <li>The symbol solver is not thread-safe, so nodes of a CompilationUnit are resolved one at a time
+ *     (locked on the cache of the CompilationUnit)</li>
+ * </ul>
+ */
 public final class ResolverUtil {
+    private static final DataKey<ResolutionCache> CACHE_KEY = new DataKey<>() {
+    };
+
+    /**
+     * Resolved declarations and types of the nodes in a CompilationUnit
+     */
+    private static final class ResolutionCache {
+        private final Map<Node, Object> declarations = new IdentityHashMap<>();
+        private final Map<Node, Object> types = new IdentityHashMap<>();
+    }
+
+    /**
+     * Resolution that threw an exception
+     */
+    private record Failure(RuntimeException exception) {
+    }
+
+    /**
+     * Resolve a node (memoized)
+     * @throws RuntimeException if the node cannot be resolved
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T resolve(Resolvable<T> resolvable) {
+        if (!(resolvable instanceof Node node)) return resolveUncached(resolvable);
+        Optional<ResolutionCache> cache = getCache(node);
+        if (cache.isEmpty()) return resolveUncached(resolvable);
+        return (T) lookup(cache.get(), cache.get().declarations, node, resolvable::resolve);
+    }
+
+    /**
+     * Calculate the type of an expression (memoized)
+     * @throws RuntimeException if the type cannot be calculated
+     */
+    public static ResolvedType calculateResolvedType(Expression expr) {
+        Optional<ResolutionCache> cache = getCache(expr);
+        if (cache.isEmpty()) {
+            AnalysisProfiler.count(AnalysisProfiler.Counter.RESOLUTIONS);
+            return expr.calculateResolvedType();
+        }
+        return (ResolvedType) lookup(cache.get(), cache.get().types, expr, expr::calculateResolvedType);
+    }
+
+    private static <T> T resolveUncached(Resolvable<T> resolvable) {
+        AnalysisProfiler.count(AnalysisProfiler.Counter.RESOLUTIONS);
+        return resolvable.resolve();
+    }
+
     public static <T> T resolveOrNull(Resolvable<T> resolvable) {
         try {
-            return resolvable.resolve();
+            return resolve(resolvable);
         } catch (Exception e) {
             return null;
         }
@@ -15,9 +82,39 @@ public final class ResolverUtil {
 
     public static ResolvedType calculateResolvedTypeOrNull(Expression expr) {
         try {
-            return expr.calculateResolvedType();
+            return calculateResolvedType(expr);
         } catch (Exception e) {
             return null;
         }
     }
+
+    private static Object lookup(ResolutionCache lock, Map<Node, Object> cache, Node node, Supplier<?> resolveFunc) {
+        Object result;
+        synchronized (lock) {
+            result = cache.get(node);
+            if (result == null && !cache.containsKey(node)) {
+                AnalysisProfiler.count(AnalysisProfiler.Counter.RESOLUTIONS);
+                try {
+                    result = resolveFunc.get();
+                } catch (RuntimeException e) {
+                    result = new Failure(e);
+                }
+                cache.put(node, result);
+            } else {
+                AnalysisProfiler.count(AnalysisProfiler.Counter.RESOLUTION_CACHE_HITS);
+            }
+        }
+        if (result instanceof Failure failure) throw failure.exception();
+        return result;
+    }
+
+    private static Optional<ResolutionCache> getCache(Node node) {
+        Optional<CompilationUnit> compilationUnit = node.findCompilationUnit();
+        if (compilationUnit.isEmpty()) return Optional.empty();
+        CompilationUnit cu = compilationUnit.get();
+        synchronized (cu) {
+            if (!cu.containsData(CACHE_KEY)) cu.setData(CACHE_KEY, new ResolutionCache());
+            return Optional.of(cu.getData(CACHE_KEY));
+        }
+    }
 }
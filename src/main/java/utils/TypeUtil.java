@@ -1,16 +1,95 @@
 package utils;
 
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.model.resolution.TypeSolver;
+import com.github.javaparser.symbolsolver.reflectionmodel.ReflectionClassDeclaration;
+import com.github.javaparser.symbolsolver.reflectionmodel.ReflectionInterfaceDeclaration;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Util for types in our analysis
+ * <ul>
+ *     <li>JDK types (i.e. RuntimeException) are resolved once with a shared ReflectionTypeSolver and cached</li>
+ *     <li>isAssignableBy between JDK reference types is memoized by qualified name</li>
+ * </ul>
+ */
 public class TypeUtil {
     public static final String STRING_QN = "java.lang.String";
     public static final String BOXED_INTEGER_QN = "java.lang.Integer";
     public static final String BOXED_BOOLEAN_QN = "java.lang.Boolean";
     public static final String BOXED_CHARACTER_QN = "java.lang.Character";
+    public static final String RUNTIME_EXCEPTION_QN = "java.lang.RuntimeException";
+
+    private static final TypeSolver TYPE_SOLVER = new ReflectionTypeSolver();
+    static final Map<String, ResolvedReferenceTypeDeclaration> TYPE_DECLARATIONS = new ConcurrentHashMap<>();
+    static final Map<String, Boolean> RUNTIME_EXCEPTIONS = new ConcurrentHashMap<>();
+    static final Map<AssignableKey, Boolean> ASSIGNABLE = new ConcurrentHashMap<>();
+
+    record AssignableKey(String to, String from) {
+    }
 
     public static boolean isStringType(ResolvedType type) {
         return type != null && type.isReferenceType() && Objects.equals(type.asReferenceType().getQualifiedName(), STRING_QN);
     }
+
+    /**
+     * Get the declaration of a JDK type (cached)
+     * @param qualifiedName Qualified name of the type (i.e. java.lang.RuntimeException)
+     */
+    public static ResolvedReferenceTypeDeclaration getTypeDeclaration(String qualifiedName) {
+        return TYPE_DECLARATIONS.computeIfAbsent(qualifiedName, TYPE_SOLVER::solveType);
+    }
+
+    /**
+     * @return Declaration of java.lang.RuntimeException
+     */
+    public static ResolvedReferenceTypeDeclaration getRuntimeExceptionType() {
+        return getTypeDeclaration(RUNTIME_EXCEPTION_QN);
+    }
+
+    /**
+     * @return True if the type is RuntimeException or a subclass of RuntimeException
+     */
+    public static boolean isRuntimeException(ResolvedType type) {
+        if (type == null || !type.isReferenceType()) return false;
+        if (!isCacheable(type)) return getRuntimeExceptionType().isAssignableBy(type);
+        return RUNTIME_EXCEPTIONS.computeIfAbsent(type.describe(), k -> getRuntimeExceptionType().isAssignableBy(type));
+    }
+
+    /**
+     * @return True if a RuntimeException may be assigned to the type
+     * (the type is RuntimeException, one of its subclasses, or one of its superclasses, i.e. Exception)
+     */
+    public static boolean canBeRuntimeException(ResolvedType type) {
+        if (isRuntimeException(type)) return true;
+        if (type == null || !type.isReferenceType()) return false;
+        String qualifiedName = type.asReferenceType().getQualifiedName();
+        return getRuntimeExceptionType().getAllAncestors().stream()
+                .anyMatch(ancestor -> Objects.equals(ancestor.getQualifiedName(), qualifiedName));
+    }
+
+    /**
+     * @return True if a value of type from can be assigned to type to
+     * (cached if both are JDK reference types without type parameters)
+     */
+    public static boolean isAssignableBy(ResolvedType to, ResolvedType from) {
+        if (!isCacheable(to) || !isCacheable(from)) return to.isAssignableBy(from);
+        return ASSIGNABLE.computeIfAbsent(new AssignableKey(to.describe(), from.describe()), k -> to.isAssignableBy(from));
+    }
+
+    /**
+     * Types are cached by their qualified name, which is only unique for JDK reference types without type parameters
+     * (types declared in source files may have the same name with different ancestors)
+     */
+    static boolean isCacheable(ResolvedType type) {
+        if (!type.isReferenceType() || !type.asReferenceType().typeParametersValues().isEmpty()) return false;
+        return type.asReferenceType().getTypeDeclaration()
+                .map(dec -> dec instanceof ReflectionClassDeclaration || dec instanceof ReflectionInterfaceDeclaration)
+                .orElse(false);
+    }
 }
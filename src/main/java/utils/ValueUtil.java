@@ -92,16 +92,16 @@ public final class ValueUtil {
             );
         }
         if (annotationMap.containsKey(AnnotationType.Negative)) {
-            integerValue = integerValue.acceptAbstractOp(RestrictLessThanVisitor.INSTANCE, new IntegerRange(0));
+            integerValue = RestrictLessThanVisitor.INSTANCE.apply(integerValue, ValueFactory.integer(0));
         }
         if (annotationMap.containsKey(AnnotationType.Positive)) {
-            integerValue = integerValue.acceptAbstractOp(RestrictGreaterThanVisitor.INSTANCE, new IntegerRange(0));
+            integerValue = RestrictGreaterThanVisitor.INSTANCE.apply(integerValue, ValueFactory.integer(0));
         }
         if (annotationMap.containsKey(AnnotationType.NegativeOrZero)) {
-            integerValue = integerValue.acceptAbstractOp(RestrictLessThanOrEqualVisitor.INSTANCE, new IntegerRange(0));
+            integerValue = RestrictLessThanOrEqualVisitor.INSTANCE.apply(integerValue, ValueFactory.integer(0));
         }
         if (annotationMap.containsKey(AnnotationType.PositiveOrZero)) {
-            integerValue = integerValue.acceptAbstractOp(RestrictGreaterThanOrEqualVisitor.INSTANCE, new IntegerRange(0));
+            integerValue = RestrictGreaterThanOrEqualVisitor.INSTANCE.apply(integerValue, ValueFactory.integer(0));
         }
         return integerValue;
     }
@@ -126,7 +126,7 @@ public final class ValueUtil {
         // @Size annotation
         Set<AnnotationExpr> sizeAnnotations = annotationMap.get(AnnotationType.Size);
 
-        PossibleValues length = isNotEmpty ? new IntegerRange(1, ArrayValue.MAX_LENGTH_NUM) : ArrayValue.DEFAULT_LENGTH;
+        PossibleValues length = isNotEmpty ? ValueFactory.integer(1, ArrayValue.MAX_LENGTH_NUM) : ArrayValue.DEFAULT_LENGTH;
         if (sizeAnnotations != null) {
             Map<String, List<Expression>> annotationParamMap = AnnotationUtil.getAnnotationParameterMap(sizeAnnotations);
             List<Expression> minExpressions = annotationParamMap.get("min");
@@ -124,7 +124,7 @@ public final class VariableUtil {
     public static void updateArrayLength(ResolvedValueDeclaration dec, PossibleValues length, VariablesState state) {
         if (dec == null) return;
         Function<PossibleValues, PossibleValues> updateFunc = x -> {
-            if (length.isEmpty()) return new EmptyValue();
+            if (length.isEmpty()) return EmptyValue.VALUE;
             if (x instanceof ArrayValue a) return a.withLength(length);
             if (x instanceof AnyValue) return ArrayValue.create(length, true);
             return x;
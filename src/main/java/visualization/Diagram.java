@@ -1,49 +1,74 @@
 package visualization;
 
+import net.sourceforge.plantuml.FileFormat;
+import net.sourceforge.plantuml.FileFormatOption;
 import net.sourceforge.plantuml.SourceStringReader;
 
+import visualization.DiagramElement.Kind;
+
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
+/**
+ * Activity diagram of a method
+ * <ul>
+ *     <li>Nodes are kept as a list of elements, and only written as text when the diagram is written,
+ *     straight to the Writer of the output</li>
+ *     <li>Images are rendered by PlantUML from the PlantUML source of the diagram</li>
+ * </ul>
+ */
 public class Diagram {
+    private static volatile DiagramRenderCache renderCache = null;
 
-    private final String orangeColour = "#F28C28";
-    private final String redColour = "#FF0000";
-    private StringBuilder diagramString;
+    private static final String orangeColour = "#F28C28";
+    private static final String redColour = "#FF0000";
+    private final List<DiagramElement> elements;
 
     public Diagram() {
-        diagramString = new StringBuilder();
+        elements = new ArrayList<>();
     }
 
     public void addStartDiagramNode() {
-        diagramString.append("@startuml\n");
-        diagramString.append("start\n");
+        elements.add(DiagramElement.of(Kind.START));
     }
 
     public void addEndDiagramNode() {
-        String[] diagram = getDiagramString().split("\n");
-        if (diagram.length > 0 && !Objects.equals(diagram[diagram.length - 1], "stop")) {
-            diagramString.append("stop\n");
+        if (elements.isEmpty() || elements.get(elements.size() - 1).kind() != Kind.STOP) {
+            elements.add(DiagramElement.of(Kind.STOP));
         }
-        diagramString.append("@enduml");
+        elements.add(DiagramElement.of(Kind.END));
     }
 
+    /**
+     * @return PlantUML source of the diagram
+     */
     public String getDiagramString() {
-        return diagramString.toString();
+        StringWriter writer = new StringWriter();
+        try {
+            writePlantUml(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    List<DiagramElement> getElements() {
+        return elements;
     }
 
     public void addNode(DiagramNode node) {
         switch (node.errorType()) {
             case POTENTIAL -> addErrorNode(node.statement(), node.errors(), true);
             case DEFINITE -> addErrorNode(node.statement(), node.errors(), false);
-            case NONE -> addStatementNode(node.statement());
+            case NONE -> addStatementNode(node.statement(), null);
             default -> throw new RuntimeException("Invalid type of DiagramNode");
         }
     }
 
-    private void addStatementNode(String statement) {
-        diagramString.append(":" + statement + ";\n");
+    private void addStatementNode(String statement, String colour) {
+        elements.add(new DiagramElement(Kind.STATEMENT, statement, colour, null));
     }
 
     /**
@@ -51,17 +76,11 @@ public class Diagram {
      * @param node Node that represents the diagram node. The node's statement should just be the conditional.
      */
     public void addIfThenStartNode(DiagramNode node) {
+        String colour = null;
         if (!node.errors().isEmpty()) {
-            if (node.errorType() == ErrorType.POTENTIAL) {
-                diagramString.append("#Orange:");
-            } else {
-                diagramString.append("#Red:");
-            }
+            colour = node.errorType() == ErrorType.POTENTIAL ? "Orange" : "Red";
         }
-
-        String conditional = "if (" + node.statement() + ") then (true)\n";
-
-        diagramString.append(conditional);
+        elements.add(new DiagramElement(Kind.IF, node.statement(), colour, null));
 
         if (!node.errors().isEmpty()) {
             addErrorInsightNote(node.errors());
@@ -69,16 +88,16 @@ public class Diagram {
     }
 
     public void addIfElseNode() {
-        diagramString.append("else (false)\n");
+        elements.add(DiagramElement.of(Kind.ELSE));
     }
 
     public void addIfEndNode() {
-        diagramString.append("endif\n");
+        elements.add(DiagramElement.of(Kind.END_IF));
     }
 
     public void addReturnNode(DiagramNode returnNode) {
         addNode(returnNode);
-        diagramString.append("stop\n");
+        elements.add(DiagramElement.of(Kind.STOP));
     }
 
     /**
@@ -86,18 +105,15 @@ public class Diagram {
      * @param node Node that represents the diagram node. The statement of the node should just be the conditional of the while loop.
      */
     public void addWhileForEachConditionalStartNode(DiagramNode node) {
-        String conditional = "while (" + node.statement() + ") is (true)\n";
-//        DiagramNode conditionalNode = new DiagramNode(conditional, node.error(), node.errorDescription());
-//        addNode(conditionalNode);
-        diagramString.append(conditional);
+        elements.add(DiagramElement.of(Kind.WHILE, node.statement()));
     }
 
     public void addWhileForEachEndNode() {
-        diagramString.append("endwhile (false)\n");
+        elements.add(DiagramElement.of(Kind.END_WHILE));
     }
 
     public void addDoWhileStartNode() {
-        diagramString.append("repeat\n");
+        elements.add(DiagramElement.of(Kind.REPEAT));
     }
 
     /**
@@ -105,9 +121,7 @@ public class Diagram {
      * @param node Conditional on which the loop is running on
      */
     public void addDoWhileConditionalEndNode(DiagramNode node) {
-        String conditional = "repeat while (" + node.statement() + ") is (true)\n";
-        diagramString.append(conditional);
-        diagramString.append("->false;\n");
+        elements.add(DiagramElement.of(Kind.REPEAT_WHILE, node.statement()));
     }
 
     /**
@@ -120,30 +134,29 @@ public class Diagram {
             addNode(node);
         }
         // TODO: May have an error in conditional
-//        DiagramNode conditional = new DiagramNode(condition, ErrorType.NONE, "");
         addWhileForEachConditionalStartNode(condition);
     }
 
     public void addSwitchConditionalStartNode(String condition) {
-        diagramString.append("switch (" + condition + ")\n");
+        elements.add(DiagramElement.of(Kind.SWITCH, condition));
     }
 
     public void addSwitchCaseNode(String switchCase) {
-        diagramString.append("case ( " + switchCase + " )\n");
+        elements.add(DiagramElement.of(Kind.CASE, switchCase));
     }
 
     public void addSwitchDefaultNode() {
-        diagramString.append("case ( default )\n");
+        elements.add(DiagramElement.of(Kind.CASE, "default"));
     }
 
     public void addSwitchEndNode() {
-        diagramString.append("endswitch\n");
+        elements.add(DiagramElement.of(Kind.END_SWITCH));
     }
 
     public void addThrowStatementNode(DiagramNode node) {
         addNode(node);
         // TODO: This is assuming that the exception we throw is not caught in the same method
-        diagramString.append("stop\n");
+        elements.add(DiagramElement.of(Kind.STOP));
     }
 
     /**
@@ -158,80 +171,166 @@ public class Diagram {
     }
 
     public void addBreakStatementNode() {
-        diagramString.append("break\n");
+        elements.add(DiagramElement.of(Kind.BREAK));
     }
 
     public void addContinueStatementNode() {
-        diagramString.append("#ADD8E6:return to beginning of loop;\n");
-        diagramString.append("detach\n");
+        addStatementNode("return to beginning of loop", "ADD8E6");
+        elements.add(DiagramElement.of(Kind.DETACH));
     }
 
-
     /**
      * Adds a node to the plantUML diagram, where the statement has an error
      * @param statement Statement that causes error
-     * @param error Error description; format should be [ERROR NAME]:[EXPRESSION CAUSING ERROR]
+     * @param errors Errors of the statement
      * @param potentialError true: error is potential/dependant on runtime values; false: error is definite to occur regardless of value
      */
-    private void addErrorNode(String statement, String error, boolean potentialError) {
-        if (potentialError) {
-            diagramString.append("#Orange");
-        } else {
-            diagramString.append("#Red");
-        }
-        addStatementNode(statement);
-        diagramString.append("note right:" + error + "\n");
-    }
-
     private void addErrorNode(String statement, List<Error> errors, boolean potentialError) {
-        if (potentialError) {
-            diagramString.append("#Orange");
-        } else {
-            diagramString.append("#Red");
-        }
-        addStatementNode(statement);
+        addStatementNode(statement, potentialError ? "Orange" : "Red");
         addErrorInsightNote(errors);
     }
 
     private void addErrorInsightNote(List<Error> errors) {
         if (errors != null) {
-            diagramString.append("note right\n");
-            for (Error error : errors) {
-                diagramString.append(addErrorDescription(error));
+            elements.add(new DiagramElement(Kind.NOTE, null, null, errors));
+        }
+    }
+
+    /**
+     * Write the PlantUML source of the diagram
+     */
+    public void writePlantUml(Writer out) throws IOException {
+        for (DiagramElement element : elements) {
+            switch (element.kind()) {
+                case START -> out.write("@startuml\nstart\n");
+                case STOP -> out.write("stop\n");
+                case END -> out.write("@enduml");
+                case STATEMENT -> {
+                    if (element.colour() != null) out.write("#" + element.colour());
+                    out.write(":");
+                    out.write(element.text());
+                    out.write(";\n");
+                }
+                case NOTE -> {
+                    out.write("note right\n");
+                    for (Error error : element.errors()) {
+                        writeErrorDescription(error, out);
+                    }
+                    out.write("endnote\n");
+                }
+                case IF -> {
+                    if (element.colour() != null) out.write("#" + element.colour() + ":");
+                    out.write("if (");
+                    out.write(element.text());
+                    out.write(") then (true)\n");
+                }
+                case ELSE -> out.write("else (false)\n");
+                case END_IF -> out.write("endif\n");
+                case WHILE -> {
+                    out.write("while (");
+                    out.write(element.text());
+                    out.write(") is (true)\n");
+                }
+                case END_WHILE -> out.write("endwhile (false)\n");
+                case REPEAT -> out.write("repeat\n");
+                case REPEAT_WHILE -> {
+                    out.write("repeat while (");
+                    out.write(element.text());
+                    out.write(") is (true)\n->false;\n");
+                }
+                case SWITCH -> {
+                    out.write("switch (");
+                    out.write(element.text());
+                    out.write(")\n");
+                }
+                case CASE -> {
+                    out.write("case ( ");
+                    out.write(element.text());
+                    out.write(" )\n");
+                }
+                case END_SWITCH -> out.write("endswitch\n");
+                case BREAK -> out.write("break\n");
+                case DETACH -> out.write("detach\n");
             }
-            diagramString.append("endnote\n");
         }
     }
 
-    private String addErrorDescription(Error error) {
+    private static void writeErrorDescription(Error error, Writer out) throws IOException {
         switch (error.errorType()) {
-            case DEFINITE -> {
-                return "<FONT COLOR=" + redColour + ">" + error.errorDescription() + "</FONT>\n";
-            }
-            case POTENTIAL -> {
-                return "<FONT COLOR=" + orangeColour + ">" + error.errorDescription() + "</FONT>\n";
-            }
-            default -> {
-                return "\n";
+            case DEFINITE -> out.write("<FONT COLOR=" + redColour + ">" + error.errorDescription() + "</FONT>\n");
+            case POTENTIAL -> out.write("<FONT COLOR=" + orangeColour + ">" + error.errorDescription() + "</FONT>\n");
+            default -> out.write("\n");
+        }
+    }
+
+    /**
+     * Set the cache of rendered images, used by all diagrams
+     * @param cache Cache of rendered PNG and SVG images (null to always render them)
+     */
+    public static void setRenderCache(DiagramRenderCache cache) {
+        renderCache = cache;
+    }
+
+    /**
+     * Write the diagram in a format
+     * NOTE: Image creation referenced from: https://plantuml.com/api
+     */
+    public void writeDiagram(OutputStream out, DiagramFormat format) throws IOException {
+        if (format.isImage()) {
+            String source = getDiagramString();
+            DiagramRenderCache cache = renderCache;
+            if (cache != null) {
+                out.write(cache.render(source, format));
+            } else {
+                renderImage(source, format, out);
             }
+        } else {
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writeDiagram(writer, format);
+            writer.flush();
         }
     }
 
     /**
-     * Creates PNG of diagram
-     * NOTE: PNG creation referenced from: https://plantuml.com/api
-     * @param pngName Location where to store PNG created
+     * Write the diagram in a text format (PLANTUML, MERMAID or DOT)
      */
-    public void createDiagramPNG(String pngName) {
-        System.out.println("Creating diagram:\n" + getDiagramString());
-        try {
-            OutputStream png = new FileOutputStream(pngName);
-            SourceStringReader sourceStringReader = new SourceStringReader(getDiagramString());
-            sourceStringReader.outputImage(png);
+    public void writeDiagram(Writer out, DiagramFormat format) throws IOException {
+        switch (format) {
+            case PLANTUML -> writePlantUml(out);
+            case MERMAID -> FlowchartWriter.build(elements).writeMermaid(out);
+            case DOT -> FlowchartWriter.build(elements).writeDot(out);
+            default -> throw new IllegalArgumentException("Not a text format: " + format);
+        }
+    }
+
+    /**
+     * Render a PlantUML source to a PNG or SVG image
+     */
+    static void renderImage(String source, DiagramFormat format, OutputStream out) throws IOException {
+        FileFormat fileFormat = format == DiagramFormat.SVG ? FileFormat.SVG : FileFormat.PNG;
+        new SourceStringReader(source).outputImage(out, new FileFormatOption(fileFormat));
+    }
+
+    /**
+     * Creates a file of the diagram
+     * @param fileName Location where to store the file created
+     * @param format   Format of the file
+     */
+    public void createDiagram(String fileName, DiagramFormat format) {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName))) {
+            writeDiagram(out, format);
         } catch (FileNotFoundException fileNotFoundException) {
             System.out.println("Error occurred when creating output stream: " + fileNotFoundException);
         } catch (IOException io) {
-            System.out.println("Error occurred when creating PNG from SourceStringReader: " + io);
+            System.out.println("Error occurred when creating " + format + " diagram: " + io);
         }
     }
+
+    /**
+     * Creates PNG of diagram
+     * @param pngName Location where to store PNG created
+     */
+    public void createDiagramPNG(String pngName) {
+        createDiagram(pngName, DiagramFormat.PNG);
+    }
 }
@@ -0,0 +1,31 @@
+package visualization;
+
+import java.util.List;
+
+/**
+ * Element of a diagram, in the order it was added. Diagram writes the elements as PlantUML,
+ * and FlowchartWriter as Mermaid or DOT.
+ * @param kind   Kind of the element
+ * @param text   Statement, condition or case label (null if the kind has none)
+ * @param colour PlantUML colour of the element (i.e. Orange or ADD8E6), or null
+ * @param errors Errors of a note, or null
+ */
+record DiagramElement(Kind kind, String text, String colour, List<Error> errors) {
+    enum Kind {
+        START, STOP, END,
+        STATEMENT, NOTE,
+        IF, ELSE, END_IF,
+        WHILE, END_WHILE,
+        REPEAT, REPEAT_WHILE,
+        SWITCH, CASE, END_SWITCH,
+        BREAK, DETACH
+    }
+
+    static DiagramElement of(Kind kind) {
+        return new DiagramElement(kind, null, null, null);
+    }
+
+    static DiagramElement of(Kind kind, String text) {
+        return new DiagramElement(kind, text, null, null);
+    }
+}
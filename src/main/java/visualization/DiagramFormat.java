@@ -0,0 +1,63 @@
+package visualization;
+
+import java.util.Locale;
+
+/**
+ * Output formats of a diagram
+ * <ul>
+ *     <li>PNG and SVG are rendered by PlantUML (and can be kept in a DiagramRenderCache)</li>
+ *     <li>PLANTUML is the PlantUML activity diagram source</li>
+ *     <li>MERMAID and DOT are flowcharts written without PlantUML, for tools that render them (i.e. Markdown or Graphviz)</li>
+ * </ul>
+ */
+public enum DiagramFormat {
+    PNG("png"),
+    SVG("svg"),
+    PLANTUML("puml"),
+    MERMAID("mmd"),
+    DOT("dot");
+
+    private final String extension;
+
+    DiagramFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * @return File extension of the format (without the dot)
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @return True if the format is an image rendered by PlantUML
+     */
+    public boolean isImage() {
+        return this == PNG || this == SVG;
+    }
+
+    /**
+     * @return Format of the extension of the file name (PNG if the extension is unknown)
+     */
+    public static DiagramFormat fromFileName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) return PNG;
+        String extension = fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        for (DiagramFormat format : values()) {
+            if (format.extension.equals(extension)) return format;
+        }
+        return PNG;
+    }
+
+    /**
+     * @param name Name (i.e. mermaid) or extension (i.e. mmd) of the format, in any case
+     * @throws IllegalArgumentException If no format has the name
+     */
+    public static DiagramFormat fromName(String name) {
+        for (DiagramFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name) || format.extension.equalsIgnoreCase(name)) return format;
+        }
+        throw new IllegalArgumentException("Unknown diagram format: " + name);
+    }
+}
@@ -0,0 +1,83 @@
+package visualization;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rendered images of diagrams kept on disk, named by the hash of their PlantUML source and their format,
+ * so a diagram whose source did not change is never rendered again
+ * <ul>
+ *     <li>Images are written to a temporary file and moved into place, so diagrams rendered in parallel
+ *     never read a partial image</li>
+ *     <li>The cache is never cleaned, and can be deleted at any time (i.e. after updating PlantUML)</li>
+ * </ul>
+ */
+public class DiagramRenderCache {
+    private final Path directory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param directory Directory of the images (created on the first render)
+     */
+    public DiagramRenderCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @param format Image format (PNG or SVG)
+     * @return Image of the PlantUML source, read from the cache if it was rendered before
+     */
+    public byte[] render(String source, DiagramFormat format) throws IOException {
+        if (!format.isImage()) throw new IllegalArgumentException("Not an image format: " + format);
+        Path path = directory.resolve(hash(source) + "." + format.getExtension());
+        if (Files.isRegularFile(path)) {
+            hits.increment();
+            return Files.readAllBytes(path);
+        }
+        misses.increment();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Diagram.renderImage(source, format, out);
+        byte[] image = out.toByteArray();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temp, image);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return image;
+    }
+
+    /**
+     * @return Number of images read from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of images rendered
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private static String hash(String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(source.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
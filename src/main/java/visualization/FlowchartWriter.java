@@ -0,0 +1,273 @@
+package visualization;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Converts the elements of a Diagram into a flowchart of nodes and edges, and writes it as Mermaid or DOT
+ * <ul>
+ *     <li>Conditions are decision nodes with labelled edges, and notes are attached to their node by a dotted edge</li>
+ *     <li>Colours of nodes (i.e. #Orange for potential errors) are kept as fill colours</li>
+ * </ul>
+ */
+final class FlowchartWriter {
+    private static final Pattern HEX_COLOUR = Pattern.compile("[0-9A-Fa-f]{6}");
+
+    private enum Shape {
+        BOX, DECISION, CIRCLE, NOTE
+    }
+
+    private enum FrameKind {
+        IF, ELSE, WHILE, REPEAT, SWITCH
+    }
+
+    private record Node(String id, String label, Shape shape, String colour) {
+    }
+
+    private record Edge(String from, String to, String label, boolean isNote) {
+    }
+
+    /**
+     * Edge leaving a node that is connected to the next node of the flowchart
+     */
+    private record Exit(String from, String label) {
+    }
+
+    /**
+     * Open if, loop or switch (an if is replaced by an ELSE frame at its else)
+     * @param node Condition of the if/while/switch, or first node of the repeat
+     */
+    private record Frame(FrameKind kind, String node, List<Exit> exits, List<Exit> breaks) {
+    }
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<Edge> edges = new ArrayList<>();
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private List<Exit> open = new ArrayList<>();
+    private String lastNode;
+    private String stopNode;
+
+    private FlowchartWriter() {
+    }
+
+    /**
+     * Convert the elements of a diagram
+     */
+    static FlowchartWriter build(List<DiagramElement> elements) {
+        FlowchartWriter flowchart = new FlowchartWriter();
+        for (DiagramElement element : elements) {
+            flowchart.add(element);
+        }
+        return flowchart;
+    }
+
+    private void add(DiagramElement element) {
+        switch (element.kind()) {
+            case START -> addNode("start", Shape.CIRCLE, null);
+            case STOP -> {
+                if (open.isEmpty()) return;
+                if (stopNode == null) stopNode = createNode("stop", Shape.CIRCLE, null);
+                connect(stopNode);
+                open = new ArrayList<>();
+            }
+            case STATEMENT -> addNode(element.text(), Shape.BOX, element.colour());
+            case NOTE -> addNote(element.errors());
+            case IF -> {
+                String node = addNode(element.text(), Shape.DECISION, element.colour());
+                open = exits(new Exit(node, "true"));
+                frames.push(new Frame(FrameKind.IF, node, new ArrayList<>(), new ArrayList<>()));
+            }
+            case ELSE -> {
+                Frame frame = pop(FrameKind.IF);
+                if (frame == null) return;
+                frame.exits.addAll(open);
+                open = exits(new Exit(frame.node, "false"));
+                frames.push(new Frame(FrameKind.ELSE, frame.node, frame.exits, frame.breaks));
+            }
+            case END_IF -> {
+                Frame frame = frames.isEmpty() ? null : frames.peek();
+                if (frame == null || (frame.kind != FrameKind.IF && frame.kind != FrameKind.ELSE)) return;
+                frames.pop();
+                // Without an else, the false edge goes to the node after the if
+                if (frame.kind == FrameKind.IF) open.add(new Exit(frame.node, "false"));
+                open.addAll(frame.exits);
+            }
+            case WHILE -> {
+                String node = addNode(element.text(), Shape.DECISION, element.colour());
+                open = exits(new Exit(node, "true"));
+                frames.push(new Frame(FrameKind.WHILE, node, new ArrayList<>(), new ArrayList<>()));
+            }
+            case END_WHILE -> {
+                Frame frame = pop(FrameKind.WHILE);
+                if (frame == null) return;
+                connect(frame.node);
+                open = exits(new Exit(frame.node, "false"));
+                open.addAll(frame.breaks);
+            }
+            case REPEAT -> {
+                String node = addNode("", Shape.CIRCLE, null);
+                frames.push(new Frame(FrameKind.REPEAT, node, new ArrayList<>(), new ArrayList<>()));
+            }
+            case REPEAT_WHILE -> {
+                Frame frame = pop(FrameKind.REPEAT);
+                String node = addNode(element.text(), Shape.DECISION, element.colour());
+                if (frame == null) return;
+                edges.add(new Edge(node, frame.node, "true", false));
+                open = exits(new Exit(node, "false"));
+                open.addAll(frame.breaks);
+            }
+            case SWITCH -> {
+                String node = addNode(element.text(), Shape.DECISION, element.colour());
+                open = new ArrayList<>();
+                frames.push(new Frame(FrameKind.SWITCH, node, new ArrayList<>(), new ArrayList<>()));
+            }
+            case CASE -> {
+                Frame frame = frames.peek();
+                if (frame == null || frame.kind != FrameKind.SWITCH) return;
+                frame.exits.addAll(open);
+                open = exits(new Exit(frame.node, element.text()));
+            }
+            case END_SWITCH -> {
+                Frame frame = pop(FrameKind.SWITCH);
+                if (frame == null) return;
+                open.addAll(frame.exits);
+                open.addAll(frame.breaks);
+            }
+            case BREAK -> {
+                for (Frame frame : frames) {
+                    if (frame.kind != FrameKind.IF && frame.kind != FrameKind.ELSE) {
+                        frame.breaks.addAll(open);
+                        break;
+                    }
+                }
+                open = new ArrayList<>();
+            }
+            case DETACH -> open = new ArrayList<>();
+            case END -> {
+            }
+        }
+    }
+
+    /**
+     * @return Innermost frame if it has the kind (removed from the frames), or null
+     */
+    private Frame pop(FrameKind kind) {
+        if (frames.isEmpty() || frames.peek().kind != kind) return null;
+        return frames.pop();
+    }
+
+    /**
+     * Add a node after the open exits
+     * @return Id of the node
+     */
+    private String addNode(String label, Shape shape, String colour) {
+        String id = createNode(label, shape, colour);
+        connect(id);
+        open = exits(new Exit(id, null));
+        lastNode = id;
+        return id;
+    }
+
+    private String createNode(String label, Shape shape, String colour) {
+        String id = "n" + nodes.size();
+        nodes.add(new Node(id, label, shape, toColour(colour)));
+        return id;
+    }
+
+    /**
+     * Connect the open exits to a node
+     */
+    private void connect(String to) {
+        for (Exit exit : open) {
+            edges.add(new Edge(exit.from, to, exit.label, false));
+        }
+    }
+
+    private void addNote(List<Error> errors) {
+        if (lastNode == null) return;
+        StringBuilder note = new StringBuilder();
+        for (Error error : errors) {
+            if (!note.isEmpty()) note.append('\n');
+            if (error.errorType() != ErrorType.NONE) note.append(error.errorDescription());
+        }
+        String id = createNode(note.toString().strip(), Shape.NOTE, null);
+        edges.add(new Edge(lastNode, id, null, true));
+    }
+
+    private static List<Exit> exits(Exit exit) {
+        List<Exit> exits = new ArrayList<>();
+        exits.add(exit);
+        return exits;
+    }
+
+    /**
+     * @return Hexadecimal colour of a PlantUML colour (i.e. Orange or ADD8E6), or null
+     */
+    private static String toColour(String colour) {
+        if (colour == null) return null;
+        if (HEX_COLOUR.matcher(colour).matches()) return "#" + colour.toUpperCase(Locale.ROOT);
+        return switch (colour.toLowerCase(Locale.ROOT)) {
+            case "orange" -> "#FFA500";
+            case "red" -> "#FF0000";
+            default -> null;
+        };
+    }
+
+    void writeMermaid(Writer out) throws IOException {
+        out.write("flowchart TD\n");
+        for (Node node : nodes) {
+            String label = "\"" + escapeMermaid(node.label.isEmpty() ? " " : node.label) + "\"";
+            out.write("    " + node.id + switch (node.shape) {
+                case BOX -> "[" + label + "]";
+                case DECISION -> "{" + label + "}";
+                case CIRCLE -> "((" + label + "))";
+                case NOTE -> ">" + label + "]";
+            } + "\n");
+        }
+        for (Edge edge : edges) {
+            String arrow = edge.isNote ? " -.- " : edge.label == null ? " --> " : " -->|\"" + escapeMermaid(edge.label) + "\"| ";
+            out.write("    " + edge.from + arrow + edge.to + "\n");
+        }
+        for (Node node : nodes) {
+            if (node.colour != null) out.write("    style " + node.id + " fill:" + node.colour + "\n");
+        }
+    }
+
+    void writeDot(Writer out) throws IOException {
+        out.write("digraph diagram {\n");
+        out.write("    node [shape=box];\n");
+        for (Node node : nodes) {
+            out.write("    " + node.id + " [label=\"" + escapeDot(node.label) + "\"");
+            switch (node.shape) {
+                case DECISION -> out.write(", shape=diamond");
+                case CIRCLE -> out.write(node.label.isEmpty() ? ", shape=point" : ", shape=circle");
+                case NOTE -> out.write(", shape=note");
+                default -> {
+                }
+            }
+            if (node.colour != null) out.write(", style=filled, fillcolor=\"" + node.colour + "\"");
+            out.write("];\n");
+        }
+        for (Edge edge : edges) {
+            out.write("    " + edge.from + " -> " + edge.to);
+            if (edge.isNote) {
+                out.write(" [style=dashed, arrowhead=none]");
+            } else if (edge.label != null) {
+                out.write(" [label=\"" + escapeDot(edge.label) + "\"]");
+            }
+            out.write(";\n");
+        }
+        out.write("}\n");
+    }
+
+    private static String escapeMermaid(String s) {
+        return s.replace("#", "#35;").replace("\"", "#quot;").replace("<", "#lt;").replace(">", "#gt;")
+                .replace("\n", "<br/>");
+    }
+
+    private static String escapeDot(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
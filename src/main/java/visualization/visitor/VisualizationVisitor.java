@@ -11,6 +11,7 @@ import com.github.javaparser.ast.modules.*;
 import com.github.javaparser.ast.stmt.*;
 import com.github.javaparser.ast.type.*;
 import com.github.javaparser.ast.visitor.GenericVisitor;
+import utils.MethodIndex;
 import visualization.DiagramNode;
 import visualization.Error;
 import visualization.ErrorType;
@@ -18,8 +19,8 @@ import visualization.model.VisualizationState;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 public class VisualizationVisitor implements GenericVisitor<EndState, VisualizationState> {
 
@@ -33,9 +34,10 @@ public class VisualizationVisitor implements GenericVisitor<EndState, Visualizat
         DiagramNode diagramNode;
         StringBuilder errorDescription = new StringBuilder();
         List<Error> errors = new ArrayList<>();
-        if (!arg.getErrorMap().isEmpty() && arg.getErrorMap().containsKey(n)) {
+        Set<AnalysisError> nodeErrors = arg.getErrorMap().isEmpty() ? null : arg.getErrorMap().get(n);
+        if (nodeErrors != null) {
             boolean isDefinite = false;
-            for (AnalysisError er : arg.getErrorMap().get(n)) {
+            for (AnalysisError er : nodeErrors) {
                 if (er.isDefinite()) {
                     isDefinite = true;
                 }
@@ -53,20 +55,38 @@ public class VisualizationVisitor implements GenericVisitor<EndState, Visualizat
 
     @Override
     public EndState visit(CompilationUnit n, VisualizationState arg) {
-        List<MethodDeclaration> declarations = n.findAll(
-                MethodDeclaration.class,
-                methodDeclaration -> Objects.equals(methodDeclaration.getNameAsString(), targetMethod)
-        );
-        if (declarations.isEmpty()) throw new RuntimeException("Method not found");
-        MethodDeclaration dec = declarations.get(0);
+        createDiagram(MethodIndex.findMethod(n, targetMethod), arg);
+        return null;
+    }
+
+    /**
+     * Add the diagram of a method, from its start to its end, without searching for it in the compilation unit
+     */
+    public void createDiagram(MethodDeclaration dec, VisualizationState arg) {
         arg.diagram.addStartDiagramNode();
         dec.accept(this, arg);
         arg.diagram.addEndDiagramNode();
-        return null;
     }
 
-    @Override
-    public EndState visit(MethodDeclaration n, VisualizationState arg) {
+    /**
+     * Add the diagram of a method from the outline recorded by its analysis, without walking the method again
+     * (only statements that the analysis did not reach are visited, see DiagramOutline)
+     */
+    public void createDiagram(MethodDeclaration dec, DiagramOutline outline, VisualizationState arg) {
+        arg.diagram.addStartDiagramNode();
+        addMethodNode(dec, arg);
+        for (DiagramOutline.Step step : outline.getSteps()) {
+            switch (step.kind()) {
+                case STATEMENT, TREE -> step.statement().accept(this, arg);
+                case OPEN -> addStartNode(step.statement(), arg);
+                case ELSE -> arg.diagram.addIfElseNode();
+                case CLOSE -> addEndNode(step.statement(), arg);
+            }
+        }
+        arg.diagram.addEndDiagramNode();
+    }
+
+    private void addMethodNode(MethodDeclaration n, VisualizationState arg) {
         String diagramStatement = n.getNameAsString() + "(";
 
         for (Parameter p : n.getParameters()) {
@@ -76,6 +96,72 @@ public class VisualizationVisitor implements GenericVisitor<EndState, Visualizat
         diagramStatement = diagramStatement.substring(0, diagramStatement.length() - 1) + ")";
         DiagramNode methodCall = new DiagramNode(diagramStatement, ErrorType.NONE, null);
         arg.diagram.addNode(methodCall);
+    }
+
+    /**
+     * Add the start of a statement with nested statements (the condition of an if statement or a loop)
+     */
+    private void addStartNode(Statement n, VisualizationState arg) {
+        if (n instanceof IfStmt ifStmt) {
+            DiagramNode ifCondition = errorDescriptionHelper(ifStmt, arg, ifStmt.getCondition().toString());
+            arg.diagram.addIfThenStartNode(ifCondition);
+        } else if (n instanceof WhileStmt whileStmt) {
+            String whileConditional = whileStmt.getCondition().toString();
+            DiagramNode node = errorDescriptionHelper(whileStmt.getCondition(), arg, whileConditional);
+            arg.diagram.addWhileForEachConditionalStartNode(node);
+        } else if (n instanceof DoStmt) {
+            arg.diagram.addDoWhileStartNode();
+        } else if (n instanceof ForEachStmt forEachStmt) {
+            String forEachVariable = forEachStmt.getVariable().toString();
+            String iterable = forEachStmt.getIterable().toString();
+
+            String conditional = forEachVariable + " : " + iterable;
+            DiagramNode node = errorDescriptionHelper(forEachStmt.getVariableDeclarator(), arg, conditional);
+            arg.diagram.addWhileForEachConditionalStartNode(node);
+        } else if (n instanceof ForStmt forStmt) {
+            // Get initializations for FOR-loop statement
+            List<DiagramNode> initializations = new ArrayList<>();
+            for (Expression e : forStmt.getInitialization()) {
+                String expression = e.toString();
+                initializations.add(errorDescriptionHelper(e, arg, expression));
+            }
+
+            // Get comparison conditional for FOR-loop statement
+            if (forStmt.getCompare().isPresent()) {
+                String compare = forStmt.getCompare().get().toString();
+                arg.diagram.addForStartNode(initializations, errorDescriptionHelper(forStmt.getCompare().get(), arg, compare));
+            } else {
+                arg.diagram.addForStartNode(initializations, new DiagramNode("", ErrorType.NONE, null));
+            }
+        }
+    }
+
+    /**
+     * Add the end of a statement with nested statements (and the condition of a do-while loop or the update of a for loop)
+     */
+    private void addEndNode(Statement n, VisualizationState arg) {
+        if (n instanceof IfStmt) {
+            arg.diagram.addIfEndNode();
+        } else if (n instanceof WhileStmt || n instanceof ForEachStmt) {
+            arg.diagram.addWhileForEachEndNode();
+        } else if (n instanceof DoStmt doStmt) {
+            String conditionalDescription = doStmt.getCondition().toString();
+            DiagramNode conditional = errorDescriptionHelper(doStmt.getCondition(), arg, conditionalDescription);
+            arg.diagram.addDoWhileConditionalEndNode(conditional);
+        } else if (n instanceof ForStmt forStmt) {
+            // End FOR-loop and add update node to FOR-loop body
+            List<DiagramNode> update = new ArrayList<>();
+            for (Expression e : forStmt.getUpdate()) {
+                String expression = e.toString();
+                update.add(errorDescriptionHelper(e, arg, expression));
+            }
+            arg.diagram.addForEndNode(update);
+        }
+    }
+
+    @Override
+    public EndState visit(MethodDeclaration n, VisualizationState arg) {
+        addMethodNode(n, arg);
 
         Optional<BlockStmt> body = n.getBody();
         return body.map(blockStmt -> blockStmt.accept(this, arg)).orElse(null);
@@ -124,10 +210,7 @@ public class VisualizationVisitor implements GenericVisitor<EndState, Visualizat
 
     @Override
     public EndState visit(IfStmt n, VisualizationState arg) {
-
-        DiagramNode ifCondition = errorDescriptionHelper(n, arg, n.getCondition().toString());
-
-        arg.diagram.addIfThenStartNode(ifCondition);
+        addStartNode(n, arg);
 
         // IF case
         n.getThenStmt().accept(this, arg);
@@ -139,19 +222,15 @@ public class VisualizationVisitor implements GenericVisitor<EndState, Visualizat
             n.getElseStmt().get().accept(this, arg);
         }
 
-        arg.diagram.addIfEndNode();
+        addEndNode(n, arg);
         return null;
     }
 
     @Override
     public EndState visit(WhileStmt n, VisualizationState arg) {
-        String whileConditional = n.getCondition().toString();
-        DiagramNode node = errorDescriptionHelper(n.getCondition(), arg, whileConditional);
-        arg.diagram.addWhileForEachConditionalStartNode(node);
-
+        addStartNode(n, arg);
         n.getBody().accept(this, arg);
-
-        arg.diagram.addWhileForEachEndNode();
+        addEndNode(n, arg);
         return null;
     }
 
@@ -163,58 +242,28 @@ public class VisualizationVisitor implements GenericVisitor<EndState, Visualizat
 
     @Override
     public EndState visit(DoStmt n, VisualizationState arg) {
-        arg.diagram.addDoWhileStartNode();
+        addStartNode(n, arg);
         n.getBody().accept(this, arg);
-        String conditionalDescription = n.getCondition().toString();
-        DiagramNode conditional = errorDescriptionHelper(n.getCondition(), arg, conditionalDescription);
-        arg.diagram.addDoWhileConditionalEndNode(conditional);
+        addEndNode(n, arg);
         return null;
     }
 
     @Override
     public EndState visit(ForEachStmt n, VisualizationState arg) {
-
-        String forEachVariable = n.getVariable().toString();
-        String iterable = n.getIterable().toString();
-
-        String conditional = forEachVariable + " : " + iterable;
-        DiagramNode node = errorDescriptionHelper(n.getVariableDeclarator(), arg, conditional);
-        arg.diagram.addWhileForEachConditionalStartNode(node);
-
+        addStartNode(n, arg);
         n.getBody().accept(this, arg);
-
-        arg.diagram.addWhileForEachEndNode();
+        addEndNode(n, arg);
         return null;
     }
 
     @Override
     public EndState visit(ForStmt n, VisualizationState arg) {
-        // Get initializations for FOR-loop statement
-        List<DiagramNode> initializations = new ArrayList<>();
-        for (Expression e : n.getInitialization()) {
-            String expression = e.toString();
-            initializations.add(errorDescriptionHelper(e, arg, expression));
-        }
-
-        // Get comparison conditional for FOR-loop statement
-        if (n.getCompare().isPresent()) {
-            String compare = n.getCompare().get().toString();
-            arg.diagram.addForStartNode(initializations, errorDescriptionHelper(n.getCompare().get(), arg, compare));
-        } else {
-            arg.diagram.addForStartNode(initializations, new DiagramNode("", ErrorType.NONE, null));
-        }
+        addStartNode(n, arg);
 
         // Visit FOR-loop's body
         n.getBody().accept(this, arg);
 
-        // End FOR-loop and add update node to FOR-loop body
-        List<DiagramNode> update = new ArrayList<>();
-        for (Expression e : n.getUpdate()) {
-            String expression = e.toString();
-            update.add(errorDescriptionHelper(e, arg, expression));
-        }
-        arg.diagram.addForEndNode(update);
-
+        addEndNode(n, arg);
         return null;
     }
 
@@ -0,0 +1,300 @@
+package analysis.cfg;
+
+import analysis.exceptions.UnsupportedNodeException;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.stmt.SwitchStmt;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class ControlFlowGraphTest {
+    private static MethodDeclaration parseMethod(String code) {
+        return StaticJavaParser.parse(code).findFirst(MethodDeclaration.class).orElseThrow();
+    }
+
+    @Test
+    public void straightLineTest() {
+        MethodDeclaration dec = parseMethod("""
+                public class Main {
+                    int test(int x) {
+                        int y = x + 1;
+                        y = y * 2;
+                        return y;
+                    }
+                }
+                """);
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(dec);
+        Assertions.assertEquals(1, cfg.size());
+        Assertions.assertEquals(2, cfg.getEntry().getNodes().size());
+        Assertions.assertInstanceOf(ReturnStmt.class, cfg.getEntry().getExitStatement());
+        Assertions.assertSame(cfg, ControlFlowGraph.forMethod(dec));
+    }
+
+    @Test
+    public void ifElseTest() {
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(parseMethod("""
+                public class Main {
+                    void test(int x) {
+                        if (x > 5) {
+                            x = 1;
+                        } else {
+                            x = 2;
+                        }
+                        x = x + 1;
+                    }
+                }
+                """));
+        BasicBlock entry = cfg.getEntry();
+        Assertions.assertEquals(4, cfg.size());
+        Assertions.assertNotNull(entry.getCondition());
+        BasicBlock join = entry.getTrueBlock().getNext();
+        Assertions.assertSame(join, entry.getFalseBlock().getNext());
+        Assertions.assertEquals(2, join.getPredecessors().size());
+        Assertions.assertTrue(join.isEnd());
+        Assertions.assertEquals(3, join.getIndex());
+    }
+
+    @Test
+    public void loopTest() {
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(parseMethod("""
+                public class Main {
+                    void test(int x) {
+                        for (int i = 0; i < 10; i++) {
+                            if (x > i) continue;
+                            if (x < 0) break;
+                            x = x + i;
+                        }
+                    }
+                }
+                """));
+        List<BasicBlock> headers = cfg.getBlocks().stream().filter(BasicBlock::isLoopHeader).toList();
+        Assertions.assertEquals(1, headers.size());
+        BasicBlock header = headers.get(0);
+        Assertions.assertEquals("FOR", header.getConditionLabel());
+        // Entry & update block
+        Assertions.assertEquals(2, header.getPredecessors().size());
+        // Exit of the condition & break
+        Assertions.assertEquals(2, header.getFalseBlock().getPredecessors().size());
+        for (BasicBlock block : cfg.getBlocks()) {
+            for (BasicBlock successor : block.getSuccessors()) {
+                Assertions.assertTrue(successor.getIndex() > block.getIndex() || successor.isLoopHeader());
+            }
+        }
+    }
+
+    @Test
+    public void labeledBreakTest() {
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(parseMethod("""
+                public class Main {
+                    void test(int x) {
+                        outer:
+                        while (x > 0) {
+                            while (x > 10) {
+                                break outer;
+                            }
+                            x = x - 1;
+                        }
+                    }
+                }
+                """));
+        BasicBlock outerHeader = cfg.getBlock(1);
+        Assertions.assertTrue(outerHeader.isLoopHeader());
+        BasicBlock outerExit = outerHeader.getFalseBlock();
+        Assertions.assertEquals(2, outerExit.getPredecessors().size());
+    }
+
+    @Test
+    public void unreachableTest() {
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(parseMethod("""
+                public class Main {
+                    int test(int x) {
+                        if (x > 0) {
+                            return 1;
+                        } else {
+                            return 2;
+                        }
+                    }
+                }
+                """));
+        // Entry, then & else (the block after the if statement is never reached)
+        Assertions.assertEquals(3, cfg.size());
+        Assertions.assertTrue(cfg.getBlocks().stream().noneMatch(BasicBlock::isEnd));
+    }
+
+    @Test
+    public void doWhileTest() {
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(parseMethod("""
+                public class Main {
+                    void test(int x) {
+                        do {
+                            if (x > 3) continue;
+                            x = x + 1;
+                        } while (x < 5);
+                    }
+                }
+                """));
+        List<BasicBlock> headers = cfg.getBlocks().stream().filter(BasicBlock::isLoopHeader).toList();
+        Assertions.assertEquals(1, headers.size());
+        // The body is entered before the condition is checked
+        Assertions.assertSame(headers.get(0), cfg.getEntry().getNext());
+        BasicBlock condition = cfg.getBlocks().stream().filter(b -> "DO-WHILE".equals(b.getConditionLabel())).findFirst().orElseThrow();
+        Assertions.assertSame(headers.get(0), condition.getTrueBlock());
+        // End of the body & continue
+        Assertions.assertEquals(2, condition.getPredecessors().size());
+    }
+
+    @Test
+    public void switchTest() {
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(parseMethod("""
+                public class Main {
+                    void test(int x) {
+                        while (x > 0) {
+                            switch (x) {
+                                case 1:
+                                    x = 5;
+                                case 2:
+                                    x = x - 1;
+                                    break;
+                                case 3 -> x = 0;
+                            }
+                            x = x - 1;
+                        }
+                    }
+                }
+                """));
+        BasicBlock switchBlock = cfg.getBlocks().stream().filter(b -> "SWITCH".equals(b.getConditionLabel())).findFirst().orElseThrow();
+        Assertions.assertInstanceOf(SwitchStmt.class, switchBlock.getConditionNode());
+        // Each entry & the exit (no default entry)
+        List<BasicBlock> targets = switchBlock.getTargets();
+        Assertions.assertEquals(4, targets.size());
+        // The first entry falls through to the second
+        Assertions.assertSame(targets.get(1), targets.get(0).getNext());
+        Assertions.assertEquals(2, targets.get(1).getPredecessors().size());
+        // Break (which exits the switch, not the loop), arrow entry & no default entry
+        BasicBlock exit = targets.get(3);
+        Assertions.assertEquals(3, exit.getPredecessors().size());
+        Assertions.assertTrue(exit.getNext().isLoopHeader());
+    }
+
+    @Test
+    public void forEachTest() {
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(parseMethod("""
+                public class Main {
+                    void test(int[] x) {
+                        int total = 0;
+                        for (int y : x) {
+                            if (y < 0) continue;
+                            total = total + y;
+                        }
+                    }
+                }
+                """));
+        BasicBlock entry = cfg.getEntry();
+        Assertions.assertInstanceOf(ForEachStmt.class, entry.getConditionNode());
+        BasicBlock header = entry.getTargets().get(0);
+        BasicBlock exit = entry.getTargets().get(1);
+        Assertions.assertTrue(header.isLoopHeader());
+        Assertions.assertEquals(List.of(header.getTargets().get(0), exit), header.getTargets());
+        // The body starts by setting the variable
+        Assertions.assertInstanceOf(ForEachStmt.class, header.getTargets().get(0).getNodes().get(0));
+        // Entry, end of the body & continue
+        Assertions.assertEquals(3, header.getPredecessors().size());
+        // Empty iterable & end of the loop
+        Assertions.assertEquals(2, exit.getPredecessors().size());
+    }
+
+    @Test
+    public void tryCatchTest() {
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(parseMethod("""
+                public class Main {
+                    void test(int x) {
+                        x = 1;
+                        try {
+                            x = 2;
+                            if (x > 1) throw new IllegalStateException();
+                            x = 3;
+                        } catch (IllegalStateException e) {
+                            x = 4;
+                        } catch (RuntimeException e) {
+                            x = 5;
+                        }
+                        x = 6;
+                    }
+                }
+                """));
+        Assertions.assertTrue(cfg.getEntry().getHandlers().isEmpty());
+        List<BasicBlock> catchBlocks = cfg.getBlocks().stream().filter(BasicBlock::isHandler).toList();
+        Assertions.assertEquals(2, catchBlocks.size());
+        for (BasicBlock catchBlock : catchBlocks) {
+            Assertions.assertInstanceOf(CatchClause.class, catchBlock.getNodes().get(0));
+            Assertions.assertSame(catchBlock.getCatchClause(), catchBlock.getNodes().get(0));
+            Assertions.assertTrue(catchBlock.getHandlers().isEmpty());
+        }
+        // Every block of the try block enters the catch clauses in order
+        BasicBlock throwBlock = cfg.getBlocks().stream().filter(b -> b.getExitStatement() != null).findFirst().orElseThrow();
+        Assertions.assertEquals(catchBlocks.stream().sorted(Comparator.comparing(b -> b.getCatchClause().getBegin().orElseThrow())).toList(),
+                throwBlock.getHandlers());
+        Assertions.assertTrue(throwBlock.getSuccessors().containsAll(catchBlocks));
+        for (BasicBlock catchBlock : catchBlocks) {
+            // Condition, throw & the rest of the try block
+            Assertions.assertEquals(3, catchBlock.getPredecessors().size());
+            Assertions.assertTrue(catchBlock.getNext().isEnd());
+        }
+    }
+
+    @Test
+    public void finallyTest() {
+        ControlFlowGraph cfg = ControlFlowGraph.forMethod(parseMethod("""
+                public class Main {
+                    void test(int x) {
+                        while (x > 0) {
+                            try {
+                                if (x > 5) break;
+                                x = x - 1;
+                            } catch (RuntimeException e) {
+                                x = 0;
+                            } finally {
+                                x = x + 10;
+                            }
+                        }
+                    }
+                }
+                """));
+        // After the try & catch blocks, for the exceptions leaving them, and for the break
+        List<Node> finallyNodes = cfg.getBlocks().stream().flatMap(b -> b.getNodes().stream())
+                .filter(node -> node.toString().equals("x = x + 10;")).toList();
+        Assertions.assertEquals(3, finallyNodes.size());
+
+        BasicBlock finallyHandler = cfg.getBlocks().stream().filter(b -> b.isHandler() && b.getCatchClause() == null).findFirst().orElseThrow();
+        Assertions.assertTrue(finallyHandler.isRethrow());
+        Assertions.assertTrue(finallyHandler.getSuccessors().isEmpty());
+        BasicBlock catchBlock = cfg.getBlocks().stream().filter(b -> b.getCatchClause() != null).findFirst().orElseThrow();
+        Assertions.assertEquals(List.of(finallyHandler), catchBlock.getHandlers());
+
+        // The break runs the finally block before leaving the loop
+        BasicBlock header = cfg.getBlocks().stream().filter(BasicBlock::isLoopHeader).findFirst().orElseThrow();
+        BasicBlock breakFinally = header.getFalseBlock().getPredecessors().stream()
+                .filter(b -> !b.isLoopHeader()).findFirst().orElseThrow();
+        Assertions.assertEquals("x = x + 10;", breakFinally.getNodes().get(0).toString());
+        Assertions.assertTrue(breakFinally.getHandlers().isEmpty());
+    }
+
+    @Test
+    public void unsupportedTest() {
+        MethodDeclaration dec = parseMethod("""
+                public class Main {
+                    void test(int x) {
+                        break;
+                    }
+                }
+                """);
+        Assertions.assertThrows(UnsupportedNodeException.class, () -> ControlFlowGraph.forMethod(dec));
+    }
+}
@@ -0,0 +1,36 @@
+package analysis.model;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.expr.Expression;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AnalysisErrorTest {
+    @Test
+    public void messageTest() {
+        Expression expr = StaticJavaParser.parseExpression("10 / a");
+        Assertions.assertEquals("ArithmeticException: 10 / a", new AnalysisError(ArithmeticException.class, expr, true).getMessage());
+        Assertions.assertEquals("ArithmeticException: 10 / a", new AnalysisError(ArithmeticException.class, false).atNode(expr).getMessage());
+        Assertions.assertEquals(
+                "@Min return is always below min: 10 / a",
+                new AnalysisError("%s return is %s %s", expr, true, "@Min", "always", "below min").getMessage()
+        );
+        Assertions.assertEquals("Annotations make domain empty", new AnalysisError("Annotations make domain empty", true).getMessage());
+    }
+
+    @Test
+    public void equalityTest() {
+        Expression expr = StaticJavaParser.parseExpression("10 / a");
+        Expression sameText = StaticJavaParser.parseExpression("10 / a");
+        AnalysisError error = new AnalysisError(ArithmeticException.class, expr, false);
+
+        Assertions.assertEquals(error, new AnalysisError(ArithmeticException.class, expr, true));
+        Assertions.assertEquals(error.hashCode(), new AnalysisError(ArithmeticException.class, expr, true).hashCode());
+        Assertions.assertNotEquals(error, new AnalysisError(ArithmeticException.class, sameText, false));
+        Assertions.assertNotEquals(error, new AnalysisError(NullPointerException.class, expr, false));
+        Assertions.assertNotEquals(
+                new AnalysisError("%s is %s", expr, true, "@Min", "always"),
+                new AnalysisError("%s is %s", expr, false, "@Min", "sometimes")
+        );
+    }
+}
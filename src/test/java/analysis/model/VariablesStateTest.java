@@ -0,0 +1,85 @@
+package analysis.model;
+
+import analysis.values.AnyValue;
+import analysis.values.IntegerRange;
+import analysis.values.visitor.IntersectVisitor;
+import analysis.values.visitor.MergeVisitor;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VariablesStateTest {
+    private MethodDeclaration method;
+    private Parameter a;
+    private VariableDeclarator b;
+    private VariableDeclarator c;
+
+    @BeforeEach
+    public void runBefore() {
+        method = StaticJavaParser.parseMethodDeclaration("void main(int a) { int b = 0; int c = 1; }");
+        a = method.getParameter(0);
+        b = method.findAll(VariableDeclarator.class).get(0);
+        c = method.findAll(VariableDeclarator.class).get(1);
+    }
+
+    @Test
+    public void slotsTest() {
+        VariableSlots slots = VariableSlots.forNode(method);
+        Assertions.assertEquals(3, slots.size());
+        Assertions.assertEquals(0, slots.getSlot(a));
+        Assertions.assertEquals(1, slots.getSlot(b));
+        Assertions.assertEquals(2, slots.getSlot(c));
+        Assertions.assertSame(c, slots.getNode(2));
+        Assertions.assertEquals(-1, slots.getSlot(method));
+    }
+
+    @Test
+    public void copyOnWriteTest() {
+        VariablesState state = new VariablesState(VariableSlots.forNode(method));
+        state.setVariable(a, new IntegerRange(0, 5));
+        VariablesState copy = state.copy();
+        copy.setVariable(b, new IntegerRange(1, 1));
+        state.setVariable(a, new IntegerRange(2, 3));
+        Assertions.assertEquals(new IntegerRange(2, 3), state.getVariable(a));
+        Assertions.assertEquals(new AnyValue(), state.getVariable(b));
+        Assertions.assertEquals(new IntegerRange(0, 5), copy.getVariable(a));
+        Assertions.assertEquals(new IntegerRange(1, 1), copy.getVariable(b));
+    }
+
+    @Test
+    public void snapshotTest() {
+        VariablesState state = new VariablesState(VariableSlots.forNode(method));
+        state.setVariable(a, new IntegerRange(0, 5));
+        VariablesState owned = state.snapshot();
+        state.setVariable(a, new IntegerRange(2, 3));
+        VariablesState shared = state.copy().snapshot();
+        state.setVariable(a, new IntegerRange(4, 4));
+        Assertions.assertEquals(new IntegerRange(0, 5), owned.getVariable(a));
+        Assertions.assertEquals(new IntegerRange(2, 3), shared.getVariable(a));
+        Assertions.assertEquals(new IntegerRange(4, 4), state.getVariable(a));
+    }
+
+    @Test
+    public void differentSlotsTest() {
+        VariablesState state1 = new VariablesState(VariableSlots.forNode(method));
+        VariablesState state2 = new VariablesState();
+        state1.setVariable(a, new IntegerRange(0, 5));
+        state2.setVariable(c, new IntegerRange(1, 1));
+        state2.setVariable(a, new IntegerRange(0, 5));
+        Assertions.assertNotEquals(state1, state2);
+
+        state1.merge(new MergeVisitor(), state2);
+        Assertions.assertEquals(new IntegerRange(1, 1), state1.getVariable(c));
+        Assertions.assertEquals(state1, state2);
+        Assertions.assertEquals(state1.hashCode(), state2.hashCode());
+
+        state2.useSlots(state1.getSlots());
+        state2.setVariable(a, new IntegerRange(3, 10));
+        state1.intersect(new IntersectVisitor(), state2);
+        Assertions.assertEquals(new IntegerRange(3, 5), state1.getVariable(a));
+    }
+}
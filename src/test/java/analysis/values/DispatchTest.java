@@ -0,0 +1,96 @@
+package analysis.values;
+
+import analysis.values.visitor.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * OperationVisitor#apply must give the same results as the double dispatch of acceptAbstractOp
+ */
+public class DispatchTest {
+    private static final List<PossibleValues> VALUES = List.of(
+            AnyValue.VALUE,
+            EmptyValue.VALUE,
+            new IntegerRange(-10, 10),
+            new IntegerRange(0),
+            new IntegerRange(5, Integer.MAX_VALUE),
+            new CharValue('a', 'z'),
+            new CharValue('c'),
+            BooleanValue.TRUE,
+            BooleanValue.ANY_VALUE,
+            new StringValue("abc"),
+            new StringValue(0, 10, true),
+            NullValue.VALUE,
+            new ExtendableObjectValue(true),
+            new ArrayValue(new IntegerRange(0, 10), false),
+            new BoxedPrimitive(new IntegerRange(1, 5), true),
+            new BoxedPrimitive(BooleanValue.FALSE, false)
+    );
+
+    private static final List<OperationVisitor<?>> VISITORS = List.of(
+            new MergeVisitor(),
+            new WidenVisitor(),
+            new NarrowVisitor(),
+            new IntersectVisitor(),
+            new AddVisitor(),
+            new SubtractVisitor(),
+            new MultiplyVisitor(),
+            new DivideVisitor(),
+            new RestrictEqualsVisitor(),
+            new RestrictNotEqualsVisitor(),
+            RestrictLessThanVisitor.INSTANCE,
+            RestrictLessThanOrEqualVisitor.INSTANCE,
+            RestrictGreaterThanVisitor.INSTANCE,
+            RestrictGreaterThanOrEqualVisitor.INSTANCE
+    );
+
+    @Test
+    public void applyMatchesDoubleDispatchTest() {
+        for (OperationVisitor<?> visitor : VISITORS) {
+            for (PossibleValues a : VALUES) {
+                for (PossibleValues b : VALUES) {
+                    String message = visitor.getClass().getSimpleName() + ": " + a + ", " + b;
+                    Object expected = unwrap(applyDoubleDispatch(visitor, a, b));
+                    Object actual = unwrap(applyTagged(visitor, a, b));
+                    Assertions.assertEquals(expected, actual, message);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void kindTest() {
+        Assertions.assertEquals(ValueKind.INTEGER, ValueFactory.integer(3).getKind());
+        Assertions.assertEquals(ValueKind.STRING, new StringValue("a").withNullable().getKind());
+        Assertions.assertEquals(ValueKind.OBJECT, ExtendableObjectValue.VALUE.getKind());
+        Assertions.assertEquals(ValueKind.BOXED, new BoxedPrimitive(BooleanValue.TRUE).copy().getKind());
+    }
+
+    private static Object applyDoubleDispatch(OperationVisitor<?> visitor, PossibleValues a, PossibleValues b) {
+        try {
+            return a.acceptAbstractOp(visitor, b);
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static Object applyTagged(OperationVisitor<?> visitor, PossibleValues a, PossibleValues b) {
+        try {
+            return visitor.apply(a, b);
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    /**
+     * Compare pairs by their values and the messages of their errors
+     */
+    private static Object unwrap(Object result) {
+        if (result instanceof PairValue<?, ?> pair) {
+            return List.of(String.valueOf(pair.getA()), String.valueOf(pair.getB()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,93 @@
+package analysis.values;
+
+import analysis.model.AnalysisError;
+import analysis.values.visitor.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IntegerIntervalSetTest {
+    private static final IntegerIntervalSet.Limit LIMIT = new IntegerIntervalSet.Limit(4, IntegerIntervalSet.Collapse.SMALLEST_GAP);
+    private final MergeVisitor mergeVisitor = new MergeVisitor(LIMIT);
+
+    private static IntegerValue set(int... bounds) {
+        return IntegerIntervalSet.of(bounds.clone(), bounds.length, LIMIT);
+    }
+
+    private PossibleValues merge(PossibleValues a, PossibleValues b) {
+        return a.acceptAbstractOp(mergeVisitor, b);
+    }
+
+    @Test
+    public void mergeTest() {
+        PossibleValues merged = merge(new IntegerRange(0), new IntegerRange(100));
+        Assertions.assertEquals(set(0, 0, 100, 100), merged);
+        Assertions.assertEquals("[0] | [100]", merged.toFormattedString());
+        Assertions.assertEquals(0, ((IntegerValue) merged).getMin());
+        Assertions.assertEquals(100, ((IntegerValue) merged).getMax());
+        // Adjacent & overlapping intervals are joined into a range
+        Assertions.assertEquals(new IntegerRange(0, 100), merge(merged, new IntegerRange(1, 99)));
+        Assertions.assertEquals(new IntegerRange(0, 5), merge(new IntegerRange(0, 2), new IntegerRange(3, 5)));
+        // Unchanged values keep their identity
+        Assertions.assertSame(merged, merge(merged, new IntegerRange(100)));
+    }
+
+    @Test
+    public void collapseTest() {
+        IntegerValue value = set(0, 0, 10, 10, 12, 12, 30, 30, 100, 100);
+        Assertions.assertEquals(set(0, 0, 10, 12, 30, 30, 100, 100), value);
+        IntegerIntervalSet.Limit hull = new IntegerIntervalSet.Limit(4, IntegerIntervalSet.Collapse.HULL);
+        Assertions.assertEquals(new IntegerRange(0, 100), IntegerIntervalSet.of(new int[]{0, 0, 10, 10, 12, 12, 30, 30, 100, 100}, 10, hull));
+        Assertions.assertEquals(IntegerIntervalSet.Collapse.HULL, IntegerIntervalSet.Collapse.fromName("hull"));
+        Assertions.assertEquals(IntegerIntervalSet.Collapse.SMALLEST_GAP, IntegerIntervalSet.Collapse.fromName("Smallest-Gap"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new IntegerIntervalSet.Limit(0, IntegerIntervalSet.Collapse.HULL));
+    }
+
+    @Test
+    public void rangesOnlyTest() {
+        Assertions.assertEquals(new IntegerRange(0, 100), new IntegerRange(0).acceptAbstractOp(new MergeVisitor(), new IntegerRange(100)));
+        Assertions.assertEquals(new IntegerRange(-5, 5),
+                new IntegerRange(-5, 5).acceptAbstractOp(new RestrictNotEqualsVisitor(), new IntegerRange(0)));
+    }
+
+    @Test
+    public void restrictTest() {
+        PossibleValues notZero = new IntegerRange(-5, 5).acceptAbstractOp(new RestrictNotEqualsVisitor(LIMIT), new IntegerRange(0));
+        Assertions.assertEquals(set(-5, -1, 1, 5), notZero);
+        Assertions.assertEquals(set(-5, -1, 1, 2),
+                notZero.acceptAbstractOp(new RestrictLessThanVisitor(), new IntegerRange(3)));
+        Assertions.assertEquals(new IntegerRange(1, 5),
+                notZero.acceptAbstractOp(new RestrictGreaterThanOrEqualVisitor(), new IntegerRange(0)));
+        Assertions.assertEquals(EmptyValue.VALUE,
+                notZero.acceptAbstractOp(new RestrictEqualsVisitor(), new IntegerRange(0)));
+        Assertions.assertEquals(set(-5, -3, 3, 5),
+                notZero.acceptAbstractOp(new RestrictEqualsVisitor(), set(-10, -3, 3, 10)));
+        Assertions.assertSame(notZero, notZero.acceptAbstractOp(new RestrictNotEqualsVisitor(LIMIT), new IntegerRange(0)));
+    }
+
+    @Test
+    public void arithmeticTest() {
+        IntegerValue value = set(0, 0, 100, 100);
+        Assertions.assertEquals(set(1, 2, 101, 102), value.acceptAbstractOp(new AddVisitor(), new IntegerRange(1, 2)));
+        Assertions.assertEquals(set(-1, -1, 99, 99), value.acceptAbstractOp(new SubtractVisitor(), new IntegerRange(1)));
+        Assertions.assertEquals(set(0, 0, 200, 200), value.acceptAbstractOp(new MultiplyVisitor(), new IntegerRange(2)));
+    }
+
+    @Test
+    public void divideTest() {
+        IntegerValue notZero = set(-5, -1, 1, 5);
+        PairValue<PossibleValues, AnalysisError> quotient = new IntegerRange(10).acceptAbstractOp(new DivideVisitor(), notZero);
+        Assertions.assertNull(quotient.getB());
+        Assertions.assertEquals(set(-10, -2, 2, 10), quotient.getA());
+
+        quotient = new IntegerRange(10).acceptAbstractOp(new DivideVisitor(), set(0, 0, 5, 5));
+        Assertions.assertFalse(quotient.getB().isDefinite());
+        Assertions.assertEquals(new IntegerRange(2), quotient.getA());
+    }
+
+    @Test
+    public void widenTest() {
+        IntegerValue value = set(0, 0, 100, 100);
+        Assertions.assertEquals(new IntegerRange(0, 100), value.acceptAbstractOp(new WidenVisitor(), new IntegerRange(50)));
+        Assertions.assertSame(value, value.acceptAbstractOp(new NarrowVisitor(), new IntegerRange(50)));
+    }
+}
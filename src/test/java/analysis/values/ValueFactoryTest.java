@@ -0,0 +1,55 @@
+package analysis.values;
+
+import analysis.model.VariablesState;
+import analysis.values.visitor.MergeVisitor;
+import analysis.values.visitor.NarrowVisitor;
+import analysis.values.visitor.RestrictGreaterThanOrEqualVisitor;
+import analysis.values.visitor.WidenVisitor;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ValueFactoryTest {
+    @Test
+    public void internTest() {
+        Assertions.assertSame(ValueFactory.integer(5), ValueFactory.integer(5, 5));
+        Assertions.assertSame(ValueFactory.integer(-128), ValueFactory.integer(-128));
+        Assertions.assertSame(IntegerRange.ANY_VALUE, ValueFactory.integer(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        Assertions.assertSame(ValueFactory.integer(3, 70000), ValueFactory.integer(3, 70000));
+        Assertions.assertEquals(new IntegerRange(3, 70000), ValueFactory.integer(3, 70000));
+
+        Assertions.assertSame(BooleanValue.TRUE, ValueFactory.bool(true));
+        Assertions.assertSame(BooleanValue.FALSE, ValueFactory.bool(false, true));
+        Assertions.assertSame(BooleanValue.ANY_VALUE, ValueFactory.bool(true, true));
+        Assertions.assertSame(StringValue.ANY_VALUE, ValueFactory.string(0, Integer.MAX_VALUE, true, new StringValue("a"), new StringValue("b")));
+    }
+
+    @Test
+    public void reuseOperandTest() {
+        IntegerRange wide = new IntegerRange(0, 100000);
+        IntegerRange inner = new IntegerRange(5, 20);
+        Assertions.assertSame(wide, wide.acceptAbstractOp(new MergeVisitor(), inner));
+        Assertions.assertSame(wide, inner.acceptAbstractOp(new MergeVisitor(), wide));
+        Assertions.assertSame(wide, wide.acceptAbstractOp(new WidenVisitor(), inner));
+        Assertions.assertSame(inner, inner.acceptAbstractOp(new NarrowVisitor(), wide));
+        Assertions.assertSame(wide, wide.acceptAbstractOp(RestrictGreaterThanOrEqualVisitor.INSTANCE, ValueFactory.integer(0)));
+
+        StringValue s = new StringValue(0, 10, true);
+        Assertions.assertSame(s, s.acceptAbstractOp(new MergeVisitor(), new StringValue("abc")));
+    }
+
+    @Test
+    public void unchangedStateTest() {
+        VariableDeclarator a = StaticJavaParser.parseVariableDeclarationExpr("int a = 0").getVariable(0);
+        VariablesState state = new VariablesState();
+        state.setVariable(a, new IntegerRange(0, 100000));
+        VariablesState iteration = state.copy();
+        iteration.setVariable(a, new IntegerRange(5, 20));
+
+        // Merging a value that is already included keeps the value, so the state keeps sharing its values
+        VariablesState merged = state.mergeCopy(new MergeVisitor(), iteration);
+        Assertions.assertSame(state.getVariable(a), merged.getVariable(a));
+        Assertions.assertEquals(state, merged);
+    }
+}
@@ -0,0 +1,82 @@
+package analysis.values;
+
+import analysis.values.visitor.NarrowVisitor;
+import analysis.values.visitor.WidenVisitor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class WidenNarrowTest {
+    private WidenVisitor widenVisitor;
+    private NarrowVisitor narrowVisitor;
+
+    @BeforeEach
+    public void runBefore() {
+        widenVisitor = new WidenVisitor();
+        narrowVisitor = new NarrowVisitor();
+    }
+
+    public PossibleValues widen(PossibleValues a, PossibleValues b) {
+        return a.acceptAbstractOp(widenVisitor, b);
+    }
+
+    public PossibleValues narrow(PossibleValues a, PossibleValues b) {
+        return a.acceptAbstractOp(narrowVisitor, b);
+    }
+
+    @Test
+    public void widenIntegerTest() {
+        Assertions.assertEquals(new IntegerRange(0, 10), widen(new IntegerRange(0, 10), new IntegerRange(2, 8)));
+        Assertions.assertEquals(new IntegerRange(0, Integer.MAX_VALUE), widen(new IntegerRange(0, 10), new IntegerRange(0, 11)));
+        Assertions.assertEquals(new IntegerRange(Integer.MIN_VALUE, 10), widen(new IntegerRange(0, 10), new IntegerRange(-1, 10)));
+        Assertions.assertEquals(new IntegerRange(Integer.MIN_VALUE, Integer.MAX_VALUE), widen(new IntegerRange(0, 10), new IntegerRange(-1, 11)));
+    }
+
+    @Test
+    public void widenThresholdsTest() {
+        WidenVisitor thresholdVisitor = new WidenVisitor(new int[]{20, -1, 9, 10});
+        Assertions.assertEquals(new IntegerRange(0, 10), new IntegerRange(0, 3).acceptAbstractOp(thresholdVisitor, new IntegerRange(0, 10)));
+        Assertions.assertEquals(new IntegerRange(0, 20), new IntegerRange(0, 10).acceptAbstractOp(thresholdVisitor, new IntegerRange(0, 11)));
+        Assertions.assertEquals(new IntegerRange(0, Integer.MAX_VALUE), new IntegerRange(0, 20).acceptAbstractOp(thresholdVisitor, new IntegerRange(0, 21)));
+        Assertions.assertEquals(new IntegerRange(-1, 3), new IntegerRange(0, 3).acceptAbstractOp(thresholdVisitor, new IntegerRange(-1, 3)));
+        Assertions.assertEquals(new IntegerRange(Integer.MIN_VALUE, 3), new IntegerRange(0, 3).acceptAbstractOp(thresholdVisitor, new IntegerRange(-2, 3)));
+        Assertions.assertEquals(new CharValue('a', Character.MAX_VALUE), new CharValue('a', 'c').acceptAbstractOp(thresholdVisitor, new CharValue('b', 'd')));
+    }
+
+    @Test
+    public void widenCharTest() {
+        Assertions.assertEquals(new CharValue('a', Character.MAX_VALUE), widen(new CharValue('a', 'c'), new CharValue('b', 'd')));
+    }
+
+    @Test
+    public void widenStringTest() {
+        Assertions.assertEquals(
+                new StringValue(2, Integer.MAX_VALUE, true),
+                widen(new StringValue(2, 4, false), new StringValue(3, 5, true))
+        );
+    }
+
+    @Test
+    public void widenArrayTest() {
+        Assertions.assertEquals(
+                new ArrayValue(new IntegerRange(ArrayValue.MIN_LENGTH_NUM, 3), false),
+                widen(new ArrayValue(new IntegerRange(1, 3), false), new ArrayValue(new IntegerRange(0, 2), false))
+        );
+    }
+
+    @Test
+    public void narrowIntegerTest() {
+        Assertions.assertEquals(new IntegerRange(0, 100), narrow(new IntegerRange(0, Integer.MAX_VALUE), new IntegerRange(0, 100)));
+        Assertions.assertEquals(new IntegerRange(-5, 10), narrow(new IntegerRange(Integer.MIN_VALUE, 10), new IntegerRange(-5, 7)));
+        Assertions.assertEquals(new IntegerRange(0, 10), narrow(new IntegerRange(0, 10), new IntegerRange(2, 5)));
+        Assertions.assertEquals(new IntegerRange(3, 10), narrow(new IntegerRange(3, 10), new EmptyValue()));
+    }
+
+    @Test
+    public void narrowStringTest() {
+        Assertions.assertEquals(
+                new StringValue(2, 9, false),
+                narrow(new StringValue(2, Integer.MAX_VALUE, false), new StringValue(3, 9, false))
+        );
+    }
+}
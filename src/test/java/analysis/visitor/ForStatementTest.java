@@ -13,6 +13,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static analysis.visitor.VisitorTestUtils.*;
 
 public class ForStatementTest {
@@ -41,7 +43,17 @@ public class ForStatementTest {
         AnalysisState analysisState = new AnalysisState(varState);
         varState.setVariable(a, new IntegerRange(10, 10));
         varState.setVariable(b, new IntegerRange(10, 20));
+        VariablesState startState = varState.copy();
         forStatement.accept(new AnalysisVisitor(""), analysisState);
+        // The sum grows with every iteration, so it is widened past the loop bound
+        Assertions.assertEquals(new IntegerRange(10, Integer.MAX_VALUE), varState.getVariable(a));
+        Assertions.assertEquals(new IntegerRange(10, 20), varState.getVariable(i));
+
+        // Loops that end before widening are run exactly
+        varState.copyValuesFrom(startState);
+        AnalysisVisitor visitor = new AnalysisVisitor("");
+        visitor.setWideningDelay(25);
+        forStatement.accept(visitor, analysisState);
         IntegerRange aVal = (IntegerRange) varState.getVariable(a);
         Assertions.assertEquals(55, aVal.getMin());
         Assertions.assertEquals(200, aVal.getMax());
@@ -124,7 +136,54 @@ public class ForStatementTest {
         VariablesState varState = new VariablesState();
         AnalysisState analysisState = new AnalysisState(varState);
         varState.setVariable(paramA, new IntegerRange(10, 10));
-        forStatement.accept(new AnalysisVisitor(""), analysisState);
+        AnalysisVisitor visitor = new AnalysisVisitor("");
+        visitor.setWideningDelay(30);
+        forStatement.accept(visitor, analysisState);
         Assertions.assertEquals(new IntegerRange(a, a), varState.getVariable(paramA));
     }
+
+    @Test
+    public void forEachTest() {
+        String code = """
+                public class Main {
+                    void main(@NotNull int[] a) {
+                        int b = 0;
+                        for (@Positive int x : a) {
+                            b = 10 / x;
+                        }
+                        int c = 0;
+                        for (int x : a) {
+                            c = 10 / x;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("main"), analysisState);
+        // The loop may not run at all
+        Assertions.assertEquals(new IntegerRange(0, 10), analysisState.getVariablesState().getVariable(getVariable(compiled, "b")));
+        Assertions.assertNull(getVariableAssignmentErrors(analysisState.getErrorMap(), "b"));
+        Assertions.assertEquals(1, getVariableAssignmentErrors(analysisState.getErrorMap(), "c").size());
+    }
+
+    @Test
+    public void forEachNullTest() {
+        String code = """
+                public class Main {
+                    void main(String[] a) {
+                        for (String x : a) {
+                            int b = x.length();
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("main"), analysisState);
+        // The array and its elements may be null
+        Assertions.assertEquals(2, analysisState.getErrorMap().size());
+        Assertions.assertTrue(analysisState.getErrorMap().values().stream().flatMap(Set::stream)
+                .allMatch(error -> error.getMessage().contains("NullPointerException")));
+    }
 }
@@ -1,20 +1,32 @@
 package analysis.visitor;
 
+import analysis.exceptions.UnsupportedNodeException;
+import analysis.model.AnalysisError;
 import analysis.model.AnalysisState;
 import analysis.model.VariablesState;
 import analysis.values.BooleanValue;
 import analysis.values.BoxedPrimitive;
+import analysis.values.IntegerIntervalSet;
 import analysis.values.IntegerRange;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.YieldStmt;
 import logger.AnalysisLogger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
 import static analysis.visitor.VisitorTestUtils.*;
 
 public class IfStatementTest {
@@ -317,6 +329,32 @@ public class IfStatementTest {
         Assertions.assertEquals(2, analysisState.getErrorMap().size());
     }
 
+    @Test
+    public void notEqualsIntervalsTest() {
+        String code = """
+                public class Main {
+                    int test(int x) {
+                        int y = 0;
+                        if (x != 0) {
+                            y = 10 / x;
+                        }
+                        return 10 / (y + 20);
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState rangeState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("test"), rangeState);
+        // A range cannot leave out 0
+        Assertions.assertEquals(1, rangeState.getErrorMap().size());
+
+        AnalysisState intervalState = new AnalysisState(new VariablesState());
+        IntegerIntervalSet.Limit limit = new IntegerIntervalSet.Limit(4, IntegerIntervalSet.Collapse.SMALLEST_GAP);
+        compiled.accept(new AnalysisVisitor("test", limit), intervalState);
+        // x is [MIN,-1] | [1,MAX] in the if statement, so 10 / x cannot divide by 0
+        Assertions.assertTrue(intervalState.getErrorMap().isEmpty());
+    }
+
     @Test
     public void ifConditionErrorTest() {
         String code = """
@@ -335,4 +373,83 @@ public class IfStatementTest {
         compiled.accept(new AnalysisVisitor("test"), analysisState);
         Assertions.assertEquals(2, analysisState.getErrorMap().entrySet().iterator().next().getValue().size());
     }
+
+    @Test
+    public void parallelBranchesTest() {
+        String code = """
+                public class Main {
+                    int test(int x, int y) {
+                        int z = 0;
+                        if (x > 5) {
+                            z = x * 2;
+                            if (y > 3) {
+                                z = z / (y - 4);
+                            }
+                            y = 10 / (x - 6);
+                        } else {
+                            z = x - 1;
+                            for (int i = 0; i < 3; i++) {
+                                z = z + i;
+                            }
+                            y = 10 / (x + 5);
+                        }
+                        return z + y;
+                    }
+                }
+                """;
+        Assertions.assertEquals(analyzeBranches(code, 0), analyzeBranches(code, 1));
+
+        // Branches forked from a worker of another pool (i.e. a batch analysis thread) run in the pool of branches
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            Assertions.assertEquals(analyzeBranches(code, 0), pool.submit(() -> analyzeBranches(code, 1)).join());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelBranchesExceptionTest() {
+        String code = """
+                public class Main {
+                    int test(int x) {
+                        if (x > 5) {
+                            x = x + 1;
+                        } else {
+                            x = x - 1;
+                        }
+                        return x;
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        // Yield statements are only analyzed inside switch expressions
+        IfStmt ifStmt = compiled.findFirst(IfStmt.class).orElseThrow();
+        ifStmt.getElseStmt().orElseThrow().asBlockStmt().addStatement(new YieldStmt(new NameExpr("x")));
+        AnalysisVisitor visitor = new AnalysisVisitor("test");
+        visitor.setParallelBranchLines(1);
+        Assertions.assertThrows(UnsupportedNodeException.class,
+                () -> compiled.accept(visitor, new AnalysisState(new VariablesState())));
+    }
+
+    /**
+     * Analyze the code and render the final state & errors, with the branches analyzed in parallel if
+     * parallelBranchLines is positive
+     */
+    private static List<String> analyzeBranches(String code, int parallelBranchLines) {
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        AnalysisVisitor visitor = new AnalysisVisitor("test");
+        visitor.setParallelBranchLines(parallelBranchLines);
+        compiled.accept(visitor, analysisState);
+        List<String> result = new ArrayList<>();
+        result.add(analysisState.getVariablesState().toFormattedString());
+        for (Map.Entry<Node, Set<AnalysisError>> entry : analysisState.getErrorMap().entrySet()) {
+            for (AnalysisError error : entry.getValue()) {
+                result.add(entry.getKey().getBegin().map(Object::toString).orElse("") + " " + error.getMessage());
+            }
+        }
+        result.sort(null);
+        return result;
+    }
 }
@@ -5,7 +5,10 @@ import analysis.model.AnalysisState;
 import analysis.model.VariablesState;
 import analysis.values.*;
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.stmt.YieldStmt;
 import logger.AnalysisLogger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -541,7 +544,7 @@ public class MethodCallTest {
     @Test
     public void methodCallReturnTypeTest() {
         String code = """
-                public class Main {
+                public final class Main {
                     @Positive
                     int intMethod() {
                         return 1;
@@ -571,8 +574,8 @@ public class MethodCallTest {
         VariableDeclarator c = getVariable(compiled, "c");
         VariableDeclarator d = getVariable(compiled, "d");
         compiled.accept(new AnalysisVisitor("test"), analysisState);
-        Assertions.assertEquals(new IntegerRange(1, Integer.MAX_VALUE), variablesState.getVariable(a));
-        Assertions.assertEquals(BoxedPrimitive.create(new IntegerRange(Integer.MIN_VALUE, 0), false), variablesState.getVariable(b));
+        Assertions.assertEquals(new IntegerRange(1), variablesState.getVariable(a));
+        Assertions.assertEquals(BoxedPrimitive.create(new IntegerRange(0), false), variablesState.getVariable(b));
         Assertions.assertEquals(new StringValue(1, Integer.MAX_VALUE), variablesState.getVariable(c));
         Assertions.assertEquals(CharValue.ANY_VALUE, variablesState.getVariable(d));
         Assertions.assertEquals(0, analysisState.getErrorMap().size());
@@ -611,4 +614,164 @@ public class MethodCallTest {
         Assertions.assertEquals(0, analysisState.getErrorMap().size());
     }
     // endregion ---- annotation tests
+
+    @Test
+    public void methodSummaryArgumentsTest() {
+        String code = """
+                public final class Main {
+                    int add(int x, int y) {
+                        if (x > 10) return 10 + y;
+                        return x + y;
+                    }
+
+                    void test(int p) {
+                        int a = add(1, 2);
+                        int b = add(20, 5);
+                        int c = add(1, 2);
+                        int d = add(p, 0);
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        VariableDeclarator a = getVariable(compiled, "a");
+        VariableDeclarator b = getVariable(compiled, "b");
+        VariableDeclarator c = getVariable(compiled, "c");
+        VariableDeclarator d = getVariable(compiled, "d");
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        Assertions.assertEquals(new IntegerRange(3), variablesState.getVariable(a));
+        Assertions.assertEquals(new IntegerRange(15), variablesState.getVariable(b));
+        Assertions.assertEquals(new IntegerRange(3), variablesState.getVariable(c));
+        Assertions.assertEquals(new IntegerRange(Integer.MIN_VALUE, 10), variablesState.getVariable(d));
+        Assertions.assertEquals(0, analysisState.getErrorMap().size());
+    }
+
+    @Test
+    public void methodSummaryRecursionTest() {
+        String code = """
+                public final class Main {
+                    @PositiveOrZero
+                    int count(int x) {
+                        if (x <= 0) return 0;
+                        return 1 + count(x - 1);
+                    }
+
+                    void test() {
+                        int a = count(5);
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        VariableDeclarator a = getVariable(compiled, "a");
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        Assertions.assertEquals(new IntegerRange(1, Integer.MAX_VALUE), variablesState.getVariable(a));
+    }
+
+    @Test
+    public void methodSummaryUnsupportedTest() {
+        String code = """
+                public class Main {
+                    @Positive
+                    int unsupported(int x) {
+                        return x;
+                    }
+
+                    void test() {
+                        int a = unsupported(5);
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        // Yield statements are only analyzed inside switch expressions
+        MethodDeclaration unsupported = compiled.findFirst(MethodDeclaration.class).orElseThrow();
+        unsupported.getBody().orElseThrow().addStatement(0, new YieldStmt(new NameExpr("x")));
+        VariableDeclarator a = getVariable(compiled, "a");
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        Assertions.assertEquals(new IntegerRange(1, Integer.MAX_VALUE), variablesState.getVariable(a));
+    }
+
+    @Test
+    public void methodSummaryTryTest() {
+        String code = """
+                public final class Main {
+                    @Positive
+                    int tryCatch(int x) {
+                        try {
+                            return x;
+                        } catch (RuntimeException e) {
+                            return 1;
+                        }
+                    }
+
+                    void test() {
+                        int a = tryCatch(5);
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        VariableDeclarator a = getVariable(compiled, "a");
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        Assertions.assertEquals(new IntegerRange(1, 5), variablesState.getVariable(a));
+    }
+
+    @Test
+    public void methodSummaryOverrideTest() {
+        String code = """
+                public class Main {
+                    static class A {
+                        int get() {
+                            return 1;
+                        }
+
+                        final int getFinal() {
+                            return 1;
+                        }
+                    }
+
+                    static class B extends A {
+                        @Override
+                        int get() {
+                            return 0;
+                        }
+                    }
+
+                    void test(A a) {
+                        int x = a.get();
+                        int y = a.getFinal();
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        VariableDeclarator x = getVariable(compiled, "x");
+        VariableDeclarator y = getVariable(compiled, "y");
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        // get() may run the body of B.get(), so the value of the return type is used
+        Assertions.assertEquals(new IntegerRange(Integer.MIN_VALUE, Integer.MAX_VALUE), variablesState.getVariable(x));
+        Assertions.assertEquals(new IntegerRange(1), variablesState.getVariable(y));
+    }
+
+    @Test
+    public void methodSummaryOptionsTest() {
+        String code = """
+                public class Main {
+                    static int sum() {
+                        int s = 0;
+                        for (int i = 0; i < 10; i++) {
+                            s += 1;
+                        }
+                        return s;
+                    }
+
+                    void test() {
+                        int a = sum();
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        VariableDeclarator a = getVariable(compiled, "a");
+        AnalysisVisitor visitor = new AnalysisVisitor("test");
+        visitor.setWideningDelay(25);
+        compiled.accept(visitor, analysisState);
+        // The summary is analyzed with the widening delay of the caller
+        Assertions.assertEquals(new IntegerRange(10), variablesState.getVariable(a));
+    }
 }
@@ -60,4 +60,25 @@ public class ObjectTest {
         Assertions.assertTrue(valB.canBeNull());
         Assertions.assertEquals(0, analysisState.getErrorMap().size());
     }
+
+    @Test
+    public void caughtObjectTest() {
+        String code = """
+                public class Main {
+                    int test(int x) {
+                        try {
+                            x = 10 / x;
+                        } catch (ArithmeticException e) {
+                            x = 0;
+                        }
+                        Object a = new Object();
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        // The caught exception is not null, without changing the value of other objects
+        Assertions.assertTrue(variablesState.getVariable(getVariable(compiled, "a")).canBeNull());
+        Assertions.assertTrue(ExtendableObjectValue.VALUE.canBeNull());
+    }
 }
@@ -0,0 +1,90 @@
+package analysis.visitor;
+
+import analysis.model.AnalysisState;
+import analysis.model.VariablesState;
+import analysis.values.IntegerRange;
+import com.github.javaparser.ast.CompilationUnit;
+import logger.AnalysisLogger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static analysis.visitor.VisitorTestUtils.*;
+
+public class SwitchStatementTest {
+    @BeforeEach
+    public void runBefore() {
+        AnalysisLogger.setLog(false);
+    }
+
+    @Test
+    public void fallThroughTest() {
+        String code = """
+                public class Main {
+                    void test(int x) {
+                        int y = 0;
+                        switch (x) {
+                            case 1:
+                                y = 1;
+                            case 2:
+                                y = y + 10;
+                                break;
+                            default:
+                                y = 5;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        Assertions.assertEquals(new IntegerRange(5, 11), analysisState.getVariablesState().getVariable(getVariable(compiled, "y")));
+    }
+
+    @Test
+    public void arrowTest() {
+        String code = """
+                public class Main {
+                    void test(int x) {
+                        int y = 0;
+                        switch (x) {
+                            case 1 -> y = 3;
+                            case 2 -> {
+                                y = 4;
+                            }
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        // Arrow entries do not fall through, and the switch has no default entry
+        Assertions.assertEquals(new IntegerRange(0, 4), analysisState.getVariablesState().getVariable(getVariable(compiled, "y")));
+    }
+
+    @Test
+    public void loopTest() {
+        String code = """
+                public class Main {
+                    void test(int x) {
+                        int y = 0;
+                        for (int i = 0; i < 3; i++) {
+                            switch (x) {
+                                case 1:
+                                    continue;
+                                default:
+                                    y = y + 1;
+                            }
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        AnalysisVisitor visitor = new AnalysisVisitor("test");
+        visitor.setWideningDelay(5);
+        compiled.accept(visitor, analysisState);
+        Assertions.assertEquals(new IntegerRange(0, 3), analysisState.getVariablesState().getVariable(getVariable(compiled, "y")));
+    }
+}
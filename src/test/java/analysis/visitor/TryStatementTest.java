@@ -0,0 +1,171 @@
+package analysis.visitor;
+
+import analysis.model.AnalysisState;
+import analysis.model.VariablesState;
+import analysis.values.IntegerRange;
+import com.github.javaparser.ast.CompilationUnit;
+import logger.AnalysisLogger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static analysis.visitor.VisitorTestUtils.*;
+
+public class TryStatementTest {
+    @BeforeEach
+    public void runBefore() {
+        AnalysisLogger.setLog(false);
+    }
+
+    @Test
+    public void checkedThrowTest() {
+        String code = """
+                public class Main {
+                    void test(int x) {
+                        int y = 0;
+                        try {
+                            y = 1;
+                            if (x > 5) throw new java.io.IOException();
+                            y = 2;
+                        } catch (java.io.IOException e) {
+                            String message = e.getMessage();
+                            y = y + 10;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        // The catch block is only entered from the throw statement
+        Assertions.assertEquals(new IntegerRange(2, 11), analysisState.getVariablesState().getVariable(getVariable(compiled, "y")));
+        // The caught exception is never null
+        Assertions.assertTrue(analysisState.getErrorMap().isEmpty());
+    }
+
+    @Test
+    public void methodCallThrowTest() {
+        String code = """
+                public class Main {
+                    void test() {
+                        int y = 0;
+                        try {
+                            y = 1;
+                            read();
+                            y = 2;
+                        } catch (java.io.IOException e) {
+                            y = y + 10;
+                        }
+                    }
+
+                    void read() throws java.io.IOException {
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        Assertions.assertEquals(new IntegerRange(2, 11), analysisState.getVariablesState().getVariable(getVariable(compiled, "y")));
+    }
+
+    @Test
+    public void runtimeExceptionTest() {
+        String code = """
+                public class Main {
+                    void test(int x) {
+                        int y = 0;
+                        try {
+                            y = 10 / x;
+                            y = 5;
+                        } catch (ArithmeticException e) {
+                            y = y + 20;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        // Runtime exceptions may be thrown by any statement of the try block
+        Assertions.assertEquals(new IntegerRange(5, 25), analysisState.getVariablesState().getVariable(getVariable(compiled, "y")));
+    }
+
+    @Test
+    public void runtimeExceptionStatementStateTest() {
+        String code = """
+                public class Main {
+                    void test(@Min(value = 1) @Max(value = 5) int x, int z) {
+                        int r = 0;
+                        try {
+                            x = 0;
+                            r = 10 / z;
+                            x = 1;
+                        } catch (ArithmeticException e) {
+                            int c = x;
+                            r = 10 / x;
+                        }
+                    }
+                }
+                """;
+        for (boolean useControlFlowGraph : new boolean[]{false, true}) {
+            CompilationUnit compiled = compile(code);
+            AnalysisState analysisState = new AnalysisState(new VariablesState());
+            AnalysisVisitor visitor = new AnalysisVisitor("test");
+            visitor.setUseControlFlowGraph(useControlFlowGraph);
+            compiled.accept(visitor, analysisState);
+            // The catch block is entered from the state before each statement of the try block (x = 0 before 10 / z)
+            Assertions.assertEquals(new IntegerRange(0, 5), analysisState.getVariablesState().getVariable(getVariable(compiled, "c")));
+            Assertions.assertTrue(analysisState.getErrorMap().keySet().stream().anyMatch(node -> node.toString().equals("r = 10 / x;")));
+        }
+    }
+
+    @Test
+    public void uncaughtTest() {
+        String code = """
+                public class Main {
+                    void test(int x) throws java.io.IOException {
+                        int y = 0;
+                        try {
+                            if (x > 5) throw new java.io.IOException();
+                            y = 1;
+                        } catch (IllegalStateException e) {
+                            y = 2;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        // The IOException leaves the method, and the catch block is entered from the start & end of the try block
+        Assertions.assertEquals(new IntegerRange(1, 2), analysisState.getVariablesState().getVariable(getVariable(compiled, "y")));
+    }
+
+    @Test
+    public void finallyTest() {
+        String code = """
+                public class Main {
+                    void test(int x) {
+                        int y = 0;
+                        int z = 0;
+                        while (x > 0) {
+                            try {
+                                y = 1;
+                                if (x > 5) break;
+                                y = 2;
+                            } finally {
+                                z = 10 / y;
+                            }
+                            x = x - 1;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        // The finally block runs after the try block, and before the break (without updating its state)
+        Assertions.assertNull(getVariableAssignmentErrors(analysisState.getErrorMap(), "z"));
+        Assertions.assertEquals(new IntegerRange(0, 5), analysisState.getVariablesState().getVariable(getVariable(compiled, "z")));
+    }
+}
@@ -42,7 +42,9 @@ public class WhileStatementTest {
         AnalysisState analysisState = new AnalysisState(varState);
         varState.setVariable(a, new IntegerRange(5, 10));
         varState.setVariable(b, new IntegerRange(2, 5));
-        whileStatement.accept(new AnalysisVisitor(""), analysisState);
+        AnalysisVisitor visitor = new AnalysisVisitor("");
+        visitor.setWideningDelay(25);
+        whileStatement.accept(visitor, analysisState);
         Assertions.assertEquals(new IntegerRange(41, 54), varState.getVariable(a));
         Assertions.assertEquals(new IntegerRange(50, 54), varState.getVariable(b));
     }
@@ -136,9 +138,16 @@ public class WhileStatementTest {
         VariableDeclarator i = getVariable(compiled, "i");
         VariableDeclarator a = getVariable(compiled, "a");
         AnalysisState analysisState = new AnalysisState(varState);
-        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        AnalysisVisitor visitor = new AnalysisVisitor("test");
+        visitor.setWideningDelay(15);
+        compiled.accept(visitor, analysisState);
         Assertions.assertEquals(new IntegerRange(10), varState.getVariable(i));
         Assertions.assertEquals(new IntegerRange(11), varState.getVariable(a));
+
+        // After widening, the continue still stops a at the bound of the condition
+        varState.clear();
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        Assertions.assertEquals(new IntegerRange(11), varState.getVariable(a));
     }
 
     @Test
@@ -204,10 +213,108 @@ public class WhileStatementTest {
         VariableDeclarator sum = getVariable(compiled, "sum");
         VariablesState varState = new VariablesState();
         AnalysisState analysisState = new AnalysisState(varState);
-        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        AnalysisVisitor visitor = new AnalysisVisitor("test");
+        visitor.setWideningDelay(250);
+        compiled.accept(visitor, analysisState);
         Assertions.assertFalse(varState.isDomainEmpty());
         Assertions.assertEquals(new IntegerRange(-10), varState.getVariable(i));
         Assertions.assertEquals(new IntegerRange(210), varState.getVariable(sum));
         Assertions.assertEquals(BooleanValue.FALSE, varState.getVariable(up));
     }
+
+    @Test
+    public void whileWideningTest() {
+        String code = """
+                public class Main {
+                    void main(int a) {
+                        int i = 0;
+                        while (i < 1000) {
+                            i = i + 1;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        WhileStmt whileStatement = getWhileStatements(compiled).get(0);
+        VariableDeclarator i = getVariable(compiled, "i");
+        VariablesState varState = new VariablesState();
+        AnalysisState analysisState = new AnalysisState(varState);
+        varState.setVariable(i, new IntegerRange(0, 0));
+        AnalysisVisitor visitor = new AnalysisVisitor("");
+        visitor.setWideningDelay(5);
+        whileStatement.accept(visitor, analysisState);
+        Assertions.assertEquals(new IntegerRange(1000, 1000), varState.getVariable(i));
+    }
+
+    @Test
+    public void whileThresholdTest() {
+        String code = """
+                public class Main {
+                    void main(int n) {
+                        int i = 0;
+                        while (i < 1000) {
+                            i = i + 1;
+                        }
+                        int s = 0;
+                        for (int j = 0; j < n; j++) {
+                            s = s + 1;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("main"), analysisState);
+        // The counters are widened to the bound of their condition, instead of running 1000 iterations
+        Assertions.assertEquals(new IntegerRange(1000), analysisState.getVariablesState().getVariable(getVariable(compiled, "i")));
+        Assertions.assertEquals(new IntegerRange(0, Integer.MAX_VALUE), analysisState.getVariablesState().getVariable(getVariable(compiled, "s")));
+    }
+
+    @Test
+    public void whileWideningDecreasingTest() {
+        String code = """
+                public class Main {
+                    void main(int a) {
+                        int i = 500;
+                        while (i > -20) {
+                            i = i - 3;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        WhileStmt whileStatement = getWhileStatements(compiled).get(0);
+        VariableDeclarator i = getVariable(compiled, "i");
+        VariablesState varState = new VariablesState();
+        AnalysisState analysisState = new AnalysisState(varState);
+        varState.setVariable(i, new IntegerRange(500, 500));
+        AnalysisVisitor visitor = new AnalysisVisitor("");
+        visitor.setWideningDelay(0);
+        whileStatement.accept(visitor, analysisState);
+        Assertions.assertEquals(new IntegerRange(-22, -20), varState.getVariable(i));
+    }
+
+    @Test
+    public void doWhileTest() {
+        String code = """
+                public class Main {
+                    void main(int a) {
+                        int b = 0;
+                        do {
+                            b = b + 1;
+                        } while (b < 5);
+                        int c = 0;
+                        do {
+                            c = c + 1;
+                        } while (false);
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("main"), analysisState);
+        Assertions.assertEquals(new IntegerRange(5, 5), analysisState.getVariablesState().getVariable(getVariable(compiled, "b")));
+        // The body runs once before the condition is checked
+        Assertions.assertEquals(new IntegerRange(1, 1), analysisState.getVariablesState().getVariable(getVariable(compiled, "c")));
+    }
 }
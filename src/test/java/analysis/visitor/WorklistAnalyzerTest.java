@@ -0,0 +1,254 @@
+package analysis.visitor;
+
+import analysis.model.AnalysisError;
+import analysis.model.AnalysisState;
+import analysis.model.EndState;
+import analysis.model.VariablesState;
+import analysis.values.IntegerRange;
+import analysis.values.PossibleValues;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import logger.AnalysisLogger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static analysis.visitor.VisitorTestUtils.*;
+
+/**
+ * The control flow graph analysis must find the same values and errors as the AST analysis
+ * (for code where the loop invariant is as precise as the iterations)
+ */
+public class WorklistAnalyzerTest {
+    @BeforeEach
+    public void runBefore() {
+        AnalysisLogger.setLog(false);
+    }
+
+    @Test
+    public void ifElseTest() {
+        assertSameResults("""
+                public class Main {
+                    int test(int x, int y) {
+                        int z = 0;
+                        if (x > 5) {
+                            z = x * 2;
+                            if (y > 3) z = z / (y - 4);
+                        } else {
+                            z = 10 / (x + 5);
+                        }
+                        return z + y;
+                    }
+                }
+                """);
+    }
+
+    @Test
+    public void loopTest() {
+        assertSameResults("""
+                public class Main {
+                    int test(int x) {
+                        int total = 0;
+                        for (int i = 0; i < 10; i++) {
+                            if (x > i) continue;
+                            if (x < -5) break;
+                            total = 10 / (i + 1);
+                        }
+                        int j = 0;
+                        while (j < 1000) {
+                            j = j + 1;
+                        }
+                        return total + j;
+                    }
+                }
+                """);
+    }
+
+    @Test
+    public void returnAnnotationTest() {
+        assertSameResults("""
+                public class Main {
+                    @Positive
+                    int test(int x) {
+                        if (x > 3) {
+                            return x;
+                        }
+                        while (x < 10) {
+                            if (x == 5) return x - 10;
+                            x = x + 1;
+                        }
+                        return x;
+                    }
+                }
+                """);
+    }
+
+    @Test
+    public void switchTest() {
+        assertSameResults("""
+                public class Main {
+                    int test(int x, int y) {
+                        int z = 0;
+                        switch (x) {
+                            case 1:
+                                z = 5;
+                            case 2:
+                                z = z + 1;
+                                break;
+                            case 3 -> z = 10 / y;
+                            default -> {
+                                if (y > 0) return y;
+                                z = 20;
+                            }
+                        }
+                        return z;
+                    }
+                }
+                """);
+    }
+
+    @Test
+    public void forEachTest() {
+        assertSameResults("""
+                public class Main {
+                    int test(int[] values, String[] names) {
+                        int total = 0;
+                        for (int value : values) {
+                            if (value < 0) continue;
+                            total = 10 / (value + 1);
+                        }
+                        int[] empty = new int[0];
+                        for (int value : empty) {
+                            total = 10 / value;
+                        }
+                        for (String name : names) {
+                            if (name == null) break;
+                        }
+                        return total;
+                    }
+                }
+                """);
+    }
+
+    @Test
+    public void tryCatchTest() {
+        assertSameResults("""
+                public class Main {
+                    int test(int x) {
+                        int y = 0;
+                        try {
+                            y = 1;
+                            if (x > 5) throw new java.io.IOException();
+                            read();
+                            y = 2;
+                        } catch (java.io.IOException e) {
+                            y = y + 10;
+                        }
+                        int z = 0;
+                        try {
+                            z = 10 / x;
+                            z = 5;
+                        } catch (ArithmeticException e) {
+                            z = z + 20;
+                        }
+                        return y + z;
+                    }
+
+                    void read() throws java.io.IOException {
+                    }
+                }
+                """);
+    }
+
+    @Test
+    public void finallyTest() {
+        String code = """
+                public class Main {
+                    void test(int x) {
+                        int y = 0;
+                        int z = 0;
+                        while (x > 0) {
+                            try {
+                                y = 1;
+                                if (x > 5) break;
+                                y = 2;
+                                if (x > 3) throw new IllegalStateException();
+                            } finally {
+                                z = 10 / y;
+                            }
+                            x = x - 1;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        AnalysisVisitor visitor = new AnalysisVisitor("test");
+        visitor.setUseControlFlowGraph(true);
+        compiled.accept(visitor, analysisState);
+        // The finally block runs after the try block, for the exception, and before the break (updating its state)
+        Assertions.assertNull(getVariableAssignmentErrors(analysisState.getErrorMap(), "z"));
+        Assertions.assertEquals(new IntegerRange(0, 10), analysisState.getVariablesState().getVariable(getVariable(compiled, "z")));
+        Assertions.assertEquals(new IntegerRange(0, 2), analysisState.getVariablesState().getVariable(getVariable(compiled, "y")));
+    }
+
+    @Test
+    public void wideningTest() {
+        String code = """
+                public class Main {
+                    void test() {
+                        int j = 0;
+                        while (j < 1000) {
+                            j = j + 1;
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        AnalysisVisitor visitor = new AnalysisVisitor("test");
+        visitor.setUseControlFlowGraph(true);
+        visitor.setWideningDelay(10);
+        compiled.accept(visitor, analysisState);
+        Assertions.assertEquals(new IntegerRange(1000), analysisState.getVariablesState().getVariable(getVariable(compiled, "j")));
+
+        // With the default delay, the loop header is widened to the bound of the condition
+        analysisState = new AnalysisState(new VariablesState());
+        visitor = new AnalysisVisitor("test");
+        visitor.setUseControlFlowGraph(true);
+        compiled.accept(visitor, analysisState);
+        Assertions.assertEquals(new IntegerRange(1000), analysisState.getVariablesState().getVariable(getVariable(compiled, "j")));
+    }
+
+    private static void assertSameResults(String code) {
+        Assertions.assertEquals(analyze(code, false), analyze(code, true));
+    }
+
+    /**
+     * Analyze the method and render its returned values, final state & errors
+     */
+    private static List<String> analyze(String code, boolean useControlFlowGraph) {
+        CompilationUnit compiled = compile(code);
+        MethodDeclaration dec = compiled.findFirst(MethodDeclaration.class).orElseThrow();
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        AnalysisVisitor visitor = new AnalysisVisitor("test");
+        visitor.setUseControlFlowGraph(useControlFlowGraph);
+        EndState endState = dec.accept(visitor, analysisState);
+        List<String> result = new ArrayList<>();
+        for (PossibleValues value : endState.returnValues) result.add("return " + value);
+        result.add(analysisState.getVariablesState().toFormattedString());
+        for (Map.Entry<Node, Set<AnalysisError>> entry : analysisState.getErrorMap().entrySet()) {
+            for (AnalysisError error : entry.getValue()) {
+                result.add(entry.getKey().getBegin().map(Object::toString).orElse("") + " " + error.getMessage());
+            }
+        }
+        result.sort(null);
+        return result;
+    }
+}
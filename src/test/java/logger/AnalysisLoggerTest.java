@@ -0,0 +1,129 @@
+package logger;
+
+import analysis.model.AnalysisState;
+import analysis.model.VariablesState;
+import analysis.visitor.AnalysisVisitor;
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static analysis.visitor.VisitorTestUtils.compile;
+
+public class AnalysisLoggerTest {
+    private static final String CODE = """
+            public class Main {
+                void test(int b) {
+                    int a = 0;
+                    if (b > 0) {
+                        a = 10 / b;
+                    } else {
+                        a = 10 / 0;
+                    }
+                    while (a < 3) {
+                        a++;
+                    }
+                }
+            }
+            """;
+
+    @BeforeEach
+    public void runBefore() {
+        AnalysisLogger.setLog(false);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        AnalysisLogger.stopTrace();
+    }
+
+    @Test
+    public void traceEventsTest() {
+        TraceBuffer trace = AnalysisLogger.startTrace(AnalysisLogger.DEFAULT_TRACE_CAPACITY);
+        CompilationUnit compiled = compile(CODE);
+        compiled.accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+
+        List<TraceEvent> events = trace.getEvents();
+        Assertions.assertEquals(0, trace.getDropped());
+        Assertions.assertTrue(events.stream().anyMatch(e -> e.kind() == TraceEvent.Kind.BRANCH && e.label().equals("IF TRUE")));
+        Assertions.assertTrue(events.stream().anyMatch(e -> e.kind() == TraceEvent.Kind.MERGE && e.label().equals("IF MERGED")));
+        Assertions.assertTrue(events.stream().anyMatch(e -> e.kind() == TraceEvent.Kind.LOOP_ITERATION && e.iteration() == 2));
+
+        // States are snapshots taken when recorded: the state of the first statement is not changed by the statements after it
+        TraceEvent first = events.stream().filter(e -> e.kind() == TraceEvent.Kind.STATE && e.line() == 3).findFirst().orElseThrow();
+        Assertions.assertEquals("b -> [-2147483648,2147483647], a -> [0]", first.message());
+
+        TraceEvent error = events.stream().filter(e -> e.line() == 7 && !e.errors().isEmpty()).findFirst().orElseThrow();
+        Assertions.assertEquals(
+                "{\"kind\": \"STATE\", \"line\": 7, \"atEnd\": false, \"node\": \"a = 10 / 0;\", \"state\": \"empty domain\", "
+                        + "\"errors\": [{\"message\": \"ArithmeticException: 10 / 0\", \"definite\": true}]}",
+                error.toJson()
+        );
+        Assertions.assertEquals(events.size(), trace.renderJsonLines().split("\n").length);
+        Assertions.assertTrue(trace.renderText().contains("[ 4] if (b > 0) {         | IF TRUE: b -> [1,2147483647], a -> [0]"));
+    }
+
+    @Test
+    public void traceCopiesTest() {
+        AnalysisProfiler.reset();
+        AnalysisProfiler.setProfile(true);
+        compile(CODE).accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+        long copies = AnalysisProfiler.getCount(AnalysisProfiler.Counter.STATE_COPIES);
+
+        // Recording the states does not copy them
+        AnalysisProfiler.reset();
+        AnalysisLogger.startTrace(AnalysisLogger.DEFAULT_TRACE_CAPACITY);
+        compile(CODE).accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+        AnalysisProfiler.setProfile(false);
+        Assertions.assertEquals(copies, AnalysisProfiler.getCount(AnalysisProfiler.Counter.STATE_COPIES));
+        AnalysisProfiler.reset();
+    }
+
+    @Test
+    public void ringBufferTest() {
+        TraceBuffer trace = AnalysisLogger.startTrace(5);
+        CompilationUnit compiled = compile(CODE);
+        compiled.accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+
+        List<TraceEvent> events = trace.getEvents();
+        Assertions.assertEquals(5, events.size());
+        Assertions.assertTrue(trace.getDropped() > 0);
+        Assertions.assertEquals("WHILE EXIT STATE", events.get(events.size() - 1).label());
+    }
+
+    @Test
+    public void disabledTest() {
+        TraceBuffer trace = AnalysisLogger.startTrace(10);
+        AnalysisLogger.stopTrace();
+        CompilationUnit compiled = compile(CODE);
+        compiled.accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+        Assertions.assertNull(AnalysisLogger.getTrace());
+        Assertions.assertTrue(trace.getEvents().isEmpty());
+    }
+
+    @Test
+    public void summaryEventsTest() {
+        TraceBuffer trace = AnalysisLogger.startTrace(AnalysisLogger.DEFAULT_TRACE_CAPACITY);
+        CompilationUnit compiled = compile("""
+                public class Main {
+                    private int callee(int b) {
+                        int c = b + 1;
+                        return c;
+                    }
+
+                    void test() {
+                        int a = callee(1);
+                    }
+                }
+                """);
+        compiled.accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+
+        // The statements of the called method are analyzed for its summary, but not recorded
+        List<TraceEvent> events = trace.getEvents();
+        Assertions.assertTrue(events.stream().anyMatch(e -> e.line() == 8));
+        Assertions.assertTrue(events.stream().noneMatch(e -> e.line() >= 2 && e.line() <= 5));
+    }
+}
@@ -0,0 +1,118 @@
+package logger;
+
+import analysis.model.AnalysisState;
+import analysis.model.VariablesState;
+import analysis.visitor.AnalysisVisitor;
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static analysis.visitor.VisitorTestUtils.compile;
+
+public class AnalysisProfilerTest {
+    @BeforeEach
+    public void runBefore() {
+        AnalysisLogger.setLog(false);
+        AnalysisProfiler.reset();
+        AnalysisProfiler.setProfile(true);
+    }
+
+    @AfterEach
+    public void runAfter() {
+        AnalysisProfiler.setProfile(false);
+        AnalysisProfiler.reset();
+    }
+
+    @Test
+    public void profileLoopTest() {
+        String code = """
+                public class Main {
+                    void test() {
+                        int a = 0;
+                        while (a < 10) {
+                            a++;
+                        }
+                        if (a > 5) {
+                            a = "\\"".length();
+                        }
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        compiled.accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+
+        Assertions.assertTrue(AnalysisProfiler.getCount(AnalysisProfiler.Counter.STATE_COPIES) > 0);
+        Assertions.assertTrue(AnalysisProfiler.getCount(AnalysisProfiler.Counter.STATE_MERGES) > 0);
+        Assertions.assertTrue(AnalysisProfiler.getCount(AnalysisProfiler.Counter.RESOLUTIONS) > 0);
+        Assertions.assertEquals(1, AnalysisProfiler.getCount(AnalysisProfiler.Counter.METHOD_CALLS));
+
+        String json = AnalysisProfiler.toJson();
+        Assertions.assertTrue(json.contains("{\"name\": \"WHILE (Main:4 in test)\", \"count\": 1, \"iterations\": 7, \"timeNanos\": "));
+        Assertions.assertTrue(json.contains("{\"name\": \"a < 10 (Main:4 in test)\", \"count\": 7, \"timeNanos\": "));
+        Assertions.assertTrue(json.contains("{\"name\": \"IfStmt\", \"count\": 1, \"timeNanos\": "));
+        Assertions.assertTrue(json.contains("\"name\": \"ExpressionStmt\", \"count\": 9"));
+    }
+
+    @Test
+    public void profileConditionsTest() {
+        CompilationUnit compiled = compile("""
+                public class Main {
+                    void test(int a) {
+                        if (a > 5) {
+                            a = 0;
+                        }
+                        if (a > 5) {
+                            a = 1;
+                        }
+                    }
+                }
+                """);
+        compiled.accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+
+        // Equal conditions are profiled separately
+        String json = AnalysisProfiler.toJson();
+        Assertions.assertTrue(json.contains("{\"name\": \"a > 5 (Main:3 in test)\", \"count\": 1, \"timeNanos\": "));
+        Assertions.assertTrue(json.contains("{\"name\": \"a > 5 (Main:6 in test)\", \"count\": 1, \"timeNanos\": "));
+    }
+
+    @Test
+    public void profileLoopFilesTest() {
+        String code = """
+                public class %s {
+                    void test() {
+                        int a = 0;
+                        while (a < 10) {
+                            a++;
+                        }
+                    }
+                }
+                """;
+        compile(code.formatted("A")).accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+        compile(code.formatted("B")).accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+
+        // Loops at the same line of different files are profiled separately
+        String json = AnalysisProfiler.toJson();
+        Assertions.assertTrue(json.contains("{\"name\": \"WHILE (A:4 in test)\", \"count\": 1, \"iterations\": 7, "));
+        Assertions.assertTrue(json.contains("{\"name\": \"WHILE (B:4 in test)\", \"count\": 1, \"iterations\": 7, "));
+    }
+
+    @Test
+    public void disabledTest() {
+        AnalysisProfiler.setProfile(false);
+        CompilationUnit compiled = compile("""
+                public class Main {
+                    void test() {
+                        int a = 0;
+                        while (a < 10) {
+                            a++;
+                        }
+                    }
+                }
+                """);
+        compiled.accept(new AnalysisVisitor("test"), new AnalysisState(new VariablesState()));
+        Assertions.assertEquals(0, AnalysisProfiler.getCount(AnalysisProfiler.Counter.STATE_COPIES));
+        Assertions.assertFalse(AnalysisProfiler.toJson().contains("WHILE"));
+    }
+}
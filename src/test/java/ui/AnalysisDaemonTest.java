@@ -0,0 +1,127 @@
+package ui;
+
+import logger.AnalysisLogger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class AnalysisDaemonTest {
+    private static final String SOURCE = """
+            public final class A {
+                int divide(int a) {
+                    return 10 / a;
+                }
+                int callee(int a) {
+                    return a;
+                }
+                int caller() {
+                    int b = callee(0);
+                    return 10 / b;
+                }
+            }
+            """;
+
+    @TempDir
+    Path tempDir;
+    Path file;
+    AnalysisDaemon daemon;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        AnalysisLogger.setLog(false);
+        file = tempDir.resolve("A.java");
+        Files.writeString(file, SOURCE);
+        daemon = new AnalysisDaemon();
+    }
+
+    @Test
+    public void reuseUnchangedFileTest() throws IOException {
+        List<MethodReport> reports = daemon.analyze(file, "divide", null);
+        Assertions.assertEquals(1, reports.size());
+        Assertions.assertEquals(1, reports.get(0).getErrorCount());
+        Assertions.assertEquals(1, daemon.getAnalyzedMethods());
+
+        reports = daemon.analyze(file, "divide", null);
+        Assertions.assertEquals(1, reports.get(0).getErrorCount());
+        Assertions.assertEquals(1, daemon.getAnalyzedMethods());
+    }
+
+    @Test
+    public void overloadDiagramTest() throws IOException {
+        Path overloads = tempDir.resolve("B.java");
+        Files.writeString(overloads, """
+                public class B {
+                    int test(int x) {
+                        if (x > 0) return 10 / x;
+                        return 0;
+                    }
+                    int test(int x, int y) {
+                        return 10 / x;
+                    }
+                }
+                """);
+        Path output = tempDir.resolve("B.puml");
+        List<MethodReport> reports = daemon.analyze(overloads, "test", output.toString());
+        Assertions.assertEquals(0, reports.get(0).getErrorCount());
+        Assertions.assertEquals(1, reports.get(1).getErrorCount());
+        // The diagram of test(int) does not get the errors of test(int, int)
+        Assertions.assertFalse(Files.readString(output).contains("ArithmeticException"));
+    }
+
+    @Test
+    public void reanalyzeChangedMethodTest() throws IOException {
+        daemon.analyze(file, "divide", null);
+        daemon.analyze(file, "caller", null);
+        Assertions.assertEquals(2, daemon.getAnalyzedMethods());
+
+        // Changing divide does not change caller
+        Files.writeString(file, SOURCE.replace("return 10 / a;", "return 10 / (a + 1);"));
+        daemon.analyze(file, "caller", null);
+        Assertions.assertEquals(2, daemon.getAnalyzedMethods());
+        List<MethodReport> reports = daemon.analyze(file, "divide", null);
+        Assertions.assertEquals(3, daemon.getAnalyzedMethods());
+        Assertions.assertEquals(1, reports.get(0).getErrorCount());
+    }
+
+    @Test
+    public void reanalyzeChangedDependencyTest() throws IOException {
+        List<MethodReport> reports = daemon.analyze(file, "caller", null);
+        Assertions.assertEquals(1, reports.get(0).getErrorCount());
+
+        Files.writeString(file, SOURCE.replace("return a;", "return a + 1;"));
+        reports = daemon.analyze(file, "caller", null);
+        Assertions.assertEquals(2, daemon.getAnalyzedMethods());
+        Assertions.assertEquals(0, reports.get(0).getErrorCount());
+    }
+
+    @Test
+    public void moveUnchangedMethodTest() throws IOException {
+        daemon.analyze(file, "divide", null);
+        Files.writeString(file, "\n\n" + SOURCE);
+        List<MethodReport> reports = daemon.analyze(file, "divide", null);
+        Assertions.assertEquals(1, daemon.getAnalyzedMethods());
+        Assertions.assertEquals(4, reports.get(0).getLine());
+        Assertions.assertTrue(reports.get(0).toFormattedString().contains("[5] POTENTIAL ArithmeticException"));
+    }
+
+    @Test
+    public void requestsTest() throws IOException {
+        String requests = "analyze " + file + " divide\nunknown\nquit\nanalyze " + file + " caller\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        daemon.run(new BufferedReader(new StringReader(requests)), new PrintStream(output, true, StandardCharsets.UTF_8));
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertTrue(lines[0].startsWith("File: "));
+        Assertions.assertEquals("[3] POTENTIAL ArithmeticException: 10 / a", lines[3]);
+        Assertions.assertEquals(AnalysisDaemon.END_OF_RESPONSE, lines[4]);
+        Assertions.assertEquals("Error: Unknown request: unknown", lines[5]);
+        Assertions.assertEquals(AnalysisDaemon.END_OF_RESPONSE, lines[6]);
+        Assertions.assertEquals(7, lines.length);
+    }
+}
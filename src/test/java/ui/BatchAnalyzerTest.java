@@ -0,0 +1,140 @@
+package ui;
+
+import logger.AnalysisLogger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BatchAnalyzerTest {
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void runBefore() throws IOException {
+        AnalysisLogger.setLog(false);
+        Path sourceDir = Files.createDirectories(tempDir.resolve("src/pkg"));
+        Files.writeString(sourceDir.resolve("A.java"), """
+                package pkg;
+                public class A {
+                    int divide(int a) {
+                        return 10 / a;
+                    }
+                    int safeDivide(int a) {
+                        if (a <= 0) return 0;
+                        return 10 / a;
+                    }
+                }
+                """);
+        Files.writeString(sourceDir.resolve("B.java"), """
+                package pkg;
+                public class B {
+                    abstract static class C {
+                        abstract void noBody();
+                    }
+                    void divideZero() {
+                        int a = 1 / 0;
+                    }
+                }
+                """);
+    }
+
+    @Test
+    public void analyzeAllTest() throws IOException {
+        Path outputDir = tempDir.resolve("out");
+        List<MethodReport> reports = new BatchAnalyzer(outputDir, null, false).analyze(tempDir.resolve("src"));
+        Assertions.assertEquals(3, reports.size());
+        Assertions.assertEquals(1, reports.get(0).getErrorCount());
+        Assertions.assertEquals("A.divide", reports.get(0).getMethodName());
+        Assertions.assertEquals(0, reports.get(1).getErrorCount());
+        Assertions.assertEquals(1, reports.get(2).getErrorCount());
+
+        Path report = outputDir.resolve("pkg/B/B.divideZero_L6.txt");
+        Assertions.assertTrue(Files.exists(report));
+        String content = Files.readString(report);
+        Assertions.assertTrue(content.contains("Errors: 1"));
+        Assertions.assertTrue(content.contains("[7] DEFINITE  ArithmeticException"));
+    }
+
+    @Test
+    public void analyzeGlobTest() throws IOException {
+        Path outputDir = tempDir.resolve("out");
+        List<MethodReport> reports = new BatchAnalyzer(outputDir, "A.*Divide", false).analyze(tempDir.resolve("src"));
+        Assertions.assertEquals(1, reports.size());
+        Assertions.assertEquals("A.safeDivide", reports.get(0).getMethodName());
+        Assertions.assertTrue(Files.exists(outputDir.resolve("pkg/A/A.safeDivide_L6.txt")));
+        Assertions.assertFalse(Files.exists(outputDir.resolve("pkg/A/A.divide_L3.txt")));
+    }
+
+    @Test
+    public void analyzeParallelTest() throws IOException {
+        for (int i = 0; i < 8; i++) {
+            Files.writeString(tempDir.resolve("src/pkg/D" + i + ".java"), """
+                    package pkg;
+                    public class D%d {
+                        int divide(int a, int b) {
+                            for (int i = 0; i < 100; i++) {
+                                a = a + i;
+                            }
+                            return b / (a - %d);
+                        }
+                    }
+                    """.formatted(i, i));
+        }
+        List<MethodReport> sequential = new BatchAnalyzer(tempDir.resolve("out1"), null, false, 1).analyze(tempDir.resolve("src"));
+        List<MethodReport> parallel = new BatchAnalyzer(tempDir.resolve("out2"), null, false, 4).analyze(tempDir.resolve("src"));
+        Assertions.assertEquals(11, parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            Assertions.assertEquals(sequential.get(i).toFormattedString(), parallel.get(i).toFormattedString());
+        }
+    }
+
+    @Test
+    public void cacheTest() throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        BatchAnalyzer first = new BatchAnalyzer(tempDir.resolve("out1"), null, false);
+        first.setCache(new ResultCache(cacheDir));
+        List<MethodReport> analyzed = first.analyze(tempDir.resolve("src"));
+        Assertions.assertEquals(0, first.getCache().getHits());
+        Assertions.assertEquals(3, first.getCache().getMisses());
+
+        // Move the methods of A down by a line, and change B.divideZero
+        Path fileA = tempDir.resolve("src/pkg/A.java");
+        Files.writeString(fileA, Files.readString(fileA).replace("public class A {", "public class A {\n"));
+        Path fileB = tempDir.resolve("src/pkg/B.java");
+        Files.writeString(fileB, Files.readString(fileB).replace("1 / 0", "1 / 2"));
+        BatchAnalyzer second = new BatchAnalyzer(tempDir.resolve("out2"), null, false);
+        second.setCache(new ResultCache(cacheDir));
+        List<MethodReport> reused = second.analyze(tempDir.resolve("src"));
+        Assertions.assertEquals(2, second.getCache().getHits());
+        Assertions.assertEquals(1, second.getCache().getMisses());
+        Assertions.assertEquals(analyzed.get(0).toFormattedString().replace("line 3", "line 4").replace("[4]", "[5]"),
+                reused.get(0).toFormattedString());
+        Assertions.assertEquals(0, reused.get(2).getErrorCount());
+        Assertions.assertTrue(Files.exists(tempDir.resolve("out2/pkg/A/A.divide_L4.txt")));
+    }
+
+    @Test
+    public void cacheOptionsTest() throws IOException {
+        Path cacheDir = tempDir.resolve("cache");
+        BatchAnalyzer first = new BatchAnalyzer(tempDir.resolve("out1"), null, false);
+        first.setCache(new ResultCache(cacheDir));
+        List<MethodReport> analyzed = first.analyze(tempDir.resolve("src"));
+
+        // Results of the other engine are not reused
+        BatchAnalyzer second = new BatchAnalyzer(tempDir.resolve("out2"), null, false);
+        second.setCache(new ResultCache(cacheDir));
+        second.setAnalysisOptions(Main.getAnalysisOptions(new String[]{"src", "out2", "--cfg"}));
+        List<MethodReport> reports = second.analyze(tempDir.resolve("src"));
+        Assertions.assertEquals(0, second.getCache().getHits());
+        Assertions.assertEquals(3, second.getCache().getMisses());
+        for (int i = 0; i < analyzed.size(); i++) {
+            Assertions.assertEquals(analyzed.get(i).toFormattedString(), reports.get(i).toFormattedString());
+        }
+    }
+}
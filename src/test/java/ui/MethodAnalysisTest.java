@@ -0,0 +1,182 @@
+package ui;
+
+import analysis.model.AnalysisState;
+import analysis.model.VariablesState;
+import analysis.values.IntegerIntervalSet;
+import analysis.visitor.AnalysisVisitor;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import logger.AnalysisLogger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.MethodIndex;
+import visualization.Diagram;
+import visualization.model.VisualizationState;
+import visualization.visitor.VisualizationVisitor;
+
+import java.io.IOException;
+
+import static analysis.visitor.VisitorTestUtils.compile;
+
+public class MethodAnalysisTest {
+    private static final String CODE = """
+            public class Main {
+                void other(int a) {
+                    a = 1 / a;
+                }
+                int test(int a, int[] b) {
+                    int total = 0;
+                    for (int i = 0; i < 5; i++) {
+                        if (a > i) continue;
+                        total = total + 10 / (a - i);
+                    }
+                    if (a > 100) {
+                        return b.length;
+                    } else {
+                        return total;
+                    }
+                }
+            }
+            """;
+
+    @BeforeEach
+    public void runBefore() {
+        AnalysisLogger.setLog(false);
+    }
+
+    @Test
+    public void sameAsSeparatePassesTest() {
+        CompilationUnit compiled = compile(CODE);
+        AnalysisState analysisState = new AnalysisState(new VariablesState());
+        compiled.accept(new AnalysisVisitor("test"), analysisState);
+        VisualizationState visualizationState = new VisualizationState(analysisState.getErrorMap());
+        compiled.accept(new VisualizationVisitor("test"), visualizationState);
+
+        MethodAnalysis analysis = MethodAnalysis.analyze(MethodIndex.findMethod(compile(CODE), "test"), true);
+        Assertions.assertEquals(visualizationState.diagram.getDiagramString(), analysis.diagram().getDiagramString());
+        Assertions.assertEquals(analysisState.getErrorMap().size(), analysis.errorMap().size());
+        Assertions.assertFalse(analysis.errorMap().isEmpty());
+    }
+
+    @Test
+    public void outlineTest() throws IOException {
+        String code = """
+                public class Main {
+                    int test(int a, int[] b) {
+                        int total = 0;
+                        int i = 0;
+                        while (i < 10) {
+                            if (i > 3) {
+                                total = total + 10 / (a - i);
+                            } else {
+                                total = total + 1;
+                            }
+                            i++;
+                        }
+                        do {
+                            total--;
+                        } while (total > 100);
+                        for (int j : new int[0]) {
+                            total = j;
+                        }
+                        for (int j = 0; j < 3; j++) {
+                            if (j > 1) break;
+                        }
+                        while (a > 5 && a < 3) {
+                            a = a / 0;
+                        }
+                        try {
+                            total = total / a;
+                        } catch (ArithmeticException e) {
+                            total = 0;
+                        }
+                        switch (a) {
+                            case 1:
+                                total = 2;
+                                break;
+                            default:
+                                total = 3;
+                        }
+                        if (a > 0) {
+                            return total;
+                        } else {
+                            throw new RuntimeException();
+                        }
+                        total = 1 / 0;
+                    }
+                }
+                """;
+        // The diagram drawn from the outline of the analysis is the same as the diagram drawn by walking the method
+        for (String[] options : new String[][]{{}, {"--parallel-branches", "1"}, {"--cfg"}}) {
+            String[] args = new String[options.length + 2];
+            args[0] = "Main.java";
+            args[1] = "test";
+            System.arraycopy(options, 0, args, 2, options.length);
+            MethodDeclaration method = MethodIndex.findMethod(compile(code), "test");
+            MethodAnalysis analysis = MethodAnalysis.analyze(method, true, Main.getAnalysisOptions(args));
+            Diagram expected = MethodAnalysis.createDiagram(method, analysis.errorMap());
+            Assertions.assertEquals(expected.getDiagramString(), analysis.diagram().getDiagramString());
+        }
+    }
+
+    @Test
+    public void noDiagramTest() {
+        MethodAnalysis analysis = MethodAnalysis.analyze(MethodIndex.findMethod(compile(CODE), "other"), false);
+        Assertions.assertNull(analysis.diagram());
+        Assertions.assertEquals(1, analysis.errorMap().size());
+    }
+
+    @Test
+    public void optionsTest() throws IOException {
+        AnalysisOptions options = Main.getAnalysisOptions(new String[]{"Main.java", "test", "--cfg"});
+        Assertions.assertTrue(options.createVisitor("test").isUseControlFlowGraph());
+        Assertions.assertFalse(AnalysisOptions.DEFAULT.createVisitor("test").isUseControlFlowGraph());
+        Assertions.assertEquals(0, options.createVisitor("test").getParallelBranchLines());
+
+        MethodAnalysis analysis = MethodAnalysis.analyze(MethodIndex.findMethod(compile(CODE), "test"), true, options);
+        MethodAnalysis expected = MethodAnalysis.analyze(MethodIndex.findMethod(compile(CODE), "test"), true);
+        Assertions.assertEquals(expected.diagram().getDiagramString(), analysis.diagram().getDiagramString());
+    }
+
+    @Test
+    public void parallelBranchesOptionTest() throws IOException {
+        AnalysisOptions options = Main.getAnalysisOptions(new String[]{"Main.java", "test", "--parallel-branches", "1"});
+        Assertions.assertEquals(1, options.createVisitor("test").getParallelBranchLines());
+        Assertions.assertThrows(IOException.class, () -> Main.getAnalysisOptions(new String[]{"Main.java", "test", "--parallel-branches", "-1"}));
+        Assertions.assertThrows(IOException.class, () -> Main.getAnalysisOptions(new String[]{"Main.java", "test", "--parallel-branches"}));
+
+        MethodAnalysis analysis = MethodAnalysis.analyze(MethodIndex.findMethod(compile(CODE), "test"), true, options);
+        MethodAnalysis expected = MethodAnalysis.analyze(MethodIndex.findMethod(compile(CODE), "test"), true);
+        Assertions.assertEquals(expected.diagram().getDiagramString(), analysis.diagram().getDiagramString());
+    }
+
+    @Test
+    public void wideningDelayOptionTest() throws IOException {
+        Assertions.assertEquals(AnalysisVisitor.DEFAULT_WIDENING_DELAY, AnalysisOptions.DEFAULT.createVisitor("test").getWideningDelay());
+        Assertions.assertEquals("", AnalysisOptions.DEFAULT.getFingerprint());
+        AnalysisOptions options = Main.getAnalysisOptions(new String[]{"Main.java", "test", "--widening-delay", "10"});
+        Assertions.assertEquals(10, options.createVisitor("test").getWideningDelay());
+        Assertions.assertNotEquals("", options.getFingerprint());
+        Assertions.assertThrows(IOException.class, () -> Main.getAnalysisOptions(new String[]{"Main.java", "test", "--widening-delay", "x"}));
+
+        // The loop of the method runs 5 times, so it is only run exactly with a longer delay
+        MethodAnalysis analysis = MethodAnalysis.analyze(MethodIndex.findMethod(compile(CODE), "test"), true, options);
+        MethodAnalysis expected = MethodAnalysis.analyze(MethodIndex.findMethod(compile(CODE), "test"), true);
+        Assertions.assertNotEquals(expected.errorMap(), analysis.errorMap());
+    }
+
+    @Test
+    public void intervalsOptionTest() throws IOException {
+        AnalysisOptions options = Main.getAnalysisOptions(new String[]{"Main.java", "test", "--intervals", "4", "--collapse", "hull"});
+        Assertions.assertEquals(new IntegerIntervalSet.Limit(4, IntegerIntervalSet.Collapse.HULL), options.intervalLimit());
+        Assertions.assertEquals(IntegerIntervalSet.Limit.DEFAULT, AnalysisOptions.DEFAULT.intervalLimit());
+        Assertions.assertTrue(options.getFingerprint().contains(" intervals 4 HULL"));
+        Assertions.assertThrows(IOException.class, () -> Main.getAnalysisOptions(new String[]{"Main.java", "test", "--intervals", "0"}));
+    }
+
+    @Test
+    public void methodNotFoundTest() {
+        Assertions.assertThrows(RuntimeException.class, () -> MethodIndex.findMethod(compile(CODE), "missing"));
+    }
+}
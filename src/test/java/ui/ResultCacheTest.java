@@ -0,0 +1,55 @@
+package ui;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ResultCacheTest {
+    @TempDir
+    Path tempDir;
+
+    private static final MethodDeclaration METHOD = StaticJavaParser.parse("""
+            public class A {
+                int test(int a) {
+                    return a;
+                }
+            }
+            """).findFirst(MethodDeclaration.class).orElseThrow();
+
+    @Test
+    public void longMessageTest() {
+        ResultCache cache = new ResultCache(tempDir);
+        String message = "x".repeat(100_000);
+        MethodReport report = MethodReport.createFailed(Path.of("A.java"), METHOD, new IllegalStateException(message));
+        Assertions.assertTrue(cache.store("key", report, null));
+
+        ResultCache.CachedResult cached = cache.load("key", Path.of("A.java"), METHOD);
+        Assertions.assertNotNull(cached);
+        Assertions.assertEquals(report.toFormattedString(), cached.report().toFormattedString());
+        Assertions.assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void storeFailureTest() throws IOException {
+        // The directory of the entries is a file, so nothing can be written
+        Path notDirectory = Files.writeString(tempDir.resolve("file"), "");
+        ResultCache cache = new ResultCache(notDirectory);
+        MethodReport report = MethodReport.createFailed(Path.of("A.java"), METHOD, new IllegalStateException());
+        Assertions.assertNull(cache.load("key", Path.of("A.java"), METHOD));
+        Assertions.assertFalse(cache.store("key", report, null));
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void toolVersionTest() {
+        // Hash of the class files of the analyzer, the same for the whole build
+        Assertions.assertEquals(64, ResultCache.getToolVersion().length());
+        Assertions.assertEquals(ResultCache.getToolVersion(), ResultCache.getToolVersion());
+    }
+}
@@ -0,0 +1,57 @@
+package utils;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class MethodIndexTest {
+    private static final String CODE = """
+            public class Main {
+                int test(int a) {
+                    return a;
+                }
+                int test(int a, String b) {
+                    return a;
+                }
+                static class Inner {
+                    void test() {
+                    }
+                    void other(int[] c) {
+                    }
+                }
+            }
+            """;
+
+    @Test
+    public void overloadTest() {
+        CompilationUnit compiled = StaticJavaParser.parse(CODE);
+        MethodIndex index = MethodIndex.forCompilationUnit(compiled);
+        Assertions.assertSame(index, MethodIndex.forCompilationUnit(compiled));
+
+        List<MethodDeclaration> overloads = index.getMethods("test");
+        Assertions.assertEquals(3, overloads.size());
+        // Source order, so the first method is the one previously found by a search of the tree
+        Assertions.assertEquals(compiled.findAll(MethodDeclaration.class, m -> m.getNameAsString().equals("test")), overloads);
+        Assertions.assertSame(overloads.get(0), MethodIndex.findMethod(compiled, "test"));
+        Assertions.assertSame(overloads.get(1), MethodIndex.findMethod(compiled, "test(int, String)"));
+        Assertions.assertSame(overloads.get(1), MethodIndex.findMethod(compiled, "test(int,String)"));
+    }
+
+    @Test
+    public void qualifiedTest() {
+        CompilationUnit compiled = StaticJavaParser.parse(CODE);
+        MethodIndex index = MethodIndex.forCompilationUnit(compiled);
+        Assertions.assertEquals(2, index.getMethods("Main.test").size());
+        Assertions.assertEquals(1, index.getMethods("Inner.test").size());
+        Assertions.assertEquals(index.getMethods("Inner.test"), index.getMethods("Main.Inner.test()"));
+        Assertions.assertEquals(1, index.getMethods("other(int[])").size());
+        // Enclosing classes are qualified from the innermost one
+        Assertions.assertTrue(index.getMethods("Main.other").isEmpty());
+        Assertions.assertTrue(index.getMethods("Other.test").isEmpty());
+        Assertions.assertThrows(RuntimeException.class, () -> MethodIndex.findMethod(compiled, "missing"));
+    }
+}
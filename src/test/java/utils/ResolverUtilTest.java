@@ -0,0 +1,37 @@
+package utils;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static analysis.visitor.VisitorTestUtils.compile;
+
+public class ResolverUtilTest {
+    @Test
+    public void resolveCachedTest() {
+        String code = """
+                public class Main {
+                    void main(int a) {
+                        int b = a + unknown;
+                    }
+                }
+                """;
+        CompilationUnit compiled = compile(code);
+        NameExpr a = compiled.findFirst(NameExpr.class, n -> n.getNameAsString().equals("a")).orElseThrow();
+        NameExpr unknown = compiled.findFirst(NameExpr.class, n -> n.getNameAsString().equals("unknown")).orElseThrow();
+
+        ResolvedValueDeclaration dec = ResolverUtil.resolve(a);
+        Assertions.assertEquals("a", dec.getName());
+        Assertions.assertSame(dec, ResolverUtil.resolve(a));
+        ResolvedType type = ResolverUtil.calculateResolvedType(a);
+        Assertions.assertTrue(type.isPrimitive());
+        Assertions.assertSame(type, ResolverUtil.calculateResolvedType(a));
+
+        Assertions.assertNull(ResolverUtil.resolveOrNull(unknown));
+        RuntimeException e = Assertions.assertThrows(RuntimeException.class, () -> ResolverUtil.resolve(unknown));
+        Assertions.assertSame(e, Assertions.assertThrows(RuntimeException.class, () -> ResolverUtil.resolve(unknown)));
+    }
+}
@@ -0,0 +1,104 @@
+package utils;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static analysis.visitor.VisitorTestUtils.compile;
+import static analysis.visitor.VisitorTestUtils.getParameter;
+
+public class TypeUtilTest {
+    private static final String CODE = """
+            import java.util.List;
+
+            public class Main {
+                class MyException extends IllegalStateException {
+                }
+
+                void test(int i, String s, Exception e, RuntimeException r, IllegalArgumentException a,
+                          MyException m, List<String> l, List<IllegalArgumentException> la) {
+                }
+            }
+            """;
+
+    private CompilationUnit compiled;
+
+    @BeforeEach
+    public void runBefore() {
+        compiled = compile(CODE);
+    }
+
+    private ResolvedType getType(String paramName) {
+        return getParameter(compiled, paramName).getType().resolve();
+    }
+
+    @Test
+    public void typeDeclarationTest() {
+        ResolvedReferenceTypeDeclaration dec = TypeUtil.getTypeDeclaration("java.lang.IllegalStateException");
+        Assertions.assertSame(dec, TypeUtil.getTypeDeclaration("java.lang.IllegalStateException"));
+        Assertions.assertSame(dec, TypeUtil.TYPE_DECLARATIONS.get("java.lang.IllegalStateException"));
+
+        ResolvedReferenceTypeDeclaration uncached = new ReflectionTypeSolver().solveType("java.lang.IllegalStateException");
+        Assertions.assertEquals(uncached.getQualifiedName(), dec.getQualifiedName());
+        Assertions.assertEquals(uncached.getAncestors().toString(), dec.getAncestors().toString());
+    }
+
+    @Test
+    public void isCacheableTest() {
+        Assertions.assertTrue(TypeUtil.isCacheable(getType("s")));
+        Assertions.assertTrue(TypeUtil.isCacheable(getType("a")));
+        Assertions.assertFalse(TypeUtil.isCacheable(getType("i")));
+        // Types declared in source files and types with type parameters are not cached
+        Assertions.assertFalse(TypeUtil.isCacheable(getType("m")));
+        Assertions.assertFalse(TypeUtil.isCacheable(getType("l")));
+        Assertions.assertFalse(TypeUtil.isCacheable(getType("la")));
+    }
+
+    @Test
+    public void runtimeExceptionTest() {
+        ResolvedReferenceTypeDeclaration runtimeException = TypeUtil.getRuntimeExceptionType();
+        for (String name : List.of("s", "e", "r", "a", "m", "l")) {
+            ResolvedType type = getType(name);
+            // Cached results (computed twice) are the same as the uncached results
+            boolean expected = runtimeException.isAssignableBy(type);
+            Assertions.assertEquals(expected, TypeUtil.isRuntimeException(type), name);
+            Assertions.assertEquals(expected, TypeUtil.isRuntimeException(type), name);
+        }
+        Assertions.assertTrue(TypeUtil.isRuntimeException(getType("m")));
+        Assertions.assertFalse(TypeUtil.isRuntimeException(getType("e")));
+        Assertions.assertFalse(TypeUtil.isRuntimeException(getType("i")));
+
+        Assertions.assertEquals(true, TypeUtil.RUNTIME_EXCEPTIONS.get("java.lang.IllegalArgumentException"));
+        Assertions.assertEquals(false, TypeUtil.RUNTIME_EXCEPTIONS.get("java.lang.Exception"));
+        Assertions.assertFalse(TypeUtil.RUNTIME_EXCEPTIONS.keySet().stream().anyMatch(k -> k.contains("MyException")));
+        Assertions.assertFalse(TypeUtil.RUNTIME_EXCEPTIONS.containsKey("java.util.List<java.lang.String>"));
+    }
+
+    @Test
+    public void assignableTest() {
+        List<String> names = List.of("s", "e", "r", "a", "m", "l", "la");
+        for (String toName : names) {
+            for (String fromName : names) {
+                ResolvedType to = getType(toName);
+                ResolvedType from = getType(fromName);
+                boolean expected = to.isAssignableBy(from);
+                Assertions.assertEquals(expected, TypeUtil.isAssignableBy(to, from), toName + " = " + fromName);
+                Assertions.assertEquals(expected, TypeUtil.isAssignableBy(to, from), toName + " = " + fromName);
+            }
+        }
+
+        Assertions.assertEquals(true, TypeUtil.ASSIGNABLE.get(
+                new TypeUtil.AssignableKey("java.lang.Exception", "java.lang.IllegalArgumentException")));
+        Assertions.assertEquals(false, TypeUtil.ASSIGNABLE.get(
+                new TypeUtil.AssignableKey("java.lang.IllegalArgumentException", "java.lang.Exception")));
+        Assertions.assertFalse(TypeUtil.ASSIGNABLE.keySet().stream()
+                .anyMatch(k -> k.to().contains("MyException") || k.from().contains("MyException")
+                        || k.to().contains("List") || k.from().contains("List")));
+    }
+}
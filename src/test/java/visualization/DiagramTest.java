@@ -1,8 +1,15 @@
 package visualization;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -163,4 +170,107 @@ public class DiagramTest {
         diagram.addEndDiagramNode();
         diagram.createDiagramPNG(outputLocation + "SwitchStatement.png");
     }
+
+    private void addLoopDiagram() {
+        List<Error> errors = new ArrayList<>();
+        errors.add(new Error(ErrorType.POTENTIAL, "ArithmeticException : 10 / x"));
+        diagram.addStartDiagramNode();
+        diagram.addNode(new DiagramNode("test(int x)", ErrorType.NONE, null));
+        diagram.addWhileForEachConditionalStartNode(new DiagramNode("x > 0", ErrorType.NONE, null));
+        diagram.addIfThenStartNode(new DiagramNode("x == 5", ErrorType.NONE, List.of()));
+        diagram.addBreakStatementNode();
+        diagram.addIfElseNode();
+        diagram.addIfEndNode();
+        diagram.addNode(new DiagramNode("x = 10 / x", ErrorType.POTENTIAL, errors));
+        diagram.addWhileForEachEndNode();
+        diagram.addEndDiagramNode();
+    }
+
+    private String writeDiagram(DiagramFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        diagram.writeDiagram(out, format);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void createPlantUmlDiagram() throws IOException {
+        addLoopDiagram();
+        Assertions.assertEquals(diagram.getDiagramString(), writeDiagram(DiagramFormat.PLANTUML));
+    }
+
+    @Test
+    public void createMermaidDiagram() throws IOException {
+        addLoopDiagram();
+        String mermaid = writeDiagram(DiagramFormat.MERMAID);
+        Assertions.assertEquals("""
+                flowchart TD
+                    n0(("start"))
+                    n1["test(int x)"]
+                    n2{"x #gt; 0"}
+                    n3{"x == 5"}
+                    n4["x = 10 / x"]
+                    n5>"ArithmeticException : 10 / x"]
+                    n6(("stop"))
+                    n0 --> n1
+                    n1 --> n2
+                    n2 -->|"true"| n3
+                    n3 -->|"false"| n4
+                    n4 -.- n5
+                    n4 --> n2
+                    n2 -->|"false"| n6
+                    n3 -->|"true"| n6
+                    style n4 fill:#FFA500
+                """, mermaid);
+    }
+
+    @Test
+    public void createMermaidIfWithoutElse() throws IOException {
+        diagram.addStartDiagramNode();
+        diagram.addIfThenStartNode(new DiagramNode("x > 0", ErrorType.NONE, List.of()));
+        diagram.addNode(new DiagramNode("x = 0", ErrorType.NONE, List.of()));
+        diagram.addIfEndNode();
+        diagram.addNode(new DiagramNode("return x", ErrorType.NONE, List.of()));
+        diagram.addEndDiagramNode();
+        String mermaid = writeDiagram(DiagramFormat.MERMAID);
+        Assertions.assertTrue(mermaid.contains("n1 -->|\"true\"| n2\n"));
+        Assertions.assertTrue(mermaid.contains("n2 --> n3\n"));
+        Assertions.assertTrue(mermaid.contains("n1 -->|\"false\"| n3\n"));
+    }
+
+    @Test
+    public void createDotDiagram() throws IOException {
+        addLoopDiagram();
+        String dot = writeDiagram(DiagramFormat.DOT);
+        Assertions.assertTrue(dot.startsWith("digraph diagram {\n"));
+        Assertions.assertTrue(dot.contains("n2 [label=\"x > 0\", shape=diamond];"));
+        Assertions.assertTrue(dot.contains("n4 [label=\"x = 10 / x\", style=filled, fillcolor=\"#FFA500\"];"));
+        Assertions.assertTrue(dot.contains("n2 -> n3 [label=\"true\"];"));
+    }
+
+    @Test
+    public void renderCacheTest(@TempDir Path cacheDir) throws IOException {
+        addLoopDiagram();
+        DiagramRenderCache cache = new DiagramRenderCache(cacheDir);
+        Diagram.setRenderCache(cache);
+        try {
+            String first = writeDiagram(DiagramFormat.SVG);
+            String second = writeDiagram(DiagramFormat.SVG);
+            Assertions.assertEquals(first, second);
+            Assertions.assertTrue(first.contains("<svg"));
+            Assertions.assertEquals(1, cache.getHits());
+            Assertions.assertEquals(1, cache.getMisses());
+        } finally {
+            Diagram.setRenderCache(null);
+        }
+    }
+
+    @Test
+    public void endAfterReturnTest() throws IOException {
+        diagram.addStartDiagramNode();
+        diagram.addReturnNode(new DiagramNode("return 1", ErrorType.NONE, null));
+        diagram.addEndDiagramNode();
+        StringWriter writer = new StringWriter();
+        diagram.writeDiagram(writer, DiagramFormat.PLANTUML);
+        Assertions.assertEquals("@startuml\nstart\n:return 1;\nstop\n@enduml", writer.toString());
+    }
 }